@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.text.ParseException;
+
+import org.gstn.hbasetohive.util.FormatDateUtil;
+import org.gstn.schemaexplorer.entity.ValueDecoder;
+import org.gstn.schemaexplorer.util.DataTypeUtil;
+
+/**
+ * Decodes values of a source column as per its data type and, for date
+ * columns, its data format
+ *
+ */
+@SuppressWarnings({ "serial", "rawtypes" })
+public class ColumnValueDecoder implements ValueDecoder {
+
+	private final Class dataType;
+	private final String dataFormat;
+
+	public ColumnValueDecoder(Class dataType, String dataFormat) {
+		this.dataType = dataType;
+		this.dataFormat = dataFormat;
+	}
+
+	@Override
+	public String decode(byte[] bytes, int offset, int length) throws ParseException {
+		String value = DataTypeUtil.parseValue(bytes, offset, length, dataType);
+		if (dataFormat != null) {
+			value = FormatDateUtil.FormatDate(dataFormat, value);
+		}
+		return value;
+	}
+
+}
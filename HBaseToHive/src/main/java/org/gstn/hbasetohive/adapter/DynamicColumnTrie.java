@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.gstn.schemaexplorer.entity.DynamicColumnType;
+
+/**
+ * Resolves dynamic column names to the static prefix or suffix defined in the
+ * source schema. Prefixes of every column family are stored in a trie, and
+ * suffixes in a trie of reversed suffixes, so that the longest static part of
+ * a column name is found in one pass over the column name bytes. As for
+ * column names, the longest prefix is preferred and a suffix is used only if
+ * it is longer than the matching prefix.
+ *
+ */
+@SuppressWarnings({ "serial", "rawtypes" })
+public class DynamicColumnTrie implements Serializable {
+
+	/**
+	 * Static prefix or suffix of dynamic columns, along with data type and
+	 * data format of their values
+	 */
+	public static class StaticPart implements Serializable {
+		final String name;
+		final int length;
+		final Class dataType;
+		final String dataFormat;
+		final DynamicColumnType dynamicColumnType;
+		final ColumnValueDecoder decoder;
+
+		StaticPart(String name, Class dataType, String dataFormat, DynamicColumnType dynamicColumnType) {
+			this.name = name;
+			this.length = Bytes.toBytes(name).length;
+			this.dataType = dataType;
+			this.dataFormat = dataFormat;
+			this.dynamicColumnType = dynamicColumnType;
+			this.decoder = new ColumnValueDecoder(dataType, dataFormat);
+		}
+	}
+
+	private static class Node implements Serializable {
+		// sorted child bytes and corresponding child nodes
+		byte[] keys = new byte[0];
+		Node[] children = new Node[0];
+		StaticPart staticPart;
+
+		Node child(byte key) {
+			int index = Arrays.binarySearch(keys, key);
+			return index >= 0 ? children[index] : null;
+		}
+
+		Node addChild(byte key) {
+			int index = Arrays.binarySearch(keys, key);
+			if (index >= 0) {
+				return children[index];
+			}
+			int insertAt = -index - 1;
+			Node child = new Node();
+
+			byte[] newKeys = new byte[keys.length + 1];
+			Node[] newChildren = new Node[children.length + 1];
+			System.arraycopy(keys, 0, newKeys, 0, insertAt);
+			System.arraycopy(children, 0, newChildren, 0, insertAt);
+			newKeys[insertAt] = key;
+			newChildren[insertAt] = child;
+			System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+			System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+
+			keys = newKeys;
+			children = newChildren;
+			return child;
+		}
+	}
+
+	/**
+	 * Map of column family to root of prefix trie
+	 */
+	private final Map<String, Node> prefixTries = new HashMap<>();
+
+	/**
+	 * Map of column family to root of reversed suffix trie
+	 */
+	private final Map<String, Node> suffixTries = new HashMap<>();
+
+	public void addPrefix(String columnFamily, String prefix, Class dataType, String dataFormat) {
+		Node node = prefixTries.computeIfAbsent(columnFamily, cf -> new Node());
+		for (byte b : Bytes.toBytes(prefix)) {
+			node = node.addChild(b);
+		}
+		node.staticPart = new StaticPart(prefix, dataType, dataFormat, DynamicColumnType.STATIC_PREFIX);
+	}
+
+	public void addSuffix(String columnFamily, String suffix, Class dataType, String dataFormat) {
+		Node node = suffixTries.computeIfAbsent(columnFamily, cf -> new Node());
+		byte[] suffixBytes = Bytes.toBytes(suffix);
+		for (int i = suffixBytes.length - 1; i >= 0; i--) {
+			node = node.addChild(suffixBytes[i]);
+		}
+		node.staticPart = new StaticPart(suffix, dataType, dataFormat, DynamicColumnType.STATIC_SUFFIX);
+	}
+
+	/**
+	 * Finds the longest static part of the column name
+	 * 
+	 * @param columnFamily
+	 *            hbase table columnFamily
+	 * @param qualifier
+	 *            array containing column name bytes
+	 * @param offset
+	 *            offset of column name in the array
+	 * @param length
+	 *            length of column name
+	 * @return longest matching static prefix or suffix, null if none matches
+	 */
+	public StaticPart match(String columnFamily, byte[] qualifier, int offset, int length) {
+		StaticPart longestMatch = null;
+
+		Node node = prefixTries.get(columnFamily);
+		for (int i = offset; node != null; i++) {
+			if (node.staticPart != null) {
+				longestMatch = node.staticPart;
+			}
+			node = i < offset + length ? node.child(qualifier[i]) : null;
+		}
+
+		int longestLength = longestMatch == null ? 0 : longestMatch.length;
+
+		node = suffixTries.get(columnFamily);
+		for (int i = offset + length - 1; node != null; i--) {
+			if (node.staticPart != null && node.staticPart.length > longestLength) {
+				longestMatch = node.staticPart;
+				longestLength = node.staticPart.length;
+			}
+			node = i >= offset ? node.child(qualifier[i]) : null;
+		}
+
+		return longestMatch;
+	}
+
+}
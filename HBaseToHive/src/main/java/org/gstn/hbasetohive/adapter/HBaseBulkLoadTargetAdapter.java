@@ -0,0 +1,462 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.io.hfile.CacheConfig;
+import org.apache.hadoop.hbase.io.hfile.HFileContext;
+import org.apache.hadoop.hbase.io.hfile.HFileContextBuilder;
+import org.apache.hadoop.hbase.mapreduce.LoadIncrementalHFiles;
+import org.apache.hadoop.hbase.regionserver.HStore;
+import org.apache.hadoop.hbase.regionserver.NoSuchColumnFamilyException;
+import org.apache.hadoop.hbase.regionserver.StoreFile;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.spark.TaskContext;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.gstn.hbasetohive.job.pojo.SystemConfig;
+import org.gstn.hbasetohive.pojo.DeletionMetadata;
+import org.gstn.schemaexplorer.entity.DataRecord;
+import org.gstn.schemaexplorer.hbase.HBaseTableExplorer;
+
+/**
+ * This class implements TargetAdapter for loads into Hbase in bulkload
+ * target mode. Instead of writing puts through region servers, it sorts the
+ * cells of the puts by key in memory and, whenever the sorted cells reach the
+ * buffer size, writes them out as sorted runs, one per region of the target
+ * table. Runs are committed by HdfsOutputCommitter.
+ * 
+ * Once all the tasks of the job are done, loadHFiles runs one task per region
+ * which merges the runs of the region into one HFile per column family, the
+ * way HFileOutputFormat2 writes them after a shuffle, and bulk loads the
+ * HFiles into the target table. Of the same cells written more than once,
+ * the one of the latest run is kept, like a later put replaces an earlier
+ * one.
+ *
+ */
+public class HBaseBulkLoadTargetAdapter extends TargetAdapter {
+
+	// directories under the job path having the runs of each region, and the
+	// HFiles merged from them
+	private static final String RUNS_DIR = "runs";
+	private static final String HFILES_DIR = "hfiles";
+
+	private final String targetSchema;
+	private final HBaseTableExplorer hBaseExplorer;
+
+	private final Configuration conf;
+	private final HdfsOutputCommitter committer;
+	private final long maxBufferSize;
+
+	// timestamp of all the cells written by the task
+	private final byte[] timestamp;
+
+	// start keys of the regions of target table, in sorted order
+	private final byte[][] startKeys;
+
+	// column families of target table
+	private final HColumnDescriptor[] families;
+
+	private final TreeSet<KeyValue> buffer = new TreeSet<>(KeyValue.COMPARATOR);
+	private long bufferSize;
+	private int runCount;
+
+	/**
+	 * @param systemConfig
+	 * 			SystemConfig instance having the zookeeper quorum of target 
+	 * 			HBase cluster and the bulk load settings
+	 * @param basePath
+	 * 			HDFS directory path of target HBase cluster under which the 
+	 * 			runs and HFiles of the job are written
+	 * @param targetSchema
+	 * 			Target HBase schema name
+	 * @param hBaseExplorer
+	 * 			HBaseTableIR object having information about user defined schemas
+	 * @throws IOException
+	 */
+	public HBaseBulkLoadTargetAdapter(SystemConfig systemConfig, String basePath, String targetSchema,
+			HBaseTableExplorer hBaseExplorer) throws IOException {
+		this.targetSchema = targetSchema;
+		this.hBaseExplorer = hBaseExplorer;
+
+		conf = getConfiguration(systemConfig.getTargetHBaseZk());
+
+		TableName tableName = TableName.valueOf(hBaseExplorer.getTableName(targetSchema));
+		try (Connection connection = ConnectionFactory.createConnection(conf);
+				RegionLocator regionLocator = connection.getRegionLocator(tableName);
+				Table table = connection.getTable(tableName)) {
+			startKeys = regionLocator.getStartKeys();
+			families = table.getTableDescriptor().getColumnFamilies();
+		}
+
+		committer = new HdfsOutputCommitter(conf, basePath);
+		maxBufferSize = systemConfig.getBulkLoadBufferSizeValue();
+		timestamp = Bytes.toBytes(System.currentTimeMillis());
+	}
+
+	/** 
+	 * This method creates HBase put from input datarecord and adds its cells
+	 * to the sorted cells to be written into runs.
+	 * @see org.gstn.hbasetohive.adapter.TargetAdapter#writeRow(org.gstn.hbasetohive.adapter.TargetModel, org.gstn.schemaexplorer.entity.DataRecord)
+	 */
+	@Override
+	public DataRecord writeRow(TargetModel targetModel, DataRecord ipRecord) throws Exception {
+		String rowKeySeparator = hBaseExplorer.getRowKeySeparator(targetSchema);
+		DataRecord reorderedRecord = targetModel.structureDataRecord(ipRecord);
+
+		Put put = targetModel.createPut(reorderedRecord, rowKeySeparator);
+
+		for (List<Cell> cells : put.getFamilyCellMap().values()) {
+			for (Cell cell : cells) {
+				KeyValue keyValue = KeyValueUtil.ensureKeyValue(cell);
+				if (getFamilyIndex(families, keyValue) < 0) {
+					throw new NoSuchColumnFamilyException("Column family " + Bytes.toString(keyValue.getFamily())
+							+ " does not exist in table " + hBaseExplorer.getTableName(targetSchema));
+				}
+				keyValue.updateLatestStamp(timestamp);
+
+				// like puts, a later value of the same cell replaces the
+				// earlier one
+				if (!buffer.add(keyValue)) {
+					KeyValue replaced = buffer.floor(keyValue);
+					buffer.remove(replaced);
+					buffer.add(keyValue);
+					bufferSize -= replaced.heapSize();
+				}
+				bufferSize += keyValue.heapSize();
+			}
+		}
+		return reorderedRecord;
+	}
+
+	/**
+	 * This method writes the sorted cells into runs once they reach the
+	 * buffer size.
+	 * @see org.gstn.hbasetohive.adapter.TargetAdapter#flush()
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (bufferSize >= maxBufferSize) {
+			writeRuns();
+		}
+	}
+
+	/**
+	 * This method writes the remaining cells into runs and commits the runs
+	 * of the task. It is called only if all the rows of the task are written.
+	 * @see org.gstn.hbasetohive.adapter.TargetAdapter#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		writeRuns();
+		committer.commitTask();
+	}
+
+	/**
+	 * Deletes can not be written into HFiles, so SystemConfig rejects bulkload
+	 * target mode for incremental loads, the only ones having deletes.
+	 */
+	@Override
+	public DeletionMetadata processDeleteRowList(TargetModel targetModel, List<DataRecord> deleteRowList)
+			throws Exception {
+		return new DeletionMetadata(false, false);
+	}
+
+	private void writeRuns() throws IOException {
+		if (buffer.isEmpty()) {
+			return;
+		}
+
+		DataOutputStream run = null;
+		int region = 0;
+		for (KeyValue keyValue : buffer) {
+			// cells are sorted by row key, so regions are visited in order
+			while (region + 1 < startKeys.length && Bytes.compareTo(keyValue.getRowArray(),
+					keyValue.getRowOffset(), keyValue.getRowLength(), startKeys[region + 1], 0,
+					startKeys[region + 1].length) >= 0) {
+				region++;
+				if (run != null) {
+					closeRun(run);
+					run = null;
+				}
+			}
+
+			if (run == null) {
+				run = createRun(region);
+			}
+			// each cell is written as its length followed by its bytes
+			run.writeInt(keyValue.getLength());
+			run.write(keyValue.getBuffer(), keyValue.getOffset(), keyValue.getLength());
+		}
+
+		if (run != null) {
+			closeRun(run);
+		}
+		buffer.clear();
+		bufferSize = 0;
+		runCount++;
+	}
+
+	private DataOutputStream createRun(int region) throws IOException {
+		// runs are named by task and run number, so that names of later
+		// runs sort after those of earlier ones
+		Path path = committer.getFilePath(RUNS_DIR + File.separator + region + File.separator
+				+ String.format("%010d_%010d", TaskContext.getPartitionId(), runCount));
+		return new DataOutputStream(new BufferedOutputStream(FileSystem.get(conf).create(path)));
+	}
+
+	private static void closeRun(DataOutputStream run) throws IOException {
+		// a cell is never empty, so zero length marks the end of the run
+		run.writeInt(0);
+		run.close();
+	}
+
+	private static int getFamilyIndex(HColumnDescriptor[] families, KeyValue keyValue) {
+		for (int i = 0; i < families.length; i++) {
+			byte[] name = families[i].getName();
+			if (Bytes.equals(keyValue.getFamilyArray(), keyValue.getFamilyOffset(), keyValue.getFamilyLength(),
+					name, 0, name.length)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Commits runs of all the tasks of a job, merges the runs of each region
+	 * into HFiles and bulk loads them into the target table. Region servers
+	 * move the HFiles into the regions, HFiles spanning regions which were
+	 * split since they were written are split before being loaded. It is
+	 * called once all the tasks of the job are done.
+	 * 
+	 * @param jsc
+	 *            JavaSparkContext used to merge the runs of the regions in
+	 *            parallel
+	 * @param zkQuorum
+	 *            HBase zookeeper quorum for target HBase table
+	 * @param tableName
+	 *            Name of target HBase table
+	 * @param basePath
+	 *            HDFS directory path under which the runs and HFiles of the
+	 *            job are written
+	 * @throws IOException
+	 */
+	public static void loadHFiles(JavaSparkContext jsc, String zkQuorum, String tableName, String basePath)
+			throws IOException {
+		Configuration conf = getConfiguration(zkQuorum);
+		HdfsOutputCommitter.commitJob(conf, basePath);
+
+		FileSystem fs = FileSystem.get(conf);
+		Path runsPath = new Path(basePath, RUNS_DIR);
+		if (!fs.exists(runsPath)) {
+			// no rows written
+			fs.delete(new Path(basePath), true);
+			return;
+		}
+
+		List<String> regions = new ArrayList<>();
+		for (FileStatus status : fs.listStatus(runsPath)) {
+			regions.add(status.getPath().getName());
+		}
+		jsc.parallelize(regions, regions.size())
+				.foreach(region -> writeHFiles(zkQuorum, tableName, basePath, region));
+
+		Path hFilesPath = new Path(basePath, HFILES_DIR);
+		HdfsOutputCommitter.commitJob(conf, hFilesPath.toString());
+
+		LoadIncrementalHFiles loader;
+		try {
+			loader = new LoadIncrementalHFiles(conf);
+		} catch (Exception e) {
+			throw new IOException("Unable to create bulk loader for table " + tableName, e);
+		}
+
+		TableName table = TableName.valueOf(tableName);
+		try (Connection connection = ConnectionFactory.createConnection(conf);
+				Admin admin = connection.getAdmin();
+				Table hTable = connection.getTable(table);
+				RegionLocator regionLocator = connection.getRegionLocator(table)) {
+			loader.doBulkLoad(hFilesPath, admin, hTable, regionLocator);
+		}
+		fs.delete(new Path(basePath), true);
+	}
+
+	/**
+	 * Merges the runs of a region into one HFile per column family. Of the
+	 * same cells, only the one of the latest run is written.
+	 */
+	private static void writeHFiles(String zkQuorum, String tableName, String basePath, String region)
+			throws IOException {
+		Configuration conf = getConfiguration(zkQuorum);
+		// HFiles are only written, so no block cache is needed for them
+		conf.setFloat(HConstants.HFILE_BLOCK_CACHE_SIZE_KEY, 0.0f);
+
+		HColumnDescriptor[] families;
+		try (Connection connection = ConnectionFactory.createConnection(conf);
+				Table table = connection.getTable(TableName.valueOf(tableName))) {
+			families = table.getTableDescriptor().getColumnFamilies();
+		}
+
+		FileSystem fs = FileSystem.get(conf);
+		FileStatus[] runFiles = fs.listStatus(new Path(new Path(basePath, RUNS_DIR), region));
+		Arrays.sort(runFiles, (x, y) -> x.getPath().getName().compareTo(y.getPath().getName()));
+
+		HdfsOutputCommitter committer = new HdfsOutputCommitter(conf, basePath + File.separator + HFILES_DIR);
+		StoreFile.Writer[] writers = new StoreFile.Writer[families.length];
+
+		// runs ordered by their current cell, and of the same cells, by the
+		// latest run first
+		PriorityQueue<RunReader> runs = new PriorityQueue<>(Math.max(runFiles.length, 1), (x, y) -> {
+			int result = KeyValue.COMPARATOR.compare(x.current, y.current);
+			return result != 0 ? result : Integer.compare(y.index, x.index);
+		});
+		try {
+			for (int i = 0; i < runFiles.length; i++) {
+				RunReader run = new RunReader(fs, runFiles[i].getPath(), i);
+				if (run.next()) {
+					runs.add(run);
+				} else {
+					run.close();
+				}
+			}
+
+			KeyValue previous = null;
+			while (!runs.isEmpty()) {
+				RunReader run = runs.poll();
+				KeyValue keyValue = run.current;
+				if (previous == null || KeyValue.COMPARATOR.compare(previous, keyValue) != 0) {
+					int family = getFamilyIndex(families, keyValue);
+					if (writers[family] == null) {
+						writers[family] = createWriter(conf, committer, families[family]);
+					}
+					writers[family].append(keyValue);
+					previous = keyValue;
+				}
+
+				if (run.next()) {
+					runs.add(run);
+				} else {
+					run.close();
+				}
+			}
+		} finally {
+			for (RunReader run : runs) {
+				run.close();
+			}
+		}
+
+		for (StoreFile.Writer writer : writers) {
+			if (writer != null) {
+				closeWriter(writer);
+			}
+		}
+		committer.commitTask();
+	}
+
+	private static StoreFile.Writer createWriter(Configuration conf, HdfsOutputCommitter committer,
+			HColumnDescriptor family) throws IOException {
+		// HFiles are loaded from directories named by their column family
+		Path path = committer.getFilePath(
+				family.getNameAsString() + File.separator + UUID.randomUUID().toString().replace("-", ""));
+
+		HFileContext fileContext = new HFileContextBuilder().withCompression(family.getCompressionType())
+				.withChecksumType(HStore.getChecksumType(conf))
+				.withBytesPerCheckSum(HStore.getBytesPerChecksum(conf)).withBlockSize(family.getBlocksize())
+				.withDataBlockEncoding(family.getDataBlockEncoding()).build();
+
+		return new StoreFile.WriterBuilder(conf, new CacheConfig(conf), FileSystem.get(conf)).withFilePath(path)
+				.withComparator(KeyValue.COMPARATOR).withBloomType(family.getBloomFilterType())
+				.withFileContext(fileContext).build();
+	}
+
+	private static void closeWriter(StoreFile.Writer writer) throws IOException {
+		writer.appendFileInfo(StoreFile.BULKLOAD_TIME_KEY, Bytes.toBytes(System.currentTimeMillis()));
+		writer.appendFileInfo(StoreFile.BULKLOAD_TASK_KEY,
+				Bytes.toBytes(String.valueOf(TaskContext.getPartitionId())));
+		writer.appendFileInfo(StoreFile.MAJOR_COMPACTION_KEY, Bytes.toBytes(true));
+		writer.appendFileInfo(StoreFile.EXCLUDE_FROM_MINOR_COMPACTION_KEY, Bytes.toBytes(false));
+		writer.appendTrackedTimestampsToMetadata();
+		writer.close();
+	}
+
+	private static Configuration getConfiguration(String zkQuorum) {
+		Configuration conf = HBaseConfiguration.create();
+		conf.set("hbase.zookeeper.quorum", zkQuorum);
+		return conf;
+	}
+
+	/**
+	 * Reads the cells of a run in order.
+	 */
+	private static class RunReader implements Closeable {
+
+		private final DataInputStream in;
+		private final int index;
+		private KeyValue current;
+
+		RunReader(FileSystem fs, Path path, int index) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(fs.open(path)));
+			this.index = index;
+		}
+
+		boolean next() throws IOException {
+			int length = in.readInt();
+			if (length == 0) {
+				current = null;
+				return false;
+			}
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			current = new KeyValue(bytes);
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+}
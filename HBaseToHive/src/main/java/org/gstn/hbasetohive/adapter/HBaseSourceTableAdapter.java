@@ -17,7 +17,6 @@ package org.gstn.hbasetohive.adapter;
 
 import java.io.IOException;
 import java.io.Serializable;
-import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -25,27 +24,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
-import java.util.Set;
+import java.util.NavigableSet;
 import java.util.TreeMap;
 
 import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellScanner;
 import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.KeyValue.Type;
-import org.apache.hadoop.hbase.TableName;
-import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Result;
-import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.client.Table;
-import org.apache.hadoop.hbase.filter.BinaryComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.FamilyFilter;
-import org.apache.hadoop.hbase.filter.Filter;
-import org.apache.hadoop.hbase.filter.FilterList;
-import org.apache.hadoop.hbase.filter.FilterList.Operator;
-import org.apache.hadoop.hbase.filter.QualifierFilter;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.gstn.hbasetohive.entity.ReconEntity;
@@ -58,8 +46,9 @@ import org.gstn.hbasetohive.pojo.DeleteFamilyMarkerInfo;
 import org.gstn.hbasetohive.pojo.DeletionMetadata;
 import org.gstn.hbasetohive.pojo.MutationsForAGroup;
 import org.gstn.hbasetohive.pojo.MutationsInfo;
+import org.gstn.hbasetohive.pojo.PendingLookup;
 import org.gstn.hbasetohive.pojo.ProcessMutationResult;
-import org.gstn.hbasetohive.util.HBaseConnectionManager;
+import org.gstn.hbasetohive.util.MultiGetExecutor;
 import org.gstn.schemaexplorer.entity.DataRecord;
 import org.gstn.schemaexplorer.entity.DynamicColumnType;
 import org.gstn.schemaexplorer.entity.Tuple;
@@ -68,8 +57,6 @@ import org.gstn.schemaexplorer.exception.InvalidJSONException;
 import org.gstn.schemaexplorer.exception.InvalidRecordTypeExcepton;
 import org.gstn.schemaexplorer.hbase.HBaseColumn;
 import org.gstn.schemaexplorer.hbase.HBaseTableExplorer;
-import org.gstn.schemaexplorer.sql.ConditionTree;
-import org.gstn.schemaexplorer.sql.ConditionTreeManager;
 import org.gstn.schemaexplorer.sql.SqlBean;
 import org.gstn.schemaexplorer.util.DataTypeUtil;
 import org.slf4j.Logger;
@@ -90,6 +77,13 @@ public class HBaseSourceTableAdapter implements Serializable {
 	private TargetModel targetModel;
 	private String SKIP = "SKIP";
 
+	// static column index projected on the columns needed by the query
+	private transient StaticColumnIndex projectedColumnIndex;
+	private transient SqlBean projectedFor;
+
+	// maximum target rows created from the json of a source row
+	private long jsonRowLimit = Long.MAX_VALUE;
+
 	private Logger log = LoggerFactory.getLogger(this.getClass().getCanonicalName());
 	
 	/**
@@ -108,8 +102,8 @@ public class HBaseSourceTableAdapter implements Serializable {
 	}
 
 	public ReconEntity processResult(Result result, byte[] rowKey, TargetAdapter targetAdapter, SqlBean sqlQuery,
-			HBaseColumn jsonColumnField, Map<String, List<String>> reconColumnOpMap, SystemConfig systemConfig,
-			Scan orgScan, long minTimestamp, boolean incremental) throws Exception {
+			HBaseColumn jsonColumnField, Map<String, List<String>> reconColumnOpMap, Scan orgScan, long minTimestamp,
+			boolean incremental, List<PendingLookup> pendingLookups) throws Exception {
 
 		ReconEntity reconEntity = new ReconEntity();
 
@@ -118,24 +112,24 @@ public class HBaseSourceTableAdapter implements Serializable {
 			return reconEntity;
 		}
 
-		NavigableMap<byte[], NavigableMap<byte[], byte[]>> resultData = result.getNoVersionMap();
-
-		// do nothing - if the input result has no data
-		if (null == resultData || resultData.isEmpty()) {
-			return reconEntity;
-		}
-
 		if (!incremental) {
-			return processResultData(resultData, rowKey, targetAdapter, sqlQuery, jsonColumnField, reconColumnOpMap);
+			return processResultCells(result.rawCells(), rowKey, targetAdapter, sqlQuery, jsonColumnField,
+					reconColumnOpMap);
 		} else {
 			return processRawResult(result, rowKey, targetAdapter, sqlQuery, jsonColumnField, reconColumnOpMap,
-					systemConfig, orgScan, minTimestamp);
+					orgScan, minTimestamp, pendingLookups);
 		}
 	}
 
+	/**
+	 * Processes a raw scan result of incremental load. Rows which need
+	 * columns missing from the raw result, or which need to be processed
+	 * entirely again, are added to pendingLookups and are processed once the
+	 * rows are fetched in batch by processPendingLookups.
+	 */
 	public ReconEntity processRawResult(Result result, byte[] rowKey, TargetAdapter targetAdapter, SqlBean sqlQuery,
-			HBaseColumn jsonColumnField, Map<String, List<String>> reconColumnOpMap, SystemConfig systemConfig,
-			Scan orgScan, long minTimestamp) throws Exception {
+			HBaseColumn jsonColumnField, Map<String, List<String>> reconColumnOpMap, Scan orgScan, long minTimestamp,
+			List<PendingLookup> pendingLookups) throws Exception {
 
 		ReconEntity reconEntity = new ReconEntity();
 
@@ -156,10 +150,11 @@ public class HBaseSourceTableAdapter implements Serializable {
 		boolean deletionAddedForAllRows = false;
 
 		// check if the hbase scan result has deleteFamily marker for selected
-		// families
-		DeleteFamilyMarkerInfo deleteFamilyMarkerInfo = processDeleteFamilyMarkers(result, sqlQuery, minTimestamp);
+		// families, and group the other mutations in the same pass
+		MutationsInfo mutationsInfo = filterAndGroupMutations(result, sqlQuery, minTimestamp);
+		DeleteFamilyMarkerInfo deleteFamilyMarkerInfo = mutationsInfo.getDeleteFamilyMarkerInfo();
 
-		if(log.isDebugEnabled())log.debug("after processDeleteFamilyMarkers");
+		if(log.isDebugEnabled())log.debug("after filterAndGroupMutations");
 		
 		boolean reprocess = false;
 		List<DataRecord> deleteRowList = new ArrayList<>();
@@ -173,11 +168,10 @@ public class HBaseSourceTableAdapter implements Serializable {
 
 			if (!deleteFamilyMarkerInfo.isDeleteFamilyMarkerFoundForAll()) {
 				// we need to process the entire source row again. Create a new
-				// scan using the original scan.
+				// get using the original scan.
 				reprocess = true;
-				reconEntity = reprocessThisRow(rowKey, targetAdapter, sqlQuery, jsonColumnField, reconColumnOpMap,
-						orgScan, systemConfig);
-
+				pendingLookups.add(new PendingLookup(rowKey, getGetForThisRow(orgScan, rowKey), true, null,
+						deleteRowList));
 			}
 		}
 
@@ -185,8 +179,7 @@ public class HBaseSourceTableAdapter implements Serializable {
 			if(log.isDebugEnabled())log.debug("before processDeleteFamilyMarkers");
 			
 			ProcessMutationResult processMutationResult = processMutationsOtherThanDeleteFamily(result,
-					deleteFamilyMarkerInfo, sqlQuery, deletionAddedForAllRows, rowKeyRecord, deleteRowList, orgScan,
-					minTimestamp, systemConfig);
+					mutationsInfo, sqlQuery, deletionAddedForAllRows, rowKeyRecord, deleteRowList, orgScan);
 			
 			if(log.isDebugEnabled())log.debug("after processMutationsOtherThanDeleteFamily");
 			
@@ -202,9 +195,15 @@ public class HBaseSourceTableAdapter implements Serializable {
 					
 					deletionAddedForAllRows = true;
 				}
-				if(log.isDebugEnabled())log.debug("before reprocessThisRow");
-				reconEntity = reprocessThisRow(rowKey, targetAdapter, sqlQuery, jsonColumnField, reconColumnOpMap,
-						orgScan, systemConfig);
+				if(log.isDebugEnabled())log.debug("adding row for reprocessing");
+				reprocess = true;
+				pendingLookups.add(new PendingLookup(rowKey, getGetForThisRow(orgScan, rowKey), true, null,
+						deleteRowList));
+			} else if (processMutationResult.getMissingColumnsGet() != null) {
+				if(log.isDebugEnabled())log.debug("adding row for fetching missing columns");
+				reprocess = true;
+				pendingLookups.add(new PendingLookup(rowKey, processMutationResult.getMissingColumnsGet(), false,
+						processMutationResult.getNoVersionMap(), deleteRowList));
 			} else {
 				if(log.isDebugEnabled())log.debug("calling processResultData");
 				reconEntity = processResultData(processMutationResult.getNoVersionMap(), rowKey, targetAdapter,
@@ -212,26 +211,26 @@ public class HBaseSourceTableAdapter implements Serializable {
 			}
 		}
 
+		// deletions for rows pending lookup are processed along with the row
+		if (reprocess) {
+			return reconEntity;
+		}
+
 		DeletionMetadata deletionMetadata = targetAdapter.processDeleteRowList(targetModel, deleteRowList);
 		reconEntity.addDeletionMetadata(deletionMetadata);
 
 		return reconEntity;
 	}
 
-	private ProcessMutationResult processMutationsOtherThanDeleteFamily(Result result,
-			DeleteFamilyMarkerInfo deleteFamilyMarkerInfo, SqlBean sqlQuery, boolean deletionAddedForAllRows,
-			DataRecord rowKeyRecord, List<DataRecord> deleteRowList, Scan orgScan, long minTimestamp,
-			SystemConfig systemConfig)
-			throws IOException, ParseException, InvalidColumnException, InvalidRecordTypeExcepton {
+	private ProcessMutationResult processMutationsOtherThanDeleteFamily(Result result, MutationsInfo mutationsInfo,
+			SqlBean sqlQuery, boolean deletionAddedForAllRows, DataRecord rowKeyRecord,
+			List<DataRecord> deleteRowList, Scan orgScan)
+			throws IOException, InvalidColumnException, InvalidRecordTypeExcepton {
 
 		if(log.isDebugEnabled())log.debug("Entering processMutationsOtherThanDeleteFamily");
 		
-		// map of groupid (null for static or value of <X> for dynamic) against
-		// mutations for that group
-		MutationsInfo mutationsInfo = filterAndGroupMutations(result, deleteFamilyMarkerInfo, sqlQuery, minTimestamp);
+		DeleteFamilyMarkerInfo deleteFamilyMarkerInfo = mutationsInfo.getDeleteFamilyMarkerInfo();
 
-		if(log.isDebugEnabled())log.debug("after filterAndGroupMutations");
-		
 		// check if there is atleast one mutation was found
 		if (mutationsInfo.getMutations().isEmpty()) {
 			if(log.isDebugEnabled())log.debug("mutationsInfo.getMutations().isEmpty()");
@@ -257,30 +256,26 @@ public class HBaseSourceTableAdapter implements Serializable {
 			if(log.isDebugEnabled())log.debug("after addDeleteionsForMutations");
 		}
 
-		Result missingColumnsResult = null;
+		Get missingColumnsGet = null;
 		// If deleteFamilyMarkerFoundForAll, we will have all the latest
 		// informaton in mutations,
 		// we don't need to look for missing columns as they would be missing
 		// from source row as well.
 		if (!deleteFamilyMarkerInfo.isDeleteFamilyMarkerFoundForAll()) {
-			if(log.isDebugEnabled())log.debug("before getMissingColumns");
-			missingColumnsResult = getMissingColumns(mutationsInfo, orgScan, sqlQuery, result.getRow(), systemConfig);
-			if(log.isDebugEnabled())log.debug("after getMissingColumns");
+			if(log.isDebugEnabled())log.debug("before getGetForMissingColumns");
+			missingColumnsGet = getGetForMissingColumns(mutationsInfo, orgScan, sqlQuery, result.getRow());
+			if(log.isDebugEnabled())log.debug("after getGetForMissingColumns");
 		}
 
-		NavigableMap<byte[], NavigableMap<byte[], byte[]>> noVersionMap;
-		if (missingColumnsResult != null && !missingColumnsResult.isEmpty()) {
-			noVersionMap = missingColumnsResult.getNoVersionMap();
-		} else {
-			noVersionMap = new TreeMap<>(Bytes.BYTES_COMPARATOR);
-		}
+		NavigableMap<byte[], NavigableMap<byte[], byte[]>> noVersionMap = new TreeMap<>(Bytes.BYTES_COMPARATOR);
 
-		// add cells from put mutations into missingColumnsResult
+		// add cells from put mutations, missing columns are merged with
+		// these once they are fetched
 		if(log.isDebugEnabled())log.debug("before addColumnsFromPutMutations");
 		addColumnsFromPutMutations(noVersionMap, mutationsInfo);
 		if(log.isDebugEnabled())log.debug("after addColumnsFromPutMutations");
 
-		return new ProcessMutationResult(noVersionMap, false);
+		return new ProcessMutationResult(noVersionMap, missingColumnsGet);
 	}
 
 	private void addColumnsFromPutMutations(NavigableMap<byte[], NavigableMap<byte[], byte[]>> noVersionMap,
@@ -318,87 +313,71 @@ public class HBaseSourceTableAdapter implements Serializable {
 		columns.put(Bytes.toBytes(colName), value);
 	}
 
-	private Result getMissingColumns(MutationsInfo mutationsInfo, Scan orgScan, SqlBean sqlQuery, byte[] rowKey,
-			SystemConfig systemConfig) throws IOException {
+	private Get getGetForMissingColumns(MutationsInfo mutationsInfo, Scan orgScan, SqlBean sqlQuery, byte[] rowKey)
+			throws IOException {
 
-		if(log.isDebugEnabled())log.debug("Entering getMissingColumns for row key: "+Bytes.toString(rowKey));
+		if(log.isDebugEnabled())log.debug("Entering getGetForMissingColumns for row key: "+Bytes.toString(rowKey));
 		
-		List<Filter> filterList = new ArrayList<>();
+		Get missingColumnsGet = new Get(rowKey);
 
 		for (Entry<String, MutationsForAGroup> entry : mutationsInfo.getMutations().entrySet()) {
-			filterList.addAll(getFiltersForMissingColumnsInAGroup(entry, sqlQuery));
+			addMissingColumnsInAGroup(entry, sqlQuery, missingColumnsGet);
 		}
 
-		// If where condition has static columns, add column filters for them
+		// If where condition has static columns, add them to the get
 		if (sqlQuery.isStaticColumnsInWhere()) {
 			Map<String, Map<String, HBaseColumn>> columnsInGroup = sqlQuery.getCategorisedColumns()
 					.getStaticColumnsInWhereNotInSelect();
 			MutationsForAGroup staticMutations = mutationsInfo.getMutations().get(null);
-			findMissingColumnsForGroup(columnsInGroup, staticMutations, filterList, null);
+			findMissingColumnsForGroup(columnsInGroup, staticMutations, missingColumnsGet, null);
 		}
 
-		if (!filterList.isEmpty()) {
-			Scan missingColumnsScan = getScanForMissingColumns(orgScan, rowKey, filterList);
-
-			if(log.isDebugEnabled())log.debug("missingColumnsScan.getStartRow(): "+Bytes.toString(missingColumnsScan.getStartRow())+" and first byte is "+missingColumnsScan.getStartRow()[0]);
-			
-			ResultScanner resultScanner = fireScan(missingColumnsScan, systemConfig);
-
-			if (resultScanner != null) {
-
-				Result missingResult = resultScanner.next();
-				if (log.isDebugEnabled()) log.debug("missingResult: " + missingResult);
-				if (missingResult != null && !missingResult.isEmpty()) {
-					return missingResult;
-				}
-
-			}
+		if (!missingColumnsGet.hasFamilies()) {
+			return null;
 		}
 
-		return Result.EMPTY_RESULT;
+		missingColumnsGet.setTimeRange(0, orgScan.getTimeRange().getMax());
+
+		return missingColumnsGet;
 	}
 
-	private List<Filter> getFiltersForMissingColumnsInAGroup(Entry<String, MutationsForAGroup> entry,
-			SqlBean sqlQuery) {
+	private void addMissingColumnsInAGroup(Entry<String, MutationsForAGroup> entry, SqlBean sqlQuery,
+			Get missingColumnsGet) {
 		String group = entry.getKey();
 		MutationsForAGroup mutations = entry.getValue();
 
-		List<Filter> missingColumnfilters = new ArrayList<>();
-
 		if (group == null) {
 			// static group
 			Map<String, Map<String, HBaseColumn>> columnsInGroup = sqlQuery.getCategorisedColumns()
 					.getSelectedStaticColumns();
-			findMissingColumnsForGroup(columnsInGroup, mutations, missingColumnfilters, group);
+			findMissingColumnsForGroup(columnsInGroup, mutations, missingColumnsGet, group);
 
 		} else {
 			// dynamic group
 			Map<String, Map<String, HBaseColumn>> columnsInGroup = sqlQuery.getCategorisedColumns()
 					.getSelectedDynamicColumns();
-			findMissingColumnsForGroup(columnsInGroup, mutations, missingColumnfilters, group);
+			findMissingColumnsForGroup(columnsInGroup, mutations, missingColumnsGet, group);
 
 			columnsInGroup = sqlQuery.getCategorisedColumns().getDynamicColumnsInWhereNotInSelect();
-			findMissingColumnsForGroup(columnsInGroup, mutations, missingColumnfilters, group);
+			findMissingColumnsForGroup(columnsInGroup, mutations, missingColumnsGet, group);
 
 		}
-
-		return missingColumnfilters;
 	}
 
 	private void findMissingColumnsForGroup(Map<String, Map<String, HBaseColumn>> columnsInGroup,
-			MutationsForAGroup mutations, List<Filter> missingColumnFilters, String group) {
+			MutationsForAGroup mutations, Get missingColumnsGet, String group) {
 		for (String cf : columnsInGroup.keySet()) {
 			Map<String, HBaseColumn> columns = columnsInGroup.get(cf);
 			for (String cn : columns.keySet()) {
 				if (mutations == null || !mutations.isMutationPresentForColumn(cf, cn)) {
-					addColumnIntoFilterList(missingColumnFilters, columns.get(cn), group);
+					addColumnIntoGet(missingColumnsGet, columns.get(cn), group);
 				}
 			}
 		}
 
 	}
 
-	private void addColumnIntoFilterList(List<Filter> missingColumnFilters, HBaseColumn hbaseColumn, String group) {
+	private void addColumnIntoGet(Get missingColumnsGet, HBaseColumn hbaseColumn, String group) {
 
 		String colName = null;
 		if (hbaseColumn.isDynamicColumn()) {
@@ -407,44 +386,11 @@ public class HBaseSourceTableAdapter implements Serializable {
 		} else {
 			colName = hbaseColumn.getColumnName();
 		}
-		Filter qualifierFilter = new QualifierFilter(CompareFilter.CompareOp.EQUAL,
-				new BinaryComparator(Bytes.toBytes(colName)));
-
-		Filter familyFilter = new FamilyFilter(CompareFilter.CompareOp.EQUAL,
-				new BinaryComparator(Bytes.toBytes(hbaseColumn.getColumnFamily())));
 
-		Filter columnFilter = new FilterList(FilterList.Operator.MUST_PASS_ALL, qualifierFilter, familyFilter);
-
-		missingColumnFilters.add(columnFilter);
+		missingColumnsGet.addColumn(Bytes.toBytes(hbaseColumn.getColumnFamily()), Bytes.toBytes(colName));
 
 	}
 
-	private Scan getScanForMissingColumns(Scan orgScan, byte[] rowKey, List<Filter> columnFilters) throws IOException {
-		Scan missingColumnsScan = new Scan();
-		
-		//we are trying to fetch specific row from hbase so setting that row key as prefix so that start and stop row will be set automatically in the scan
-		//and also set caching to 1
-		missingColumnsScan.setRowPrefixFilter(rowKey);
-		missingColumnsScan.setCaching(1);
-		
-		Filter rowFilter = new RowFilter(CompareOp.EQUAL, new BinaryComparator(rowKey));
-		Filter columnFilterList = null;
-		if(columnFilters!=null && !columnFilters.isEmpty()){
-			columnFilterList = new FilterList(Operator.MUST_PASS_ONE, columnFilters);
-		}
-		
-		if(columnFilterList!=null){
-			FilterList filters = new FilterList(Operator.MUST_PASS_ALL, rowFilter, columnFilterList);
-			missingColumnsScan.setFilter(filters);
-		}else{
-			missingColumnsScan.setFilter(rowFilter);
-		}
-		
-		missingColumnsScan.setTimeRange(0, orgScan.getTimeRange().getMax());
-
-		return missingColumnsScan;
-	}
-
 	private void addDeleteionsForMutations(MutationsInfo mutationsInfo, DataRecord rowKeyRecord,
 			List<DataRecord> deleteRowList) throws InvalidRecordTypeExcepton, InvalidColumnException {
 		Map<String, MutationsForAGroup> mutations = mutationsInfo.getMutations();
@@ -474,39 +420,86 @@ public class HBaseSourceTableAdapter implements Serializable {
 		deleteRowList.add(newRecord);
 	}
 
-	private MutationsInfo filterAndGroupMutations(Result result, DeleteFamilyMarkerInfo deleteFamilyMarkerInfo,
-			SqlBean sqlQuery, long minTimestamp) throws ParseException, InvalidColumnException {
-		NavigableMap<byte[], NavigableMap<byte[], byte[]>> resultData = result.getNoVersionMap();
+	/**
+	 * Walks the sorted cells of a raw scan result once. DeleteFamily markers
+	 * of a family sort before its columns, so the marker of every selected
+	 * family is known before mutations of that family are filtered. Latest
+	 * mutation of every required column is grouped by the value of its
+	 * dynamic part (null for static columns).
+	 */
+	private MutationsInfo filterAndGroupMutations(Result result, SqlBean sqlQuery, long minTimestamp)
+			throws IOException, InvalidColumnException {
 		Map<String, MutationsForAGroup> mutations = new HashMap<>();
 
 		boolean mutationForStaticPresent = false;
 		boolean mutationForDynamicPresent = false;
 
-		if (null != resultData && !resultData.isEmpty()) {
-			for (byte[] cf_bytes : resultData.keySet()) {
-				String cf = Bytes.toString(cf_bytes);
-				NavigableMap<byte[], byte[]> cn_map = resultData.get(cf_bytes);
-				for (byte[] cn_bytes : cn_map.keySet()) {
-					Cell cell = result.getColumnLatestCell(cf_bytes, cn_bytes);
-
-					if (isTimestampValid(cell, cf, minTimestamp, deleteFamilyMarkerInfo)) {
-						String cn = Bytes.toString(cn_bytes);
-						Tuple tuple = getTupleForMutation(cell, cf, cn, sqlQuery);
-
-						if (tuple != null) {
-							addTupleIntoGroup(tuple, cell, mutations);
-							if (!tuple.isDynamicColumn()) {
-								mutationForStaticPresent = true;
-							} else {
-								mutationForDynamicPresent = true;
-							}
-						}
-					}
+		boolean deleteFamilyMarkerFound = false, deleteFamilyMarkerFoundForAll = false;
+		Map<String, Long> deleteFamilyTimestamp = new HashMap<>();
+
+		Map<String, Map<String, HBaseColumn>> requiredColumns = sqlQuery.getCategorisedColumns()
+				.getAllRequiredColumns();
+		StaticColumnIndex staticColumnIndex = hBaseSourceTableModel.getStaticColumnIndex();
+
+		// state of the column family being walked
+		Cell familyCell = null;
+		int familyIndex = -1;
+		String cf = null;
+		boolean familyRequired = false;
+		Long deleteFamilyMarkerTs = null;
+
+		Cell previousCell = null;
+
+		CellScanner cellScanner = result.cellScanner();
+		while (cellScanner.advance()) {
+			Cell cell = cellScanner.current();
+
+			if (familyCell == null || !CellUtil.matchingFamily(familyCell, cell)) {
+				familyCell = cell;
+				familyIndex = staticColumnIndex.findColumnFamily(cell.getFamilyArray(), cell.getFamilyOffset(),
+						cell.getFamilyLength());
+				cf = familyIndex >= 0 ? staticColumnIndex.getColumnFamily(familyIndex)
+						: Bytes.toString(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength());
+				// mutations of other families are never required
+				familyRequired = requiredColumns.containsKey(cf);
+				deleteFamilyMarkerTs = null;
+
+				// deleteFamily marker cell doesn't have the column name, so
+				// the latest cell of a family is checked for it
+				if (familyRequired && cell.getQualifierLength() == 0 && cell.getTimestamp() >= minTimestamp
+						&& (CellUtil.isDeleteFamily(cell) || CellUtil.isDeleteFamilyVersion(cell))) {
+					deleteFamilyMarkerFound = true;
+					deleteFamilyMarkerTs = cell.getTimestamp();
+					deleteFamilyTimestamp.put(cf, deleteFamilyMarkerTs);
+				}
+			}
+
+			// cells of a column are sorted latest first, only the latest
+			// mutation of a column is considered
+			if (previousCell != null && CellUtil.matchingColumn(previousCell, cell)) {
+				continue;
+			}
+			previousCell = cell;
+
+			if (!familyRequired || !isTimestampValid(cell, deleteFamilyMarkerTs, minTimestamp)) {
+				continue;
+			}
+
+			Tuple tuple = getTupleForMutation(cell, familyIndex, cf, requiredColumns);
+
+			if (tuple != null) {
+				addTupleIntoGroup(tuple, cell, mutations);
+				if (!tuple.isDynamicColumn()) {
+					mutationForStaticPresent = true;
+				} else {
+					mutationForDynamicPresent = true;
 				}
 			}
 		}
 
-		return new MutationsInfo(mutations, mutationForStaticPresent, mutationForDynamicPresent);
+		return new MutationsInfo(mutations, mutationForStaticPresent, mutationForDynamicPresent,
+				new DeleteFamilyMarkerInfo(deleteFamilyMarkerFound, deleteFamilyMarkerFoundForAll,
+						deleteFamilyTimestamp));
 	}
 
 	private void addTupleIntoGroup(Tuple tuple, Cell cell, Map<String, MutationsForAGroup> mutations)
@@ -534,7 +527,8 @@ public class HBaseSourceTableAdapter implements Serializable {
 
 	}
 
-	private Tuple getTupleForMutation(Cell cell, String cf, String cn, SqlBean sqlQuery) throws ParseException {
+	private Tuple getTupleForMutation(Cell cell, int familyIndex, String cf,
+			Map<String, Map<String, HBaseColumn>> requiredColumns) {
 		Tuple tuple = null;
 		boolean valid = false;
 
@@ -545,12 +539,10 @@ public class HBaseSourceTableAdapter implements Serializable {
 		}
 
 		if (valid) {
-			tuple = parseMutation(cell, cf, cn);
+			tuple = parseMutation(cell, familyIndex, cf);
 			if (tuple != null) {
 				// check if the column name is present in selected columns/where
 				// clause columns
-				Map<String, Map<String, HBaseColumn>> requiredColumns = sqlQuery.getCategorisedColumns()
-						.getAllRequiredColumns();
 				if (!isRequiredColumn(tuple, requiredColumns)) {
 					return null;
 				}
@@ -570,17 +562,19 @@ public class HBaseSourceTableAdapter implements Serializable {
 		return false;
 	}
 
-	private Tuple parseMutation(Cell cell, String cf, String cn) throws ParseException {
-		if (hBaseSourceTableModel.isStaticColumn(cf, cn)) {
-			Class dataType = hBaseSourceTableModel.getStaticColumnDataType(cf, cn);
-			byte[] valueBytes = CellUtil.cloneValue(cell);
-			String value = null;
-			if (valueBytes != null) {
-				value = hBaseSourceTableModel.getStaticColumnValue(cf, cn, valueBytes);
-			}
-			return Tuple.staticColumn(cf, cn, value, dataType);
+	private Tuple parseMutation(Cell cell, int familyIndex, String cf) {
+		StaticColumnIndex.StaticColumn staticColumn = null;
+		if (familyIndex >= 0) {
+			staticColumn = hBaseSourceTableModel.getStaticColumnIndex().findStaticColumn(familyIndex,
+					cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+		}
+
+		if (staticColumn != null) {
+			return hBaseSourceTableModel.parseStaticColumn(staticColumn, cell.getValueArray(), cell.getValueOffset(),
+					cell.getValueLength());
 		} else {
-			return hBaseSourceTableModel.parseDynamicColumn(cf, cn, CellUtil.cloneValue(cell));
+			return hBaseSourceTableModel.parseDynamicColumn(cf, cell.getQualifierArray(), cell.getQualifierOffset(),
+					cell.getQualifierLength(), cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
 		}
 	}
 
@@ -589,10 +583,7 @@ public class HBaseSourceTableAdapter implements Serializable {
 	 * mutations of that family which have timestamp greater than the
 	 * deleteFamily marker timestamp
 	 */
-	private boolean isTimestampValid(Cell cell, String cf, long minTimestamp,
-			DeleteFamilyMarkerInfo deleteFamilyMarkerInfo) {
-		Long deleteFamilyMarkerTs = deleteFamilyMarkerInfo.getDeleteFamilyTimestamp(cf);
-
+	private boolean isTimestampValid(Cell cell, Long deleteFamilyMarkerTs, long minTimestamp) {
 		if (deleteFamilyMarkerTs == null || cell.getTimestamp() > deleteFamilyMarkerTs) {
 			// To allow delete markers corresponding to deleteColumn mutations
 			// even if they have timestamp earlier to minTimestamp for this job
@@ -603,118 +594,95 @@ public class HBaseSourceTableAdapter implements Serializable {
 		return false;
 	}
 
-	private ReconEntity reprocessThisRow(byte[] rowKey, TargetAdapter targetAdapter, SqlBean sqlQuery,
-			HBaseColumn jsonColumnField, Map<String, List<String>> reconColumnOpMap, Scan orgScan,
-			SystemConfig systemConfig) throws Exception {
-		if(log.isDebugEnabled())log.debug("Entering reprocessThisRow for row key: "+Bytes.toString(rowKey));
+	/**
+	 * Fetches the rows added to pendingLookups using batched multi gets and
+	 * processes them along with their deletions
+	 */
+	private ReconEntity processPendingLookups(List<PendingLookup> pendingLookups, MultiGetExecutor multiGetExecutor,
+			TargetAdapter targetAdapter, SqlBean sqlQuery, HBaseColumn jsonColumnField,
+			Map<String, List<String>> reconColumnOpMap) throws Exception {
+
 		ReconEntity reconEntity = new ReconEntity();
-		Scan newScan = getNewScanForThisRow(orgScan, rowKey);
-		if(log.isDebugEnabled())log.debug("After getNewScanForThisRow call ");
-		// fire the newScan and fetch first result, as we have added row filter
-		// there can be at max one result
-		ResultScanner newResultScanner = fireScan(newScan, systemConfig);
-		if(log.isDebugEnabled())log.debug("After fireScan call ");
-		
-		if (newResultScanner != null) {
-			for (Result newResult : newResultScanner) {
-				if (newResult != null && !newResult.isEmpty()) {
-					if(log.isDebugEnabled())log.debug("calling processResultData from reprocessThisRow");
-					reconEntity = processResultData(newResult.getNoVersionMap(), rowKey, targetAdapter, sqlQuery,
-							jsonColumnField, reconColumnOpMap);
-					if(log.isDebugEnabled())log.debug("after calling processResultData from reprocessThisRow");
 
-				}
+		if (pendingLookups.isEmpty()) {
+			return reconEntity;
+		}
 
-				break; // as we are expecting only one row
-			}
+		if(log.isDebugEnabled())log.debug("Fetching " + pendingLookups.size() + " rows using multi get");
+
+		List<Get> gets = new ArrayList<>();
+		for (PendingLookup pendingLookup : pendingLookups) {
+			gets.add(pendingLookup.getGet());
 		}
-		if(log.isDebugEnabled())log.debug("exiting reprocessThisRow");
-		return reconEntity;
-	}
 
-	private DeleteFamilyMarkerInfo processDeleteFamilyMarkers(Result result, SqlBean sqlQuery, long minTimestamp) {
-		if(log.isDebugEnabled())log.debug("Entering processDeleteFamilyMarkers");
-		
-		boolean deleteFamilyMarkerFound = false, deleteFamilyMarkerFoundForAll = false;
-		Map<String, Long> deleteFamilyTimestamp = new HashMap<>();
+		Result[] results = multiGetExecutor.get(gets);
 
-		Set<String> selectedFamilies = sqlQuery.getCategorisedColumns().getAllRequiredColumns().keySet();
-		for (String selectedCF : selectedFamilies) {
+		for (int i = 0; i < results.length; i++) {
+			PendingLookup pendingLookup = pendingLookups.get(i);
+			Result newResult = results[i];
 
-			// deleteFamily marker cell doesn't have the column name,
-			// so we check for it using getColumnLatestCell by passing null col
-			// name
-			Cell cell = result.getColumnLatestCell(Bytes.toBytes(selectedCF), null);
+			NavigableMap<byte[], NavigableMap<byte[], byte[]>> noVersionMap = null;
+			if (newResult != null && !newResult.isEmpty()) {
+				noVersionMap = newResult.getNoVersionMap();
+			}
 
-			if (cell != null && cell.getTimestamp() >= minTimestamp
-					&& (CellUtil.isDeleteFamily(cell) || CellUtil.isDeleteFamilyVersion(cell))) {
-				deleteFamilyMarkerFound = true;
-				deleteFamilyTimestamp.put(selectedCF, cell.getTimestamp());
-			} else {
-				deleteFamilyMarkerFoundForAll = false;
+			if (!pendingLookup.isReprocessRow()) {
+				// columns from put mutations override the fetched columns
+				if (noVersionMap == null) {
+					noVersionMap = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+				}
+				for (Entry<byte[], NavigableMap<byte[], byte[]>> entry : pendingLookup.getPutColumns().entrySet()) {
+					NavigableMap<byte[], byte[]> columns = noVersionMap.get(entry.getKey());
+					if (columns == null) {
+						noVersionMap.put(entry.getKey(), entry.getValue());
+					} else {
+						columns.putAll(entry.getValue());
+					}
+				}
 			}
+
+			ReconEntity rowReconEntity = processResultData(noVersionMap, pendingLookup.getRowKey(), targetAdapter,
+					sqlQuery, jsonColumnField, reconColumnOpMap);
+
+			DeletionMetadata deletionMetadata = targetAdapter.processDeleteRowList(targetModel,
+					pendingLookup.getDeleteRowList());
+			rowReconEntity.addDeletionMetadata(deletionMetadata);
+
+			reconEntity.addReconEntity(rowReconEntity);
 		}
-		
-		if(log.isDebugEnabled())log.debug("Exiting processDeleteFamilyMarkers");
-		
-		return new DeleteFamilyMarkerInfo(deleteFamilyMarkerFound, deleteFamilyMarkerFoundForAll,
-				deleteFamilyTimestamp);
+
+		pendingLookups.clear();
+
+		return reconEntity;
 	}
 
 	private Boolean applyRowKeyConditions(SqlBean sqlQuery, DataRecord dataRecord) throws Exception {
-		// get a copy of ConditionTree to apply the row key conditions and store
-		// result of evaluation in the copy
-		ConditionTree conditionTreeForRowKey = sqlQuery.getConditionTreeCopy();
-		// apply static column and row key conditions from sqlQuery
-		Boolean passed = ConditionTreeManager.evaluateRowKeyConditions(conditionTreeForRowKey, dataRecord);
+		// apply row key conditions from sqlQuery
+		Boolean passed = sqlQuery.evaluateRowKeyConditions(dataRecord);
 
 		return passed;
 	}
 
-	private ResultScanner fireScan(Scan newScan, SystemConfig systemConfig) throws IOException {
+	private Get getGetForThisRow(Scan orgScan, byte[] rowKey) throws IOException {
 		
-		try {
-			Connection con = HBaseConnectionManager.getConnection(systemConfig.getSourceHBaseZk());
-			String tableName = hBaseSourceTableModel.getTableName();
+		Get newGet = new Get(rowKey);
 
-			try (Table table = con.getTable(TableName.valueOf(tableName))) {
-				if(log.isDebugEnabled())log.debug("within fireScan newScan.getStartRow(): "+newScan.getStartRow());
-				return table.getScanner(newScan);
+		// fetch same columns as the original scan, but not the delete markers
+		for (Entry<byte[], NavigableSet<byte[]>> entry : orgScan.getFamilyMap().entrySet()) {
+			if (entry.getValue() == null) {
+				newGet.addFamily(entry.getKey());
+			} else {
+				for (byte[] qualifier : entry.getValue()) {
+					newGet.addColumn(entry.getKey(), qualifier);
+				}
 			}
-		} catch (IOException e) {
-			System.err.println("Error in fireScan: " + e.getMessage());
-			throw e;
 		}
-	}
+		newGet.setTimeRange(0, orgScan.getTimeRange().getMax());
 
-	private Scan getNewScanForThisRow(Scan orgScan, byte[] rowKey) throws IOException {
-		
-		try {
-			Scan newScan = new Scan(orgScan);
-			
-			// we are trying to fetch specific row from hbase, so setting that
-			// row key as prefix so that start and stop row will be set
-			// automatically in the scan
-			// Also setting caching to 1
-			newScan.setRowPrefixFilter(rowKey);
-			newScan.setCaching(1);
-			
-			newScan.setRaw(false);
-			newScan.setTimeRange(0, orgScan.getTimeRange().getMax());
-			// Also add rowFilter in the new scan for this row.
-			Filter rowFilter = new RowFilter(CompareOp.EQUAL, new BinaryComparator(rowKey));
-			if (orgScan.hasFilter()) {
-				Filter orgFilter = orgScan.getFilter();
-				FilterList filterList = new FilterList(Operator.MUST_PASS_ALL, orgFilter, rowFilter);
-				newScan.setFilter(filterList);
-			} else {
-				newScan.setFilter(rowFilter);
-			}
-			return newScan;
-		} catch (IOException e) {
-			System.err.println("Error in getNewScanForThisRow: " + e.getMessage());
-			throw e;
+		if (orgScan.hasFilter()) {
+			newGet.setFilter(orgScan.getFilter());
 		}
+		return newGet;
 	}
 
 	/**
@@ -764,7 +732,7 @@ public class HBaseSourceTableAdapter implements Serializable {
 			return reconEntity;
 		}
 		// fetch all static columns
-		Map<String, Map<String, Tuple>> staticColumnsMap = getAllStaticColumns(resultData);
+		Map<String, Map<String, Tuple>> staticColumnsMap = getAllStaticColumns(resultData, query);
 
 		if(log.isDebugEnabled())log.debug("after getAllStaticColumns");
 		
@@ -808,32 +776,171 @@ public class HBaseSourceTableAdapter implements Serializable {
 
 					byte[] valueBytes = columnNameValueMap.get(columnNameBytes);
 
-					Tuple dynamicColumn = hBaseSourceTableModel.parseDynamicColumn(columnFamily, columnName,
-							valueBytes);
-					if (dynamicColumn != null && dynamicColumn.isDynamicColumn()) {
+					Tuple dynamicColumn = hBaseSourceTableModel.parseDynamicColumn(columnFamily, columnNameBytes, 0,
+							columnNameBytes.length, valueBytes, 0, valueBytes.length);
+					addIntoDynamicPartMap(dynamicPartToCfCnMap, columnFamily, dynamicColumn);
+				}
+			}
+		}
 
-						Map<String, Map<String, Tuple>> cfMap = dynamicPartToCfCnMap
-								.get(dynamicColumn.getDynamicPartValue());
+		if(log.isDebugEnabled())log.debug("after creating dynamicPartToCfCnMap");
 
-						if (cfMap == null) {
-							cfMap = new HashMap<>();
-							dynamicPartToCfCnMap.put(dynamicColumn.getDynamicPartValue(), cfMap);
-						}
+		return processDynamicParts(staticColumnDataRecord, dynamicPartToCfCnMap, targetAdapter, query,
+				jsonColumnField, reconColumnOpMap);
 
-						Map<String, Tuple> cnMap = cfMap.get(columnFamily);
+	}
 
-						if (cnMap == null) {
-							cnMap = new HashMap<>();
-							cfMap.put(columnFamily, cnMap);
-						}
-						cnMap.put(dynamicColumn.getColumnName(), dynamicColumn);
-					}
+	/**
+	 * parses a hbase row to form one/more target rows and calls targetAdapter's
+	 * write method for corresponding target rows. Cells of the row are walked
+	 * once, in the order returned by hbase. Column families and static columns
+	 * are resolved by comparing cell bytes with the source schema, so no maps
+	 * of the row are built.
+	 * 
+	 * @param cells
+	 *            cells of source hbase row, sorted as returned by
+	 *            Result.rawCells()
+	 * @param rowKey
+	 *            byte[] of source hbase row key
+	 * @param targetAdapter
+	 *            adapter for the desired Target type
+	 * @param query
+	 *            object containing data of the sql query
+	 * @param jsonColumnField
+	 *            ColumnField for json column to be selected from source hbase
+	 *            table
+	 * @param reconColumnOpMap
+	 *            object containing information about reconciliation to be done
+	 * @return Returns the ReconEntity object containing number of target rows
+	 *         written and reconciliation output corresponding to input source
+	 *         hbase row
+	 * @throws Exception
+	 */
+	public ReconEntity processResultCells(Cell[] cells, byte[] rowKey, TargetAdapter targetAdapter, SqlBean query,
+			HBaseColumn jsonColumnField, Map<String, List<String>> reconColumnOpMap) throws Exception {
+
+		if(log.isDebugEnabled())log.debug("processResultCells for rowkey: "+Bytes.toString(rowKey));
+		
+		ReconEntity reconEntity = new ReconEntity();
+
+		// do nothing - if the input result has no data
+		if (null == cells || cells.length == 0) {
+			if(log.isDebugEnabled())log.debug("result has no cells.");
+			return reconEntity;
+		}
+
+		DataRecord outputDataRecord = hBaseSourceTableModel.parseRowKey(rowKey);
+
+		// do nothing - if parseRowKey doesn't return any columns
+		if (outputDataRecord == null || outputDataRecord.isRowkeyListEmpty()) {
+			if(log.isDebugEnabled())log.debug("parseRowKey didn't return any columns");
+			return reconEntity;
+		}
+
+		StaticColumnIndex staticColumnIndex = getProjectedColumnIndex(query);
+		boolean hasDynamicColumns = hBaseSourceTableModel.hasDynamicColumns();
+
+		Map<String, Map<String, Tuple>> staticColumnsMap = new HashMap<>();
+
+		// positions of the cells which are not static columns, these are
+		// parsed as dynamic columns only if static conditions pass
+		int[] dynamicCells = hasDynamicColumns ? new int[cells.length] : null;
+		int noOfDynamicCells = 0;
+
+		Cell previousCell = null;
+		for (int i = 0; i < cells.length; i++) {
+			Cell cell = cells[i];
+
+			// cells of a column are sorted latest version first, only the
+			// latest version is used
+			if (previousCell != null && CellUtil.matchingColumn(previousCell, cell)) {
+				continue;
+			}
+			previousCell = cell;
+
+			int familyIndex = staticColumnIndex.findColumnFamily(cell.getFamilyArray(), cell.getFamilyOffset(),
+					cell.getFamilyLength());
+
+			StaticColumnIndex.StaticColumn staticColumn = null;
+			if (familyIndex >= 0) {
+				staticColumn = staticColumnIndex.findStaticColumn(familyIndex, cell.getQualifierArray(),
+						cell.getQualifierOffset(), cell.getQualifierLength());
+			}
+
+			if (staticColumn != null) {
+				// static columns not needed by the query are dropped, others
+				// are decoded only when read
+				if (staticColumn.projected) {
+					addIntoColumnsMap(staticColumnsMap, staticColumn.columnFamily, staticColumn.columnName,
+							hBaseSourceTableModel.parseStaticColumn(staticColumn, cell.getValueArray(),
+									cell.getValueOffset(), cell.getValueLength()));
 				}
+			} else if (hasDynamicColumns) {
+				dynamicCells[noOfDynamicCells++] = i;
 			}
 		}
 
-		if(log.isDebugEnabled())log.debug("after creating dynamicPartToCfCnMap");
+		DataRecord staticColumnDataRecord = outputDataRecord.duplicate();
+		staticColumnDataRecord.addColumns(staticColumnsMap);
+
+		Boolean staticPassed = query.evaluateStaticConditions(staticColumnDataRecord);
+		
+		if(log.isDebugEnabled())log.debug("staticPassed: "+staticPassed);
 		
+		if (staticPassed != null && !staticPassed) {
+			return reconEntity;
+		}
+
+		// map of dynamic part to map of cf to map of cn and tuple
+		Map<String, Map<String, Map<String, Tuple>>> dynamicPartToCfCnMap = new HashMap<>();
+
+		for (int i = 0; i < noOfDynamicCells; i++) {
+			Cell cell = cells[dynamicCells[i]];
+
+			int familyIndex = staticColumnIndex.findColumnFamily(cell.getFamilyArray(), cell.getFamilyOffset(),
+					cell.getFamilyLength());
+			String columnFamily = familyIndex >= 0 ? staticColumnIndex.getColumnFamily(familyIndex)
+					: Bytes.toString(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength());
+
+			Tuple dynamicColumn = hBaseSourceTableModel.parseDynamicColumn(columnFamily, cell.getQualifierArray(),
+					cell.getQualifierOffset(), cell.getQualifierLength(), cell.getValueArray(), cell.getValueOffset(),
+					cell.getValueLength());
+			addIntoDynamicPartMap(dynamicPartToCfCnMap, columnFamily, dynamicColumn);
+		}
+
+		if(log.isDebugEnabled())log.debug("after creating dynamicPartToCfCnMap");
+
+		return processDynamicParts(staticColumnDataRecord, dynamicPartToCfCnMap, targetAdapter, query,
+				jsonColumnField, reconColumnOpMap);
+	}
+
+	private void addIntoDynamicPartMap(Map<String, Map<String, Map<String, Tuple>>> dynamicPartToCfCnMap,
+			String columnFamily, Tuple dynamicColumn) {
+		if (dynamicColumn != null && dynamicColumn.isDynamicColumn()) {
+
+			Map<String, Map<String, Tuple>> cfMap = dynamicPartToCfCnMap.get(dynamicColumn.getDynamicPartValue());
+
+			if (cfMap == null) {
+				cfMap = new HashMap<>();
+				dynamicPartToCfCnMap.put(dynamicColumn.getDynamicPartValue(), cfMap);
+			}
+
+			addIntoColumnsMap(cfMap, columnFamily, dynamicColumn.getColumnName(), dynamicColumn);
+		}
+	}
+
+	/**
+	 * Evaluates dynamic conditions for each dynamic part of a row and writes
+	 * the target rows formed from static columns of the row and dynamic
+	 * columns of the dynamic part
+	 */
+	private ReconEntity processDynamicParts(DataRecord staticColumnDataRecord,
+			Map<String, Map<String, Map<String, Tuple>>> dynamicPartToCfCnMap, TargetAdapter targetAdapter,
+			SqlBean query, HBaseColumn jsonColumnField, Map<String, List<String>> reconColumnOpMap)
+			throws Exception {
+
+		ReconEntity reconEntity = new ReconEntity();
+
 		if (dynamicPartToCfCnMap.isEmpty()) {
 			if(log.isDebugEnabled())log.debug("dynamicPartToCfCnMap is empty");
 
@@ -882,7 +989,7 @@ public class HBaseSourceTableAdapter implements Serializable {
 
 					Map<String, Map<String, Tuple>> cfMap = dynamicPartToCfCnMap.get(dynamicPart);
 
-					DataRecord dataRecForADynamicPart = new DataRecord();
+					DataRecord dataRecForADynamicPart = new DataRecord(hBaseSourceTableModel.getRecordLayout());
 					dataRecForADynamicPart.addColumns(cfMap);
 
 					for (Tuple tuple : tuplesForDynamicPart) {
@@ -965,22 +1072,15 @@ public class HBaseSourceTableAdapter implements Serializable {
 
 		List<Tuple> tuplesFromDynamicPart = new ArrayList<>();
 
-		String[] parts;
-		String seperator = this.hBaseSourceTableModel.getDynamicColumnsSeparator();
-
-		if (seperator == null || seperator.isEmpty()) {
-			parts = new String[1];
-			parts[0] = dynamicPartValue;
-		} else {
-			parts = dynamicPartValue.split(seperator);
-		}
+		String[] parts = this.hBaseSourceTableModel.splitDynamicPart(dynamicPartValue);
 
-		List<String> dynamicPartNames = this.hBaseSourceTableModel.getDynamicPartNames();
 		// ignore columns having names in different format than expected
-		if (parts.length != dynamicPartNames.size()) {
+		if (parts == null) {
 			return tuplesFromDynamicPart;
 		}
 
+		List<String> dynamicPartNames = this.hBaseSourceTableModel.getDynamicPartNames();
+
 		for (int i = 0; i < parts.length; i++) {
 			if (!dynamicPartNames.get(i).equals(SKIP)) {
 				tuplesFromDynamicPart.add(Tuple.dynamicColumn(null, dynamicPartNames.get(i), parts[i], "",
@@ -1015,6 +1115,7 @@ public class HBaseSourceTableAdapter implements Serializable {
 			long minTimestamp, long maxTimestamp, String loadType) throws Exception {
 
 		TargetAdapter targetAdapter = targetAdapterWrapper.getTargetAdapter();
+		jsonRowLimit = systemConfig.getJsonRowLimitValue();
 		Iterator<Tuple2<ImmutableBytesWritable, Result>> sparkPartitionIterator = targetAdapterWrapper
 				.getSparkPartitionIterator();
 
@@ -1025,15 +1126,32 @@ public class HBaseSourceTableAdapter implements Serializable {
 
 		Scan orgScan = scanAndJobType.getScan();
 
-		while (sparkPartitionIterator.hasNext()) {
-			Tuple2<ImmutableBytesWritable, Result> tuple = sparkPartitionIterator.next();
+		// rows of incremental load which need to be fetched again from source
+		List<PendingLookup> pendingLookups = new ArrayList<>();
 
-			ReconEntity reconEntity2 = processResult(tuple._2, tuple._1.get(), targetAdapter, sqlBean, jsonColumnField,
-					reconColumnOpMap, systemConfig, orgScan, minTimestamp, incremental);
-			if (reconEntity2 != null) {
-				reconEntity.addReconEntity(reconEntity2);
+		try (MultiGetExecutor multiGetExecutor = new MultiGetExecutor(systemConfig.getSourceHBaseZk(),
+				hBaseSourceTableModel.getTableName(), systemConfig.getLookupBatch(),
+				systemConfig.getLookupThreads())) {
+
+			while (sparkPartitionIterator.hasNext()) {
+				Tuple2<ImmutableBytesWritable, Result> tuple = sparkPartitionIterator.next();
+
+				ReconEntity reconEntity2 = processResult(tuple._2, tuple._1.get(), targetAdapter, sqlBean,
+						jsonColumnField, reconColumnOpMap, orgScan, minTimestamp, incremental, pendingLookups);
+				if (reconEntity2 != null) {
+					reconEntity.addReconEntity(reconEntity2);
+				}
+
+				if (pendingLookups.size() >= multiGetExecutor.getCapacity()) {
+					reconEntity.addReconEntity(processPendingLookups(pendingLookups, multiGetExecutor,
+							targetAdapter, sqlBean, jsonColumnField, reconColumnOpMap));
+				}
+				// flushing after processing each source hbase row
+				targetAdapter.flush();
 			}
-			// flushing after processing each source hbase row
+
+			reconEntity.addReconEntity(processPendingLookups(pendingLookups, multiGetExecutor, targetAdapter,
+					sqlBean, jsonColumnField, reconColumnOpMap));
 			targetAdapter.flush();
 		}
 		// closing after processing all hbase rows
@@ -1043,29 +1161,31 @@ public class HBaseSourceTableAdapter implements Serializable {
 	}
 
 	private Map<String, Map<String, Tuple>> getAllStaticColumns(
-			NavigableMap<byte[], NavigableMap<byte[], byte[]>> resultData) throws ParseException {
+			NavigableMap<byte[], NavigableMap<byte[], byte[]>> resultData, SqlBean query) {
 		Map<String, Map<String, Tuple>> staticColumnsMap = new HashMap<>();
 
 		if (resultData != null && !resultData.isEmpty()) {
+			StaticColumnIndex staticColumnIndex = getProjectedColumnIndex(query);
 
-			for (String staticColumnFamily : hBaseSourceTableModel.getStaticColumnFamilies()) {
-				byte[] staticCfBytes = Bytes.toBytes(staticColumnFamily);
-				NavigableMap<byte[], byte[]> cfData = resultData.get(staticCfBytes);
-
-				for (String columnName : hBaseSourceTableModel.getStaticColumns(staticColumnFamily)) {
-					String value = null;
-					Class dataType = null;
-					if (cfData != null) {
-						byte[] columnValue = cfData.get(Bytes.toBytes(columnName));
-						if (columnValue == null) {
-							continue;
-						}
-						value = hBaseSourceTableModel.getStaticColumnValue(staticColumnFamily, columnName, columnValue);
-						dataType = hBaseSourceTableModel.getStaticColumnDataType(staticColumnFamily, columnName);
+			for (Entry<byte[], NavigableMap<byte[], byte[]>> cfEntry : resultData.entrySet()) {
+				byte[] cfBytes = cfEntry.getKey();
+				int familyIndex = staticColumnIndex.findColumnFamily(cfBytes, 0, cfBytes.length);
+				if (familyIndex < 0 || cfEntry.getValue() == null) {
+					continue;
+				}
+
+				for (Entry<byte[], byte[]> cnEntry : cfEntry.getValue().entrySet()) {
+					byte[] columnNameBytes = cnEntry.getKey();
+					byte[] columnValue = cnEntry.getValue();
 
-						addIntoColumnsMap(staticColumnsMap, staticColumnFamily, columnName,
-								Tuple.staticColumn(staticColumnFamily, columnName, value, dataType));
+					StaticColumnIndex.StaticColumn staticColumn = staticColumnIndex.findStaticColumn(familyIndex,
+							columnNameBytes, 0, columnNameBytes.length);
+					if (staticColumn == null || !staticColumn.projected || columnValue == null) {
+						continue;
 					}
+
+					addIntoColumnsMap(staticColumnsMap, staticColumn.columnFamily, staticColumn.columnName,
+							hBaseSourceTableModel.parseStaticColumn(staticColumn, columnValue, 0, columnValue.length));
 				}
 			}
 		}
@@ -1073,6 +1193,19 @@ public class HBaseSourceTableAdapter implements Serializable {
 		return staticColumnsMap;
 	}
 
+	/**
+	 * Returns the static column index with the columns needed by the query
+	 * marked as projected. The projection is computed once per query.
+	 */
+	private StaticColumnIndex getProjectedColumnIndex(SqlBean query) {
+		if (projectedColumnIndex == null || projectedFor != query) {
+			projectedColumnIndex = hBaseSourceTableModel.getStaticColumnIndex()
+					.project(query.getCategorisedColumns().getAllRequiredColumns());
+			projectedFor = query;
+		}
+		return projectedColumnIndex;
+	}
+
 	private void addIntoColumnsMap(Map<String, Map<String, Tuple>> cfMap, String cf, String cn, Tuple tuple) {
 		Map<String, Tuple> cnMap = cfMap.get(cf);
 		if (cnMap == null) {
@@ -1093,8 +1226,11 @@ public class HBaseSourceTableAdapter implements Serializable {
 				json = ipRecord.getColumnTupleValue(column.getColumnNameWithoutDynamicComponent());
 
 				if (json != null) {
-					List<DataRecord> dataRecords = JsonAdapter.flattenJson(ipRecord, json, targetModel);
-					for (DataRecord dataRecord : dataRecords) {
+					// records are created one at a time as they are written
+					JsonRecordIterator dataRecords = JsonAdapter.explodeJson(ipRecord, json, targetModel,
+							jsonRowLimit);
+					while (dataRecords.hasNext()) {
+						DataRecord dataRecord = dataRecords.next();
 						
 						boolean jsonConditionsPassed = query.evaluateJsonConditions(dataRecord);
 						
@@ -1104,6 +1240,13 @@ public class HBaseSourceTableAdapter implements Serializable {
 							reconEntity.add(structuredDR, reconColumnOpMap);
 						}
 					}
+
+					reconEntity.addJsonExplosion(dataRecords.getRowCount(), dataRecords.getDroppedRowCount());
+					if (dataRecords.getDroppedRowCount() > 0) {
+						log.warn("Json of row " + ipRecord.getKeyAsString("|", "") + " flattens into "
+								+ dataRecords.getRowCount() + " rows. Dropped "
+								+ dataRecords.getDroppedRowCount() + " rows over the json row limit " + jsonRowLimit);
+					}
 				}
 			}
 		}
@@ -28,11 +28,13 @@ import org.apache.hadoop.hbase.util.Bytes;
 import org.gstn.hbasetohive.util.FormatDateUtil;
 import org.gstn.schemaexplorer.entity.DataRecord;
 import org.gstn.schemaexplorer.entity.DynamicColumnType;
+import org.gstn.schemaexplorer.entity.RecordLayout;
 import org.gstn.schemaexplorer.entity.Tuple;
 import org.gstn.schemaexplorer.exception.InvalidSchemaException;
+import org.gstn.schemaexplorer.hbase.DynamicPartTokenizer;
 import org.gstn.schemaexplorer.hbase.HBaseColumn;
 import org.gstn.schemaexplorer.hbase.HBaseTableExplorer;
-import org.gstn.schemaexplorer.hbase.RowkeyField;
+import org.gstn.schemaexplorer.hbase.RowkeyTokenizer;
 import org.gstn.schemaexplorer.util.DataTypeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -103,6 +105,32 @@ public class HBaseSourceTableModel implements Serializable {
 	 */
 	private  List<String> dynamicPartNames = null;
 
+	/**
+	 * Splits row keys into fields, built once from the row key structure
+	 */
+	private RowkeyTokenizer rowkeyTokenizer = null;
+
+	/**
+	 * Splits dynamic part of column names into components
+	 */
+	private DynamicPartTokenizer dynamicPartTokenizer = null;
+
+	/**
+	 * Trie of dynamic column prefixes and suffixes, per column family
+	 */
+	private DynamicColumnTrie dynamicColumnTrie = null;
+
+	/**
+	 * Column families and static columns, for resolving them from cell bytes
+	 */
+	private StaticColumnIndex staticColumnIndex = null;
+
+	/**
+	 * Slots of row key fields, columns and dynamic part components in records
+	 * of this table
+	 */
+	private RecordLayout recordLayout = null;
+
 	private Logger log = LoggerFactory.getLogger(this.getClass().getCanonicalName());
 	
 	/**
@@ -164,8 +192,8 @@ public class HBaseSourceTableModel implements Serializable {
 
 	/**
 	 * Parse the rowkey and returns the list of columns names and values
-	 * corresponding to it along with salt byte[] if any.
-	 * If this returns no columns, the entire row will be ignored
+	 * corresponding to it, excluding the hashed field if any.
+	 * If this returns null, the entire row will be ignored
 	 * @param 
 	 * 		rowKey byte[] row key
 	 * @return
@@ -173,88 +201,36 @@ public class HBaseSourceTableModel implements Serializable {
 	 * @throws InvalidSchemaException 
 	 */
 	protected DataRecord parseRowKey(byte[] rowKeyBytes) throws InvalidSchemaException {
-		
-		List<Tuple> rowkeyColumns = new ArrayList<>();
-
-        String rowKey = Bytes.toString(rowKeyBytes);
-		
-		byte[] salt;
-		byte[] rowKeyBytes1;
-
-		boolean isHashed = hBaseExplorer.isRowKeyHashed(sourceSchema);
-		int saltSize;
-		String[] rowKeyParts = null;
-		// if row has hashed field
-		if(isHashed) {
-			//salt[0] = rowKeyBytes[0];
-            saltSize = hBaseExplorer.getRowKeyHashSizeBytes(sourceSchema);
-			salt = new byte[saltSize];
-			System.arraycopy(rowKeyBytes, 0, salt, 0, saltSize);
-			
-			// getting a byte array after hash field for splitting
-			int rowKeyBytes1Length = rowKeyBytes.length - saltSize;
-			if(rowKeyBytes1Length > 0)
-			{
-				rowKeyBytes1 = new byte[rowKeyBytes1Length];
-				System.arraycopy(rowKeyBytes, saltSize, rowKeyBytes1, 0, rowKeyBytes1Length);
-				String rowKey1 = Bytes.toString(rowKeyBytes1);
-				// after separating hash 
-				// rowkey1 = |fy|invoice-type|rtin|stin 
-				// so after splitting length = 5 
-				if(hBaseExplorer.getRowkeyFieldNames(sourceSchema).size() > 1) {
-					rowKeyParts = rowKey1.split(this.getRowKeySeparator());
-				} else {
-					rowKeyParts = new String[] {rowKey1};
-				}
-			}	
-		} else {
-			// if row has no hashed field
-			if(hBaseExplorer.getRowkeyFieldNames(sourceSchema).size() > 1) {
-				rowKeyParts = rowKey.split(this.getRowKeySeparator());
-			} else {
-				rowKeyParts = new String[] {rowKey};
-			}
-		}
-		
-		List<RowkeyField> rowKeyFields = null;
-		try {
-			//rowKeyFields = schemaInfo.get_rowkey_field_names(schemaName);
-			rowKeyFields = hBaseExplorer.getRowkeyFields(sourceSchema);
-		} catch (InvalidSchemaException e) {
-			throw e;
-		}
-
-		if(!hBaseExplorer.isAValidRowKey(sourceSchema, rowKeyParts)) {
-            return null;
-        }
 
-        /*
-		//System.out.println("Length   --> "+rowKeyParts.length + "  " + rowKeyFields.size());
-		if(rowKeyParts.length!=rowKeyFields.size() ){
+		// offsets of row key fields, row key not matching the schema (number
+		// of fields or literal values) is ignored
+		int[] fieldOffsets = rowkeyTokenizer.tokenize(rowKeyBytes);
+		if (fieldOffsets == null) {
 			return null;
 		}
-		//System.out.println("Row key --> "+rowKey);
-		int j=0;
-		// Added to filter INVOICE_TYPES
-		RowKey rowkey = schemaInfo.getSchema_rowkey(schemaName);
-		for(RowKeyField rkfield : rowkey.getRowkey_columns()) {
-			j++;
-			if(rkfield.is_literal()) {
-				if(!rkfield.get_literal_value().equals(rowKeyParts[j-1])) {
-					//System.out.println("rkfield  --> "+rkfield.get_literal_value()+" "+rowKeyParts[j-1]);
-					return null;
-				}
-			}
-		}
-		*/
-		
-		for(int i=0; i<rowKeyFields.size(); i++) {
-			if(!rowKeyFields.get(i).isHashed()){
-				rowkeyColumns.add(Tuple.rowkeyColumn(rowKeyFields.get(i).getName(), rowKeyParts[i]));
+
+		List<Tuple> rowkeyColumns = new ArrayList<>(rowkeyTokenizer.getFieldCount());
+
+		for (int i = 0; i < rowkeyTokenizer.getFieldCount(); i++) {
+			if (!rowkeyTokenizer.isHashedField(i)) {
+				rowkeyColumns.add(Tuple.rowkeyColumn(rowkeyTokenizer.getFieldName(i),
+						rowkeyTokenizer.getFieldValue(rowKeyBytes, fieldOffsets, i)));
 			}
 		}
-		
-		return new DataRecord(rowkeyColumns, Collections.emptyList());
+
+		return new DataRecord(recordLayout, rowkeyColumns, Collections.emptyList());
+	}
+
+	/**
+	 * Splits the dynamic part of column name into its components
+	 * @param dynamicPart
+	 * 		dynamic part of column name i.e. &lt;X&gt;
+	 * @return
+	 * 		components of dynamic part, null if they do not match dynamicPartNames
+	 * @see #dynamicPartNames
+	 */
+	public String[] splitDynamicPart(String dynamicPart) {
+		return dynamicPartTokenizer.split(dynamicPart);
 	}
 
 	/**
@@ -301,6 +277,11 @@ public class HBaseSourceTableModel implements Serializable {
 		dynamicColumnsSeparator = defineDynamicColumnsSeparator();
 		rowKeySeparator = defineRowKeySeparator();
 		dynamicPartNames = defineDynamicPartNames();
+		rowkeyTokenizer = hBaseExplorer.getRowkeyTokenizer(sourceSchema);
+		dynamicPartTokenizer = hBaseExplorer.getDynamicPartTokenizer(sourceSchema);
+		dynamicColumnTrie = buildDynamicColumnTrie();
+		staticColumnIndex = buildStaticColumnIndex();
+		recordLayout = buildRecordLayout();
 	}
 
 	/**
@@ -342,12 +323,15 @@ public class HBaseSourceTableModel implements Serializable {
 	private  class DynamicColumnComponents {
 		final String staticPart, dynamicPart;
 		final Class dataType;
+		final String dataFormat;
 		final DynamicColumnType dynamicColType;
 
-		DynamicColumnComponents(String staticPart, String dynamicPart, DynamicColumnType dynamicColType, Class dataType) {
+		DynamicColumnComponents(String staticPart, String dynamicPart, DynamicColumnType dynamicColType, Class dataType,
+				String dataFormat) {
 			this.staticPart = staticPart;
 			this.dynamicPart = dynamicPart;
 			this.dataType = dataType;
+			this.dataFormat = dataFormat;
 			this.dynamicColType = dynamicColType;
 		}
 
@@ -358,97 +342,224 @@ public class HBaseSourceTableModel implements Serializable {
 	}
 
 	/**
-	 * Parses the provided dynamic column
-	 * Assumption is that columnNameFromHBase is a dynamic column
-	 * 
-	 * @param columnFamily 
-	 * 			hbase table columnFamily
-	 * @param columnNameFromHBase
-	 * 			hbase table columnName
+	 * Builds the trie of static prefixes and suffixes of dynamic columns,
+	 * along with data type and data format of their values
 	 * @return
-	 * 			DynamicColumnComponents containing information after parsing 
-	 * 			the provided dynamic column
+	 * 		trie of dynamic column prefixes and suffixes
 	 */
-	public DynamicColumnComponents getDynamicColumnComponents(String columnFamily, String columnNameFromHBase) {
-		
-		Map<String, Class> dynamicColumnsPrefixesMap = dynamicColumnsPrefixes.getOrDefault(columnFamily,
-				Collections.emptyMap());
-
-		int candidatePatternLength = 0;
-		Class candidateDatatype = null;
-		String staticPart = null;
-		String dynamicPart = null;
-		DynamicColumnType dynamicColumnType=null;
-		
-		for (Map.Entry<String, Class> entry : dynamicColumnsPrefixesMap.entrySet()) {
-			String prefix = entry.getKey();
-
-			// we are allowing blank matches in prefixes only, for handling
-			// columns having no prefix/suffix i.e. <X>
-			if (columnNameFromHBase.startsWith(prefix)
-					&& (candidatePatternLength == 0 || prefix.length() > candidatePatternLength)) {
-				candidateDatatype = entry.getValue();
-				candidatePatternLength = prefix.length();
-				dynamicPart = columnNameFromHBase.substring(prefix.length());
-				staticPart = prefix;
-				dynamicColumnType = DynamicColumnType.STATIC_PREFIX;
+	private DynamicColumnTrie buildDynamicColumnTrie() {
+		DynamicColumnTrie trie = new DynamicColumnTrie();
+
+		if (!hasDynamicColumns()) {
+			return trie;
+		}
+
+		for (Map.Entry<String, Map<String, Class>> cfEntry : dynamicColumnsPrefixes.entrySet()) {
+			for (Map.Entry<String, Class> entry : cfEntry.getValue().entrySet()) {
+				trie.addPrefix(cfEntry.getKey(), entry.getKey(), entry.getValue(),
+						hBaseExplorer.getColumnDataFormat(sourceSchema, entry.getKey()));
+			}
+		}
+
+		for (Map.Entry<String, Map<String, Class>> cfEntry : dynamicColumnsSuffixes.entrySet()) {
+			for (Map.Entry<String, Class> entry : cfEntry.getValue().entrySet()) {
+				trie.addSuffix(cfEntry.getKey(), entry.getKey(), entry.getValue(),
+						hBaseExplorer.getColumnDataFormat(sourceSchema, entry.getKey()));
 			}
 		}
 
-		Map<String, Class> dynamicColumnsSuffixesMap = dynamicColumnsSuffixes.getOrDefault(columnFamily,
-				Collections.emptyMap());
+		return trie;
+	}
 
-		for (Map.Entry<String, Class> entry : dynamicColumnsSuffixesMap.entrySet()) {
-			String suffix = entry.getKey();
+	/**
+	 * Builds the index of column families and static columns, along with data
+	 * type and data format of static column values
+	 * @return
+	 * 		index of column families and static columns
+	 */
+	private StaticColumnIndex buildStaticColumnIndex() {
+		StaticColumnIndex index = new StaticColumnIndex();
+
+		for (Map.Entry<String, Map<String, Class>> cfEntry : staticColumns.entrySet()) {
+			index.addColumnFamily(cfEntry.getKey());
+			for (Map.Entry<String, Class> entry : cfEntry.getValue().entrySet()) {
+				index.addStaticColumn(cfEntry.getKey(), entry.getKey(), entry.getValue(),
+						hBaseExplorer.getColumnDataFormat(sourceSchema, entry.getKey()));
+			}
+		}
 
-			if (columnNameFromHBase.endsWith(suffix) && suffix.length() > candidatePatternLength) {
-				candidateDatatype = entry.getValue();
-				candidatePatternLength = suffix.length();
-				dynamicPart = columnNameFromHBase.substring(0, columnNameFromHBase.length() - suffix.length());
-				staticPart = suffix;
-				dynamicColumnType = DynamicColumnType.STATIC_SUFFIX;
+		if (dynamicColumnsPrefixes != null) {
+			for (String columnFamily : dynamicColumnsPrefixes.keySet()) {
+				index.addColumnFamily(columnFamily);
 			}
+		}
 
+		if (dynamicColumnsSuffixes != null) {
+			for (String columnFamily : dynamicColumnsSuffixes.keySet()) {
+				index.addColumnFamily(columnFamily);
+			}
 		}
 
-		return new DynamicColumnComponents(staticPart, dynamicPart, dynamicColumnType, candidateDatatype);
+		return index;
 	}
 
 	/**
-	 * Parses the provided dynamic column name,value and returns Tuple corresponding to it.
-	 * Assumption is that columnNameFromHBase is a dynamic column.
+	 * Builds the layout of records of this table, with a slot for every row
+	 * key field, static column, static part of dynamic columns and component
+	 * of dynamic part
+	 * @return
+	 * 		layout of records of this table
+	 */
+	private RecordLayout buildRecordLayout() {
+		List<String> columnNames = new ArrayList<>();
+
+		for (int i = 0; i < rowkeyTokenizer.getFieldCount(); i++) {
+			if (!rowkeyTokenizer.isHashedField(i)) {
+				columnNames.add(rowkeyTokenizer.getFieldName(i));
+			}
+		}
+
+		for (Map<String, Class> columns : staticColumns.values()) {
+			columnNames.addAll(columns.keySet());
+		}
+
+		if (dynamicColumnsPrefixes != null) {
+			for (Map<String, Class> columns : dynamicColumnsPrefixes.values()) {
+				columnNames.addAll(columns.keySet());
+			}
+		}
+
+		if (dynamicColumnsSuffixes != null) {
+			for (Map<String, Class> columns : dynamicColumnsSuffixes.values()) {
+				columnNames.addAll(columns.keySet());
+			}
+		}
+
+		if (dynamicPartNames != null) {
+			columnNames.addAll(dynamicPartNames);
+		}
+
+		return new RecordLayout(columnNames);
+	}
+
+	/**
+	 * @return
+	 * 		layout of records of this table
+	 */
+	public RecordLayout getRecordLayout() {
+		return recordLayout;
+	}
+
+	/**
+	 * @return
+	 * 		index for resolving column families and static columns from cell bytes
+	 */
+	public StaticColumnIndex getStaticColumnIndex() {
+		return staticColumnIndex;
+	}
+
+	/**
+	 * Returns Tuple corresponding to the provided static column value. The
+	 * value is decoded when it is read for the first time.
+	 * 
+	 * @param staticColumn
+	 * 			static column resolved using the static column index
+	 * @param valueArray
+	 * 			array containing bytes of value stored in this hbase column
+	 * @param valueOffset
+	 * 			offset of value in the array
+	 * @param valueLength
+	 * 			length of value
+	 * @return
+	 * 			Tuple containing the static column value
+	 */
+	public Tuple parseStaticColumn(StaticColumnIndex.StaticColumn staticColumn, byte[] valueArray, int valueOffset,
+			int valueLength) {
+		return Tuple.staticColumn(staticColumn.columnFamily, staticColumn.columnName, valueArray, valueOffset,
+				valueLength, staticColumn.decoder, staticColumn.dataType);
+	}
+
+	/**
+	 * Parses the provided dynamic column
+	 * Assumption is that the column is a dynamic column
 	 * 
 	 * @param columnFamily 
 	 * 			hbase table columnFamily
-	 * @param columnNameFromHBase
-	 * 			hbase table columnName
-	 * @param valueBytes
-	 * 			byte[] of value stored in this hbase column
+	 * @param qualifier
+	 * 			array containing hbase table columnName bytes
+	 * @param offset
+	 * 			offset of columnName in the array
+	 * @param length
+	 * 			length of columnName
 	 * @return
-	 * 			Tuple containing information after parsing the provided 
-	 * 			dynamic column,value. If this column is to be filtered out returns null
-	 * @throws IOException
-	 * @throws ParseException
+	 * 			DynamicColumnComponents containing information after parsing 
+	 * 			the provided dynamic column
 	 */
-	protected Tuple parseDynamicColumn(String columnFamily, String columnNameFromHBase, byte[] valueBytes)
-			throws ParseException {
-		DynamicColumnComponents components = getDynamicColumnComponents(columnFamily, columnNameFromHBase);
+	public DynamicColumnComponents getDynamicColumnComponents(String columnFamily, byte[] qualifier, int offset,
+			int length) {
 
-		String columnValue = DataTypeUtil.parseValue(valueBytes, components.dataType);
+		// we are allowing blank matches in prefixes only, for handling
+		// columns having no prefix/suffix i.e. <X>
+		DynamicColumnTrie.StaticPart staticPart = dynamicColumnTrie.match(columnFamily, qualifier, offset, length);
 
-		String dataFormat = hBaseExplorer.getColumnDataFormat(sourceSchema, components.staticPart);
-		if (dataFormat != null) {
-			columnValue = FormatDateUtil.FormatDate(dataFormat, columnValue);
+		if (staticPart == null) {
+			return new DynamicColumnComponents(null, null, null, null, null);
+		}
+
+		String dynamicPart;
+		if (staticPart.dynamicColumnType == DynamicColumnType.STATIC_PREFIX) {
+			dynamicPart = Bytes.toString(qualifier, offset + staticPart.length, length - staticPart.length);
+		} else {
+			dynamicPart = Bytes.toString(qualifier, offset, length - staticPart.length);
 		}
 
-		if (null == components.staticPart && null == components.dynamicPart && null == columnValue) {
+		return new DynamicColumnComponents(staticPart.name, dynamicPart, staticPart.dynamicColumnType,
+				staticPart.dataType, staticPart.dataFormat);
+	}
+
+	/**
+	 * Parses the provided dynamic column name and returns Tuple corresponding to it.
+	 * Assumption is that the column is a dynamic column. The value is decoded when
+	 * it is read for the first time, so values of dynamic parts rejected by
+	 * dynamic conditions are never decoded.
+	 * 
+	 * @param columnFamily 
+	 * 			hbase table columnFamily
+	 * @param qualifier
+	 * 			array containing hbase table columnName bytes
+	 * @param offset
+	 * 			offset of columnName in the array
+	 * @param length
+	 * 			length of columnName
+	 * @param valueArray
+	 * 			array containing bytes of value stored in this hbase column
+	 * @param valueOffset
+	 * 			offset of value in the array
+	 * @param valueLength
+	 * 			length of value
+	 * @return
+	 * 			Tuple containing information after parsing the provided 
+	 * 			dynamic column. If this column is to be filtered out returns null
+	 */
+	protected Tuple parseDynamicColumn(String columnFamily, byte[] qualifier, int offset, int length,
+			byte[] valueArray, int valueOffset, int valueLength) {
+		DynamicColumnTrie.StaticPart staticPart = dynamicColumnTrie.match(columnFamily, qualifier, offset, length);
+
+		if (staticPart == null) {
 			log.error("****** Found a column not present in source schema cf: " + columnFamily + " cn: "
-					+ columnNameFromHBase);
+					+ Bytes.toString(qualifier, offset, length));
 			return null;
+		}
+
+		String dynamicPart;
+		if (staticPart.dynamicColumnType == DynamicColumnType.STATIC_PREFIX) {
+			dynamicPart = Bytes.toString(qualifier, offset + staticPart.length, length - staticPart.length);
 		} else {
-			return Tuple.dynamicColumn(columnFamily, components.staticPart, columnValue, components.dynamicPart,
-					components.dynamicColType, components.dataType);
+			dynamicPart = Bytes.toString(qualifier, offset, length - staticPart.length);
 		}
+
+		return Tuple.dynamicColumn(columnFamily, staticPart.name, valueArray, valueOffset, valueLength,
+				staticPart.decoder, dynamicPart, staticPart.dynamicColumnType, staticPart.dataType);
 	}
 
 	/**
@@ -93,7 +93,7 @@ public class HBaseTargetAdapter extends TargetAdapter {
         String rowKeySeparator = hBaseExplorer.getRowKeySeparator(targetSchema);
         DataRecord reorderedRecord = targetModel.structureDataRecord(ipRecord);
 
-        Put put = reorderedRecord.getHBasePut(hBaseExplorer, targetSchema, rowKeySeparator);
+        Put put = targetModel.createPut(reorderedRecord, rowKeySeparator);
 
         bufferedMutator.mutate(put);
         return reorderedRecord;
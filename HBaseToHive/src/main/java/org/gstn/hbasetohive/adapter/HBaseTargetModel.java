@@ -20,14 +20,18 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.hadoop.hbase.client.Put;
+import org.gstn.hbasetohive.adapter.TargetProjectionPlan.Slot;
 import org.gstn.schemaexplorer.entity.DataRecord;
 import org.gstn.schemaexplorer.entity.Tuple;
 import org.gstn.schemaexplorer.exception.ColumnNotFoundException;
+import org.gstn.schemaexplorer.exception.HQLException;
+import org.gstn.schemaexplorer.exception.InvalidRecordTypeExcepton;
+import org.gstn.schemaexplorer.exception.InvalidSchemaException;
 import org.gstn.schemaexplorer.exception.SchemaValidationException;
 import org.gstn.schemaexplorer.hbase.HBaseTableExplorer;
 import org.gstn.schemaexplorer.hbase.RowkeyField;
-
-import com.google.gson.JsonElement;
+import org.gstn.schemaexplorer.util.DataTypeUtil;
 
 /**
  * This class is an implementation of TargetModel for target HBase.
@@ -40,6 +44,12 @@ public class HBaseTargetModel implements TargetModel, Serializable {
 
 	private final String targetSchema;
 
+	// target row key fields and columns compiled at job start
+	private final TargetProjectionPlan plan;
+
+	// JSON columns of target compiled at job start
+	private final JsonPathTrie jsonPathTrie;
+
 	 /**
 	 * @param targetSchema
 	 * 			Name of the target HBase table schema
@@ -50,8 +60,13 @@ public class HBaseTargetModel implements TargetModel, Serializable {
 	 * 
 	 * @throws SchemaValidationException
 	 * 			if target table schema has a dynamic column
+	 * @throws InvalidSchemaException
+	 * 			if row key or columns of target table schema are not found
+	 * @throws HQLException
+	 * 			if columns of target table schema are not found
 	 */
-	public HBaseTargetModel(String targetSchema, HBaseTableExplorer hBaseExplorer) throws SchemaValidationException {
+	public HBaseTargetModel(String targetSchema, HBaseTableExplorer hBaseExplorer)
+			throws SchemaValidationException, InvalidSchemaException, HQLException {
 		this.targetSchema = targetSchema;
 		this.hBaseExplorer = hBaseExplorer;
 
@@ -59,61 +74,90 @@ public class HBaseTargetModel implements TargetModel, Serializable {
 		if(!this.hBaseExplorer.isTallTable(targetSchema)){
 			throw new SchemaValidationException("Target schema "+targetSchema+" is not for a tall table. Found a dynamic column in it.");
 		}
+		this.plan = compilePlan();
+		this.jsonPathTrie = new JsonPathTrie(getSchemaJsonColumns());
+	}
+
+	private TargetProjectionPlan compilePlan() throws InvalidSchemaException, HQLException {
+		TargetProjectionPlan targetPlan = new TargetProjectionPlan();
+
+		for (String rowkeyField : hBaseExplorer.getRowkeyFieldNames(targetSchema)) {
+			if (hBaseExplorer.isRowkeyFieldHashed(targetSchema, rowkeyField)) {
+				targetPlan.addHashedRowkeyField(rowkeyField);
+			} else if (hBaseExplorer.isRowkeyFieldLiteral(targetSchema, rowkeyField)) {
+				targetPlan.addLiteralRowkeyField(rowkeyField,
+						hBaseExplorer.getRowkeyFieldLiteralValue(targetSchema, rowkeyField));
+			} else {
+				targetPlan.addRowkeyField(rowkeyField);
+			}
+		}
+
+		for (List<String> target_cf_cn : hBaseExplorer.getAllColumnNames(targetSchema, ".*", ".*")) {
+			String targetCf = target_cf_cn.get(0);
+			String targetCn = target_cf_cn.get(1);
+			targetPlan.addColumn(targetCf, targetCn, hBaseExplorer.getColumnDefaultValue(targetSchema, targetCn),
+					hBaseExplorer.getColumnDataType(targetSchema, targetCn), false,
+					hBaseExplorer.getColumnDataTypeClass(targetSchema, targetCf, targetCn));
+		}
+		return targetPlan;
 	}
 
 	/** 
 	 * @see org.gstn.hbasetohive.adapter.TargetModel#structureDataRecord(org.gstn.schemaexplorer.entity.DataRecord)
 	 */
 	public DataRecord structureDataRecord(DataRecord dataRecord) throws Exception {
-		List<Tuple> targetKeyList = new ArrayList<>();
-		List<Tuple> targetValueList = new ArrayList<>();
+		Slot[] rowkeyFields = plan.getRowkeySlots();
+		Slot[] columns = plan.getColumnSlots();
+		int[] sourceSlots = plan.bind(dataRecord);
+
+		List<Tuple> targetKeyList = new ArrayList<>(rowkeyFields.length);
+		List<Tuple> targetValueList = new ArrayList<>(columns.length);
 
 		boolean isSalted = false;
 		byte[] salt = new byte[1];
 
 		// Row Key components
-		for (String rowkeyField : hBaseExplorer.getRowkeyFieldNames(targetSchema)) {
-			
-			if (hBaseExplorer.isRowkeyFieldHashed(targetSchema, rowkeyField)) {
+		for (int i = 0; i < rowkeyFields.length; i++) {
+			Slot rowkeyField = rowkeyFields[i];
+
+			switch (rowkeyField.type) {
+			case HASHED_ROWKEY_FIELD:
 				isSalted = true;
-				salt[0] = RowkeyField.hash(dataRecord.getRowkeyTuple(rowkeyField).getColumnValue());
-			} else if (hBaseExplorer.isRowkeyFieldLiteral(targetSchema, rowkeyField)) {
-				String literalValue = hBaseExplorer.getRowkeyFieldLiteralValue(targetSchema, rowkeyField);
-				Tuple rowColumnTuple = Tuple.rowkeyColumn(rowkeyField, literalValue);
-				targetKeyList.add(rowColumnTuple);
-			} else {
+				Tuple hashedTuple = getSourceRowkeyTuple(dataRecord, sourceSlots[i], rowkeyField);
+				salt[0] = RowkeyField.hash(hashedTuple.getColumnValue());
+				break;
+			case LITERAL_ROWKEY_FIELD:
+				targetKeyList.add(Tuple.rowkeyColumn(rowkeyField.columnName, rowkeyField.value));
+				break;
+			default:
 				// We assume data for target row key column is always present in
 				// the source
-				if (dataRecord.isColumnNamePresent(rowkeyField)) {
-
-					Tuple rowColumnTuple = dataRecord.getRowkeyTuple(rowkeyField);
-					targetKeyList.add(rowColumnTuple);
+				if (TargetProjectionPlan.getTuple(dataRecord, sourceSlots[i], rowkeyField) != null) {
+					targetKeyList.add(getSourceRowkeyTuple(dataRecord, sourceSlots[i], rowkeyField));
 				} else {
-					throw new ColumnNotFoundException("Row key column " + rowkeyField + " from target schema "
-							+ targetSchema + " not found in record");
+					throw new ColumnNotFoundException("Row key column " + rowkeyField.columnName
+							+ " from target schema " + targetSchema + " not found in record");
 				}
 			}
 		}
 
 		// Data columns
-		for (List<String> target_cf_cn : hBaseExplorer.getAllColumnNames(targetSchema, ".*", ".*")) {
-			String targetCf = target_cf_cn.get(0);
-			String targetCn = target_cf_cn.get(1);
+		for (int i = 0; i < columns.length; i++) {
+			Slot column = columns[i];
 
-			Tuple columnTuple;
-			if (dataRecord.isColumnNamePresent(targetCn)) {
-				columnTuple = dataRecord.cloneTupleWithNewCF(targetCn, targetCf);
+			Tuple sourceTuple = TargetProjectionPlan.getTuple(dataRecord, sourceSlots[rowkeyFields.length + i],
+					column);
+			if (sourceTuple != null) {
+				targetValueList.add(sourceTuple.cloneWithNewCF(column.columnFamily));
 			} else {
 				// Column not present in source. Create a tuple with default
 				// value
-				String defaultColumnValue = hBaseExplorer.getColumnDefaultValue(targetSchema, targetCn);
-				Class dataType = hBaseExplorer.getColumnDataType(targetSchema, targetCn);
-				columnTuple = Tuple.staticColumn(targetCf, targetCn, defaultColumnValue, dataType);
+				targetValueList.add(Tuple.staticColumn(column.columnFamily, column.columnName, column.value,
+						column.dataType));
 			}
-			targetValueList.add(columnTuple);
 		}
 
-		DataRecord outputDataRecord = new DataRecord(targetKeyList, targetValueList);
+		DataRecord outputDataRecord = new DataRecord(plan.getTargetLayout(), targetKeyList, targetValueList);
 
 		if (isSalted) {
 			outputDataRecord.setSalt(salt);
@@ -121,9 +165,60 @@ public class HBaseTargetModel implements TargetModel, Serializable {
 		return outputDataRecord;
 	}
 
+	private Tuple getSourceRowkeyTuple(DataRecord dataRecord, int sourceSlot, Slot rowkeyField)
+			throws ColumnNotFoundException {
+		Tuple tuple = TargetProjectionPlan.getRowkeyTuple(dataRecord, sourceSlot, rowkeyField);
+		if (tuple == null) {
+			// throws the exception of the missing row key field
+			return dataRecord.getRowkeyTuple(rowkeyField.columnName);
+		}
+		return tuple;
+	}
+
+	/**
+	 * Creates hbase put from a record restructured by structureDataRecord.
+	 * Column families, qualifiers and data types of the target columns are
+	 * taken from the plan instead of being resolved for every column. Records
+	 * whose columns do not line up with the plan, like those having source
+	 * tuples of another name, are converted by DataRecord.getHBasePut.
+	 * 
+	 * @param targetRecord
+	 * 			record returned by structureDataRecord
+	 * @param rowKeySeparator
+	 * 			separator between row key fields of target table
+	 * @return put for the target table
+	 */
+	@Override
+	public Put createPut(DataRecord targetRecord, String rowKeySeparator)
+			throws InvalidSchemaException, InvalidRecordTypeExcepton {
+		if (!plan.hasUniqueColumnNames()) {
+			return targetRecord.getHBasePut(hBaseExplorer, targetSchema, rowKeySeparator);
+		}
+
+		Put put = new Put(targetRecord.getSaltedKey(rowKeySeparator, ""));
+
+		Slot[] columns = plan.getColumnSlots();
+		for (int i = 0; i < columns.length; i++) {
+			Slot column = columns[i];
+			Tuple tuple = targetRecord.getTupleAt(plan.getTargetColumnSlot(i));
+			if (tuple == null || !column.columnName.equals(tuple.getColumnName())
+					|| !column.columnFamily.equals(tuple.getColumnFamily())) {
+				return targetRecord.getHBasePut(hBaseExplorer, targetSchema, rowKeySeparator);
+			}
+
+			byte[] val = null;
+			String value = tuple.getColumnValue();
+			if (value != null) {
+				val = DataTypeUtil.parseStringToByteArray(value, column.outputType);
+			}
+			put.addColumn(column.familyBytes, column.qualifierBytes, val);
+		}
+		return put;
+	}
+
 	@Override
-	public boolean checkKey(String parentPath, String currentPath, String key, JsonElement value) {
-		return hBaseExplorer.checkKey(targetSchema, parentPath, currentPath, key, value);
+	public JsonPathTrie getJsonPathTrie() {
+		return jsonPathTrie;
 	}
 
 	@Override
@@ -169,7 +264,7 @@ public class HBaseTargetModel implements TargetModel, Serializable {
 			}
 		}
 
-		DataRecord outputDataRecord = new DataRecord(targetKeyList, targetValueList);
+		DataRecord outputDataRecord = new DataRecord(plan.getTargetLayout(), targetKeyList, targetValueList);
 		outputDataRecord.setRegexInKey(regexInKey);
 		
 		if (isSalted) {
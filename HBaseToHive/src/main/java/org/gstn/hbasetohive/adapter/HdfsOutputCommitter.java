@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileAlreadyExistsException;
+import org.apache.hadoop.fs.FileContext;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.OutputCommitter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskType;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.spark.TaskContext;
+import org.apache.spark.mapred.SparkHadoopMapRedUtil;
+
+/**
+ * Commits files written by a task attempt into the hdfs path of a job. Every
+ * attempt of a task writes its files under a directory of its own, so that
+ * attempts running at the same time, like speculative ones, do not write into
+ * the same files. When an attempt succeeds, its directory is renamed to the
+ * directory of the task, which succeeds only for the first attempt to finish,
+ * and its files are then moved into the job path. The directory of the task is
+ * kept as a marker of the commit, so that the rename fails for every later
+ * attempt of the task, whose files are deleted. When running in Spark, an
+ * attempt also asks the driver for permission to commit, through the output
+ * commit coordinator, which denies attempts still running after the stage is
+ * done, like speculative ones.
+ * 
+ * Once all the tasks are done, commitJob moves the files of tasks whose
+ * attempt failed while moving them, and removes directories of the tasks and
+ * attempts.
+ *
+ */
+public class HdfsOutputCommitter {
+
+	// directory under the job path having directories of task attempts
+	public static final String TEMPORARY_DIR = "_temporary";
+
+	private final Configuration conf;
+	private final String basePath;
+	private final Path attemptPath;
+	private final Path taskPath;
+
+	/**
+	 * @param hdfsURL
+	 *            Namenode URL for the hdfs cluster where the files are written
+	 * @param basePath
+	 *            HDFS directory path of the job
+	 */
+	public HdfsOutputCommitter(String hdfsURL, String basePath) {
+		this(getConfiguration(hdfsURL), basePath);
+	}
+
+	/**
+	 * @param conf
+	 *            configuration whose default file system is the one where the
+	 *            files are written
+	 * @param basePath
+	 *            HDFS directory path of the job
+	 */
+	public HdfsOutputCommitter(Configuration conf, String basePath) {
+		this(conf, basePath, TaskContext.get().partitionId(), TaskContext.get().attemptNumber());
+	}
+
+	HdfsOutputCommitter(Configuration conf, String basePath, int partitionId, int attemptNumber) {
+		this.conf = conf;
+		this.basePath = basePath.endsWith(File.separator) ? basePath : basePath + File.separator;
+
+		String taskDir = this.basePath + TEMPORARY_DIR + File.separator + partitionId;
+		taskPath = new Path(taskDir);
+		attemptPath = new Path(taskDir + "_" + attemptNumber);
+	}
+
+	public Configuration getConfiguration() {
+		return conf;
+	}
+
+	/**
+	 * @param relativePath
+	 *            path of a file relative to the job path
+	 * @return path at which the file is written by this attempt. An existing
+	 *         file at the path is deleted
+	 * @throws IOException
+	 */
+	public Path getFilePath(String relativePath) throws IOException {
+		Path path = new Path(attemptPath, relativePath);
+		FileSystem fs = FileSystem.get(conf);
+		if (fs.exists(path)) {
+			fs.delete(path, false);
+		}
+		return path;
+	}
+
+	/**
+	 * Commits files written by this attempt. It is called once all the files
+	 * are closed.
+	 * 
+	 * @throws IOException
+	 */
+	public void commitTask() throws IOException {
+		TaskContext taskContext = TaskContext.get();
+		if (taskContext == null) {
+			commitAttempt();
+			return;
+		}
+
+		// throws CommitDeniedException if the driver does not allow this
+		// attempt to commit, which Spark does not count as a task failure
+		TaskAttemptID attemptId = new TaskAttemptID("hbasetohive", taskContext.stageId(), TaskType.MAP,
+				taskContext.partitionId(), taskContext.attemptNumber());
+		SparkHadoopMapRedUtil.commitTask(new AttemptCommitter(), new TaskAttemptContextImpl(conf, attemptId),
+				taskContext.stageId(), taskContext.partitionId());
+	}
+
+	/**
+	 * Renames the directory of this attempt to the directory of the task and
+	 * moves its files into the job path. The files are deleted instead if
+	 * another attempt of the task is already committed.
+	 * 
+	 * @throws IOException
+	 */
+	void commitAttempt() throws IOException {
+		FileSystem fs = FileSystem.get(conf);
+		if (!fs.exists(attemptPath)) {
+			// nothing written
+			return;
+		}
+
+		try {
+			// fails if another attempt of the task is already committed
+			FileContext.getFileContext(conf).rename(attemptPath, taskPath);
+		} catch (FileAlreadyExistsException e) {
+			fs.delete(attemptPath, true);
+			return;
+		}
+
+		// the directory of the task is left in place, until commitJob
+		// removes it
+		moveFiles(fs, taskPath, new Path(basePath));
+	}
+
+	/**
+	 * Commits files of all the tasks of a job, which were not moved into the
+	 * job path by their attempt, and deletes files of attempts which were not
+	 * committed. It is called once all the tasks of the job are done.
+	 * 
+	 * @param hdfsURL
+	 *            Namenode URL for the hdfs cluster where the files are written
+	 * @param basePath
+	 *            HDFS directory path of the job
+	 * @throws IOException
+	 */
+	public static void commitJob(String hdfsURL, String basePath) throws IOException {
+		commitJob(getConfiguration(hdfsURL), basePath);
+	}
+
+	/**
+	 * @see #commitJob(String, String)
+	 */
+	public static void commitJob(Configuration conf, String basePath) throws IOException {
+		FileSystem fs = FileSystem.get(conf);
+		Path temporaryPath = new Path(basePath, TEMPORARY_DIR);
+		if (!fs.exists(temporaryPath)) {
+			return;
+		}
+
+		for (FileStatus status : fs.listStatus(temporaryPath)) {
+			// directories of committed tasks are named by the partition id,
+			// those of attempts by the partition id and attempt number
+			if (status.isDirectory() && !status.getPath().getName().contains("_")) {
+				moveFiles(fs, status.getPath(), new Path(basePath));
+			}
+		}
+		fs.delete(temporaryPath, true);
+	}
+
+	private static void moveFiles(FileSystem fs, Path source, Path destination) throws IOException {
+		for (FileStatus status : fs.listStatus(source)) {
+			Path destinationPath = new Path(destination, status.getPath().getName());
+			if (status.isDirectory()) {
+				fs.mkdirs(destinationPath);
+				moveFiles(fs, status.getPath(), destinationPath);
+			} else {
+				if (fs.exists(destinationPath)) {
+					fs.delete(destinationPath, false);
+				}
+				if (!fs.rename(status.getPath(), destinationPath)) {
+					throw new IOException("Unable to move " + status.getPath() + " to " + destinationPath);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Lets SparkHadoopMapRedUtil ask the output commit coordinator whether
+	 * this attempt may commit.
+	 */
+	private class AttemptCommitter extends OutputCommitter {
+
+		@Override
+		public void setupJob(JobContext jobContext) {
+		}
+
+		@Override
+		public void setupTask(TaskAttemptContext taskContext) {
+		}
+
+		@Override
+		public boolean needsTaskCommit(TaskAttemptContext taskContext) throws IOException {
+			return FileSystem.get(conf).exists(attemptPath);
+		}
+
+		@Override
+		public void commitTask(TaskAttemptContext taskContext) throws IOException {
+			commitAttempt();
+		}
+
+		@Override
+		public void abortTask(TaskAttemptContext taskContext) throws IOException {
+			FileSystem.get(conf).delete(attemptPath, true);
+		}
+	}
+
+	private static Configuration getConfiguration(String hdfsURL) {
+		Configuration conf = new Configuration();
+		conf.set("fs.defaultFS", hdfsURL);
+		return conf;
+	}
+
+}
@@ -15,97 +15,148 @@
  ******************************************************************************/
 package org.gstn.hbasetohive.adapter;
 
-import java.io.BufferedWriter;
-import java.io.File;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FSDataOutputStream;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.spark.TaskContext;
+import org.gstn.hbasetohive.job.pojo.SystemConfig;
 import org.gstn.hbasetohive.pojo.DeletionMetadata;
 import org.gstn.schemaexplorer.entity.DataRecord;
+import org.gstn.schemaexplorer.hive.HiveTableExplorer;
 
 /**
  * This class implements TargetAdapter for HDFS. It creates target row in 
- * string format from source DataRecord and writes it into HDFS file.
+ * string format from source DataRecord and writes it into HDFS file. Rows of
+ * hive tables whose files can be attached to the table as they are, are
+ * written into parquet files instead, see HiveTableIR.isParquetLoadable.
+ * Text files are compressed by the codec of the hdfs target properties, if any.
+ * Files are rolled over as per the maximum rows and size of a file, and are
+ * committed into the HDFS path when the task succeeds, see 
+ * HdfsOutputCommitter.
  *
  */
 public class HdfsTargetAdapter extends TargetAdapter {
 
-	private BufferedWriter insertBufferedWriter, deleteAllBufferedWriter, 
-						deleteSingleBufferedWriter;
+	private final HdfsOutputCommitter committer;
+
+	private final RollingTextWriter insertWriter, deleteAllWriter, deleteSingleWriter;
 	
-	private final String insertFilePath, deleteAllFilePath, deleteSingleFilePath, hdfsURL;
+	private final String insertFileName;
+
+	private final long maxRowsPerFile, maxFileSize;
+
+	// hive columns vs. data types if rows are written into parquet files
+	private final Map<String, String> parquetColumns;
+	private final List<String> partitionColumns;
+	private final int maxOpenFiles;
 	
-	private final boolean overwriteHDFSFile = true;
+	private PartitionedRowWriter insertParquetWriter;
 	
 	private static final String separator = "\u0001";
 	private static final String quoteChar = "";
 
 	/**
-	 * @param hdfsURL
-	 * 			Namenode URL for the hdfs cluster where we want to write 
-	 * 			hdfs file
+	 * @param systemConfig
+	 * 			SystemConfig instance having the Namenode URL for the hdfs 
+	 * 			cluster where we want to write hdfs files, and limits of the 
+	 * 			files
 	 * @param basePath
 	 * 			HDFS directory path under which we want the HDFS data to be written.  
-	 * @throws IOException
 	 */
-	public HdfsTargetAdapter(String hdfsURL, String basePath) {
+	public HdfsTargetAdapter(SystemConfig systemConfig, String basePath) {
+		this(systemConfig, basePath, null, null);
+	}
 
-		if (!basePath.endsWith(File.separator)) {
-			basePath = basePath.concat(File.separator);
-		}
-		int partitionId = TaskContext.getPartitionId();
-		insertFilePath = basePath + "insert_" +partitionId;
-		deleteAllFilePath = basePath + "delete_all_" +partitionId;
-		deleteSingleFilePath = basePath + "delete_single_" +partitionId;
+	/**
+	 * @param systemConfig
+	 * 			SystemConfig instance having the Namenode URL for the hdfs 
+	 * 			cluster where we want to write hdfs files, and limits of the 
+	 * 			files
+	 * @param basePath
+	 * 			HDFS directory path under which we want the HDFS data to be written.  
+	 * @param hiveExplorer
+	 * 			HiveTableExplorer instance which has information about the 
+	 * 			target hive table
+	 * @param targetSchema
+	 * 			Name of the target hive table schema
+	 */
+	public HdfsTargetAdapter(SystemConfig systemConfig, String basePath, HiveTableExplorer hiveExplorer,
+			String targetSchema) {
+
+		committer = new HdfsOutputCommitter(systemConfig.getDestHdfsUrl(), basePath);
+		maxRowsPerFile = systemConfig.getMaxRowsPerFileValue();
+		maxFileSize = systemConfig.getMaxFileSizeValue();
+		maxOpenFiles = systemConfig.getMaxOpenPartitionFilesValue();
 
-		this.hdfsURL = hdfsURL;
+		Class<? extends CompressionCodec> codecClass = systemConfig.getCompressionCodecClass();
+		CompressionCodec codec = codecClass == null ? null
+				: ReflectionUtils.newInstance(codecClass, committer.getConfiguration());
+
+		int partitionId = TaskContext.getPartitionId();
+		insertFileName = "insert_" +partitionId;
+		insertWriter = new RollingTextWriter(committer, insertFileName, maxRowsPerFile, maxFileSize, codec);
+		deleteAllWriter = new RollingTextWriter(committer, "delete_all_" +partitionId, maxRowsPerFile,
+				maxFileSize, codec);
+		deleteSingleWriter = new RollingTextWriter(committer, "delete_single_" +partitionId, maxRowsPerFile,
+				maxFileSize, codec);
 		
+		if (hiveExplorer != null && hiveExplorer.isParquetLoadable(targetSchema)) {
+			parquetColumns = new LinkedHashMap<>();
+			for (String column : hiveExplorer.getSchemaColumns(targetSchema)) {
+				parquetColumns.putIfAbsent(column, hiveExplorer.getColumnDataType(targetSchema, column));
+			}
+			partitionColumns = hiveExplorer.getPartitionColumns(targetSchema);
+		} else {
+			parquetColumns = null;
+			partitionColumns = null;
+		}
 	}
 
 	@Override
 	public DataRecord writeRow(TargetModel targetModel, DataRecord record) throws Exception {
 		DataRecord reorderedRecord = targetModel.structureDataRecord(record);
 
-		String row = reorderedRecord.getRecord(separator, quoteChar);
-		
-		if(insertBufferedWriter==null){
-			insertBufferedWriter = getBufferedWriter(insertFilePath);
+		if (parquetColumns != null) {
+			if (insertParquetWriter == null) {
+				insertParquetWriter = new PartitionedRowWriter(committer, insertFileName, parquetColumns,
+						partitionColumns, maxOpenFiles, maxRowsPerFile, maxFileSize);
+			}
+			insertParquetWriter.write(reorderedRecord.getColumnValues());
+			return reorderedRecord;
 		}
-		
-		insertBufferedWriter.write(row);
-		insertBufferedWriter.newLine();
+
+		insertWriter.write(reorderedRecord.getRecord(separator, quoteChar));
 
 		return reorderedRecord;
 	}
 
 	@Override
 	public void flush() throws IOException {
-		if(insertBufferedWriter!=null)
-			insertBufferedWriter.flush();
-		
-		if(deleteAllBufferedWriter!=null)
-			deleteAllBufferedWriter.flush();
+		// parquet files are written out as their row groups fill up
 		
-		if(deleteSingleBufferedWriter!=null)
-			deleteSingleBufferedWriter.flush();
+		insertWriter.flush();
+		deleteAllWriter.flush();
+		deleteSingleWriter.flush();
 	}
 
+	/**
+	 * Closes the files and commits them. It is called only if all the rows of
+	 * the task are written.
+	 */
 	@Override
 	public void close() throws IOException {
-		if(insertBufferedWriter!=null)
-			insertBufferedWriter.close();
-		
-		if(deleteAllBufferedWriter!=null)
-			deleteAllBufferedWriter.close();
+		if(insertParquetWriter!=null)
+			insertParquetWriter.close();
 		
-		if(deleteSingleBufferedWriter!=null)
-			deleteSingleBufferedWriter.close();
+		insertWriter.close();
+		deleteAllWriter.close();
+		deleteSingleWriter.close();
+
+		committer.commitTask();
 	}
 
 	@Override
@@ -119,20 +170,12 @@ public class HdfsTargetAdapter extends TargetAdapter {
 			if(!structuredRecord.isDynamicPartsInKey()){
 				
 				//add to delete all
-				if(deleteAllBufferedWriter==null){
-					deleteAllBufferedWriter = getBufferedWriter(deleteAllFilePath);
-				}
-				deleteAllBufferedWriter.write(row);
-				deleteAllBufferedWriter.newLine();
+				deleteAllWriter.write(row);
 				
 				deleteAllAdded=true;
 			}else{
 				//add to delete single
-				if(deleteSingleBufferedWriter==null){
-					deleteSingleBufferedWriter = getBufferedWriter(deleteSingleFilePath);
-				}
-				deleteSingleBufferedWriter.write(row);
-				deleteSingleBufferedWriter.newLine();
+				deleteSingleWriter.write(row);
 				
 				deleteSingleAdded=true;
 			}
@@ -141,14 +184,4 @@ public class HdfsTargetAdapter extends TargetAdapter {
 		return new DeletionMetadata(deleteAllAdded, deleteSingleAdded);
 	}
 	
-	private BufferedWriter getBufferedWriter(String hdfsFilePath) throws IOException{
-		Configuration conf = new Configuration();
-		conf.set("fs.defaultFS", hdfsURL);
-		
-		Path path = new Path(hdfsFilePath);
-		FSDataOutputStream os = FileSystem.get(conf).create(path, overwriteHDFSFile);
-		return new BufferedWriter(new OutputStreamWriter(os));
-	}
-	
 }
-
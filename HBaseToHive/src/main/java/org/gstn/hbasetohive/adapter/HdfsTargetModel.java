@@ -20,13 +20,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.hadoop.hbase.client.Put;
+import org.gstn.hbasetohive.adapter.TargetProjectionPlan.Slot;
 import org.gstn.hbasetohive.util.FormatDateUtil;
 import org.gstn.schemaexplorer.entity.DataRecord;
 import org.gstn.schemaexplorer.entity.Tuple;
+import org.gstn.schemaexplorer.exception.InvalidSchemaException;
 import org.gstn.schemaexplorer.target.TargetExplorer;
 
-import com.google.gson.JsonElement;
-
 /**
  * This class is an implementation of TargetModel for target HDFS.
  *
@@ -37,6 +38,12 @@ public class HdfsTargetModel implements TargetModel, Serializable {
 	private final TargetExplorer targetExplorer;
 	private final String targetSchema;
 
+	// target columns compiled at job start
+	private final TargetProjectionPlan plan;
+
+	// JSON columns of target compiled at job start
+	private final JsonPathTrie jsonPathTrie;
+
 	/**
 	 * @param targetSchema
 	 *            Name of the target HDFS file schema
@@ -47,6 +54,19 @@ public class HdfsTargetModel implements TargetModel, Serializable {
 	public HdfsTargetModel(String targetSchema, TargetExplorer targetExplorer) {
 		this.targetSchema = targetSchema;
 		this.targetExplorer = targetExplorer;
+		this.plan = compilePlan();
+		this.jsonPathTrie = new JsonPathTrie(getSchemaJsonColumns());
+	}
+
+	private TargetProjectionPlan compilePlan() {
+		TargetProjectionPlan targetPlan = new TargetProjectionPlan();
+		for (String targetColumn : targetExplorer.getSchemaColumns(targetSchema)) {
+			boolean reformatDate = targetExplorer.isJsonColumn(targetSchema, targetColumn)
+					&& targetExplorer.getColumnDataType(targetSchema, targetColumn).equalsIgnoreCase("date");
+			targetPlan.addColumn(null, targetColumn, targetExplorer.getColumnDefaultValue(targetSchema, targetColumn),
+					null, reformatDate, null);
+		}
+		return targetPlan;
 	}
 
 	/**
@@ -55,31 +75,32 @@ public class HdfsTargetModel implements TargetModel, Serializable {
 	 */
 	public DataRecord structureDataRecord(DataRecord dataRecord) throws Exception {
 
-		List<Tuple> targetColumnTuples = new ArrayList<>();
+		Slot[] columns = plan.getColumnSlots();
+		int[] sourceSlots = plan.bind(dataRecord);
+		List<Tuple> targetColumnTuples = new ArrayList<>(columns.length);
 
-		for (String targetColumn : targetExplorer.getSchemaColumns(targetSchema)) {
-			if (dataRecord.isColumnNamePresent(targetColumn)) {
-				if (targetExplorer.isJsonColumn(targetSchema, targetColumn)
-						&& targetExplorer.getColumnDataType(targetSchema, targetColumn).equalsIgnoreCase("date")) {
-					targetColumnTuples.add(Tuple.rowkeyColumn(targetColumn,
-							FormatDateUtil.FormatDate(dataRecord.getColumnTupleValue(targetColumn))));
+		for (int i = 0; i < columns.length; i++) {
+			Slot column = columns[i];
+			Tuple sourceTuple = TargetProjectionPlan.getTuple(dataRecord, sourceSlots[i], column);
+			if (sourceTuple != null) {
+				if (column.reformatDate) {
+					targetColumnTuples.add(Tuple.rowkeyColumn(column.columnName,
+							FormatDateUtil.FormatDate(sourceTuple.getColumnValue())));
 				} else {
-					targetColumnTuples
-							.add(Tuple.rowkeyColumn(targetColumn, dataRecord.getColumnTupleValue(targetColumn)));
+					targetColumnTuples.add(Tuple.rowkeyColumn(column.columnName, sourceTuple.getColumnValue()));
 				}
 			} else {
 				// column not in source. write a default value for the column in
 				// hdfs file
-				targetColumnTuples.add(Tuple.rowkeyColumn(targetColumn,
-						targetExplorer.getColumnDefaultValue(targetSchema, targetColumn)));
+				targetColumnTuples.add(Tuple.rowkeyColumn(column.columnName, column.value));
 			}
 		}
-		return new DataRecord(targetColumnTuples);
+		return new DataRecord(plan.getTargetLayout(), targetColumnTuples);
 	}
 
 	@Override
-	public boolean checkKey(String parentPath, String currentPath, String key, JsonElement value) {
-		return targetExplorer.checkKey(targetSchema, parentPath, currentPath, key, value);
+	public JsonPathTrie getJsonPathTrie() {
+		return jsonPathTrie;
 	}
 
 	@Override
@@ -88,6 +109,12 @@ public class HdfsTargetModel implements TargetModel, Serializable {
 		return deleteRecord;
 	}
 
+	@Override
+	public Put createPut(DataRecord targetRecord, String rowKeySeparator) throws InvalidSchemaException {
+		// hdfs target schemas do not have column families of hbase tables
+		throw new InvalidSchemaException("Target schema " + targetSchema + " is not an hbase schema");
+	}
+
 	@Override
 	public Map<String, Class> getSchemaJsonColumns() {
 		return targetExplorer.getSchemaJsonColumns(targetSchema);
@@ -17,31 +17,31 @@ package org.gstn.hbasetohive.adapter;
 
 import static org.gstn.schemaexplorer.target.Constants.PARENT_PATH_SEPARATOR;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
+import org.gstn.hbasetohive.adapter.JsonPathTrie.Node;
+import org.gstn.hbasetohive.adapter.JsonRecordIterator.JsonArrayRows;
+import org.gstn.hbasetohive.adapter.JsonRecordIterator.JsonObjectRows;
 import org.gstn.schemaexplorer.entity.DataRecord;
 import org.gstn.schemaexplorer.entity.Tuple;
-import org.gstn.schemaexplorer.exception.ColumnFamilyNotFoundException;
-import org.gstn.schemaexplorer.exception.InvalidColumnException;
 import org.gstn.schemaexplorer.exception.InvalidJSONException;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * This class is used to fetch attributes from the JSON columns as required in
- * target.
+ * target. The JSON is read as a stream of tokens, following the JSON path trie
+ * of the target, so that attributes not required in the target are skipped
+ * without being parsed into objects.
  */
 public class JsonAdapter {
 
-	private static JsonParser parser = new JsonParser();
-
 	/**
 	 * This method flattons the input json for json columns mentioned in the
 	 * target schema. By adding each row of the flattened json into input
@@ -52,259 +52,227 @@ public class JsonAdapter {
 	 * @param json
 	 *            string json to be flattened
 	 * @param targetModel
-	 *            map of parent path vs. list of columns under that parent path
-	 *            which are required in the target
+	 *            target model whose JSON path trie tells the attributes
+	 *            required in the target
 	 * @return list of data records to be written into target.
 	 * @throws InvalidJSONException
-	 * @throws ColumnFamilyNotFoundException
-	 * @throws InvalidColumnException
+	 * @see #explodeJson(DataRecord, String, TargetModel, long)
 	 */
 	public static List<DataRecord> flattenJson(DataRecord dataRecord, String json, TargetModel targetModel)
-			throws InvalidJSONException, ColumnFamilyNotFoundException, InvalidColumnException {
+			throws InvalidJSONException {
 
 		List<DataRecord> dataRecordList = new ArrayList<>();
-		dataRecordList.add(dataRecord);
-
-		boolean useParentKey = true;
-
-		JsonElement jsonElement = parser.parse(json);
-
-		if (jsonElement instanceof JsonObject) {
-			return flattenJson(dataRecordList, (JsonObject) jsonElement, useParentKey, null, targetModel)
-					.getDataRecordList();
-		} else if (jsonElement instanceof JsonArray) {
-			List<DataRecord> finalDataRecordList = new ArrayList<>();
-
-			for (JsonElement jsonElement1 : jsonElement.getAsJsonArray()) {
-				finalDataRecordList.addAll(flattenJson(dataRecord, jsonElement1.toString(), targetModel));
-			}
-			return finalDataRecordList;
-		} else {
-			throw new InvalidJSONException("Expected a JsonObject, but found " + jsonElement.getClass());
+		JsonRecordIterator iterator = explodeJson(dataRecord, json, targetModel, Long.MAX_VALUE);
+		while (iterator.hasNext()) {
+			dataRecordList.add(iterator.next());
 		}
-
+		return dataRecordList;
 	}
 
 	/**
-	 * @see #flattenJson(DataRecord, String, Map)
+	 * This method flattons the input json for json columns mentioned in the
+	 * target schema. The JSON is read completely, but the data records, one
+	 * for each combination of the elements of JSON arrays, are created only as
+	 * they are iterated over.
+	 * 
+	 * @param dataRecord
+	 *            input data record having columns added so far
+	 * @param json
+	 *            string json to be flattened
+	 * @param targetModel
+	 *            target model whose JSON path trie tells the attributes
+	 *            required in the target
+	 * @param rowLimit
+	 *            maximum number of data records to be created from the json
+	 * @return iterator over data records to be written into target.
+	 * @throws InvalidJSONException
+	 *             if the json is not an object or an array of objects
 	 */
-	private static Result flattenJson(List<DataRecord> dataRecordList, JsonObject object, boolean useParentKey,
-			String parentPath, TargetModel targetModel)
-			throws InvalidJSONException, ColumnFamilyNotFoundException, InvalidColumnException {
-
-		boolean modifiedRecordList = false;
-
-		Set<Map.Entry<String, JsonElement>> set = object.entrySet();
-		Iterator<Map.Entry<String, JsonElement>> iterator = set.iterator();
+	public static JsonRecordIterator explodeJson(DataRecord dataRecord, String json, TargetModel targetModel,
+			long rowLimit) throws InvalidJSONException {
 
-		List<JsonArrayWrapper> jsonArrayList = new ArrayList<>();
+		JsonReader reader = new JsonReader(new StringReader(json));
+		reader.setLenient(true);
 
-		// we process all the nonarray json elements and add json array elements
-		// to a list to be processed in the end
-		while (iterator.hasNext()) {
-
-			Map.Entry<String, JsonElement> entry = iterator.next();
-			String key = entry.getKey();
-			JsonElement value = entry.getValue();
-			String currentPath;
-			if (useParentKey == true) {
-				currentPath = parentPath == null ? key : parentPath + PARENT_PATH_SEPARATOR + key;
-			} else {
-				currentPath = "";
-			}
-
-			boolean isKeyRequired = true;
-			if (useParentKey == true) {
-				// we check if this key is required
-				isKeyRequired = targetModel.checkKey(parentPath, currentPath, key, value);
-			}
-
-			if (isKeyRequired) {
-
-				if (null != value) {
-					if (!value.isJsonPrimitive()) {
-						if (value.isJsonObject()) {
-							Result result = flattenJson(dataRecordList, (JsonObject) value, useParentKey, currentPath,
-									targetModel);
-							if (result.isModifiedRecordList()) {
-								dataRecordList = result.getDataRecordList();
-								modifiedRecordList = true;
-							}
-						} else if (value.isJsonArray() && value.toString().contains(":")) {
-
-							JsonArray jsonArray = value.getAsJsonArray();
-							if (null != jsonArray) {
-								// value is array of jsons, so each element
-								// within value array will have key so we are
-								// passing currentPath as parentPath
-								jsonArrayList.add(new JsonArrayWrapper(jsonArray, currentPath));
-							}
-
-						} else if (value.isJsonArray() && !value.toString().contains(":")) {
-							// create jsonarray with key,value pair and add to
-							// list. key will be name of the array field
-							JsonArray array = value.getAsJsonArray();
-							JsonArray array2 = new JsonArray();
-							if (null != array) {
-								for (JsonElement element : array) {
-									JsonObject obj = new JsonObject();
-									obj.addProperty(key, element.getAsString());
-									array2.add(obj);
-								}
-								// value is array of non json values, so the
-								// elements within value array will not have any
-								// key.
-								// so we have used current key as the key for
-								// elements and so we are passing parentPath as
-								// parentPath instead of current path
-								jsonArrayList.add(new JsonArrayWrapper(array2, parentPath));
-							}
-
-						}
-					} else {
-						if (dataRecordList != null) {
-							modifiedRecordList = true;
-							if (useParentKey == true) {
-								Class dataType = targetModel.getSchemaJsonColumns().get(currentPath);
-								addTupleIntoDataRecords(dataRecordList,
-										Tuple.staticColumn("", currentPath, value.getAsString(), dataType));
-							} else {
-								addTupleIntoDataRecords(dataRecordList, Tuple.rowkeyColumn(key, value.getAsString()));
-							}
-						}
-					}
-				}
+		try {
+			try {
+				reader.peek();
+			} catch (EOFException e) {
+				throw new InvalidJSONException("Expected a JsonObject, but found an empty document");
 			}
-		}
-
-		if (!jsonArrayList.isEmpty()) {
-			for (int i = 0; i < jsonArrayList.size(); i++) {
-				List<DataRecord> jsonArrayDataRecordList = new ArrayList<>();
-
-				JsonArrayWrapper jsonArrayWrapper = jsonArrayList.get(i);
 
-				if (jsonArrayWrapper.getJsonArray() != null) {
-					for (JsonElement element : jsonArrayWrapper.getJsonArray()) {
-						DataRecord blankDataRecord = new DataRecord();
-						List<DataRecord> list = new ArrayList<>();
-						list.add(blankDataRecord);
-						Result result = flattenJson(list, (JsonObject) element, useParentKey,
-								jsonArrayWrapper.getParentPath(), targetModel);
-						if (result.isModifiedRecordList()) {
-							list = result.getDataRecordList();
-							jsonArrayDataRecordList.addAll(list);
-						}
-					}
-
-					if (!jsonArrayDataRecordList.isEmpty()) {
-						modifiedRecordList = true;
-						dataRecordList = mergeDataRecordLists(dataRecordList, jsonArrayDataRecordList);
-					}
-				}
+			List<JsonObjectRows> objects = new ArrayList<>();
+			flattenJson(reader, objects, targetModel.getJsonPathTrie().getRoot());
 
+			if (reader.peek() != JsonToken.END_DOCUMENT) {
+				throw new JsonSyntaxException("Did not consume the entire document.");
 			}
+			return new JsonRecordIterator(dataRecord, objects, rowLimit);
+		} catch (IOException | NumberFormatException e) {
+			throw new JsonSyntaxException(e);
 		}
-
-		return new Result(dataRecordList, modifiedRecordList);
 	}
 
 	/**
-	 * Adds tuple into each of the DataRecord present in the list
+	 * Flattens the top level JSON object, or each of the objects in the top
+	 * level JSON array.
 	 * 
-	 * @param dataRecordList
-	 *            list of DataRecord
-	 * @param tuple
-	 *            Tuple to be added
-	 * @throws InvalidColumnException
+	 * @param objects
+	 *            list to which the flattened objects are added
+	 * @see #explodeJson(DataRecord, String, TargetModel, long)
 	 */
-	private static void addTupleIntoDataRecords(List<DataRecord> dataRecordList, Tuple tuple)
-			throws InvalidColumnException {
-		for (DataRecord dataRecord : dataRecordList) {
-			dataRecord.addTupleToColumn("", tuple.getColumnName(), tuple);
+	private static void flattenJson(JsonReader reader, List<JsonObjectRows> objects, Node root)
+			throws IOException, InvalidJSONException {
+
+		JsonToken token = reader.peek();
+
+		if (token == JsonToken.BEGIN_OBJECT) {
+			JsonObjectRows object = new JsonObjectRows();
+			flattenObject(reader, object, root);
+			objects.add(object);
+		} else if (token == JsonToken.BEGIN_ARRAY) {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				flattenJson(reader, objects, root);
+			}
+			reader.endArray();
+		} else {
+			throw new InvalidJSONException("Expected a JsonObject, but found " + token);
 		}
 	}
 
 	/**
-	 * @param dataRecordList1
-	 *            List of DataRecord
-	 * @param dataRecordList2
-	 *            List of DataRecord
-	 * @return List of DataRecords by merging each of the dataRecord from
-	 *         dataRecordList1 into each of the dataRecord in dataRecordList2
-	 * @throws ColumnFamilyNotFoundException
-	 * @throws InvalidColumnException
+	 * Flattens the JSON object at the current position of the reader. Values
+	 * of attributes are added as they are read, while arrays are added after
+	 * the whole object is read, so that their records are crossed with the
+	 * records having all the other attributes of the object.
+	 * 
+	 * @param reader
+	 *            reader positioned at the beginning of the object
+	 * @param object
+	 *            flattened object to which the attributes are added
+	 * @param node
+	 *            node of the object in the JSON path trie
 	 */
-	private static List<DataRecord> mergeDataRecordLists(List<DataRecord> dataRecordList1,
-			List<DataRecord> dataRecordList2) throws ColumnFamilyNotFoundException, InvalidColumnException {
-		List<DataRecord> mergedDataRecords = new ArrayList<>();
+	private static void flattenObject(JsonReader reader, JsonObjectRows object, Node node) throws IOException {
 
-		if (dataRecordList1.isEmpty() && !dataRecordList2.isEmpty()) {
-			return dataRecordList2;
-		} else if (!dataRecordList1.isEmpty() && dataRecordList2.isEmpty()) {
-			return dataRecordList1;
-		} else if (dataRecordList1.isEmpty() && dataRecordList2.isEmpty()) {
-			return dataRecordList1;
-		} else {
+		// records of json arrays, to be added in the end
+		List<JsonArrayRows> jsonArrays = new ArrayList<>();
 
-			for (DataRecord dataRecord1 : dataRecordList1) {
-				for (DataRecord dataRecord2 : dataRecordList2) {
-					DataRecord dataRecord1Copy = dataRecord1.duplicate();
+		reader.beginObject();
+		while (reader.hasNext()) {
 
-					for (Tuple tuple : dataRecord2.getTuplesInCF("")) {
-						dataRecord1Copy.addTupleToColumn("", tuple.getColumnName(), tuple);
-					}
+			String key = reader.nextName();
+			Node child = node.getChild(key);
+			// a key having the parent path separator in it can not match a
+			// column name, but can match a parent path
+			boolean isColumn = child != null && child.isColumn();
+			if (child == null && key.contains(PARENT_PATH_SEPARATOR)) {
+				child = node.getDescendant(key);
+			}
+
+			if (child == null) {
+				// no column at or under this key
+				reader.skipValue();
+				continue;
+			}
 
-					mergedDataRecords.add(dataRecord1Copy);
+			switch (reader.peek()) {
+			case BEGIN_OBJECT:
+				if (isColumn || child.isParentPath()) {
+					flattenObject(reader, object, child);
+				} else {
+					reader.skipValue();
+				}
+				break;
+			case BEGIN_ARRAY:
+				if (isColumn || child.isParentPath()) {
+					JsonArrayRows jsonArray = flattenArray(reader, child, isColumn);
+					if (!jsonArray.isEmpty()) {
+						jsonArrays.add(jsonArray);
+					}
+				} else {
+					reader.skipValue();
 				}
+				break;
+			case STRING:
+			case NUMBER:
+			case BOOLEAN:
+				if (isColumn) {
+					object.addTuple(Tuple.staticColumn("", child.getPath(), nextString(reader), child.getDataType()));
+				} else {
+					reader.skipValue();
+				}
+				break;
+			default:
+				reader.skipValue();
 			}
 		}
+		reader.endObject();
 
-		return mergedDataRecords;
+		for (JsonArrayRows jsonArray : jsonArrays) {
+			object.addArray(jsonArray);
+		}
 	}
 
-}
-
-/**
- * Wrapper class for storing JsonArray and it's parent path (i.e. path of it's
- * parent in the input json)
- *
- */
-class JsonArrayWrapper {
-	
-	private JsonArray jsonArray;
-	private String parentPath;
-
-	public JsonArrayWrapper(JsonArray jsonArray, String parentPath) {
-		this.jsonArray = jsonArray;
-		this.parentPath = parentPath;
-	}
+	/**
+	 * Flattens each element of the JSON array at the current position of the
+	 * reader. Objects in the array have their attributes under the path of the
+	 * array, while values in the array are values of the array column itself.
+	 * 
+	 * @param reader
+	 *            reader positioned at the beginning of the array
+	 * @param node
+	 *            node of the array in the JSON path trie
+	 * @param isColumn
+	 *            true if the array is a JSON column of the target
+	 * @return flattened elements of the array, leaving out those having no
+	 *         attribute required in target
+	 */
+	private static JsonArrayRows flattenArray(JsonReader reader, Node node, boolean isColumn) throws IOException {
+
+		JsonArrayRows jsonArray = new JsonArrayRows();
+
+		reader.beginArray();
+		while (reader.hasNext()) {
+			switch (reader.peek()) {
+			case BEGIN_OBJECT:
+				JsonObjectRows element = new JsonObjectRows();
+				flattenObject(reader, element, node);
+				if (element.isModified()) {
+					jsonArray.addElement(element);
+				}
+				break;
+			case STRING:
+			case NUMBER:
+			case BOOLEAN:
+				if (isColumn) {
+					JsonObjectRows value = new JsonObjectRows();
+					value.addTuple(Tuple.staticColumn("", node.getPath(), nextString(reader), node.getDataType()));
+					jsonArray.addElement(value);
+				} else {
+					reader.skipValue();
+				}
+				break;
+			default:
+				// nulls and nested arrays have no column to be written to
+				reader.skipValue();
+			}
+		}
+		reader.endArray();
 
-	public JsonArray getJsonArray() {
 		return jsonArray;
 	}
 
-	public String getParentPath() {
-		return parentPath;
-	}
-
-}
-
-class Result {
-
-	private List<DataRecord> dataRecordList;
-	private boolean modifiedRecordList;
-
-	public Result(List<DataRecord> dataRecordList, boolean modifiedRecordList) {
-		this.dataRecordList = dataRecordList;
-		this.modifiedRecordList = modifiedRecordList;
-	}
-
-	public List<DataRecord> getDataRecordList() {
-		return dataRecordList;
-	}
-
-	public boolean isModifiedRecordList() {
-		return modifiedRecordList;
+	/**
+	 * @return string value of the primitive at the current position of the
+	 *         reader, numbers being returned as they are written in the JSON
+	 */
+	private static String nextString(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.BOOLEAN) {
+			return Boolean.toString(reader.nextBoolean());
+		}
+		return reader.nextString();
 	}
 
 }
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import static org.gstn.schemaexplorer.target.Constants.PARENT_PATH_SEPARATOR;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JSON columns of a target schema compiled into a trie of JSON attribute
+ * names. Column names are split on the parent path separator, so that the
+ * node of an attribute is reached by following its key from the node of the
+ * enclosing object. The trie is built once when the job starts and tells the
+ * JSON flattener which attributes are target columns and which objects lead
+ * to them, everything else being skipped while reading the JSON.
+ *
+ */
+@SuppressWarnings({ "serial", "rawtypes" })
+public class JsonPathTrie implements Serializable {
+
+	public static class Node implements Serializable {
+		// path of the attribute, which is the name of the column created for it
+		private final String path;
+		private final Map<String, Node> children = new HashMap<>();
+
+		// true if the attribute is a JSON column of the target
+		private boolean column;
+		private Class dataType;
+		// true if JSON columns are present under the attribute
+		private boolean parentPath;
+
+		Node(String path) {
+			this.path = path;
+		}
+
+		/**
+		 * @param key
+		 *            name of an attribute of the object at this node
+		 * @return node of the attribute, or null if no JSON column is at or
+		 *         under it
+		 */
+		public Node getChild(String key) {
+			return children.get(key);
+		}
+
+		/**
+		 * Finds the node of a key having parent path separators in it, like
+		 * the node of attribute "B" of object "A" is found for the key "A#B".
+		 * 
+		 * @param key
+		 *            name of an attribute of the object at this node
+		 * @return node of the attribute, or null if no JSON column is at or
+		 *         under it
+		 */
+		public Node getDescendant(String key) {
+			Node node = this;
+			int start = 0;
+			int end;
+			while (node != null && (end = key.indexOf(PARENT_PATH_SEPARATOR, start)) >= 0) {
+				node = node.getChild(key.substring(start, end));
+				start = end + PARENT_PATH_SEPARATOR.length();
+			}
+			return node == null ? null : node.getChild(key.substring(start));
+		}
+
+		public String getPath() {
+			return path;
+		}
+
+		public boolean isColumn() {
+			return column;
+		}
+
+		public Class getDataType() {
+			return dataType;
+		}
+
+		public boolean isParentPath() {
+			return parentPath;
+		}
+	}
+
+	private final Node root = new Node(null);
+
+	/**
+	 * @param jsonColumns
+	 *            map of JSON column names, having their parent paths prefixed,
+	 *            to their data types
+	 */
+	public JsonPathTrie(Map<String, Class> jsonColumns) {
+		for (Map.Entry<String, Class> jsonColumn : jsonColumns.entrySet()) {
+			addColumn(jsonColumn.getKey(), jsonColumn.getValue());
+		}
+	}
+
+	private void addColumn(String columnName, Class dataType) {
+		Node node = root;
+		int start = 0;
+		int end;
+		while ((end = columnName.indexOf(PARENT_PATH_SEPARATOR, start)) >= 0) {
+			node = addChild(node, columnName.substring(start, end), columnName.substring(0, end));
+			node.parentPath = true;
+			start = end + PARENT_PATH_SEPARATOR.length();
+		}
+		node = addChild(node, columnName.substring(start), columnName);
+		node.column = true;
+		node.dataType = dataType;
+	}
+
+	private static Node addChild(Node node, String key, String path) {
+		Node child = node.children.get(key);
+		if (child == null) {
+			child = new Node(path);
+			node.children.put(key, child);
+		}
+		return child;
+	}
+
+	/**
+	 * @return node of the top level JSON object
+	 */
+	public Node getRoot() {
+		return root;
+	}
+
+}
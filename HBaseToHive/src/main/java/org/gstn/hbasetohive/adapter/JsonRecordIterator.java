@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.gstn.schemaexplorer.entity.DataRecord;
+import org.gstn.schemaexplorer.entity.Tuple;
+import org.gstn.schemaexplorer.exception.InvalidColumnException;
+
+/**
+ * Iterator over the data records of a flattened JSON. Every element of a JSON
+ * array is a data record of its own, so a JSON having arrays flattens into
+ * the cross product of the records of its arrays. Instead of building all of
+ * them, the iterator keeps the attributes read from the JSON and creates the
+ * records one combination at a time, as they are written into the target.
+ * 
+ * The number of records created for a JSON can be limited. Combinations
+ * beyond the limit are dropped and counted.
+ *
+ */
+public class JsonRecordIterator implements Iterator<DataRecord> {
+
+	/**
+	 * Attributes of a JSON object, along with the attributes of its nested
+	 * objects, in the order they are read. Each part is either a tuple, added
+	 * to every record of the object, or the records of a JSON array, which are
+	 * crossed with the records of the object.
+	 */
+	static class JsonObjectRows {
+		private final List<Object> parts = new ArrayList<>();
+		private final List<JsonArrayRows> arrays = new ArrayList<>();
+
+		void addTuple(Tuple tuple) {
+			parts.add(tuple);
+		}
+
+		void addArray(JsonArrayRows array) {
+			parts.add(array);
+			arrays.add(array);
+		}
+
+		/**
+		 * @return true if any attribute of the object is required in target
+		 */
+		boolean isModified() {
+			return !parts.isEmpty();
+		}
+
+		/**
+		 * @return number of records of the object, Long.MAX_VALUE if it does
+		 *         not fit in a long
+		 */
+		long getRowCount() {
+			long rowCount = 1;
+			for (JsonArrayRows array : arrays) {
+				rowCount = multiply(rowCount, array.getRowCount());
+			}
+			return rowCount;
+		}
+
+		/**
+		 * Moves to the next combination of the records of the arrays, the
+		 * last array changing fastest.
+		 * 
+		 * @return false if all the combinations are done, in which case the
+		 *         first combination is selected again
+		 */
+		boolean advance() {
+			for (int i = arrays.size() - 1; i >= 0; i--) {
+				if (arrays.get(i).advance()) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Adds the tuples of the selected combination, from the parts in the
+		 * given range, into the data record.
+		 */
+		void addInto(DataRecord dataRecord, int fromPart, int toPart) throws InvalidColumnException {
+			for (int i = fromPart; i < toPart; i++) {
+				Object part = parts.get(i);
+				if (part instanceof Tuple) {
+					Tuple tuple = (Tuple) part;
+					dataRecord.addTupleToColumn("", tuple.getColumnName(), tuple);
+				} else {
+					JsonObjectRows element = ((JsonArrayRows) part).getSelected();
+					element.addInto(dataRecord, 0, element.parts.size());
+				}
+			}
+		}
+
+		/**
+		 * @return index of the first array in the parts, or the number of
+		 *         parts if there are no arrays
+		 */
+		int getFirstArrayPart() {
+			return arrays.isEmpty() ? parts.size() : parts.indexOf(arrays.get(0));
+		}
+	}
+
+	/**
+	 * Records of a JSON array, which are the records of each of its elements
+	 * one after the other.
+	 */
+	static class JsonArrayRows {
+		private final List<JsonObjectRows> elements = new ArrayList<>();
+		private int selected;
+
+		void addElement(JsonObjectRows element) {
+			elements.add(element);
+		}
+
+		boolean isEmpty() {
+			return elements.isEmpty();
+		}
+
+		long getRowCount() {
+			long rowCount = 0;
+			for (JsonObjectRows element : elements) {
+				rowCount += element.getRowCount();
+				if (rowCount < 0) {
+					return Long.MAX_VALUE;
+				}
+			}
+			return rowCount;
+		}
+
+		boolean advance() {
+			if (elements.get(selected).advance()) {
+				return true;
+			}
+			selected = (selected + 1) % elements.size();
+			return selected != 0;
+		}
+
+		JsonObjectRows getSelected() {
+			return elements.get(selected);
+		}
+	}
+
+	private static long multiply(long a, long b) {
+		if (a != 0 && b > Long.MAX_VALUE / a) {
+			return Long.MAX_VALUE;
+		}
+		return a * b;
+	}
+
+	private final DataRecord dataRecord;
+	// flattened top level JSON objects
+	private final List<JsonObjectRows> objects;
+	private final long rowLimit;
+
+	private int objectIndex = -1;
+	private JsonObjectRows object;
+	// record of the current object having the tuples before its first array
+	private DataRecord objectRecord;
+	private int firstArrayPart;
+	private boolean combinationPending;
+
+	private long rowsReturned;
+	private long rowCount = -1;
+
+	/**
+	 * @param dataRecord
+	 *            input data record, copied into every record
+	 * @param objects
+	 *            flattened top level JSON objects
+	 * @param rowLimit
+	 *            maximum number of records to be returned
+	 */
+	JsonRecordIterator(DataRecord dataRecord, List<JsonObjectRows> objects, long rowLimit) {
+		this.dataRecord = dataRecord;
+		this.objects = objects;
+		this.rowLimit = rowLimit;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (rowsReturned >= rowLimit) {
+			return false;
+		}
+		if (!combinationPending) {
+			if (object != null && object.advance()) {
+				combinationPending = true;
+			} else if (objectIndex + 1 < objects.size()) {
+				object = objects.get(++objectIndex);
+				objectRecord = null;
+				combinationPending = true;
+			}
+		}
+		return combinationPending;
+	}
+
+	@Override
+	public DataRecord next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		combinationPending = false;
+		rowsReturned++;
+
+		try {
+			if (objectRecord == null) {
+				objectRecord = dataRecord.duplicate();
+				firstArrayPart = object.getFirstArrayPart();
+				object.addInto(objectRecord, 0, firstArrayPart);
+			}
+			if (firstArrayPart == object.parts.size()) {
+				// the only record of the object
+				return objectRecord;
+			}
+			DataRecord combination = objectRecord.duplicate();
+			object.addInto(combination, firstArrayPart, object.parts.size());
+			return combination;
+		} catch (InvalidColumnException e) {
+			// thrown only for null tuples, which are never added
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return number of records of the JSON, including those beyond the limit
+	 */
+	public long getRowCount() {
+		if (rowCount < 0) {
+			long count = 0;
+			for (JsonObjectRows jsonObject : objects) {
+				count += jsonObject.getRowCount();
+				if (count < 0) {
+					count = Long.MAX_VALUE;
+					break;
+				}
+			}
+			rowCount = count;
+		}
+		return rowCount;
+	}
+
+	/**
+	 * @return number of records of the JSON which are not returned because of
+	 *         the limit
+	 */
+	public long getDroppedRowCount() {
+		return Math.max(0, getRowCount() - rowLimit);
+	}
+
+}
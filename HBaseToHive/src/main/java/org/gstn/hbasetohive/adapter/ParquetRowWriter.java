@@ -0,0 +1,389 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.apache.parquet.schema.Types.MessageTypeBuilder;
+
+/**
+ * Writes rows of a hive table into a parquet file which can be attached to the
+ * table as it is. Values of the rows are strings, as written into text files
+ * for hive, and are converted into the parquet type of their column the way
+ * hive converts values read from a text table. Values which hive would read
+ * as null, like the null marker \N or numbers which cannot be parsed, are
+ * written as null. Values not present in a row are converted from the text
+ * null written for them into text files, so string columns get the string
+ * null while other columns get null. A LOAD_TIMESTAMP column having the time at which the file
+ * is created is added after the columns of the table.
+ *
+ */
+public class ParquetRowWriter implements Closeable {
+
+	static final String NULL_VALUE = "\\N";
+
+	// text written into text files for values not present in a row, see
+	// DataRecord.getRecord
+	static final String TEXT_NULL = "null";
+
+	private static final String LOAD_TIMESTAMP = "load_timestamp";
+
+	// precision and scale of hive decimal columns, see HiveTableIR
+	private static final int DECIMAL_PRECISION = 20;
+	private static final int DECIMAL_SCALE = 5;
+	// bytes needed for an unscaled value of DECIMAL_PRECISION digits
+	private static final int DECIMAL_LENGTH = 9;
+
+	private static final long SECONDS_IN_DAY = 24 * 60 * 60L;
+	private static final long NANOS_IN_SECOND = 1000 * 1000 * 1000L;
+	// julian day number of 1970-01-01
+	private static final int JULIAN_EPOCH_DAY = 2440588;
+
+	private static final Map<String, ColumnType> hiveColumnTypes = new HashMap<>();
+	static {
+		hiveColumnTypes.put("string", ColumnType.STRING);
+		hiveColumnTypes.put("boolean", ColumnType.BOOLEAN);
+		hiveColumnTypes.put("tinyint", ColumnType.TINYINT);
+		hiveColumnTypes.put("smallint", ColumnType.SMALLINT);
+		hiveColumnTypes.put("int", ColumnType.INT);
+		hiveColumnTypes.put("integer", ColumnType.INT);
+		hiveColumnTypes.put("bigint", ColumnType.BIGINT);
+		hiveColumnTypes.put("float", ColumnType.FLOAT);
+		hiveColumnTypes.put("double", ColumnType.DOUBLE);
+		hiveColumnTypes.put("decimal", ColumnType.DECIMAL);
+		// date columns are created as timestamp columns in hive tables
+		hiveColumnTypes.put("date", ColumnType.DATE);
+		hiveColumnTypes.put("timestamp", ColumnType.TIMESTAMP);
+	}
+
+	enum ColumnType {
+		STRING, BOOLEAN, TINYINT, SMALLINT, INT, BIGINT, FLOAT, DOUBLE, DECIMAL, DATE, TIMESTAMP
+	}
+
+	private final ParquetWriter<String[]> writer;
+
+	private long rowCount;
+	// size of the rows written, as text
+	private long textSize;
+
+	/**
+	 * @param conf
+	 *            configuration of the file system where the file is created
+	 * @param path
+	 *            path of the parquet file
+	 * @param columns
+	 *            names of columns of the hive table vs. their hive data type,
+	 *            in the order of values of the rows
+	 * @throws IOException
+	 *             if the file cannot be created
+	 */
+	public ParquetRowWriter(Configuration conf, Path path, Map<String, String> columns) throws IOException {
+		String[] names = new String[columns.size()];
+		ColumnType[] types = new ColumnType[columns.size()];
+		int i = 0;
+		for (Map.Entry<String, String> column : columns.entrySet()) {
+			names[i] = column.getKey().toLowerCase();
+			types[i] = getColumnType(column.getValue());
+			i++;
+		}
+		long now = System.currentTimeMillis();
+		writer = new ParquetWriter<>(path, conf,
+				new RowWriteSupport(names, types, toInt96(now, (int) Math.floorMod(now, 1000L) * 1000 * 1000)));
+	}
+
+	static ColumnType getColumnType(String hiveDataType) {
+		ColumnType type = hiveColumnTypes.get(hiveDataType.toLowerCase());
+		if (type == null) {
+			throw new IllegalArgumentException("Hive data type " + hiveDataType + " cannot be written into parquet");
+		}
+		return type;
+	}
+
+	/**
+	 * @param values
+	 *            values of the columns of a row, null if not present
+	 * @throws IOException
+	 */
+	public void write(String[] values) throws IOException {
+		writer.write(values);
+
+		rowCount++;
+		for (String value : values) {
+			textSize += (value == null ? TEXT_NULL.length() : value.length()) + 1;
+		}
+	}
+
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * @return size of the rows written, in characters, if they were written
+	 *         into a text file
+	 */
+	public long getTextSize() {
+		return textSize;
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	static MessageType getSchema(String[] names, ColumnType[] types) {
+		MessageTypeBuilder builder = Types.buildMessage();
+		for (int i = 0; i < names.length; i++) {
+			switch (types[i]) {
+			case STRING:
+				builder.optional(PrimitiveTypeName.BINARY).as(OriginalType.UTF8).named(names[i]);
+				break;
+			case BOOLEAN:
+				builder.optional(PrimitiveTypeName.BOOLEAN).named(names[i]);
+				break;
+			case TINYINT:
+				builder.optional(PrimitiveTypeName.INT32).as(OriginalType.INT_8).named(names[i]);
+				break;
+			case SMALLINT:
+				builder.optional(PrimitiveTypeName.INT32).as(OriginalType.INT_16).named(names[i]);
+				break;
+			case INT:
+				builder.optional(PrimitiveTypeName.INT32).named(names[i]);
+				break;
+			case BIGINT:
+				builder.optional(PrimitiveTypeName.INT64).named(names[i]);
+				break;
+			case FLOAT:
+				builder.optional(PrimitiveTypeName.FLOAT).named(names[i]);
+				break;
+			case DOUBLE:
+				builder.optional(PrimitiveTypeName.DOUBLE).named(names[i]);
+				break;
+			case DECIMAL:
+				builder.optional(PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY).length(DECIMAL_LENGTH)
+						.as(OriginalType.DECIMAL).precision(DECIMAL_PRECISION).scale(DECIMAL_SCALE).named(names[i]);
+				break;
+			default:
+				// hive stores timestamps as int96
+				builder.optional(PrimitiveTypeName.INT96).named(names[i]);
+			}
+		}
+		builder.optional(PrimitiveTypeName.INT96).named(LOAD_TIMESTAMP);
+		return builder.named("hive_schema");
+	}
+
+	/**
+	 * Writes a value into the current record, converted as per the type of its
+	 * column. Nothing is written for values hive would read as null.
+	 */
+	static void writeValue(RecordConsumer consumer, String name, int index, ColumnType type, String value) {
+		if (value == null) {
+			value = TEXT_NULL;
+		}
+		if (value.equals(NULL_VALUE)) {
+			return;
+		}
+
+		try {
+			switch (type) {
+			case STRING:
+				addField(consumer, name, index, Binary.fromString(value));
+				break;
+			case BOOLEAN:
+				if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+					consumer.startField(name, index);
+					consumer.addBoolean(Boolean.parseBoolean(value));
+					consumer.endField(name, index);
+				}
+				break;
+			case TINYINT:
+				addField(consumer, name, index, Byte.parseByte(integerPart(value)));
+				break;
+			case SMALLINT:
+				addField(consumer, name, index, Short.parseShort(integerPart(value)));
+				break;
+			case INT:
+				addField(consumer, name, index, Integer.parseInt(integerPart(value)));
+				break;
+			case BIGINT:
+				long longValue = Long.parseLong(integerPart(value));
+				consumer.startField(name, index);
+				consumer.addLong(longValue);
+				consumer.endField(name, index);
+				break;
+			case FLOAT:
+				float floatValue = Float.parseFloat(value);
+				consumer.startField(name, index);
+				consumer.addFloat(floatValue);
+				consumer.endField(name, index);
+				break;
+			case DOUBLE:
+				double doubleValue = Double.parseDouble(value);
+				consumer.startField(name, index);
+				consumer.addDouble(doubleValue);
+				consumer.endField(name, index);
+				break;
+			case DECIMAL:
+				Binary decimal = toDecimal(value);
+				if (decimal != null) {
+					addField(consumer, name, index, decimal);
+				}
+				break;
+			case DATE:
+				addField(consumer, name, index, toInt96(Date.valueOf(value).getTime(), 0));
+				break;
+			default:
+				Timestamp timestamp = Timestamp.valueOf(value);
+				addField(consumer, name, index, toInt96(timestamp.getTime(), timestamp.getNanos()));
+			}
+		} catch (IllegalArgumentException e) {
+			// hive reads values which cannot be parsed as null
+		}
+	}
+
+	private static void addField(RecordConsumer consumer, String name, int index, int value) {
+		consumer.startField(name, index);
+		consumer.addInteger(value);
+		consumer.endField(name, index);
+	}
+
+	private static void addField(RecordConsumer consumer, String name, int index, Binary value) {
+		consumer.startField(name, index);
+		consumer.addBinary(value);
+		consumer.endField(name, index);
+	}
+
+	/**
+	 * Hive reads integers having a fractional part of digits by dropping the
+	 * fractional part
+	 */
+	static String integerPart(String value) {
+		int point = value.indexOf('.');
+		if (point < 0) {
+			return value;
+		}
+		for (int i = point + 1; i < value.length(); i++) {
+			if (!Character.isDigit(value.charAt(i))) {
+				throw new NumberFormatException("For input string: \"" + value + "\"");
+			}
+		}
+		return value.substring(0, point);
+	}
+
+	/**
+	 * @return unscaled value of the decimal as a big endian two's complement
+	 *         number, null if the value does not fit the precision of the
+	 *         column
+	 */
+	static Binary toDecimal(String value) {
+		BigDecimal decimal = new BigDecimal(value).setScale(DECIMAL_SCALE, RoundingMode.HALF_UP);
+		if (decimal.precision() > DECIMAL_PRECISION) {
+			return null;
+		}
+		byte[] unscaled = decimal.unscaledValue().toByteArray();
+		byte[] bytes = new byte[DECIMAL_LENGTH];
+		byte sign = (byte) (unscaled[0] < 0 ? -1 : 0);
+		int padding = DECIMAL_LENGTH - unscaled.length;
+		for (int i = 0; i < padding; i++) {
+			bytes[i] = sign;
+		}
+		System.arraycopy(unscaled, 0, bytes, padding, unscaled.length);
+		return Binary.fromByteArray(bytes);
+	}
+
+	/**
+	 * Converts a time into the int96 form in which hive stores timestamps,
+	 * that is nanoseconds of the day followed by the julian day, in UTC and
+	 * little endian
+	 * 
+	 * @param millis
+	 *            milliseconds since epoch
+	 * @param nanos
+	 *            fractional seconds of the time in nanoseconds
+	 */
+	static Binary toInt96(long millis, int nanos) {
+		long nanosOfDay = Math.floorMod(Math.floorDiv(millis, 1000L), SECONDS_IN_DAY) * NANOS_IN_SECOND + nanos;
+		long julianDay = Math.floorDiv(millis, SECONDS_IN_DAY * 1000) + JULIAN_EPOCH_DAY;
+
+		byte[] bytes = new byte[12];
+		for (int i = 0; i < 8; i++) {
+			bytes[i] = (byte) (nanosOfDay >>> (8 * i));
+		}
+		for (int i = 0; i < 4; i++) {
+			bytes[8 + i] = (byte) (julianDay >>> (8 * i));
+		}
+		return Binary.fromByteArray(bytes);
+	}
+
+	/**
+	 * WriteSupport writing rows of string values as records of the parquet
+	 * schema of a hive table
+	 */
+	static class RowWriteSupport extends WriteSupport<String[]> {
+
+		private final String[] names;
+		private final ColumnType[] types;
+		private final Binary loadTimestamp;
+		private RecordConsumer consumer;
+
+		RowWriteSupport(String[] names, ColumnType[] types, Binary loadTimestamp) {
+			this.names = names;
+			this.types = types;
+			this.loadTimestamp = loadTimestamp;
+		}
+
+		@Override
+		public WriteContext init(Configuration configuration) {
+			return new WriteContext(getSchema(names, types), new HashMap<String, String>());
+		}
+
+		@Override
+		public void prepareForWrite(RecordConsumer recordConsumer) {
+			this.consumer = recordConsumer;
+		}
+
+		@Override
+		public void write(String[] values) {
+			if (values.length != names.length) {
+				throw new IllegalArgumentException(
+						"Found " + values.length + " values for a row of " + names.length + " columns");
+			}
+			consumer.startMessage();
+			for (int i = 0; i < names.length; i++) {
+				writeValue(consumer, names[i], i, types[i], values[i]);
+			}
+			addField(consumer, LOAD_TIMESTAMP, names.length, loadTimestamp);
+			consumer.endMessage();
+		}
+	}
+
+}
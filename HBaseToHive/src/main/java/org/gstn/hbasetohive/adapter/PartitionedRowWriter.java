@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gstn.hbasetohive.adapter.ParquetRowWriter.ColumnType;
+import org.gstn.schemaexplorer.hive.HivePartitionPath;
+
+/**
+ * Writes rows of a hive table into parquet files of the partitions of the
+ * rows. Files of a partition are written under its directory, named as hive
+ * names partition directories, so that the script created for the job can
+ * load every directory into its partition. Rows of tables without partition
+ * columns are written into files directly under the job path. Files are
+ * written into the directory of the task attempt, see HdfsOutputCommitter.
+ * 
+ * At most maxOpenFiles files are kept open. When a row of another partition is
+ * to be written, the file of the least recently written partition is closed,
+ * and a new file is started if rows of that partition come again. A new file
+ * is also started once a file has the maximum number of rows or size.
+ *
+ */
+public class PartitionedRowWriter implements Closeable {
+
+	private final HdfsOutputCommitter committer;
+	private final String fileName;
+	private final int maxOpenFiles;
+	private final long maxRows;
+	private final long maxSize;
+
+	// columns written into the files vs. their data types
+	private final Map<String, String> fileColumns = new LinkedHashMap<>();
+	// positions of file columns and partition columns in the rows
+	private final int[] fileColumnIndices;
+	private final int[] partitionIndices;
+	private final String[] partitionNames;
+	private final ColumnType[] partitionTypes;
+
+	private final String[] fileValues;
+	private final String[] partitionValues;
+
+	// open files by partition directory, least recently written first
+	private final LinkedHashMap<String, ParquetRowWriter> writers = new LinkedHashMap<>(16, 0.75f, true);
+	// number of files started for a partition directory
+	private final Map<String, Integer> fileCounts = new HashMap<>();
+
+	/**
+	 * @param committer
+	 *            committer of the task attempt writing the files
+	 * @param fileName
+	 *            name of the files, suffixed by a number when a partition gets
+	 *            more than one file
+	 * @param columns
+	 *            names of all the columns of the hive table vs. their hive
+	 *            data type, in the order of values of the rows
+	 * @param partitionColumns
+	 *            names of the partition columns of the table, in the order of
+	 *            the partitions of the table
+	 * @param maxOpenFiles
+	 *            maximum number of files kept open
+	 * @param maxRows
+	 *            maximum number of rows in a file
+	 * @param maxSize
+	 *            maximum size of rows in a file, in characters as counted by
+	 *            ParquetRowWriter.getTextSize
+	 */
+	public PartitionedRowWriter(HdfsOutputCommitter committer, String fileName, Map<String, String> columns,
+			List<String> partitionColumns, int maxOpenFiles, long maxRows, long maxSize) {
+		this.committer = committer;
+		this.fileName = fileName;
+		this.maxOpenFiles = Math.max(1, maxOpenFiles);
+		this.maxRows = maxRows;
+		this.maxSize = maxSize;
+
+		List<String> columnNames = new ArrayList<>(columns.keySet());
+		fileColumnIndices = new int[columns.size() - partitionColumns.size()];
+		int fileColumn = 0;
+		for (int i = 0; i < columnNames.size(); i++) {
+			String column = columnNames.get(i);
+			if (!partitionColumns.contains(column)) {
+				fileColumns.put(column, columns.get(column));
+				fileColumnIndices[fileColumn++] = i;
+			}
+		}
+
+		partitionIndices = new int[partitionColumns.size()];
+		partitionNames = new String[partitionColumns.size()];
+		partitionTypes = new ColumnType[partitionColumns.size()];
+		for (int i = 0; i < partitionIndices.length; i++) {
+			partitionNames[i] = partitionColumns.get(i);
+			partitionIndices[i] = columnNames.indexOf(partitionNames[i]);
+			partitionTypes[i] = ParquetRowWriter.getColumnType(columns.get(partitionNames[i]));
+		}
+
+		fileValues = new String[fileColumnIndices.length];
+		partitionValues = new String[partitionIndices.length];
+	}
+
+	/**
+	 * @param values
+	 *            values of all the columns of a row, null if not present
+	 * @throws IOException
+	 */
+	public void write(String[] values) throws IOException {
+		String directory = "";
+		if (partitionIndices.length > 0) {
+			for (int i = 0; i < partitionIndices.length; i++) {
+				partitionValues[i] = getPartitionValue(values[partitionIndices[i]], partitionTypes[i]);
+			}
+			directory = HivePartitionPath.getDirectory(partitionNames, partitionValues);
+		}
+
+		ParquetRowWriter writer = writers.get(directory);
+		if (writer == null) {
+			if (writers.size() >= maxOpenFiles) {
+				// close the file of the least recently written partition
+				Iterator<ParquetRowWriter> eldest = writers.values().iterator();
+				ParquetRowWriter eldestWriter = eldest.next();
+				eldest.remove();
+				eldestWriter.close();
+			}
+			writer = createWriter(directory);
+			writers.put(directory, writer);
+		}
+
+		for (int i = 0; i < fileColumnIndices.length; i++) {
+			fileValues[i] = values[fileColumnIndices[i]];
+		}
+		writer.write(fileValues);
+
+		if (writer.getRowCount() >= maxRows || writer.getTextSize() >= maxSize) {
+			writers.remove(directory);
+			writer.close();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		IOException exception = null;
+		for (ParquetRowWriter writer : writers.values()) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				exception = e;
+			}
+		}
+		writers.clear();
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	private ParquetRowWriter createWriter(String directory) throws IOException {
+		int fileCount = fileCounts.getOrDefault(directory, 0);
+		fileCounts.put(directory, fileCount + 1);
+
+		String path = "";
+		if (!directory.isEmpty()) {
+			path = HivePartitionPath.PARTITIONS_DIR + File.separator + directory + File.separator;
+		}
+		path += fileCount == 0 ? fileName : fileName + "_" + fileCount;
+
+		return new ParquetRowWriter(committer.getConfiguration(), committer.getFilePath(path), fileColumns);
+	}
+
+	/**
+	 * Partition value of a row, as hive would find it while inserting rows
+	 * from a text table into partitions. Values of integer partition columns
+	 * are normalized, and rows having the null marker, empty or invalid
+	 * values go into the default partition. Values not present in a row are
+	 * taken as the text null written for them into text files.
+	 */
+	static String getPartitionValue(String value, ColumnType type) {
+		if (value == null) {
+			value = ParquetRowWriter.TEXT_NULL;
+		}
+		if (value.isEmpty() || value.equals(ParquetRowWriter.NULL_VALUE)) {
+			return HivePartitionPath.DEFAULT_PARTITION;
+		}
+
+		try {
+			switch (type) {
+			case TINYINT:
+				return Byte.toString(Byte.parseByte(ParquetRowWriter.integerPart(value)));
+			case SMALLINT:
+				return Short.toString(Short.parseShort(ParquetRowWriter.integerPart(value)));
+			case INT:
+				return Integer.toString(Integer.parseInt(ParquetRowWriter.integerPart(value)));
+			case BIGINT:
+				return Long.toString(Long.parseLong(ParquetRowWriter.integerPart(value)));
+			default:
+				return value;
+			}
+		} catch (NumberFormatException e) {
+			return HivePartitionPath.DEFAULT_PARTITION;
+		}
+	}
+
+}
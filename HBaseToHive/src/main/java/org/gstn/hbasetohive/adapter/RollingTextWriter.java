@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.io.compress.CompressionCodec;
+
+/**
+ * Writes rows of text into files of a task attempt, starting a new file once
+ * a file has the maximum number of rows or the maximum size. The first file
+ * has the given file name, the following ones are suffixed by their number.
+ * If a compression codec is given, files are compressed by it and named with
+ * its extension, by which hive and hadoop input formats detect the codec.
+ *
+ */
+public class RollingTextWriter implements Closeable {
+
+	private final HdfsOutputCommitter committer;
+	private final String fileName;
+	private final long maxRows;
+	private final long maxSize;
+	private final CompressionCodec codec;
+
+	private BufferedWriter writer;
+	private int fileCount;
+	private long rowCount;
+	// size of the rows written into the current file, in characters
+	private long size;
+
+	/**
+	 * @param committer
+	 *            committer of the task attempt writing the files
+	 * @param fileName
+	 *            name of the files
+	 * @param maxRows
+	 *            maximum number of rows in a file
+	 * @param maxSize
+	 *            maximum size of a file, in characters
+	 * @param codec
+	 *            codec compressing the files, null if they are written as
+	 *            they are
+	 */
+	public RollingTextWriter(HdfsOutputCommitter committer, String fileName, long maxRows, long maxSize,
+			CompressionCodec codec) {
+		this.committer = committer;
+		this.fileName = fileName;
+		this.maxRows = maxRows;
+		this.maxSize = maxSize;
+		this.codec = codec;
+	}
+
+	public void write(String row) throws IOException {
+		if (writer == null) {
+			String name = fileCount == 0 ? fileName : fileName + "_" + fileCount;
+			if (codec != null) {
+				name += codec.getDefaultExtension();
+			}
+			OutputStream os = FileSystem.get(committer.getConfiguration()).create(committer.getFilePath(name), true);
+			if (codec != null) {
+				os = codec.createOutputStream(os);
+			}
+			writer = new BufferedWriter(new OutputStreamWriter(os));
+			fileCount++;
+			rowCount = 0;
+			size = 0;
+		}
+
+		writer.write(row);
+		writer.newLine();
+
+		rowCount++;
+		size += row.length() + 1;
+		if (rowCount >= maxRows || size >= maxSize) {
+			writer.close();
+			writer = null;
+		}
+	}
+
+	public void flush() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+	}
+
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.gstn.schemaexplorer.hbase.HBaseColumn;
+
+/**
+ * Resolves column families and static column names of the source schema
+ * directly from the bytes of hbase cells. Names of column families and
+ * static columns are converted to bytes once, and cells are matched by byte
+ * comparison, so that no strings are created for the family and qualifier of
+ * every cell.
+ *
+ */
+@SuppressWarnings({ "serial", "rawtypes" })
+public class StaticColumnIndex implements Serializable {
+
+	/**
+	 * Static column defined in the source schema, along with data type and
+	 * data format of its value
+	 */
+	public static class StaticColumn implements Serializable {
+		final String columnFamily;
+		final String columnName;
+		final Class dataType;
+		final String dataFormat;
+		final ColumnValueDecoder decoder;
+		// false if the column is needed neither by the target nor by the
+		// where clause of the query the index is projected for
+		final boolean projected;
+
+		StaticColumn(String columnFamily, String columnName, Class dataType, String dataFormat) {
+			this.columnFamily = columnFamily;
+			this.columnName = columnName;
+			this.dataType = dataType;
+			this.dataFormat = dataFormat;
+			this.decoder = new ColumnValueDecoder(dataType, dataFormat);
+			this.projected = true;
+		}
+
+		private StaticColumn(StaticColumn column, boolean projected) {
+			this.columnFamily = column.columnFamily;
+			this.columnName = column.columnName;
+			this.dataType = column.dataType;
+			this.dataFormat = column.dataFormat;
+			this.decoder = column.decoder;
+			this.projected = projected;
+		}
+	}
+
+	private static class Family implements Serializable {
+		final String name;
+		final byte[] nameBytes;
+		// static column names sorted by their bytes and corresponding columns
+		byte[][] qualifiers = new byte[0][];
+		StaticColumn[] columns = new StaticColumn[0];
+
+		Family(String name) {
+			this.name = name;
+			this.nameBytes = Bytes.toBytes(name);
+		}
+
+		int indexOf(byte[] qualifier, int offset, int length) {
+			int low = 0, high = qualifiers.length - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int cmp = Bytes.compareTo(qualifiers[mid], 0, qualifiers[mid].length, qualifier, offset, length);
+				if (cmp < 0) {
+					low = mid + 1;
+				} else if (cmp > 0) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(low + 1);
+		}
+	}
+
+	private Family[] families = new Family[0];
+
+	/**
+	 * Adds a column family of the source schema, if not already added
+	 *
+	 * @param columnFamily
+	 *            hbase table columnFamily
+	 */
+	public void addColumnFamily(String columnFamily) {
+		getOrAddFamily(columnFamily);
+	}
+
+	public void addStaticColumn(String columnFamily, String columnName, Class dataType, String dataFormat) {
+		Family family = getOrAddFamily(columnFamily);
+		byte[] qualifier = Bytes.toBytes(columnName);
+
+		int index = family.indexOf(qualifier, 0, qualifier.length);
+		if (index >= 0) {
+			family.columns[index] = new StaticColumn(columnFamily, columnName, dataType, dataFormat);
+			return;
+		}
+		int insertAt = -index - 1;
+
+		byte[][] newQualifiers = new byte[family.qualifiers.length + 1][];
+		StaticColumn[] newColumns = new StaticColumn[family.columns.length + 1];
+		System.arraycopy(family.qualifiers, 0, newQualifiers, 0, insertAt);
+		System.arraycopy(family.columns, 0, newColumns, 0, insertAt);
+		newQualifiers[insertAt] = qualifier;
+		newColumns[insertAt] = new StaticColumn(columnFamily, columnName, dataType, dataFormat);
+		System.arraycopy(family.qualifiers, insertAt, newQualifiers, insertAt + 1, family.qualifiers.length - insertAt);
+		System.arraycopy(family.columns, insertAt, newColumns, insertAt + 1, family.columns.length - insertAt);
+
+		family.qualifiers = newQualifiers;
+		family.columns = newColumns;
+	}
+
+	private Family getOrAddFamily(String columnFamily) {
+		for (Family family : families) {
+			if (family.name.equals(columnFamily)) {
+				return family;
+			}
+		}
+		Family family = new Family(columnFamily);
+		families = Arrays.copyOf(families, families.length + 1);
+		families[families.length - 1] = family;
+		return family;
+	}
+
+	/**
+	 * Finds the column family of the source schema with provided name. Tables
+	 * have only a few column families, hence they are compared one by one.
+	 *
+	 * @param familyArray
+	 *            array containing column family bytes
+	 * @param offset
+	 *            offset of column family in the array
+	 * @param length
+	 *            length of column family
+	 * @return index of the column family, -1 if not present in the schema
+	 */
+	public int findColumnFamily(byte[] familyArray, int offset, int length) {
+		for (int i = 0; i < families.length; i++) {
+			byte[] nameBytes = families[i].nameBytes;
+			if (Bytes.equals(nameBytes, 0, nameBytes.length, familyArray, offset, length)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param familyIndex
+	 *            index returned by findColumnFamily
+	 * @return name of the column family
+	 */
+	public String getColumnFamily(int familyIndex) {
+		return families[familyIndex].name;
+	}
+
+	/**
+	 * Finds the static column with provided name in the column family
+	 *
+	 * @param familyIndex
+	 *            index returned by findColumnFamily
+	 * @param qualifier
+	 *            array containing column name bytes
+	 * @param offset
+	 *            offset of column name in the array
+	 * @param length
+	 *            length of column name
+	 * @return static column, null if the column is not a static column
+	 */
+	public StaticColumn findStaticColumn(int familyIndex, byte[] qualifier, int offset, int length) {
+		Family family = families[familyIndex];
+		int index = family.indexOf(qualifier, offset, length);
+		return index >= 0 ? family.columns[index] : null;
+	}
+
+	/**
+	 * Returns index having the same column families and static columns as
+	 * this index, with static columns not present in requiredColumns marked
+	 * as not projected. Cells of such columns can be skipped without decoding
+	 * them.
+	 *
+	 * @param requiredColumns
+	 *            map of column family to map of column name for the columns
+	 *            used by select and where clause of the query
+	 * @return projected index
+	 */
+	public StaticColumnIndex project(Map<String, Map<String, HBaseColumn>> requiredColumns) {
+		StaticColumnIndex projectedIndex = new StaticColumnIndex();
+		projectedIndex.families = new Family[families.length];
+
+		for (int i = 0; i < families.length; i++) {
+			Family family = families[i];
+			Map<String, HBaseColumn> requiredInFamily = requiredColumns.get(family.name);
+
+			Family projectedFamily = new Family(family.name);
+			projectedFamily.qualifiers = family.qualifiers;
+			projectedFamily.columns = new StaticColumn[family.columns.length];
+			for (int j = 0; j < family.columns.length; j++) {
+				StaticColumn column = family.columns[j];
+				boolean projected = requiredInFamily != null && requiredInFamily.containsKey(column.columnName);
+				projectedFamily.columns[j] = new StaticColumn(column, projected);
+			}
+			projectedIndex.families[i] = projectedFamily;
+		}
+		return projectedIndex;
+	}
+
+}
@@ -17,10 +17,9 @@ package org.gstn.hbasetohive.adapter;
 
 import java.util.Map;
 
+import org.apache.hadoop.hbase.client.Put;
 import org.gstn.schemaexplorer.entity.DataRecord;
 
-import com.google.gson.JsonElement;
-
 public interface TargetModel {
 	
 	/** 
@@ -46,7 +45,26 @@ public interface TargetModel {
 	 */
 	DataRecord structureDeleteRecord(DataRecord deleteRecord) throws Exception;
 
-	boolean checkKey(String parentPath, String currentPath, String key, JsonElement value);
+	/**
+	 * This method creates hbase put from a data record restructured by
+	 * structureDataRecord.
+	 * 
+	 * @param targetRecord
+	 * 			record returned by structureDataRecord
+	 * @param rowKeySeparator
+	 * 			separator between row key fields of target table
+	 * @return	
+	 * 			put for the target table
+	 * @throws Exception
+	 * 			if the target is not an hbase table
+	 */
+	Put createPut(DataRecord targetRecord, String rowKeySeparator) throws Exception;
+
+	/**
+	 * @return JSON columns of the target schema compiled into a trie of JSON
+	 *         attribute names
+	 */
+	JsonPathTrie getJsonPathTrie();
 	
 	public Map<String,Class> getSchemaJsonColumns();
 }
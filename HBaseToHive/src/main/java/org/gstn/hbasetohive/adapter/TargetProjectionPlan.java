@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.gstn.schemaexplorer.entity.DataRecord;
+import org.gstn.schemaexplorer.entity.RecordLayout;
+import org.gstn.schemaexplorer.entity.Tuple;
+
+/**
+ * Target schema compiled into the ordered slots of target records. A plan is
+ * built once when the job starts, so that restructuring a source record does
+ * not query the schema explorer for every target column of every row.
+ *
+ * Each slot knows the column it reads from source records, the value written
+ * when the source has no such column, whether the value is a date to be
+ * reformatted, and how the value is encoded for hbase targets. Slots are
+ * bound to the layout of source records on first use, after which source
+ * tuples are fetched by slot.
+ *
+ */
+@SuppressWarnings({ "serial", "rawtypes" })
+public class TargetProjectionPlan implements Serializable {
+
+	/**
+	 * How the value of a slot is obtained
+	 */
+	public enum SlotType {
+		// row key field copied from the source record
+		ROWKEY_FIELD,
+		// row key field whose hash salts the target row key
+		HASHED_ROWKEY_FIELD,
+		// row key field having a fixed value
+		LITERAL_ROWKEY_FIELD,
+		// column copied from the source record, or its default value
+		COLUMN
+	}
+
+	public static class Slot implements Serializable {
+		final SlotType type;
+		final String columnFamily;
+		final String columnName;
+		// default value of a column, or value of a literal row key field
+		final String value;
+		// data type of the tuple holding the default value
+		final Class dataType;
+		final boolean reformatDate;
+
+		// encoding of the column in hbase puts
+		final byte[] familyBytes;
+		final byte[] qualifierBytes;
+		final Class outputType;
+
+		Slot(SlotType type, String columnFamily, String columnName, String value, Class dataType,
+				boolean reformatDate, Class outputType) {
+			this.type = type;
+			this.columnFamily = columnFamily;
+			this.columnName = columnName;
+			this.value = value;
+			this.dataType = dataType;
+			this.reformatDate = reformatDate;
+			this.familyBytes = columnFamily == null ? null : Bytes.toBytes(columnFamily);
+			this.qualifierBytes = columnFamily == null ? null : Bytes.toBytes(columnName);
+			this.outputType = outputType;
+		}
+	}
+
+	// slots of a plan resolved against the root layout of source records
+	private static class Binding {
+		final RecordLayout root;
+		final int[] sourceSlots;
+
+		Binding(RecordLayout root, int[] sourceSlots) {
+			this.root = root;
+			this.sourceSlots = sourceSlots;
+		}
+	}
+
+	private Slot[] rowkeySlots = new Slot[0];
+	private Slot[] columnSlots = new Slot[0];
+
+	// layout of target records and slots of columns in it, built once per
+	// task and published as a whole to the threads writing the records
+	private static class TargetLayout {
+		final RecordLayout layout;
+		final int[] columnSlots;
+		// false if a column has the name of another column or row key field
+		final boolean uniqueColumnNames;
+
+		TargetLayout(RecordLayout layout, int[] columnSlots, boolean uniqueColumnNames) {
+			this.layout = layout;
+			this.columnSlots = columnSlots;
+			this.uniqueColumnNames = uniqueColumnNames;
+		}
+	}
+
+	private transient volatile TargetLayout targetLayout;
+
+	private transient volatile Binding binding;
+
+	public void addRowkeyField(String name) {
+		rowkeySlots = append(rowkeySlots, new Slot(SlotType.ROWKEY_FIELD, null, name, null, null, false, null));
+	}
+
+	public void addHashedRowkeyField(String name) {
+		rowkeySlots = append(rowkeySlots, new Slot(SlotType.HASHED_ROWKEY_FIELD, null, name, null, null, false, null));
+	}
+
+	public void addLiteralRowkeyField(String name, String literalValue) {
+		rowkeySlots = append(rowkeySlots,
+				new Slot(SlotType.LITERAL_ROWKEY_FIELD, null, name, literalValue, null, false, null));
+	}
+
+	/**
+	 * @param columnFamily
+	 *            column family of the target column, null for hdfs targets
+	 * @param columnName
+	 *            name of the target column
+	 * @param defaultValue
+	 *            value written if source records do not have the column
+	 * @param dataType
+	 *            data type of the tuple created for the default value
+	 * @param reformatDate
+	 *            true if the value is a date to be converted into yyyy-MM-dd
+	 * @param outputType
+	 *            data type the value is converted to in hbase puts
+	 */
+	public void addColumn(String columnFamily, String columnName, String defaultValue, Class dataType,
+			boolean reformatDate, Class outputType) {
+		columnSlots = append(columnSlots, new Slot(SlotType.COLUMN, columnFamily, columnName, defaultValue, dataType,
+				reformatDate, outputType));
+	}
+
+	private static Slot[] append(Slot[] slots, Slot slot) {
+		Slot[] newSlots = Arrays.copyOf(slots, slots.length + 1);
+		newSlots[slots.length] = slot;
+		return newSlots;
+	}
+
+	Slot[] getRowkeySlots() {
+		return rowkeySlots;
+	}
+
+	Slot[] getColumnSlots() {
+		return columnSlots;
+	}
+
+	/**
+	 * @return layout of target records, having the row key fields followed by
+	 *         the columns of the plan
+	 */
+	public RecordLayout getTargetLayout() {
+		return resolveTargetLayout().layout;
+	}
+
+	/**
+	 * @param columnIndex
+	 *            index of the column in the plan
+	 * @return slot of the column in target records
+	 */
+	int getTargetColumnSlot(int columnIndex) {
+		return resolveTargetLayout().columnSlots[columnIndex];
+	}
+
+	/**
+	 * @return true if every column of target records has a slot of its own
+	 */
+	boolean hasUniqueColumnNames() {
+		return resolveTargetLayout().uniqueColumnNames;
+	}
+
+	private TargetLayout resolveTargetLayout() {
+		TargetLayout current = targetLayout;
+		if (current == null) {
+			List<String> columnNames = new ArrayList<>();
+			for (Slot slot : rowkeySlots) {
+				columnNames.add(slot.columnName);
+			}
+			for (Slot slot : columnSlots) {
+				columnNames.add(slot.columnName);
+			}
+			RecordLayout layout = new RecordLayout(columnNames);
+
+			Set<String> rowkeyNames = new HashSet<>(columnNames.subList(0, rowkeySlots.length));
+			int[] slots = new int[columnSlots.length];
+			for (int i = 0; i < columnSlots.length; i++) {
+				slots[i] = layout.getSlot(columnSlots[i].columnName);
+			}
+			current = new TargetLayout(layout, slots, layout.size() == rowkeyNames.size() + columnSlots.length);
+			targetLayout = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Returns slots of the row key fields of the plan followed by slots of
+	 * its columns, in the layout of the source record. Slots are resolved
+	 * once for all the records built from the same layout. Names which are
+	 * not in that layout get slot -1, and are looked up by name.
+	 *
+	 * @param source
+	 *            source record
+	 * @return slots of the plan in the source layout
+	 */
+	int[] bind(DataRecord source) {
+		RecordLayout root = source.getLayout().getRoot();
+		Binding current = binding;
+		if (current == null || current.root != root) {
+			int[] sourceSlots = new int[rowkeySlots.length + columnSlots.length];
+			for (int i = 0; i < rowkeySlots.length; i++) {
+				sourceSlots[i] = root.getSlot(rowkeySlots[i].columnName);
+			}
+			for (int i = 0; i < columnSlots.length; i++) {
+				sourceSlots[rowkeySlots.length + i] = root.getSlot(columnSlots[i].columnName);
+			}
+			current = new Binding(root, sourceSlots);
+			binding = current;
+		}
+		return current.sourceSlots;
+	}
+
+	/**
+	 * @return row key field or column tuple of the source record, as returned
+	 *         by DataRecord.getColumnTuple, null if not present
+	 */
+	static Tuple getTuple(DataRecord source, int sourceSlot, Slot slot) {
+		if (sourceSlot < 0) {
+			sourceSlot = source.getLayout().getSlot(slot.columnName);
+		}
+		return source.getTupleAt(sourceSlot);
+	}
+
+	/**
+	 * @return row key field tuple of the source record, null if not present
+	 */
+	static Tuple getRowkeyTuple(DataRecord source, int sourceSlot, Slot slot) {
+		if (sourceSlot < 0) {
+			sourceSlot = source.getLayout().getSlot(slot.columnName);
+		}
+		return source.getRowkeyTupleAt(sourceSlot);
+	}
+
+}
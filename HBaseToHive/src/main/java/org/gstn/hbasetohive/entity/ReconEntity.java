@@ -36,6 +36,11 @@ public class ReconEntity {
 	private boolean deleteAllAdded;
 	private boolean deleteSingleAdded;
 
+	// json explosion of source rows
+	private long maxJsonRowCount;
+	private long jsonRowsDropped;
+	private long sourceRowsOverJsonRowLimit;
+
 	public ReconEntity() {
 		rowCount = 0L;
 		reconColumns = new HashMap<String, BigDecimal>();
@@ -71,6 +76,10 @@ public class ReconEntity {
 
 		checkAndSetDeletionFlags(reconEntity.deleteAllAdded, reconEntity.deleteSingleAdded);
 
+		maxJsonRowCount = Math.max(maxJsonRowCount, reconEntity.maxJsonRowCount);
+		jsonRowsDropped += reconEntity.jsonRowsDropped;
+		sourceRowsOverJsonRowLimit += reconEntity.sourceRowsOverJsonRowLimit;
+
 		for (String column : reconEntity.getReconColumnNames()) {
 			if (!reconColumns.containsKey(column)) {
 				reconColumns.put(column, convertToBigDecimal(0));
@@ -124,6 +133,34 @@ public class ReconEntity {
 		}
 	}
 
+	/**
+	 * Records the explosion of the json of a source row
+	 * 
+	 * @param jsonRowCount
+	 *            number of target rows the json flattens into
+	 * @param droppedRowCount
+	 *            number of those rows dropped because of the json row limit
+	 */
+	public void addJsonExplosion(long jsonRowCount, long droppedRowCount) {
+		maxJsonRowCount = Math.max(maxJsonRowCount, jsonRowCount);
+		if (droppedRowCount > 0) {
+			jsonRowsDropped += droppedRowCount;
+			sourceRowsOverJsonRowLimit++;
+		}
+	}
+
+	public long getMaxJsonRowCount() {
+		return maxJsonRowCount;
+	}
+
+	public long getJsonRowsDropped() {
+		return jsonRowsDropped;
+	}
+
+	public long getSourceRowsOverJsonRowLimit() {
+		return sourceRowsOverJsonRowLimit;
+	}
+
 	BigDecimal convertToBigDecimal(int a) {
 		return new BigDecimal(BigInteger.valueOf(a), new MathContext(30));
 	}
@@ -32,12 +32,15 @@ import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.mapreduce.TableInputFormat;
+import org.apache.hadoop.hbase.mapreduce.TableSnapshotInputFormat;
 import org.apache.hadoop.hbase.protobuf.ProtobufUtil;
 import org.apache.hadoop.hbase.protobuf.generated.ClientProtos;
 import org.apache.hadoop.hbase.util.Base64;
+import org.apache.hadoop.mapreduce.Job;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.gstn.hbasetohive.adapter.HBaseBulkLoadTargetAdapter;
 import org.gstn.hbasetohive.adapter.HBaseSourceTableAdapter;
 import org.gstn.hbasetohive.adapter.HBaseSourceTableModel;
 import org.gstn.hbasetohive.adapter.HBaseTargetAdapter;
@@ -55,6 +58,7 @@ import org.gstn.hbasetohive.job.pojo.ScanAndJobType;
 import org.gstn.hbasetohive.job.pojo.SystemConfig;
 import org.gstn.hbasetohive.pojo.Wrapper;
 import org.gstn.hbasetohive.util.ConfigUtil;
+import org.gstn.hbasetohive.util.SnapshotManager;
 import org.gstn.hbasetohive.util.TimeStampUtil;
 import org.gstn.schemaexplorer.exception.ColumnNotFoundException;
 import org.gstn.schemaexplorer.exception.HQLException;
@@ -155,17 +159,33 @@ public class JobUtil implements Serializable {
 		String hdfsBasePath = sc.getHdfsBasePath();
 		
 
-		String hdfsFilePath = ConfigUtil.gethdfsFilePath(hdfsBasePath, target, targetSchema, appId, jobId);
+		String hdfsFilePath;
+		if (target.equalsIgnoreCase("hbase") && sc.isBulkLoadTargetMode()) {
+			// HFiles of bulk loads are written under bulk load directory
+			hdfsFilePath = ConfigUtil.getJobPath(sc.getBulkLoadDir(), targetSchema, appId, jobId);
+		} else {
+			hdfsFilePath = ConfigUtil.gethdfsFilePath(hdfsBasePath, target, targetSchema, appId, jobId);
+		}
 
 		if (target.equalsIgnoreCase("hive")) {
 
+			HiveTableExplorer targetHiveExplorer = hiveExplorer;
 			targetAdapterWrapperRDD = hBaseRDD
-					.mapPartitions(partition -> new HdfsTargetAdapter(sc.getDestHdfsUrl(), hdfsFilePath)
-							.createTargetAdapterWrapper(partition), true);
+					.mapPartitions(partition -> new HdfsTargetAdapter(sc, hdfsFilePath, targetHiveExplorer,
+							targetSchema).createTargetAdapterWrapper(partition), true);
 
 			targetModel = new HdfsTargetModel(targetSchema, hiveExplorer);
 
 			// target is HBase
+		} else if (target.equalsIgnoreCase("hbase") && sc.isBulkLoadTargetMode()) {
+
+			targetAdapterWrapperRDD = hBaseRDD.mapPartitions(
+					partition -> new HBaseBulkLoadTargetAdapter(sc, hdfsFilePath, targetSchema, hBaseExplorer)
+							.createTargetAdapterWrapper(partition),
+					true);
+
+			targetModel = new HBaseTargetModel(targetSchema, hBaseExplorer);
+
 		} else if (target.equalsIgnoreCase("hbase")) {
 
 			targetAdapterWrapperRDD = hBaseRDD.mapPartitions(
@@ -179,7 +199,7 @@ public class JobUtil implements Serializable {
 		} else {
 
 			targetAdapterWrapperRDD = hBaseRDD
-					.mapPartitions(partition -> new HdfsTargetAdapter(sc.getDestHdfsUrl(), hdfsFilePath)
+					.mapPartitions(partition -> new HdfsTargetAdapter(sc, hdfsFilePath)
 							.createTargetAdapterWrapper(partition), true);
 
 			targetModel = new HdfsTargetModel(targetSchema, hdfsExplorer);
@@ -537,7 +557,18 @@ public class JobUtil implements Serializable {
 		boolean incremental = false;
 		long minTimestamp = 0;
 
-		Scan scan = hBaseTableExplorer.getScanInstanceFromValidatedQuery(sqlBean);
+		if (loadType.equalsIgnoreCase("incremental")) {
+			MinTimestampAndJobType minTimestampAndJobType = TimeStampUtil.getMinTimestampAndJobType(sourceSchema,
+					targetSchema, systemConfig);
+			minTimestamp = minTimestampAndJobType.getMinTimestamp();
+
+			incremental = minTimestampAndJobType.isIncremental();
+		}
+
+		// scan is raw for incremental loads to receive delete markers in
+		// result. Columns can not be specified on a raw scan, so the scan is
+		// generated for it
+		Scan scan = hBaseTableExplorer.getScanInstanceFromValidatedQuery(sqlBean, incremental);
 		String sourceZK = systemConfig.getSourceHBaseZk();
 
 		if (loadType.equalsIgnoreCase("partial")) {
@@ -549,11 +580,6 @@ public class JobUtil implements Serializable {
 				scan.setTimeRange(0L, jobConfig.getMaxTimeStamp());
 			}
 		} else if (loadType.equalsIgnoreCase("incremental")) {
-			MinTimestampAndJobType minTimestampAndJobType = TimeStampUtil.getMinTimestampAndJobType(sourceSchema,
-					targetSchema, systemConfig);
-			minTimestamp = minTimestampAndJobType.getMinTimestamp();
-
-			incremental = minTimestampAndJobType.isIncremental();
 			// min timestamp for scan is set as (minTimestamp-90 days) to allow
 			// delete markers
 			// corresponding to deleteColumn mutations for last three months.
@@ -569,11 +595,6 @@ public class JobUtil implements Serializable {
 			if(log.isDebugEnabled())log.debug("minTimestampForDeleteColumn: "+new Date(minTimestampForDeleteColumn));
 			
 			scan.setTimeRange(minTimestampForDeleteColumn, maxTimestamp);
-
-			if (incremental) {
-				// set raw flag in scan to receive delete markers in result
-				scan.setRaw(true);
-			}
 		}
 		return new ScanAndJobType(scan, minTimestamp, incremental);
 	}
@@ -594,12 +615,32 @@ public class JobUtil implements Serializable {
 
 		Configuration conf = generateConf(scan, sourceZK, sourceTableName);
 
-		JavaPairRDD<ImmutableBytesWritable, Result> hBaseRDD = jsc.newAPIHadoopRDD(conf, TableInputFormat.class,
-				ImmutableBytesWritable.class, Result.class);
+		JavaPairRDD<ImmutableBytesWritable, Result> hBaseRDD;
+
+		// incremental loads need delete markers from a raw scan, which are not
+		// present in snapshot HFiles once they are compacted, so snapshot is
+		// read only for full loads
+		if (systemConfig.isSnapshotSourceMode() && !scanAndJobType.isIncremental()) {
+			// snapshot has to contain all the data written till max timestamp
+			// of the scan
+			String snapshotName = SnapshotManager.getSnapshot(sourceZK, sourceTableName, maxTimestamp);
+
+			Job job = Job.getInstance(conf);
+			TableSnapshotInputFormat.setInput(job, snapshotName,
+					SnapshotManager.getRestoreDir(systemConfig.getSnapshotRestoreDir()));
+
+			// snapshot input format reads one region per split
+			hBaseRDD = jsc.newAPIHadoopRDD(job.getConfiguration(), TableSnapshotInputFormat.class,
+					ImmutableBytesWritable.class, Result.class);
+		} else {
+			// regions are split into sub ranges if number of partitions is
+			// present in config xml, this avoids shuffling the scanned rows
+			if (systemConfig.getNumberOfPartitions() != null) {
+				conf.setInt(RegionSplittingTableInputFormat.TARGET_PARTITIONS, systemConfig.getPartitions());
+			}
 
-		// repartitioning if present in config xml
-		if (systemConfig.getNumberOfPartitions() != null) {
-			hBaseRDD = hBaseRDD.repartition(systemConfig.getPartitions());
+			hBaseRDD = jsc.newAPIHadoopRDD(conf, RegionSplittingTableInputFormat.class, ImmutableBytesWritable.class,
+					Result.class);
 		}
 
 		Wrapper wrapper = new Wrapper(hBaseRDD, scanAndJobType);
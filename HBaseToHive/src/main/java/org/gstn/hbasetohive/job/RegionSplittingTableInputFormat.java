@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.job;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.mapreduce.TableInputFormat;
+import org.apache.hadoop.hbase.mapreduce.TableSplit;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Table input format which splits each region into multiple key sub ranges,
+ * so that the number of input splits matches the configured number of
+ * partitions without shuffling the scanned rows. Every sub range keeps the
+ * location of its region, so the scan stays local to the region server.
+ * Regions get sub ranges in proportion to their size, hence large regions are
+ * read by more tasks. Sub ranges divide the keys between the first and the
+ * last row stored in the region, not the region bounds, which are open for
+ * the first and the last region of a table.
+ */
+public class RegionSplittingTableInputFormat extends TableInputFormat {
+
+	private static Logger log = LoggerFactory.getLogger(RegionSplittingTableInputFormat.class);
+
+	/** Job parameter that specifies the total number of input splits required */
+	public static final String TARGET_PARTITIONS = "hbasetohive.input.target.partitions";
+
+	@Override
+	public List<InputSplit> getSplits(JobContext context) throws IOException {
+
+		List<InputSplit> regionSplits = super.getSplits(context);
+
+		int targetPartitions = context.getConfiguration().getInt(TARGET_PARTITIONS, 0);
+
+		// every region is read by at least one task, regions are never merged
+		if (targetPartitions <= regionSplits.size()) {
+			return regionSplits;
+		}
+
+		long totalLength = 0;
+		for (InputSplit split : regionSplits) {
+			totalLength += ((TableSplit) split).getLength();
+		}
+
+		List<InputSplit> subSplits = new ArrayList<>();
+
+		try (Connection connection = ConnectionFactory.createConnection(context.getConfiguration());
+				Table table = connection
+						.getTable(TableName.valueOf(context.getConfiguration().get(TableInputFormat.INPUT_TABLE)))) {
+
+			for (InputSplit split : regionSplits) {
+				TableSplit regionSplit = (TableSplit) split;
+
+				int noOfSubSplits;
+				if (totalLength > 0) {
+					noOfSubSplits = (int) Math
+							.round((double) targetPartitions * regionSplit.getLength() / totalLength);
+				} else {
+					// region sizes are not available, split all regions equally
+					noOfSubSplits = (targetPartitions + regionSplits.size() - 1) / regionSplits.size();
+				}
+
+				subSplits.addAll(splitRegion(table, regionSplit, Math.max(noOfSubSplits, 1)));
+			}
+		}
+
+		log.info("Created " + subSplits.size() + " input splits from " + regionSplits.size() + " regions");
+
+		return subSplits;
+	}
+
+	/**
+	 * This method divides the key range of a region split into equal sub
+	 * ranges, between the first and the last row present in the region
+	 *
+	 * @param table
+	 *            - table being read
+	 * @param regionSplit
+	 *            - split covering a single region
+	 * @param noOfSubSplits
+	 *            - number of sub ranges required
+	 * @return list of splits covering the same key range as input split
+	 */
+	private List<InputSplit> splitRegion(Table table, TableSplit regionSplit, int noOfSubSplits)
+			throws IOException {
+
+		List<InputSplit> subSplits = new ArrayList<>();
+
+		byte[] startRow = regionSplit.getStartRow();
+		byte[] endRow = regionSplit.getEndRow();
+
+		byte[][] splitKeys = null;
+
+		if (noOfSubSplits > 1) {
+			// region bounds are empty for the first and the last region and
+			// are usually far from the stored keys, like ascii or salted keys,
+			// so split points are calculated between the rows actually present
+			byte[] firstRow = getFirstRow(table, startRow, endRow);
+			byte[] lastRow = firstRow == null ? null : getLastRow(table, startRow, endRow);
+
+			try {
+				if (lastRow != null && Bytes.compareTo(firstRow, lastRow) < 0) {
+					splitKeys = Bytes.split(firstRow, lastRow, noOfSubSplits - 1);
+				}
+			} catch (IllegalArgumentException e) {
+				if (log.isDebugEnabled())
+					log.debug("Could not split region " + regionSplit + ": " + e.getMessage());
+			}
+		}
+
+		if (splitKeys == null) {
+			subSplits.add(regionSplit);
+			return subSplits;
+		}
+
+		long subSplitLength = regionSplit.getLength() / noOfSubSplits;
+		byte[] subSplitStart = startRow;
+
+		// first and last keys returned are the bounds themselves
+		for (int i = 1; i < splitKeys.length - 1; i++) {
+			if (Bytes.compareTo(splitKeys[i], subSplitStart) <= 0) {
+				continue;
+			}
+			subSplits.add(new TableSplit(regionSplit.getTable(), subSplitStart, splitKeys[i],
+					regionSplit.getRegionLocation(), subSplitLength));
+			subSplitStart = splitKeys[i];
+		}
+
+		subSplits.add(new TableSplit(regionSplit.getTable(), subSplitStart, endRow, regionSplit.getRegionLocation(),
+				subSplitLength));
+
+		return subSplits;
+	}
+
+	// first row key in the range, null if range is empty
+	private static byte[] getFirstRow(Table table, byte[] startRow, byte[] endRow) throws IOException {
+		Scan scan = new Scan(startRow, endRow);
+		scan.setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+		scan.setCaching(1);
+		scan.setCacheBlocks(false);
+
+		try (ResultScanner scanner = table.getScanner(scan)) {
+			Result result = scanner.next();
+			return result == null ? null : result.getRow();
+		}
+	}
+
+	// last row key in the range, null if range has no row after its start row
+	private static byte[] getLastRow(Table table, byte[] startRow, byte[] endRow) throws IOException {
+		// reversed scan starts from its start row, which is inclusive, and
+		// stops before its stop row
+		Scan scan = new Scan(endRow, startRow);
+		scan.setReversed(true);
+		scan.setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+		scan.setCaching(2);
+		scan.setCacheBlocks(false);
+
+		try (ResultScanner scanner = table.getScanner(scan)) {
+			for (Result result = scanner.next(); result != null; result = scanner.next()) {
+				// end row belongs to the next region
+				if (endRow.length == 0 || Bytes.compareTo(result.getRow(), endRow) < 0) {
+					return result.getRow();
+				}
+			}
+			return null;
+		}
+	}
+
+}
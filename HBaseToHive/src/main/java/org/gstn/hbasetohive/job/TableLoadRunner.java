@@ -16,6 +16,7 @@
 package org.gstn.hbasetohive.job;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
@@ -27,12 +28,15 @@ import javax.xml.bind.JAXBException;
 
 import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.gstn.hbasetohive.adapter.HBaseBulkLoadTargetAdapter;
+import org.gstn.hbasetohive.adapter.HdfsOutputCommitter;
 import org.gstn.hbasetohive.entity.ReconEntity;
 import org.gstn.hbasetohive.exception.ValidationException;
 import org.gstn.hbasetohive.job.pojo.JobConfig;
 import org.gstn.hbasetohive.job.pojo.JobOutput;
 import org.gstn.hbasetohive.job.pojo.SystemConfig;
 import org.gstn.hbasetohive.util.ConfigUtil;
+import org.gstn.hbasetohive.util.SnapshotManager;
 import org.gstn.hbasetohive.util.TimeStampUtil;
 import org.gstn.schemaexplorer.exception.ColumnNotFoundException;
 import org.gstn.schemaexplorer.exception.HQLException;
@@ -104,9 +108,13 @@ public class TableLoadRunner {
 			Map<String, ReconEntity> reconMap = new HashMap<>();
 
 			if (systemConfig.runJobsParallely() == true) {
-				jobOutputList.parallelStream().forEach(jobOutput -> reconMap.putAll(reduceRDD(jobOutput)));
+				jobOutputList.parallelStream()
+						.forEach(jobOutput -> reconMap
+								.putAll(reduceRDD(jobOutput, systemConfig, target, hBaseExplorer)));
 			} else {
-				jobOutputList.stream().forEach(jobOutput -> reconMap.putAll(reduceRDD(jobOutput)));
+				jobOutputList.stream()
+						.forEach(jobOutput -> reconMap
+								.putAll(reduceRDD(jobOutput, systemConfig, target, hBaseExplorer)));
 			}
 
 			if (target.equals("hive")) {
@@ -122,8 +130,10 @@ public class TableLoadRunner {
 		} catch (Exception e) {
 			System.err.println("Error occurred: " + e);
 			e.printStackTrace();
+			SnapshotManager.cleanUp();
 			System.exit(1);
 		} finally {
+			SnapshotManager.cleanUp();
 			if (jsc != null) {
 				jsc.close();
 			}
@@ -205,7 +215,8 @@ public class TableLoadRunner {
 		return jobOutputList;
 	}
 
-	private static Map<String, ReconEntity> reduceRDD(JobOutput jobOutput) {
+	private static Map<String, ReconEntity> reduceRDD(JobOutput jobOutput, SystemConfig systemConfig,
+			String target, HBaseTableExplorer hBaseExplorer) {
 
 		Map<String, ReconEntity> map = new HashMap<>();
 
@@ -215,6 +226,20 @@ public class TableLoadRunner {
 		});
 		map.put(jobOutput.getJobId(), reconEntity);
 
+		try {
+			if (!target.equalsIgnoreCase("hbase")) {
+				// move files of committed tasks to the job output directory
+				HdfsOutputCommitter.commitJob(systemConfig.getDestHdfsUrl(), jobOutput.getHdfsFilePath());
+			} else if (systemConfig.isBulkLoadTargetMode()) {
+				HBaseBulkLoadTargetAdapter.loadHFiles(
+						JavaSparkContext.fromSparkContext(jobOutput.getReconRDD().context()),
+						systemConfig.getTargetHBaseZk(), hBaseExplorer.getTableName(jobOutput.getTargetSchema()),
+						jobOutput.getHdfsFilePath());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to commit output of job " + jobOutput.getJobId(), e);
+		}
+
 		return map;
 	}
 
@@ -280,6 +305,15 @@ public class TableLoadRunner {
 					}
 				}
 			}
+
+			if (reconEntity.getMaxJsonRowCount() > 0) {
+				System.out.println("\nJson Details: ");
+				System.out.println("        Maximum target Rows from json of a source row: "
+						+ reconEntity.getMaxJsonRowCount());
+				System.out.println("        Number of target Rows dropped by json row limit: "
+						+ reconEntity.getJsonRowsDropped() + " from " + reconEntity.getSourceRowsOverJsonRowLimit()
+						+ " source Rows");
+			}
 		}
 		System.out.print("\n****************************************************************************");
 		System.out.println("****************************************************************************\n");
@@ -16,14 +16,34 @@
 package org.gstn.hbasetohive.job.pojo;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.apache.hadoop.io.compress.BZip2Codec;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.io.compress.Lz4Codec;
+import org.apache.hadoop.io.compress.SnappyCodec;
 import org.gstn.hbasetohive.exception.ValidationException;
 
 @SuppressWarnings("serial")
 public class HdfsTargetProperties implements Serializable {
 
+	// codecs which can be used for compressing text files, hive reads such
+	// files by their extension
+	private static final Map<String, Class<? extends CompressionCodec>> compressionCodecs;
+	static {
+		compressionCodecs = new HashMap<>();
+		compressionCodecs.put("none", null);
+		compressionCodecs.put("gzip", GzipCodec.class);
+		compressionCodecs.put("snappy", SnappyCodec.class);
+		compressionCodecs.put("lz4", Lz4Codec.class);
+		compressionCodecs.put("bzip2", BZip2Codec.class);
+	}
+
 	private String destHdfsUrl;
 	private String hdfsBasePath;
+	private String compressionCodec;
 
 	public String getDestHdfsUrl() {
 		return destHdfsUrl;
@@ -41,6 +61,22 @@ public class HdfsTargetProperties implements Serializable {
 		this.hdfsBasePath = hdfsBasePath;
 	}
 
+	public String getCompressionCodec() {
+		return compressionCodec;
+	}
+
+	public void setCompressionCodec(String compressionCodec) {
+		this.compressionCodec = compressionCodec;
+	}
+
+	// codec for compressing text files, null if they are not to be compressed
+	public Class<? extends CompressionCodec> getCompressionCodecClass() {
+		if (compressionCodec == null) {
+			return null;
+		}
+		return compressionCodecs.get(compressionCodec.trim().toLowerCase());
+	}
+
 	public void validate(String scFilePath) throws ValidationException {
 		if (destHdfsUrl == null) {
 			throw new ValidationException(
@@ -60,6 +96,10 @@ public class HdfsTargetProperties implements Serializable {
 					"Please specify a valid path for <hdfsBasePath> in <hdfsTargetProperties> in config file: "
 							+ scFilePath);
 		}
+		if (compressionCodec != null && !compressionCodecs.containsKey(compressionCodec.trim().toLowerCase())) {
+			throw new ValidationException("Please specify one of " + compressionCodecs.keySet()
+					+ " for <compressionCodec> in <hdfsTargetProperties> in config file: " + scFilePath);
+		}
 	}
 
 }
@@ -22,6 +22,7 @@ import java.util.Map;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.gstn.hbasetohive.exception.ValidationException;
 
 @SuppressWarnings("serial")
@@ -38,11 +39,27 @@ public class SystemConfig implements Serializable {
 	private String executorCores;
 	private String numberOfPartitions;
 	private String runJobsParallelly;
+	private String lookupBatchSize;
+	private String lookupConcurrency;
+	private String jsonRowLimit;
+	private String maxOpenPartitionFiles;
+	private String maxRowsPerFile;
+	private String maxFileSizeMB;
 
 	private String sourceHBaseZk;
 
+	private String sourceMode;
+
+	private String snapshotRestoreDir;
+
 	private String targetHBaseZk;
 
+	private String targetMode;
+
+	private String bulkLoadDir;
+
+	private String bulkLoadBufferMB;
+
 	private String activeCluster;
 
 	private String jobExecutionCluster;
@@ -136,6 +153,113 @@ public class SystemConfig implements Serializable {
 		return Integer.parseInt(numberOfPartitions);
 	}
 
+	@XmlElement
+	public String getLookupBatchSize() {
+		return lookupBatchSize;
+	}
+
+	public void setLookupBatchSize(String lookupBatchSize) {
+		this.lookupBatchSize = lookupBatchSize;
+	}
+
+	// number of rows fetched in one multi get during incremental load
+	public int getLookupBatch() {
+		if (lookupBatchSize == null) {
+			return 1000;
+		}
+		return Integer.parseInt(lookupBatchSize);
+	}
+
+	@XmlElement
+	public String getLookupConcurrency() {
+		return lookupConcurrency;
+	}
+
+	public void setLookupConcurrency(String lookupConcurrency) {
+		this.lookupConcurrency = lookupConcurrency;
+	}
+
+	// number of multi gets fired in parallel by a partition during
+	// incremental load
+	public int getLookupThreads() {
+		if (lookupConcurrency == null) {
+			return 4;
+		}
+		return Integer.parseInt(lookupConcurrency);
+	}
+
+	@XmlElement
+	public String getJsonRowLimit() {
+		return jsonRowLimit;
+	}
+
+	public void setJsonRowLimit(String jsonRowLimit) {
+		this.jsonRowLimit = jsonRowLimit;
+	}
+
+	// maximum number of target rows created from the json of a source row.
+	// rows beyond it are dropped and counted in recon details
+	public long getJsonRowLimitValue() {
+		if (jsonRowLimit == null) {
+			return Long.MAX_VALUE;
+		}
+		return Long.parseLong(jsonRowLimit);
+	}
+
+	@XmlElement
+	public String getMaxOpenPartitionFiles() {
+		return maxOpenPartitionFiles;
+	}
+
+	public void setMaxOpenPartitionFiles(String maxOpenPartitionFiles) {
+		this.maxOpenPartitionFiles = maxOpenPartitionFiles;
+	}
+
+	// number of hive partition files kept open by a partition while writing
+	// parquet files. file of the least recently written hive partition is
+	// closed to open another
+	public int getMaxOpenPartitionFilesValue() {
+		if (maxOpenPartitionFiles == null) {
+			return 32;
+		}
+		return Integer.parseInt(maxOpenPartitionFiles);
+	}
+
+	@XmlElement
+	public String getMaxRowsPerFile() {
+		return maxRowsPerFile;
+	}
+
+	public void setMaxRowsPerFile(String maxRowsPerFile) {
+		this.maxRowsPerFile = maxRowsPerFile;
+	}
+
+	// number of rows after which a new hdfs file is started
+	public long getMaxRowsPerFileValue() {
+		if (maxRowsPerFile == null) {
+			return Long.MAX_VALUE;
+		}
+		return Long.parseLong(maxRowsPerFile);
+	}
+
+	@XmlElement
+	public String getMaxFileSizeMB() {
+		return maxFileSizeMB;
+	}
+
+	public void setMaxFileSizeMB(String maxFileSizeMB) {
+		this.maxFileSizeMB = maxFileSizeMB;
+	}
+
+	// size of rows in bytes, counted as text, after which a new hdfs file is
+	// started
+	public long getMaxFileSizeValue() {
+		if (maxFileSizeMB == null) {
+			return Long.MAX_VALUE;
+		}
+		return Long.parseLong(maxFileSizeMB) * 1024 * 1024;
+	}
+
 	@XmlElement
 	public String getRunJobsParallelly() {
 		return runJobsParallelly;
@@ -154,6 +278,29 @@ public class SystemConfig implements Serializable {
 		this.sourceHBaseZk = sourceHBaseZk;
 	}
 
+	@XmlElement
+	public String getSourceMode() {
+		return sourceMode;
+	}
+
+	public void setSourceMode(String sourceMode) {
+		this.sourceMode = sourceMode;
+	}
+
+	// source table is read from its snapshot files instead of region servers
+	public boolean isSnapshotSourceMode() {
+		return sourceMode != null && sourceMode.equalsIgnoreCase("snapshot");
+	}
+
+	@XmlElement
+	public String getSnapshotRestoreDir() {
+		return snapshotRestoreDir;
+	}
+
+	public void setSnapshotRestoreDir(String snapshotRestoreDir) {
+		this.snapshotRestoreDir = snapshotRestoreDir;
+	}
+
 	@XmlElement
 	public String getTargetHBaseZk() {
 		return targetHBaseZk;
@@ -163,6 +310,48 @@ public class SystemConfig implements Serializable {
 		this.targetHBaseZk = targetHBaseZk;
 	}
 
+	@XmlElement
+	public String getTargetMode() {
+		return targetMode;
+	}
+
+	public void setTargetMode(String targetMode) {
+		this.targetMode = targetMode;
+	}
+
+	// full loads into target hbase table write HFiles and bulk load them
+	// instead of writing puts through region servers
+	public boolean isBulkLoadTargetMode() {
+		return targetMode != null && targetMode.equalsIgnoreCase("bulkload");
+	}
+
+	@XmlElement
+	public String getBulkLoadDir() {
+		return bulkLoadDir;
+	}
+
+	public void setBulkLoadDir(String bulkLoadDir) {
+		this.bulkLoadDir = bulkLoadDir;
+	}
+
+	@XmlElement
+	public String getBulkLoadBufferMB() {
+		return bulkLoadBufferMB;
+	}
+
+	public void setBulkLoadBufferMB(String bulkLoadBufferMB) {
+		this.bulkLoadBufferMB = bulkLoadBufferMB;
+	}
+
+	// size of cells in bytes sorted in memory by a task before writing them
+	// into HFiles
+	public long getBulkLoadBufferSizeValue() {
+		if (bulkLoadBufferMB == null) {
+			return 128L * 1024 * 1024;
+		}
+		return Long.parseLong(bulkLoadBufferMB) * 1024 * 1024;
+	}
+
 	@XmlElement
 	public String getActiveCluster() {
 		return activeCluster;
@@ -272,6 +461,10 @@ public class SystemConfig implements Serializable {
 		return hdfsTargetProperties.getDestHdfsUrl();
 	}
 
+	public Class<? extends CompressionCodec> getCompressionCodecClass() {
+		return hdfsTargetProperties.getCompressionCodecClass();
+	}
+
 	public void validate(String scFilePath, String target, String loadType) throws ValidationException {
 
 		if (sparkMaster == null) {
@@ -287,6 +480,20 @@ public class SystemConfig implements Serializable {
 			}
 		}
 
+		validatePositiveInteger(lookupBatchSize, "lookupBatchSize", scFilePath);
+
+		validatePositiveInteger(lookupConcurrency, "lookupConcurrency", scFilePath);
+
+		validatePositiveLong(jsonRowLimit, "jsonRowLimit", scFilePath);
+
+		validatePositiveInteger(maxOpenPartitionFiles, "maxOpenPartitionFiles", scFilePath);
+
+		validatePositiveLong(maxRowsPerFile, "maxRowsPerFile", scFilePath);
+
+		validatePositiveInteger(maxFileSizeMB, "maxFileSizeMB", scFilePath);
+
+		validatePositiveInteger(bulkLoadBufferMB, "bulkLoadBufferMB", scFilePath);
+
 		if (runJobsParallelly != null && !(runJobsParallelly.equals("1") || runJobsParallelly.equals("0")
 				|| runJobsParallelly.equalsIgnoreCase("true") || runJobsParallelly.equalsIgnoreCase("false"))) {
 			throw new ValidationException(
@@ -313,6 +520,16 @@ public class SystemConfig implements Serializable {
 					"Please specify valid zookeeper quorum in <sourceHBaseZk> in config file: " + scFilePath);
 		}
 
+		if (sourceMode != null && !(sourceMode.equalsIgnoreCase("live") || sourceMode.equalsIgnoreCase("snapshot"))) {
+			throw new ValidationException(
+					"<sourceMode> should be either live or snapshot, in config file: " + scFilePath);
+		}
+
+		if (isSnapshotSourceMode() && (snapshotRestoreDir == null || snapshotRestoreDir.isEmpty())) {
+			throw new ValidationException(
+					"Please specify <snapshotRestoreDir> for snapshot source mode in config file: " + scFilePath);
+		}
+
 		if (activeCluster != null) {
 			if (!(activeCluster.equalsIgnoreCase("DC1") || activeCluster.equalsIgnoreCase("DC2"))) {
 				throw new ValidationException(
@@ -335,6 +552,21 @@ public class SystemConfig implements Serializable {
 				throw new ValidationException(
 						"Please specify valid zookeeper quorum in <targetHBaseZk> in config file: " + scFilePath);
 			}
+			if (targetMode != null
+					&& !(targetMode.equalsIgnoreCase("live") || targetMode.equalsIgnoreCase("bulkload"))) {
+				throw new ValidationException(
+						"<targetMode> should be either live or bulkload, in config file: " + scFilePath);
+			}
+			if (isBulkLoadTargetMode() && (bulkLoadDir == null || bulkLoadDir.isEmpty())) {
+				throw new ValidationException(
+						"Please specify <bulkLoadDir> for bulkload target mode in config file: " + scFilePath);
+			}
+			if (isBulkLoadTargetMode() && loadType.equalsIgnoreCase("incremental")) {
+				// deletes of incremental loads can not be written into HFiles
+				throw new ValidationException(
+						"bulkload target mode is supported only for full and partial loads, in config file: "
+								+ scFilePath);
+			}
 		} else if (target.equalsIgnoreCase("HDFS") || target.equalsIgnoreCase("Hive")) {
 			if (hdfsTargetProperties == null) {
 				throw new ValidationException(
@@ -349,6 +581,34 @@ public class SystemConfig implements Serializable {
 		}
 	}
 
+	private void validatePositiveInteger(String value, String tag, String scFilePath) throws ValidationException {
+		if (value != null) {
+			try {
+				if (Integer.parseInt(value) > 0) {
+					return;
+				}
+			} catch (NumberFormatException e) {
+				// handled below
+			}
+			throw new ValidationException(
+					"Please specify a positive integer value for <" + tag + "> in config file: " + scFilePath);
+		}
+	}
+
+	private void validatePositiveLong(String value, String tag, String scFilePath) throws ValidationException {
+		if (value != null) {
+			try {
+				if (Long.parseLong(value) > 0) {
+					return;
+				}
+			} catch (NumberFormatException e) {
+				// handled below
+			}
+			throw new ValidationException(
+					"Please specify a positive integer value for <" + tag + "> in config file: " + scFilePath);
+		}
+	}
+
 	public boolean runJobsParallely() {
 		if (runJobsParallelly == null) {
 			return true;
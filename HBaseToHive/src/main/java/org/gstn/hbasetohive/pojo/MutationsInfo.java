@@ -27,6 +27,8 @@ public class MutationsInfo implements Serializable {
 	private Map<String, MutationsForAGroup> mutations;
 	private boolean mutationForStaticPresent;
 	private boolean mutationForDyanmicPresent;
+	// deleteFamily markers found along with the mutations
+	private DeleteFamilyMarkerInfo deleteFamilyMarkerInfo;
 
 	public MutationsInfo(Map<String, MutationsForAGroup> mutations, boolean mutationForStaticPresent,
 			boolean mutationForDyanmicPresent) {
@@ -35,6 +37,12 @@ public class MutationsInfo implements Serializable {
 		this.mutationForDyanmicPresent = mutationForDyanmicPresent;
 	}
 
+	public MutationsInfo(Map<String, MutationsForAGroup> mutations, boolean mutationForStaticPresent,
+			boolean mutationForDyanmicPresent, DeleteFamilyMarkerInfo deleteFamilyMarkerInfo) {
+		this(mutations, mutationForStaticPresent, mutationForDyanmicPresent);
+		this.deleteFamilyMarkerInfo = deleteFamilyMarkerInfo;
+	}
+
 	public Map<String, MutationsForAGroup> getMutations() {
 		return mutations;
 	}
@@ -59,4 +67,8 @@ public class MutationsInfo implements Serializable {
 		this.mutationForDyanmicPresent = mutationForDyanmicPresent;
 	}
 
+	public DeleteFamilyMarkerInfo getDeleteFamilyMarkerInfo() {
+		return deleteFamilyMarkerInfo;
+	}
+
 }
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.pojo;
+
+import java.util.List;
+import java.util.NavigableMap;
+
+import org.apache.hadoop.hbase.client.Get;
+import org.gstn.schemaexplorer.entity.DataRecord;
+
+/**
+ * Source row whose processing is deferred until the columns missing from the
+ * raw scan result are fetched from HBase
+ */
+public class PendingLookup {
+
+	private byte[] rowKey;
+	private Get get;
+	private boolean reprocessRow;
+	// columns from put mutations, these take precedence over fetched columns
+	private NavigableMap<byte[], NavigableMap<byte[], byte[]>> putColumns;
+	private List<DataRecord> deleteRowList;
+
+	public PendingLookup(byte[] rowKey, Get get, boolean reprocessRow,
+			NavigableMap<byte[], NavigableMap<byte[], byte[]>> putColumns, List<DataRecord> deleteRowList) {
+		this.rowKey = rowKey;
+		this.get = get;
+		this.reprocessRow = reprocessRow;
+		this.putColumns = putColumns;
+		this.deleteRowList = deleteRowList;
+	}
+
+	public byte[] getRowKey() {
+		return rowKey;
+	}
+
+	public Get getGet() {
+		return get;
+	}
+
+	public boolean isReprocessRow() {
+		return reprocessRow;
+	}
+
+	public NavigableMap<byte[], NavigableMap<byte[], byte[]>> getPutColumns() {
+		return putColumns;
+	}
+
+	public List<DataRecord> getDeleteRowList() {
+		return deleteRowList;
+	}
+
+}
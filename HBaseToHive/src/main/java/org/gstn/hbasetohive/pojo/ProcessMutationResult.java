@@ -18,6 +18,8 @@ package org.gstn.hbasetohive.pojo;
 import java.io.Serializable;
 import java.util.NavigableMap;
 
+import org.apache.hadoop.hbase.client.Get;
+
 public class ProcessMutationResult implements Serializable {
 	/**
 	 * 
@@ -26,6 +28,8 @@ public class ProcessMutationResult implements Serializable {
 	
 	private NavigableMap<byte[], NavigableMap<byte[], byte[]>> noVersionMap;
 	private boolean reprocessRow;
+	// get for the columns missing from raw result, null if none are missing
+	private transient Get missingColumnsGet;
 
 	public ProcessMutationResult(NavigableMap<byte[], NavigableMap<byte[], byte[]>> noVersionMap,
 			boolean reprocessRow) {
@@ -33,6 +37,12 @@ public class ProcessMutationResult implements Serializable {
 		this.reprocessRow = reprocessRow;
 	}
 
+	public ProcessMutationResult(NavigableMap<byte[], NavigableMap<byte[], byte[]>> noVersionMap,
+			Get missingColumnsGet) {
+		this.noVersionMap = noVersionMap;
+		this.missingColumnsGet = missingColumnsGet;
+	}
+
 	public NavigableMap<byte[], NavigableMap<byte[], byte[]>> getNoVersionMap() {
 		return noVersionMap;
 	}
@@ -49,4 +59,8 @@ public class ProcessMutationResult implements Serializable {
 		this.reprocessRow = reprocessRow;
 	}
 
+	public Get getMissingColumnsGet() {
+		return missingColumnsGet;
+	}
+
 }
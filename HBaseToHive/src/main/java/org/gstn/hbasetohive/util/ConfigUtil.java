@@ -83,12 +83,7 @@ public class ConfigUtil {
 		String hdfsFilePath;
 		
 		if (target.equalsIgnoreCase("hive") || target.equalsIgnoreCase("hdfs")) {
-			if (hdfsBasePath.endsWith(File.separator)) {
-				hdfsFilePath = hdfsBasePath + targetSchema + File.separator + appId + File.separator + identifier;
-			} else {
-				hdfsFilePath = hdfsBasePath + File.separator + targetSchema + File.separator + appId + File.separator
-						+ identifier;
-			}
+			hdfsFilePath = getJobPath(hdfsBasePath, targetSchema, appId, identifier);
 		} else {
 			hdfsFilePath = "";
 		}
@@ -96,4 +91,13 @@ public class ConfigUtil {
 
 	}
 
+	// directory of a job under a base directory, like the one where HFiles
+	// are written for bulk load
+	public static String getJobPath(String basePath, String targetSchema, String appId, String identifier) {
+		if (basePath.endsWith(File.separator)) {
+			return basePath + targetSchema + File.separator + appId + File.separator + identifier;
+		}
+		return basePath + File.separator + targetSchema + File.separator + appId + File.separator + identifier;
+	}
+
 }
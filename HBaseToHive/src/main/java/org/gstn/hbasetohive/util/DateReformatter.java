@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converts dates from a source pattern to yyyy-MM-dd, producing the same
+ * output as parsing the value with a lenient SimpleDateFormat of the source
+ * pattern and formatting the date with yyyy-MM-dd.
+ *
+ * Patterns made only of yyyy, MM and dd fields and separators, like
+ * dd-MM-yyyy, are converted by rearranging characters of the value when the
+ * value is a valid date of the same width. Other values are parsed with
+ * formatters kept per thread, and their results are memoized per thread, as
+ * the same dates repeat across rows.
+ *
+ */
+public class DateReformatter {
+
+	private static final String TARGET_PATTERN = "yyyy-MM-dd";
+
+	// bound on memoized values per thread
+	private static final int MAX_MEMOIZED_VALUES = 4096;
+
+	// the fast path is limited to years for which the calendar used by
+	// SimpleDateFormat is proleptic gregorian
+	private static final int MIN_FAST_PATH_YEAR = 1600;
+
+	private final String sourcePattern;
+
+	// positions of the fields in values of the source pattern, -1 if the
+	// pattern can't be converted by rearranging characters
+	private final int yearPosition, monthPosition, dayPosition;
+	// source pattern with the fields, when it can be converted by rearranging
+	// characters
+	private final String fastPathPattern;
+
+	private final ThreadLocal<Formatters> formatters;
+
+	private class Formatters {
+		final SimpleDateFormat source = new SimpleDateFormat(sourcePattern);
+		final SimpleDateFormat target = new SimpleDateFormat(TARGET_PATTERN);
+		final Map<String, String> memo = new LinkedHashMap<String, String>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > MAX_MEMOIZED_VALUES;
+			}
+		};
+	}
+
+	/**
+	 * @param sourcePattern
+	 *            SimpleDateFormat pattern of the values to convert
+	 * @throws IllegalArgumentException
+	 *             if the pattern is invalid
+	 */
+	public DateReformatter(String sourcePattern) {
+		// validates the pattern
+		new SimpleDateFormat(sourcePattern);
+
+		this.sourcePattern = sourcePattern;
+		this.formatters = ThreadLocal.withInitial(Formatters::new);
+
+		int year = sourcePattern.indexOf("yyyy");
+		int month = sourcePattern.indexOf("MM");
+		int day = sourcePattern.indexOf("dd");
+		if (year >= 0 && month >= 0 && day >= 0 && hasOnlyFieldsAndSeparators(sourcePattern, year, month, day)) {
+			yearPosition = year;
+			monthPosition = month;
+			dayPosition = day;
+			fastPathPattern = sourcePattern;
+		} else {
+			yearPosition = -1;
+			monthPosition = -1;
+			dayPosition = -1;
+			fastPathPattern = null;
+		}
+	}
+
+	private static boolean hasOnlyFieldsAndSeparators(String pattern, int year, int month, int day) {
+		for (int i = 0; i < pattern.length(); i++) {
+			boolean inField = (i >= year && i < year + 4) || (i >= month && i < month + 2)
+					|| (i >= day && i < day + 2);
+			char c = pattern.charAt(i);
+			if (!inField && ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '\'' || Character.isWhitespace(c)
+					|| Character.isDigit(c))) {
+				return false;
+			}
+		}
+		// each field appears once
+		return pattern.length() == countSeparators(pattern) + 8;
+	}
+
+	private static int countSeparators(String pattern) {
+		int separators = 0;
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+				separators++;
+			}
+		}
+		return separators;
+	}
+
+	/**
+	 * @param value
+	 *            date in the source pattern
+	 * @return date in yyyy-MM-dd pattern, null if value is null
+	 * @throws ParseException
+	 *             if the value can't be parsed using the source pattern
+	 */
+	public String reformat(String value) throws ParseException {
+		if (value == null) {
+			return null;
+		}
+
+		if (fastPathPattern != null && value.length() == fastPathPattern.length()) {
+			String converted = rearrange(value);
+			if (converted != null) {
+				return converted;
+			}
+		}
+
+		Formatters threadFormatters = formatters.get();
+		String converted = threadFormatters.memo.get(value);
+		if (converted == null) {
+			converted = threadFormatters.target.format(threadFormatters.source.parse(value));
+			threadFormatters.memo.put(value, converted);
+		}
+		return converted;
+	}
+
+	/**
+	 * @return date in yyyy-MM-dd pattern, null if the value is not a valid
+	 *         date of the same width as the source pattern
+	 */
+	private String rearrange(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char p = fastPathPattern.charAt(i);
+			char c = value.charAt(i);
+			if ((p == 'y' || p == 'M' || p == 'd') ? (c < '0' || c > '9') : c != p) {
+				return null;
+			}
+		}
+
+		int year = digits(value, yearPosition, 4);
+		int month = digits(value, monthPosition, 2);
+		int day = digits(value, dayPosition, 2);
+		if (year < MIN_FAST_PATH_YEAR || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+			return null;
+		}
+
+		char[] converted = new char[10];
+		value.getChars(yearPosition, yearPosition + 4, converted, 0);
+		converted[4] = '-';
+		value.getChars(monthPosition, monthPosition + 2, converted, 5);
+		converted[7] = '-';
+		value.getChars(dayPosition, dayPosition + 2, converted, 8);
+		return new String(converted);
+	}
+
+	private static int digits(String value, int position, int length) {
+		int number = 0;
+		for (int i = position; i < position + length; i++) {
+			number = number * 10 + (value.charAt(i) - '0');
+		}
+		return number;
+	}
+
+	private static int daysInMonth(int year, int month) {
+		switch (month) {
+		case 2:
+			boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+			return leap ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+}
@@ -16,31 +16,35 @@
 package org.gstn.hbasetohive.util;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Converts dates into yyyy-MM-dd format. Converters are cached per source
+ * pattern, see DateReformatter.
+ */
 public class FormatDateUtil {
 
+	private static final String DEFAULT_PATTERN = "dd-MM-yyyy";
+
+	private static final ConcurrentHashMap<String, DateReformatter> reformatters = new ConcurrentHashMap<>();
+
 	public static String FormatDate(String format, String value) throws ParseException {
 		if (value == null) {
 			return null;
 		}
-		SimpleDateFormat sdfSource = new SimpleDateFormat(format);
-		Date date = null;
-		date = sdfSource.parse(value);
-		SimpleDateFormat sdfDestination = new SimpleDateFormat("yyyy-MM-dd");
-		return sdfDestination.format(date);
+		DateReformatter reformatter = reformatters.get(format);
+		if (reformatter == null) {
+			reformatter = new DateReformatter(format);
+			DateReformatter existing = reformatters.putIfAbsent(format, reformatter);
+			if (existing != null) {
+				reformatter = existing;
+			}
+		}
+		return reformatter.reformat(value);
 	}
 
 	public static String FormatDate(String value) throws ParseException {
-		if (value == null) {
-			return null;
-		}
-		SimpleDateFormat sdfSource = new SimpleDateFormat("dd-MM-yyyy");
-		Date date = null;
-		date = sdfSource.parse(value);
-		SimpleDateFormat sdfDestination = new SimpleDateFormat("yyyy-MM-dd");
-		return sdfDestination.format(date);
+		return FormatDate(DEFAULT_PATTERN, value);
 	}
 
 }
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetches rows from an HBase table using multi row gets. Input gets are split
+ * into batches of configured size and the batches are fired concurrently.
+ */
+public class MultiGetExecutor implements Closeable {
+
+	private static Logger log = LoggerFactory.getLogger(MultiGetExecutor.class);
+
+	private final String hBaseZk;
+	private final TableName tableName;
+	private final int batchSize;
+	private final int concurrency;
+
+	// created on first use, as most partitions of a job may not need lookups
+	private ExecutorService executorService;
+
+	public MultiGetExecutor(String hBaseZk, String tableName, int batchSize, int concurrency) {
+		this.hBaseZk = hBaseZk;
+		this.tableName = TableName.valueOf(tableName);
+		this.batchSize = batchSize;
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Number of gets which keeps all the threads busy with full batches
+	 */
+	public int getCapacity() {
+		return batchSize * concurrency;
+	}
+
+	/**
+	 * This method fetches the rows for all input gets
+	 * 
+	 * @param gets
+	 *            - list of gets to be fired
+	 * @return results in the same order as input gets, empty result for a row
+	 *         that is not found
+	 * @throws IOException
+	 *             if any of the batches fail
+	 */
+	public Result[] get(List<Get> gets) throws IOException {
+
+		List<List<Get>> batches = new ArrayList<>();
+		for (int i = 0; i < gets.size(); i += batchSize) {
+			batches.add(gets.subList(i, Math.min(i + batchSize, gets.size())));
+		}
+
+		Result[] results = new Result[gets.size()];
+
+		Connection con = HBaseConnectionManager.getConnection(hBaseZk);
+
+		if (batches.size() <= 1 || concurrency <= 1) {
+			int pos = 0;
+			for (List<Get> batch : batches) {
+				Result[] batchResults = fireBatch(con, batch);
+				System.arraycopy(batchResults, 0, results, pos, batchResults.length);
+				pos += batchResults.length;
+			}
+			return results;
+		}
+
+		if (executorService == null) {
+			executorService = Executors.newFixedThreadPool(concurrency);
+		}
+
+		List<Future<Result[]>> futures = new ArrayList<>();
+		for (List<Get> batch : batches) {
+			futures.add(executorService.submit(() -> fireBatch(con, batch)));
+		}
+
+		int pos = 0;
+		try {
+			for (Future<Result[]> future : futures) {
+				Result[] batchResults = future.get();
+				System.arraycopy(batchResults, 0, results, pos, batchResults.length);
+				pos += batchResults.length;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while fetching rows from " + tableName, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Error while fetching rows from " + tableName, e.getCause());
+		}
+
+		return results;
+	}
+
+	private Result[] fireBatch(Connection con, List<Get> batch) throws IOException {
+		if(log.isDebugEnabled())log.debug("Firing multi get of " + batch.size() + " rows on " + tableName);
+
+		// Table instances are not thread safe, so each batch gets its own
+		try (Table table = con.getTable(tableName)) {
+			return table.get(batch);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (executorService != null) {
+			executorService.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class provides HBase snapshots of source tables for reading them
+ * offline, directly from HDFS. A snapshot taken by a job is reused by the other
+ * jobs reading the same table in the same run. Snapshots and restore
+ * directories of a run are deleted by {@link #cleanUp()} once the run is over.
+ */
+public class SnapshotManager {
+
+	private static Logger log = LoggerFactory.getLogger(SnapshotManager.class);
+
+	private static final String SNAPSHOT_NAME_INFIX = "_hbasetohive_";
+
+	// map of hbase zk quorum vs map of table name vs latest snapshot taken in
+	// this run
+	private static Map<String, Map<String, TakenSnapshot>> snapshotMap = new HashMap<>();
+
+	// map of hbase zk quorum vs names of all the snapshots taken in this run
+	private static Map<String, List<String>> snapshotNameMap = new HashMap<>();
+
+	// restore directories used in this run
+	private static List<Path> restoreDirs = new ArrayList<>();
+
+	/**
+	 * This method returns the name of a snapshot of the table which contains
+	 * all the data written till the given time. The snapshot taken earlier in
+	 * this run is reused if it is recent enough, otherwise a new snapshot is
+	 * taken.
+	 * 
+	 * @param hBaseZkQuorum
+	 *            - zookeeper quorum of the HBase cluster containing the table
+	 * @param tableName
+	 *            - name of the table
+	 * @param minCreationTime
+	 *            - time till which data is required in the snapshot
+	 * @return name of the snapshot
+	 * @throws IOException
+	 *             if the snapshot could not be taken
+	 */
+	public static synchronized String getSnapshot(String hBaseZkQuorum, String tableName, long minCreationTime)
+			throws IOException {
+
+		Map<String, TakenSnapshot> tableSnapshotMap = snapshotMap.get(hBaseZkQuorum);
+		if (tableSnapshotMap == null) {
+			tableSnapshotMap = new HashMap<>();
+			snapshotMap.put(hBaseZkQuorum, tableSnapshotMap);
+		}
+
+		TakenSnapshot takenSnapshot = tableSnapshotMap.get(tableName);
+		if (takenSnapshot != null && takenSnapshot.creationTime >= minCreationTime) {
+			log.info("Reusing snapshot " + takenSnapshot.name + " of table " + tableName);
+			return takenSnapshot.name;
+		}
+
+		long creationTime = System.currentTimeMillis();
+
+		// namespace separator is not allowed in snapshot names
+		String snapshotName = tableName.replace(':', '_') + SNAPSHOT_NAME_INFIX + creationTime;
+
+		try (Admin admin = HBaseConnectionManager.getConnection(hBaseZkQuorum).getAdmin()) {
+			log.info("Taking snapshot " + snapshotName + " of table " + tableName);
+			admin.snapshot(snapshotName, TableName.valueOf(tableName));
+		}
+
+		tableSnapshotMap.put(tableName, new TakenSnapshot(snapshotName, creationTime));
+
+		// older snapshot of the table may still be read by earlier jobs, so
+		// all the snapshots are deleted only at the end of the run
+		List<String> snapshotNames = snapshotNameMap.get(hBaseZkQuorum);
+		if (snapshotNames == null) {
+			snapshotNames = new ArrayList<>();
+			snapshotNameMap.put(hBaseZkQuorum, snapshotNames);
+		}
+		snapshotNames.add(snapshotName);
+
+		return snapshotName;
+	}
+
+	/**
+	 * This method returns a new directory under the given base directory, in
+	 * which a snapshot can be restored for reading it. The directory is
+	 * deleted by {@link #cleanUp()}.
+	 * 
+	 * @param restoreBaseDir
+	 *            - base directory for restoring snapshots
+	 * @return restore directory
+	 */
+	public static synchronized Path getRestoreDir(String restoreBaseDir) {
+		Path restoreDir = new Path(restoreBaseDir, "hbasetohive_" + System.nanoTime());
+		restoreDirs.add(restoreDir);
+		return restoreDir;
+	}
+
+	/**
+	 * This method deletes the snapshots taken and the restore directories used
+	 * in this run. It should be called once all the jobs reading the snapshots
+	 * are over. Failures are logged so that the remaining ones are still
+	 * cleaned up.
+	 */
+	public static synchronized void cleanUp() {
+
+		for (Map.Entry<String, List<String>> entry : snapshotNameMap.entrySet()) {
+			for (String snapshotName : entry.getValue()) {
+				try (Admin admin = HBaseConnectionManager.getConnection(entry.getKey()).getAdmin()) {
+					log.info("Deleting snapshot " + snapshotName);
+					admin.deleteSnapshot(snapshotName);
+				} catch (IOException e) {
+					log.error("Failed to delete snapshot " + snapshotName, e);
+				}
+			}
+		}
+		snapshotMap.clear();
+		snapshotNameMap.clear();
+
+		for (Path restoreDir : restoreDirs) {
+			try {
+				log.info("Deleting snapshot restore directory " + restoreDir);
+				restoreDir.getFileSystem(HBaseConfiguration.create()).delete(restoreDir, true);
+			} catch (IOException e) {
+				log.error("Failed to delete snapshot restore directory " + restoreDir, e);
+			}
+		}
+		restoreDirs.clear();
+	}
+
+	private static class TakenSnapshot {
+
+		private final String name;
+		private final long creationTime;
+
+		private TakenSnapshot(String name, long creationTime) {
+			this.name = name;
+			this.creationTime = creationTime;
+		}
+	}
+}
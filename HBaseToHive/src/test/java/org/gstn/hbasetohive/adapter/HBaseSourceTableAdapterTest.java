@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.gstn.hbasetohive.pojo.DeletionMetadata;
+import org.gstn.schemaexplorer.entity.DataRecord;
+import org.gstn.schemaexplorer.hbase.HBaseTableExplorer;
+import org.gstn.schemaexplorer.sql.SqlBean;
+import org.junit.Test;
+
+/**
+ * Static columns of a column family missing from a row are left out of the
+ * record, as before cells were walked directly. Both the cell based full load
+ * path and the map based incremental path are checked.
+ */
+public class HBaseSourceTableAdapterTest {
+
+	private static final byte[] ROW_KEY = Bytes.toBytes("1017|S1");
+
+	private HBaseTableExplorer hBaseExplorer = new HBaseTableExplorer(
+			"./src/test/resources/HBaseSourceTableAdapterTest.schema");
+
+	@Test
+	public void testMissingFamilyIsLeftOutOfRecord() throws Exception {
+		SqlBean query = getQuery("select * from missing where fp=\"1017\"");
+		Cell[] cells = { new KeyValue(ROW_KEY, Bytes.toBytes("D"), Bytes.toBytes("SR1"), 1L, Bytes.toBytes("Y")) };
+
+		for (List<DataRecord> written : processBothPaths(cells, query)) {
+			assertEquals(1, written.size());
+			assertEquals("Y", written.get(0).getColumnTupleValue("SR1"));
+			assertFalse(written.get(0).isColumnNamePresent("E", "ER1"));
+		}
+	}
+
+	@Test
+	public void testRowWithoutSelectedFamilyIsSkipped() throws Exception {
+		SqlBean query = getQuery("select D.SR1 from missing where fp=\"1017\"");
+		Cell[] cells = { new KeyValue(ROW_KEY, Bytes.toBytes("E"), Bytes.toBytes("ER1"), 1L, Bytes.toBytes("Y")) };
+
+		for (List<DataRecord> written : processBothPaths(cells, query)) {
+			assertTrue(written.isEmpty());
+		}
+	}
+
+	private List<List<DataRecord>> processBothPaths(Cell[] cells, SqlBean query) throws Exception {
+		List<List<DataRecord>> writtenPerPath = new ArrayList<>();
+
+		RecordingTargetAdapter targetAdapter = new RecordingTargetAdapter();
+		createSourceAdapter().processResultCells(cells, ROW_KEY, targetAdapter, query, null, new HashMap<>());
+		writtenPerPath.add(targetAdapter.written);
+
+		NavigableMap<byte[], NavigableMap<byte[], byte[]>> resultData = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+		for (Cell cell : cells) {
+			NavigableMap<byte[], byte[]> cfData = resultData.get(cell.getFamily());
+			if (cfData == null) {
+				cfData = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+				resultData.put(cell.getFamily(), cfData);
+			}
+			cfData.put(cell.getQualifier(), cell.getValue());
+		}
+
+		targetAdapter = new RecordingTargetAdapter();
+		createSourceAdapter().processResultData(resultData, ROW_KEY, targetAdapter, query, null, new HashMap<>());
+		writtenPerPath.add(targetAdapter.written);
+
+		return writtenPerPath;
+	}
+
+	private HBaseSourceTableAdapter createSourceAdapter() {
+		return new HBaseSourceTableAdapter(new HBaseSourceTableModel("missing", hBaseExplorer), null);
+	}
+
+	private SqlBean getQuery(String query) throws Exception {
+		return hBaseExplorer.parseAndGetValidatedQuery(query, new HashMap<>());
+	}
+
+	private static class RecordingTargetAdapter extends TargetAdapter {
+
+		private List<DataRecord> written = new ArrayList<>();
+
+		@Override
+		DataRecord writeRow(TargetModel targetModel, DataRecord record) {
+			written.add(record);
+			return record;
+		}
+
+		@Override
+		public void flush() throws IOException {
+		}
+
+		@Override
+		public void close() throws IOException {
+		}
+
+		@Override
+		public DeletionMetadata processDeleteRowList(TargetModel targetModel, List<DataRecord> deleteRowList) {
+			return null;
+		}
+	}
+}
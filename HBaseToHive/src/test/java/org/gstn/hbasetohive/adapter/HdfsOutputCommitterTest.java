@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HdfsOutputCommitterTest {
+
+	private Configuration conf;
+	private FileSystem fs;
+	private String basePath;
+
+	@Before
+	public void setUp() throws IOException {
+		conf = new Configuration();
+		conf.set("fs.defaultFS", "file:///");
+		fs = FileSystem.get(conf);
+		basePath = Files.createTempDirectory("hdfsoutputcommitter").toString();
+	}
+
+	@Test
+	public void testLaterAttemptOfCommittedTaskIsDiscarded() throws IOException {
+		HdfsOutputCommitter first = new HdfsOutputCommitter(conf, basePath, 0, 0);
+		HdfsOutputCommitter second = new HdfsOutputCommitter(conf, basePath, 0, 1);
+		write(first, "part-0", "first");
+		write(second, "part-0", "second");
+		write(second, "part-0-1", "second");
+
+		first.commitAttempt();
+		second.commitAttempt();
+		HdfsOutputCommitter.commitJob(conf, basePath);
+
+		assertEquals("first", read("part-0"));
+		assertFalse(fs.exists(new Path(basePath, "part-0-1")));
+		assertFalse(fs.exists(new Path(basePath, HdfsOutputCommitter.TEMPORARY_DIR)));
+	}
+
+	@Test
+	public void testFirstAttemptToCommitWins() throws IOException {
+		HdfsOutputCommitter first = new HdfsOutputCommitter(conf, basePath, 0, 0);
+		HdfsOutputCommitter second = new HdfsOutputCommitter(conf, basePath, 0, 1);
+		write(first, "part-0", "first");
+		write(second, "part-0", "second");
+
+		second.commitAttempt();
+		first.commitAttempt();
+		HdfsOutputCommitter.commitJob(conf, basePath);
+
+		assertEquals("second", read("part-0"));
+	}
+
+	@Test
+	public void testTaskDirectoryIsKeptUntilJobCommit() throws IOException {
+		HdfsOutputCommitter committer = new HdfsOutputCommitter(conf, basePath, 3, 0);
+		write(committer, "dir/part-3", "row");
+
+		committer.commitAttempt();
+
+		Path taskPath = new Path(new Path(basePath, HdfsOutputCommitter.TEMPORARY_DIR), "3");
+		assertTrue(fs.exists(taskPath));
+		assertEquals("row", read("dir/part-3"));
+
+		HdfsOutputCommitter.commitJob(conf, basePath);
+
+		assertFalse(fs.exists(taskPath));
+		assertEquals("row", read("dir/part-3"));
+	}
+
+	@Test
+	public void testAttemptsOfDifferentTasksAreCommitted() throws IOException {
+		HdfsOutputCommitter task0 = new HdfsOutputCommitter(conf, basePath, 0, 0);
+		HdfsOutputCommitter task1 = new HdfsOutputCommitter(conf, basePath, 1, 2);
+		write(task0, "part-0", "zero");
+		write(task1, "part-1", "one");
+
+		task1.commitAttempt();
+		task0.commitAttempt();
+		HdfsOutputCommitter.commitJob(conf, basePath);
+
+		assertEquals("zero", read("part-0"));
+		assertEquals("one", read("part-1"));
+	}
+
+	@Test
+	public void testAttemptWithoutFiles() throws IOException {
+		new HdfsOutputCommitter(conf, basePath, 0, 0).commitAttempt();
+		HdfsOutputCommitter.commitJob(conf, basePath);
+
+		assertEquals(0, fs.listStatus(new Path(basePath)).length);
+	}
+
+	private void write(HdfsOutputCommitter committer, String relativePath, String content) throws IOException {
+		try (OutputStream out = fs.create(committer.getFilePath(relativePath))) {
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private String read(String relativePath) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (InputStream in = fs.open(new Path(basePath, relativePath))) {
+			byte[] buffer = new byte[1024];
+			int length;
+			while ((length = in.read(buffer)) != -1) {
+				bytes.write(buffer, 0, length);
+			}
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
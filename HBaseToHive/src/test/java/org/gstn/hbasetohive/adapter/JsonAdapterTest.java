@@ -311,6 +311,98 @@ public class JsonAdapterTest extends TestCase {
 		Assert.assertTrue(compareResult(result, expectedColumnsList));
 	}
 
+	@Test
+	public void testFlattenJsonForListOfStringsHavingColon() throws Exception {
+
+		// list of non json whose values have ':' in them, each value is a
+		// value of the list column itself
+		String json = "{\"1\":{\"4\":[\"14:1\",\"14:2\"]}}";
+
+		TargetModel target = new HdfsTargetModel("test3", hdfsExplorer);
+
+		List<DataRecord> result = JsonAdapter.flattenJson(dataRecord, json, target);
+
+		// creating the expected data [two data records should be there]
+		List<Map<String, String>> expectedColumnsList = new ArrayList<>();
+		Map<String, String> commonColumnValuesMap = new HashMap<>();
+		commonColumnValuesMap.put("fp", "2017-09");
+		commonColumnValuesMap.put("SR1", "Y");
+
+		Map<String, String> otherColumnValuesMap = new HashMap<>();
+		otherColumnValuesMap.putAll(commonColumnValuesMap);
+		otherColumnValuesMap.put("1" + PARENT_PATH_SEPARATOR + "4", "14:1");
+		expectedColumnsList.add(otherColumnValuesMap);
+
+		otherColumnValuesMap = new HashMap<>();
+		otherColumnValuesMap.putAll(commonColumnValuesMap);
+		otherColumnValuesMap.put("1" + PARENT_PATH_SEPARATOR + "4", "14:2");
+		expectedColumnsList.add(otherColumnValuesMap);
+
+		Assert.assertEquals(expectedColumnsList.size(), result.size());
+		Assert.assertTrue(compareResult(result, expectedColumnsList));
+	}
+
+	@Test
+	public void testFlattenJsonSkipsNullAndNestedListElements() throws Exception {
+
+		// nulls and nested lists in a list of json and in a list of non json
+		// have no column to be written to, so they do not add any rows
+		String json = "{\"1\":{\"3\":[{\"131\":\"131\"},null,[{\"133\":\"133\"}]],"
+				+ "\"4\":[\"141\",null,[\"142\"],\"143\"]}}";
+
+		TargetModel target = new HdfsTargetModel("test3", hdfsExplorer);
+
+		List<DataRecord> result = JsonAdapter.flattenJson(dataRecord, json, target);
+
+		// creating the expected data [two data records should be there]
+		List<Map<String, String>> expectedColumnsList = new ArrayList<>();
+		Map<String, String> commonColumnValuesMap = new HashMap<>();
+		commonColumnValuesMap.put("fp", "2017-09");
+		commonColumnValuesMap.put("SR1", "Y");
+		commonColumnValuesMap.put("1" + PARENT_PATH_SEPARATOR + "3" + PARENT_PATH_SEPARATOR + "131", "131");
+
+		Map<String, String> otherColumnValuesMap = new HashMap<>();
+		otherColumnValuesMap.putAll(commonColumnValuesMap);
+		otherColumnValuesMap.put("1" + PARENT_PATH_SEPARATOR + "4", "141");
+		expectedColumnsList.add(otherColumnValuesMap); // added for 131 with 141
+
+		otherColumnValuesMap = new HashMap<>();
+		otherColumnValuesMap.putAll(commonColumnValuesMap);
+		otherColumnValuesMap.put("1" + PARENT_PATH_SEPARATOR + "4", "143");
+		expectedColumnsList.add(otherColumnValuesMap); // added for 131 with 143
+
+		Assert.assertEquals(expectedColumnsList.size(), result.size());
+		Assert.assertTrue(compareResult(result, expectedColumnsList));
+	}
+
+	@Test
+	public void testFlattenJsonForKeysHavingParentPathSeparator() throws Exception {
+
+		// keys having the parent path separator match parent paths, like the
+		// key A#B matches attribute B of object A, but never match a column
+		// name, so A#B#AB2 is not selected
+		String json = "{\"A" + PARENT_PATH_SEPARATOR + "B\":{\"AB1\":\"AB1\"},\"A" + PARENT_PATH_SEPARATOR + "B"
+				+ PARENT_PATH_SEPARATOR + "AB2\":\"AB2\",\"A\":{\"D" + PARENT_PATH_SEPARATOR
+				+ "E\":{\"ADE\":\"ADE\"},\"Z" + PARENT_PATH_SEPARATOR + "E\":{\"ADE\":\"ZE\"}}}";
+
+		TargetModel target = new HdfsTargetModel("test1", hdfsExplorer);
+
+		List<DataRecord> result = JsonAdapter.flattenJson(dataRecord, json, target);
+
+		// creating the expected data
+		List<Map<String, String>> expectedColumnsList = new ArrayList<>();
+		Map<String, String> colNameValuesMap = new HashMap<>();
+		colNameValuesMap.put("fp", "2017-09");
+		colNameValuesMap.put("SR1", "Y");
+		colNameValuesMap.put("A" + PARENT_PATH_SEPARATOR + "B" + PARENT_PATH_SEPARATOR + "AB1", "AB1");
+		colNameValuesMap.put(
+				"A" + PARENT_PATH_SEPARATOR + "D" + PARENT_PATH_SEPARATOR + "E" + PARENT_PATH_SEPARATOR + "ADE", "ADE");
+		expectedColumnsList.add(colNameValuesMap);
+
+		Assert.assertEquals(expectedColumnsList.size(), result.size());
+		Assert.assertTrue(compareResult(result, expectedColumnsList));
+	}
+
 	private boolean compareResult(List<DataRecord> actual, List<Map<String, String>> expectedColumnsList)
 			throws ColumnNotFoundException {
 
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.gstn.hbasetohive.adapter.JsonRecordIterator.JsonArrayRows;
+import org.gstn.hbasetohive.adapter.JsonRecordIterator.JsonObjectRows;
+import org.gstn.schemaexplorer.entity.DataRecord;
+import org.gstn.schemaexplorer.entity.Tuple;
+import org.junit.Test;
+
+public class JsonRecordIteratorTest {
+
+	private DataRecord dataRecord = new DataRecord(Arrays.asList(Tuple.rowkeyColumn("fp", "2017-09")),
+			Arrays.asList(Tuple.staticColumn("D", "SR1", "Y", String.class)));
+
+	@Test
+	public void testObjectWithoutArrays() throws Exception {
+		JsonObjectRows object = new JsonObjectRows();
+		object.addTuple(column("A", "A1"));
+		object.addTuple(column("B", "B1"));
+
+		JsonRecordIterator iterator = new JsonRecordIterator(dataRecord, Arrays.asList(object), Long.MAX_VALUE);
+
+		assertEquals(Arrays.asList("A1,B1"), getRows(iterator, "A", "B"));
+		assertEquals(1, iterator.getRowCount());
+		assertEquals(0, iterator.getDroppedRowCount());
+	}
+
+	@Test
+	public void testCombinationOrder() throws Exception {
+		// json structure: A | X -> [{X1 | Z -> [Z1,Z2]}, {X2}] | Y -> [Y1,Y2]
+		// records of the last array change fastest, and records of an
+		// element are the combinations of its own arrays
+		JsonObjectRows object = new JsonObjectRows();
+		object.addTuple(column("A", "A1"));
+		object.addArray(array(element("X", "X1", values("Z", "Z1", "Z2")), element("X", "X2")));
+		object.addArray(values("Y", "Y1", "Y2"));
+
+		JsonRecordIterator iterator = new JsonRecordIterator(dataRecord, Arrays.asList(object), Long.MAX_VALUE);
+
+		assertEquals(Arrays.asList("A1,X1,Z1,Y1", "A1,X1,Z1,Y2", "A1,X1,Z2,Y1", "A1,X1,Z2,Y2", "A1,X2,null,Y1",
+				"A1,X2,null,Y2"), getRows(iterator, "A", "X", "Z", "Y"));
+		assertEquals(6, iterator.getRowCount());
+		assertEquals(0, iterator.getDroppedRowCount());
+	}
+
+	@Test
+	public void testTopLevelJsonArray() throws Exception {
+		// records of each object of a top level json array, one after the
+		// other
+		JsonObjectRows first = new JsonObjectRows();
+		first.addTuple(column("A", "A1"));
+		first.addArray(values("Y", "Y1", "Y2"));
+
+		JsonObjectRows second = new JsonObjectRows();
+		second.addTuple(column("A", "A2"));
+
+		JsonRecordIterator iterator = new JsonRecordIterator(dataRecord, Arrays.asList(first, second),
+				Long.MAX_VALUE);
+
+		assertEquals(Arrays.asList("A1,Y1", "A1,Y2", "A2,null"), getRows(iterator, "A", "Y"));
+		assertEquals(3, iterator.getRowCount());
+	}
+
+	@Test
+	public void testRowLimit() throws Exception {
+		JsonObjectRows object = new JsonObjectRows();
+		object.addArray(values("X", "X1", "X2"));
+		object.addArray(values("Y", "Y1", "Y2", "Y3"));
+
+		JsonRecordIterator iterator = new JsonRecordIterator(dataRecord, Arrays.asList(object), 4);
+
+		assertEquals(Arrays.asList("X1,Y1", "X1,Y2", "X1,Y3", "X2,Y1"), getRows(iterator, "X", "Y"));
+		assertFalse(iterator.hasNext());
+		assertEquals(6, iterator.getRowCount());
+		assertEquals(2, iterator.getDroppedRowCount());
+	}
+
+	@Test
+	public void testRowLimitAcrossObjects() throws Exception {
+		JsonObjectRows first = new JsonObjectRows();
+		first.addArray(values("X", "X1", "X2"));
+
+		JsonObjectRows second = new JsonObjectRows();
+		second.addArray(values("X", "X3", "X4"));
+
+		JsonRecordIterator iterator = new JsonRecordIterator(dataRecord, Arrays.asList(first, second), 3);
+
+		assertEquals(Arrays.asList("X1", "X2", "X3"), getRows(iterator, "X"));
+		assertEquals(4, iterator.getRowCount());
+		assertEquals(1, iterator.getDroppedRowCount());
+	}
+
+	@Test
+	public void testRowCountOverflow() throws Exception {
+		// 2^64 combinations are counted as Long.MAX_VALUE
+		JsonObjectRows object = new JsonObjectRows();
+		for (int i = 0; i < 64; i++) {
+			object.addArray(values("X" + i, "0", "1"));
+		}
+
+		JsonRecordIterator iterator = new JsonRecordIterator(dataRecord, Arrays.asList(object), 10);
+
+		assertEquals(10, getRows(iterator, "X0").size());
+		assertEquals(Long.MAX_VALUE, iterator.getRowCount());
+		assertEquals(Long.MAX_VALUE - 10, iterator.getDroppedRowCount());
+	}
+
+	private static Tuple column(String name, String value) {
+		return Tuple.staticColumn("", name, value, String.class);
+	}
+
+	private static JsonObjectRows element(String name, String value, JsonArrayRows... arrays) {
+		JsonObjectRows element = new JsonObjectRows();
+		element.addTuple(column(name, value));
+		for (JsonArrayRows array : arrays) {
+			element.addArray(array);
+		}
+		return element;
+	}
+
+	private static JsonArrayRows array(JsonObjectRows... elements) {
+		JsonArrayRows array = new JsonArrayRows();
+		for (JsonObjectRows element : elements) {
+			array.addElement(element);
+		}
+		return array;
+	}
+
+	// array of non json values, each value being an element of its own
+	private static JsonArrayRows values(String name, String... values) {
+		JsonArrayRows array = new JsonArrayRows();
+		for (String value : values) {
+			array.addElement(element(name, value));
+		}
+		return array;
+	}
+
+	/**
+	 * @return values of the given json columns in each record, comma
+	 *         separated, after checking the columns of the input record
+	 */
+	private List<String> getRows(JsonRecordIterator iterator, String... columns) throws Exception {
+		List<String> rows = new ArrayList<>();
+		while (iterator.hasNext()) {
+			DataRecord record = iterator.next();
+			assertEquals("Y", record.getColumnTupleValue("SR1"));
+
+			StringBuilder row = new StringBuilder();
+			for (String column : columns) {
+				if (row.length() > 0) {
+					row.append(',');
+				}
+				row.append(record.isColumnNamePresent(column) ? record.getColumnTupleValue(column) : null);
+			}
+			rows.add(row.toString());
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.adapter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.gstn.hbasetohive.adapter.ParquetRowWriter.ColumnType;
+import org.junit.Test;
+
+public class ParquetRowWriterTest {
+
+	// julian day number of 1970-01-01
+	private static final int JULIAN_EPOCH_DAY = 2440588;
+
+	private static final long NANOS_IN_DAY = 24 * 60 * 60 * 1000000000L;
+
+	@Test
+	public void testDecimalIsPaddedWithSign() {
+		// unscaled values having scale 5, in 9 bytes big endian
+		assertArrayEquals(new byte[] { 0, 0, 0, 0, 0, 0, 0x01, (byte) 0x86, (byte) 0xa0 },
+				ParquetRowWriter.toDecimal("1").getBytes());
+		assertArrayEquals(new byte[] { -1, -1, -1, -1, -1, -1, (byte) 0xfe, 0x79, 0x60 },
+				ParquetRowWriter.toDecimal("-1").getBytes());
+		assertArrayEquals(new byte[9], ParquetRowWriter.toDecimal("0").getBytes());
+
+		assertDecimal("12.5", "12.50000");
+		assertDecimal("-0.00001", "-0.00001");
+		// rounded half up to the scale
+		assertDecimal("0.000005", "0.00001");
+		assertDecimal("-0.000005", "-0.00001");
+		assertDecimal("1.234564", "1.23456");
+		assertDecimal("1E+3", "1000.00000");
+	}
+
+	@Test
+	public void testDecimalPrecision() {
+		// 15 digits before the point, and 5 after it, fit in precision 20
+		assertDecimal("999999999999999.99999", "999999999999999.99999");
+		assertDecimal("-999999999999999.99999", "-999999999999999.99999");
+
+		assertNull(ParquetRowWriter.toDecimal("1000000000000000"));
+		assertNull(ParquetRowWriter.toDecimal("-1000000000000000"));
+		// rounding up beyond the precision
+		assertNull(ParquetRowWriter.toDecimal("999999999999999.999995"));
+	}
+
+	@Test
+	public void testInt96AroundEpoch() {
+		assertInt96(0, 0, 0, JULIAN_EPOCH_DAY);
+		assertInt96(1500, 500000000, 1500000000L, JULIAN_EPOCH_DAY);
+		assertInt96(24 * 60 * 60 * 1000L, 0, 0, JULIAN_EPOCH_DAY + 1);
+		// 2017-09-15T10:20:30.123456789Z
+		assertInt96(1505470830123L, 123456789, (10 * 3600 + 20 * 60 + 30) * 1000000000L + 123456789,
+				JULIAN_EPOCH_DAY + 17424);
+	}
+
+	@Test
+	public void testInt96BeforeEpoch() {
+		// 1969-12-31T23:59:59.999Z is in the last second of the day before
+		assertInt96(-1, 999000000, NANOS_IN_DAY - 1000000, JULIAN_EPOCH_DAY - 1);
+		assertInt96(-1000, 0, NANOS_IN_DAY - 1000000000L, JULIAN_EPOCH_DAY - 1);
+		assertInt96(-24 * 60 * 60 * 1000L, 0, 0, JULIAN_EPOCH_DAY - 1);
+		assertInt96(-24 * 60 * 60 * 1000L - 1, 999000000, NANOS_IN_DAY - 1000000, JULIAN_EPOCH_DAY - 2);
+	}
+
+	@Test
+	public void testIntegerPart() {
+		assertEquals("12", ParquetRowWriter.integerPart("12"));
+		assertEquals("12", ParquetRowWriter.integerPart("12.75"));
+		assertEquals("-3", ParquetRowWriter.integerPart("-3.9"));
+		assertEquals("12", ParquetRowWriter.integerPart("12."));
+		assertEquals("", ParquetRowWriter.integerPart(".5"));
+
+		assertIntegerPartFails("12.5e3");
+		assertIntegerPartFails("1.2.3");
+		assertIntegerPartFails("12.x");
+	}
+
+	@Test
+	public void testWriteIntegers() {
+		assertWritten(ColumnType.INT, "12", 12);
+		assertWritten(ColumnType.INT, "12.99", 12);
+		assertWritten(ColumnType.INT, "-12.99", -12);
+		assertWritten(ColumnType.TINYINT, "127", 127);
+		assertWritten(ColumnType.SMALLINT, "-32768.5", -32768);
+		assertWritten(ColumnType.BIGINT, "9223372036854775807.1", Long.MAX_VALUE);
+
+		// values out of range or not numbers are read as null by hive
+		assertWritten(ColumnType.TINYINT, "128");
+		assertWritten(ColumnType.INT, "2147483648");
+		assertWritten(ColumnType.INT, "12.5e3");
+		assertWritten(ColumnType.INT, ".5");
+		assertWritten(ColumnType.INT, "abc");
+	}
+
+	@Test
+	public void testWriteNulls() {
+		// null marker is null for every type
+		for (ColumnType type : ColumnType.values()) {
+			assertWritten(type, ParquetRowWriter.NULL_VALUE);
+		}
+
+		// values not present are written as the text null, as in text files
+		assertWritten(ColumnType.STRING, null, "null");
+		assertWritten(ColumnType.INT, null);
+		assertWritten(ColumnType.BOOLEAN, null);
+		assertWritten(ColumnType.DECIMAL, null);
+		assertWritten(ColumnType.TIMESTAMP, null);
+	}
+
+	@Test
+	public void testWriteOtherTypes() {
+		assertWritten(ColumnType.STRING, "", "");
+		assertWritten(ColumnType.BOOLEAN, "TRUE", true);
+		assertWritten(ColumnType.BOOLEAN, "yes");
+		assertWritten(ColumnType.DOUBLE, "1e3", 1000d);
+		assertWritten(ColumnType.FLOAT, "1.5", 1.5f);
+		assertWritten(ColumnType.DECIMAL, "1", "[0, 0, 0, 0, 0, 0, 1, -122, -96]");
+		assertWritten(ColumnType.DECIMAL, "1000000000000000");
+		assertWritten(ColumnType.DATE, "2017-13-45");
+		assertWritten(ColumnType.TIMESTAMP, "2017-09-15");
+	}
+
+	private static void assertDecimal(String value, String expected) {
+		byte[] bytes = ParquetRowWriter.toDecimal(value).getBytes();
+		assertEquals(9, bytes.length);
+		assertEquals(new BigDecimal(expected), new BigDecimal(new BigInteger(bytes), 5));
+	}
+
+	private static void assertInt96(long millis, int nanos, long nanosOfDay, int julianDay) {
+		byte[] bytes = ParquetRowWriter.toInt96(millis, nanos).getBytes();
+		assertEquals(12, bytes.length);
+
+		long actualNanosOfDay = 0;
+		for (int i = 7; i >= 0; i--) {
+			actualNanosOfDay = (actualNanosOfDay << 8) | (bytes[i] & 0xff);
+		}
+		int actualJulianDay = 0;
+		for (int i = 11; i >= 8; i--) {
+			actualJulianDay = (actualJulianDay << 8) | (bytes[i] & 0xff);
+		}
+		assertEquals(nanosOfDay, actualNanosOfDay);
+		assertEquals(julianDay, actualJulianDay);
+	}
+
+	private static void assertIntegerPartFails(String value) {
+		try {
+			ParquetRowWriter.integerPart(value);
+		} catch (NumberFormatException e) {
+			return;
+		}
+		throw new AssertionError("Expected NumberFormatException for " + value);
+	}
+
+	/**
+	 * Checks the values added into a field by writeValue, binary values being
+	 * compared as strings of their bytes, or of their characters for string
+	 * columns
+	 */
+	private static void assertWritten(ColumnType type, String value, Object... expected) {
+		RecordingConsumer consumer = new RecordingConsumer(type == ColumnType.STRING);
+		ParquetRowWriter.writeValue(consumer, "c", 0, type, value);
+		assertEquals(type + " " + value, Arrays.asList(expected), consumer.values);
+	}
+
+	private static class RecordingConsumer extends RecordConsumer {
+
+		private final boolean utf8;
+		private final List<Object> values = new ArrayList<>();
+		private boolean inField;
+
+		RecordingConsumer(boolean utf8) {
+			this.utf8 = utf8;
+		}
+
+		private void add(Object value) {
+			if (!inField) {
+				throw new IllegalStateException("Value added outside a field");
+			}
+			values.add(value);
+		}
+
+		@Override
+		public void startMessage() {
+		}
+
+		@Override
+		public void endMessage() {
+		}
+
+		@Override
+		public void startField(String field, int index) {
+			inField = true;
+		}
+
+		@Override
+		public void endField(String field, int index) {
+			inField = false;
+		}
+
+		@Override
+		public void startGroup() {
+		}
+
+		@Override
+		public void endGroup() {
+		}
+
+		@Override
+		public void addInteger(int value) {
+			add(value);
+		}
+
+		@Override
+		public void addLong(long value) {
+			add(value);
+		}
+
+		@Override
+		public void addBoolean(boolean value) {
+			add(value);
+		}
+
+		@Override
+		public void addBinary(Binary value) {
+			add(utf8 ? new String(value.getBytes(), StandardCharsets.UTF_8) : Arrays.toString(value.getBytes()));
+		}
+
+		@Override
+		public void addFloat(float value) {
+			add(value);
+		}
+
+		@Override
+		public void addDouble(double value) {
+			add(value);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.hbasetohive.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+import org.junit.Test;
+
+/**
+ * Compares DateReformatter with parsing by a lenient SimpleDateFormat of the
+ * source pattern and formatting with yyyy-MM-dd, which it replaces.
+ */
+public class DateReformatterTest {
+
+	// dd-MM-yyyy is the default date format of schemas, others can be given
+	// with the date type of a column
+	private static final String[] PATTERNS = { "dd-MM-yyyy", "dd/MM/yyyy", "yyyy-MM-dd", "yyyyMMdd", "MM/dd/yyyy",
+			"dd-MMM-yyyy", "dd-MM-yy" };
+
+	private static final String[] DATES = { "2017-09-15", "2016-02-29", "2000-02-29", "1900-02-28", "1600-01-01",
+			"1599-12-31", "1500-06-15", "0001-01-01", "9999-12-31", "2018-12-31" };
+
+	private static final String[] INVALID_DATES = { "", "abc", "2017", "29-02-2017", "30-02-2016", "31-04-2018",
+			"00-01-2018", "01-00-2018", "01-13-2018", "32-01-2018", "1-1-2018", "01-01-2018x", "01-01-20180",
+			"01/01-2018", "0a-01-2018", "-1-01-2018", "+1-01-2018", " 01-01-2018", "01-01- 018", "20170229",
+			"20171301", "2017-00-10", "2017-1-1", "02/29/2017", "13/01/2017", "15-Sep-2017", "15-Foo-2017",
+			"15-09-17" };
+
+	@Test
+	public void testValidDates() throws Exception {
+		SimpleDateFormat target = new SimpleDateFormat("yyyy-MM-dd");
+		target.setLenient(false);
+
+		for (String pattern : PATTERNS) {
+			DateReformatter reformatter = new DateReformatter(pattern);
+			SimpleDateFormat source = new SimpleDateFormat(pattern);
+
+			for (String date : DATES) {
+				String value = source.format(target.parse(date));
+				assertEquals(pattern + ": " + value, expected(pattern, value), reformat(reformatter, value));
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidDates() throws Exception {
+		for (String pattern : PATTERNS) {
+			DateReformatter reformatter = new DateReformatter(pattern);
+
+			for (String value : INVALID_DATES) {
+				assertEquals(pattern + ": " + value, expected(pattern, value), reformat(reformatter, value));
+				// memoized result is the same
+				assertEquals(pattern + ": " + value, expected(pattern, value), reformat(reformatter, value));
+			}
+		}
+	}
+
+	@Test
+	public void testNull() throws Exception {
+		assertEquals(null, new DateReformatter("dd-MM-yyyy").reformat(null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPattern() {
+		new DateReformatter("dd-MM-yyyyq");
+	}
+
+	private static String expected(String pattern, String value) {
+		try {
+			return new SimpleDateFormat("yyyy-MM-dd").format(new SimpleDateFormat(pattern).parse(value));
+		} catch (ParseException e) {
+			return "ParseException";
+		}
+	}
+
+	private static String reformat(DateReformatter reformatter, String value) {
+		try {
+			return reformatter.reformat(value);
+		} catch (ParseException e) {
+			return "ParseException";
+		}
+	}
+}
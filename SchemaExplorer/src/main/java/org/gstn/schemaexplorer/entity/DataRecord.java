@@ -17,11 +17,13 @@ package org.gstn.schemaexplorer.entity;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 
 import org.apache.commons.text.StringEscapeUtils;
@@ -38,15 +40,50 @@ import org.gstn.schemaexplorer.util.DataTypeUtil;
 /**
  * This class stores of all the processed data in its final form
  *
+ * Tuples of a record are kept by the slot assigned to their column name by
+ * the RecordLayout of the record. A record is a stack of layers: each layer
+ * holds only the tuples added to it, and inherits the others from its base
+ * layer. Duplicating a record moves its tuples into a base layer shared by
+ * the record and the copy, so the copy starts empty and stores only its own
+ * additions. Layers which have become a base are never modified again.
  */
 public class DataRecord {
-	// Map of row key field name to value map
-	private final Map<String, Tuple> rowKeyTupleMap;
-	private List<Tuple> rowKeyTupleList;
-	// Map of columnFamily to Map of Column Name to Column Tuple
-	private final Map<String, Map<String, Tuple>> columnFamilycolumnNameTupleMap;
-	private Map<String, Tuple> columnNameTupleMap;
-	private List<Tuple> columnNameTupleList;
+	// records deeper than this are flattened when duplicated, to bound the
+	// cost of lookups through base layers
+	private static final int MAX_DEPTH = 8;
+
+	private RecordLayout layout;
+
+	// layer inherited by this record, null for a single layer record
+	private DataRecord base;
+	private int depth;
+
+	// bitmaps of slots having a tuple in this layer, as row key field and as
+	// column, and of slots whose lookup by column name returns the row key
+	// field
+	private long[] inLayer;
+	private long[] rowKeyInLayer;
+	private long[] columnInLayer;
+	private long[] nameIsRowKey;
+
+	// tuples of this layer, sorted by slot, i.e. tuples of a slot are at the
+	// number of slots in layer before it
+	private Tuple[] rowKeyTuples;
+	private Tuple[] columnTuples;
+	// column family under which each column was added
+	private String[] columnFamilies;
+	private int noOfTuplesInLayer;
+
+	// slots added by this layer, which are not in base, in order of addition
+	private int[] rowKeyOrder;
+	private int noOfRowKeyFieldsInLayer;
+	private int[] columnOrder;
+	private int noOfColumnsInLayer;
+
+	// number of row key fields and columns, including base
+	private int noOfRowKeyFields;
+	private int noOfColumns;
+
 	private RecordType recordType;
 
 	private boolean regexInKey;
@@ -55,84 +92,217 @@ public class DataRecord {
 	private byte[] salt;
 
 	public DataRecord() {
-		rowKeyTupleList = new ArrayList<>();
-		rowKeyTupleMap = new HashMap<>();
+		this(RecordLayout.EMPTY);
+	}
+
+	/**
+	 * @param layout
+	 *            slots of the column names expected in this record
+	 */
+	public DataRecord(RecordLayout layout) {
+		this(layout, (DataRecord) null);
+	}
+
+	public DataRecord(List<Tuple> keyList, List<Tuple> valueList) {
+		this(RecordLayout.EMPTY, keyList, valueList);
+	}
+
+	public DataRecord(RecordLayout layout, List<Tuple> keyList, List<Tuple> valueList) {
+		this(layout);
+
+		for (Tuple t : keyList) {
+			assert (null != t);
+			putRowKeyTuple(t.getColumnName(), t);
+		}
+
+		for (Tuple t : valueList) {
+			assert (null != t);
+			putColumnTuple(t.getColumnFamily(), t.getColumnName(), t);
+		}
+	}
+
+	public DataRecord(List<Tuple> tupleList) {
+		this(RecordLayout.EMPTY, tupleList);
+	}
 
-		columnNameTupleList = new ArrayList<>();
-		columnFamilycolumnNameTupleMap = new HashMap<>();
+	public DataRecord(RecordLayout layout, List<Tuple> tupleList) {
+		this(layout);
 
-		columnNameTupleMap = new HashMap<>();
+		for (Tuple tuple : tupleList) {
+			// cf null
+			putColumnTuple(null, tuple.getColumnName(), tuple);
+		}
 
+		recordType = RecordType.DELIMITED_RECORD;
+	}
+
+	// empty record layered over base
+	private DataRecord(RecordLayout layout, DataRecord base) {
+		this.layout = layout;
+		this.base = base;
+		if (base != null) {
+			depth = base.depth + 1;
+			noOfRowKeyFields = base.noOfRowKeyFields;
+			noOfColumns = base.noOfColumns;
+		}
+		clearLayer(layout.size());
 		recordType = RecordType.KEY_VALUE;
 	}
 
-	public DataRecord(List<Tuple> keyList, List<Tuple> valueList) {
-		keyList.forEach(tuple -> {
-			assert (null != tuple);
-		});
-		valueList.forEach(tuple -> {
-			assert (null != tuple);
-		});
+	private void clearLayer(int capacity) {
+		int words = (capacity + 63) >>> 6;
+		inLayer = new long[words];
+		rowKeyInLayer = new long[words];
+		columnInLayer = new long[words];
+		nameIsRowKey = new long[words];
+
+		rowKeyTuples = new Tuple[4];
+		columnTuples = new Tuple[4];
+		columnFamilies = new String[4];
+		noOfTuplesInLayer = 0;
+
+		rowKeyOrder = new int[4];
+		noOfRowKeyFieldsInLayer = 0;
+		columnOrder = new int[4];
+		noOfColumnsInLayer = 0;
+	}
 
-		rowKeyTupleList = new ArrayList<>();
-		columnNameTupleList = new ArrayList<>();
-		columnNameTupleMap = new HashMap<>();
+	private static boolean isSet(long[] bitmap, int slot) {
+		return slot >= 0 && (slot >>> 6) < bitmap.length && (bitmap[slot >>> 6] & (1L << slot)) != 0;
+	}
 
-		rowKeyTupleList.addAll(keyList);
-		columnNameTupleList.addAll(valueList);
+	private static void set(long[] bitmap, int slot) {
+		bitmap[slot >>> 6] |= 1L << slot;
+	}
 
-		rowKeyTupleMap = new HashMap<>();
-		keyList.forEach(t -> rowKeyTupleMap.put(t.getColumnName(), t));
-		columnNameTupleMap.putAll(rowKeyTupleMap);
+	private static void clear(long[] bitmap, int slot) {
+		bitmap[slot >>> 6] &= ~(1L << slot);
+	}
 
-		columnFamilycolumnNameTupleMap = new HashMap<>();
-		for (Tuple t : valueList) {
-			String columnFamily = t.getColumnFamily();
-			String columnName = t.getColumnName();
+	private static int[] append(int[] order, int count, int slot) {
+		if (count == order.length) {
+			order = Arrays.copyOf(order, count * 2);
+		}
+		order[count] = slot;
+		return order;
+	}
 
-			if (!columnFamilycolumnNameTupleMap.containsKey(columnFamily)) {
-				columnFamilycolumnNameTupleMap.put(columnFamily, new HashMap<>());
-			}
+	/**
+	 * @return position of the tuples of slot in this layer
+	 */
+	private int rank(int slot) {
+		int word = slot >>> 6;
+		int rank = Long.bitCount(inLayer[word] & ((1L << slot) - 1));
+		for (int i = 0; i < word; i++) {
+			rank += Long.bitCount(inLayer[i]);
+		}
+		return rank;
+	}
 
-			columnFamilycolumnNameTupleMap.get(columnFamily).put(columnName, t);
+	/**
+	 * Returns position of the tuples of slot in this layer, inserting a
+	 * position if the slot is not in this layer
+	 */
+	private int positionFor(int slot) {
+		int position = rank(slot);
+		if (isSet(inLayer, slot)) {
+			return position;
+		}
 
-			columnNameTupleMap.put(columnName, t);
+		if (noOfTuplesInLayer == rowKeyTuples.length) {
+			int capacity = noOfTuplesInLayer * 2;
+			rowKeyTuples = Arrays.copyOf(rowKeyTuples, capacity);
+			columnTuples = Arrays.copyOf(columnTuples, capacity);
+			columnFamilies = Arrays.copyOf(columnFamilies, capacity);
 		}
-		recordType = RecordType.KEY_VALUE;
+		int noOfMoved = noOfTuplesInLayer - position;
+		System.arraycopy(rowKeyTuples, position, rowKeyTuples, position + 1, noOfMoved);
+		System.arraycopy(columnTuples, position, columnTuples, position + 1, noOfMoved);
+		System.arraycopy(columnFamilies, position, columnFamilies, position + 1, noOfMoved);
+		rowKeyTuples[position] = null;
+		columnTuples[position] = null;
+		columnFamilies[position] = null;
+
+		set(inLayer, slot);
+		noOfTuplesInLayer++;
+		return position;
 	}
 
-	public DataRecord(List<Tuple> tupleList) {
+	/**
+	 * Returns slot of the column name, extending layout of this record if
+	 * the column name is not in it
+	 */
+	private int slotFor(String columnName) {
+		int slot = layout.getSlot(columnName);
+		if (slot < 0) {
+			layout = layout.extend(columnName);
+			slot = layout.getSlot(columnName);
+
+			int words = (layout.size() + 63) >>> 6;
+			if (words > inLayer.length) {
+				words = Math.max(words, inLayer.length * 2);
+				inLayer = Arrays.copyOf(inLayer, words);
+				rowKeyInLayer = Arrays.copyOf(rowKeyInLayer, words);
+				columnInLayer = Arrays.copyOf(columnInLayer, words);
+				nameIsRowKey = Arrays.copyOf(nameIsRowKey, words);
+			}
+		}
+		return slot;
+	}
 
-		rowKeyTupleMap = null;
-		rowKeyTupleList = null;
-		columnFamilycolumnNameTupleMap = new HashMap<>();
-		columnNameTupleList = new ArrayList<>();
-		columnNameTupleMap = new HashMap<>();
-		Map<String, Tuple> cnMap = new HashMap<>();
+	// topmost layer having the slot as row key field
+	private DataRecord rowKeyLayer(int slot) {
+		for (DataRecord layer = this; layer != null; layer = layer.base) {
+			if (isSet(layer.rowKeyInLayer, slot)) {
+				return layer;
+			}
+		}
+		return null;
+	}
 
-		for (Tuple tuple : tupleList) {
-			cnMap.put(tuple.getColumnName(), tuple);
+	// topmost layer having the slot as column
+	private DataRecord columnLayer(int slot) {
+		for (DataRecord layer = this; layer != null; layer = layer.base) {
+			if (isSet(layer.columnInLayer, slot)) {
+				return layer;
+			}
 		}
-		columnNameTupleList.addAll(tupleList);
-		// cf null
-		columnFamilycolumnNameTupleMap.put(null, cnMap);
+		return null;
+	}
 
-		columnNameTupleMap.putAll(cnMap);
+	private void putRowKeyTuple(String columnName, Tuple t) {
+		int slot = slotFor(columnName);
+		if (rowKeyLayer(slot) == null) {
+			rowKeyOrder = append(rowKeyOrder, noOfRowKeyFieldsInLayer++, slot);
+			noOfRowKeyFields++;
+		}
+		int position = positionFor(slot);
+		rowKeyTuples[position] = t;
+		set(rowKeyInLayer, slot);
+		set(nameIsRowKey, slot);
+	}
 
-		recordType = RecordType.DELIMITED_RECORD;
+	private void putColumnTuple(String columnFamily, String columnName, Tuple t) {
+		int slot = slotFor(columnName);
+		if (columnLayer(slot) == null) {
+			columnOrder = append(columnOrder, noOfColumnsInLayer++, slot);
+			noOfColumns++;
+		}
+		int position = positionFor(slot);
+		columnTuples[position] = t;
+		columnFamilies[position] = columnFamily;
+		set(columnInLayer, slot);
+		clear(nameIsRowKey, slot);
 	}
 
 	public boolean isRowkeyListEmpty() {
-		return rowKeyTupleList.size() == 0;
+		return noOfRowKeyFields == 0;
 	}
 
 	public void addTupleToRowkey(Tuple t) throws InvalidRecordTypeExcepton, InvalidColumnException {
 		if (t != null) {
 			if (recordType == RecordType.KEY_VALUE) {
-				rowKeyTupleMap.put(t.getColumnName(), t);
-				rowKeyTupleList.add(t);
-				columnNameTupleMap.put(t.getColumnName(), t);
-
+				putRowKeyTuple(t.getColumnName(), t);
 			} else {
 				throw new InvalidRecordTypeExcepton("Attempted to add column " + t.getColumnName()
 						+ " into rowkey of record, but the record type is not " + RecordType.KEY_VALUE);
@@ -144,15 +314,7 @@ public class DataRecord {
 
 	public void addTupleToColumn(String columnFamily, String columnName, Tuple t) throws InvalidColumnException {
 		if (null != t) {
-
-			if (!columnFamilycolumnNameTupleMap.containsKey(columnFamily)) {
-				columnFamilycolumnNameTupleMap.put(columnFamily, new HashMap<>());
-			}
-
-			columnFamilycolumnNameTupleMap.get(columnFamily).put(columnName, t);
-			columnNameTupleList.add(t);
-
-			columnNameTupleMap.put(columnName, t);
+			putColumnTuple(columnFamily, columnName, t);
 		} else {
 			throw new InvalidColumnException("Attempted to add null column into non row key columns of the DataRecord");
 		}
@@ -172,17 +334,28 @@ public class DataRecord {
 	}
 
 	/**
-	 * This method returns a copy of the calling object
+	 * This method returns a copy of the calling object. Tuples of the calling
+	 * object are not copied, but shared by both the objects, and tuples added
+	 * to either of them later are not visible in the other one.
 	 * 
 	 * @return copy of the calling object
 	 */
 	public DataRecord duplicate() {
-		DataRecord copy = new DataRecord();
-		copy.columnNameTupleList.addAll(this.columnNameTupleList);
-		copy.rowKeyTupleList.addAll(this.rowKeyTupleList);
-		copy.rowKeyTupleMap.putAll(this.rowKeyTupleMap);
-		copyIntoColumnMap(copy.columnFamilycolumnNameTupleMap, this.columnFamilycolumnNameTupleMap);
-		copy.columnNameTupleMap.putAll(this.columnNameTupleMap);
+		if (noOfTuplesInLayer > 0) {
+			// move tuples of this layer into a base shared with the copy
+			DataRecord shared = new DataRecord(layout, base);
+			shared.moveLayerFrom(this);
+			base = shared;
+			depth = shared.depth + 1;
+			clearLayer(layout.size());
+		}
+
+		DataRecord copy;
+		if (depth > MAX_DEPTH) {
+			copy = flatten();
+		} else {
+			copy = new DataRecord(layout, base);
+		}
 		
 		copy.regexInKey=this.regexInKey;
 		copy.dynamicPartsInKey=this.dynamicPartsInKey;
@@ -190,29 +363,128 @@ public class DataRecord {
 		return copy;
 	}
 
+	private void moveLayerFrom(DataRecord record) {
+		inLayer = record.inLayer;
+		rowKeyInLayer = record.rowKeyInLayer;
+		columnInLayer = record.columnInLayer;
+		nameIsRowKey = record.nameIsRowKey;
+		rowKeyTuples = record.rowKeyTuples;
+		columnTuples = record.columnTuples;
+		columnFamilies = record.columnFamilies;
+		noOfTuplesInLayer = record.noOfTuplesInLayer;
+		rowKeyOrder = record.rowKeyOrder;
+		noOfRowKeyFieldsInLayer = record.noOfRowKeyFieldsInLayer;
+		columnOrder = record.columnOrder;
+		noOfColumnsInLayer = record.noOfColumnsInLayer;
+		noOfRowKeyFields = record.noOfRowKeyFields;
+		noOfColumns = record.noOfColumns;
+	}
+
 	/**
-	 * This method copies data from one input map to another
-	 * 
-	 * @param orgMap
-	 *            - map to be copied to
-	 * @param mapToBeMerged
-	 *            - map to be copied from
+	 * @return single layer record having the same tuples as this record
 	 */
-	private void copyIntoColumnMap(Map<String, Map<String, Tuple>> orgMap,
-			Map<String, Map<String, Tuple>> mapToBeMerged) {
-		for (Entry<String, Map<String, Tuple>> cfEntry : mapToBeMerged.entrySet()) {
+	private DataRecord flatten() {
+		DataRecord flat = new DataRecord(layout);
+
+		for (int slot : getRowKeySlots()) {
+			flat.putRowKeyTuple(layout.getColumnName(slot), getRowkeyTupleAt(slot));
+		}
+		for (int slot : getColumnSlots()) {
+			DataRecord layer = columnLayer(slot);
+			int position = layer.rank(slot);
+			flat.putColumnTuple(layer.columnFamilies[position], layout.getColumnName(slot),
+					layer.columnTuples[position]);
+		}
+		// lookups by name resolve as in this record
+		for (int slot : getRowKeySlots()) {
+			if (isSet(nameLayer(slot).nameIsRowKey, slot)) {
+				set(flat.nameIsRowKey, slot);
+			}
+		}
+		return flat;
+	}
+
+	// topmost layer having the slot either as row key field or as column
+	private DataRecord nameLayer(int slot) {
+		for (DataRecord layer = this; layer != null; layer = layer.base) {
+			if (isSet(layer.inLayer, slot)) {
+				return layer;
+			}
+		}
+		return null;
+	}
+
+	// slots of row key fields, in the order of addition
+	private int[] getRowKeySlots() {
+		int[] slots = new int[noOfRowKeyFields];
+		fillRowKeySlots(slots);
+		return slots;
+	}
 
-			Map<String, Tuple> orgCnMap = orgMap.getOrDefault(cfEntry.getKey(), new HashMap<>());
+	private int fillRowKeySlots(int[] slots) {
+		int count = base == null ? 0 : base.fillRowKeySlots(slots);
+		System.arraycopy(rowKeyOrder, 0, slots, count, noOfRowKeyFieldsInLayer);
+		return count + noOfRowKeyFieldsInLayer;
+	}
 
-			orgCnMap.putAll(cfEntry.getValue());
+	// slots of columns, in the order of addition
+	private int[] getColumnSlots() {
+		int[] slots = new int[noOfColumns];
+		fillColumnSlots(slots);
+		return slots;
+	}
+
+	private int fillColumnSlots(int[] slots) {
+		int count = base == null ? 0 : base.fillColumnSlots(slots);
+		System.arraycopy(columnOrder, 0, slots, count, noOfColumnsInLayer);
+		return count + noOfColumnsInLayer;
+	}
+
+	/**
+	 * @return layout assigning slots to the column names of this record
+	 */
+	public RecordLayout getLayout() {
+		return layout;
+	}
 
-			orgMap.put(cfEntry.getKey(), orgCnMap);
+	/**
+	 * Returns the tuple found for a column name, using slot of the column name
+	 * resolved against this record's layout or the layout it extends
+	 * 
+	 * @param slot
+	 *            slot of the column name
+	 * @return row key field or column tuple, as returned by getColumnTuple,
+	 *         null if not present
+	 */
+	public Tuple getTupleAt(int slot) {
+		DataRecord layer = nameLayer(slot);
+		if (layer == null) {
+			return null;
 		}
+		int position = layer.rank(slot);
+		return isSet(layer.nameIsRowKey, slot) ? layer.rowKeyTuples[position] : layer.columnTuples[position];
+	}
+
+	/**
+	 * @param slot
+	 *            slot of the row key field name
+	 * @return row key field tuple, null if not present
+	 */
+	public Tuple getRowkeyTupleAt(int slot) {
+		DataRecord layer = rowKeyLayer(slot);
+		return layer == null ? null : layer.rowKeyTuples[layer.rank(slot)];
+	}
+
+	// column tuple of the slot, null if not present
+	private Tuple getColumnTupleAt(int slot) {
+		DataRecord layer = columnLayer(slot);
+		return layer == null ? null : layer.columnTuples[layer.rank(slot)];
 	}
 
 	public Tuple getRowkeyTuple(String columnName) throws ColumnNotFoundException {
-		if (this.rowKeyTupleMap.containsKey(columnName)) {
-			return rowKeyTupleMap.get(columnName);
+		Tuple tuple = getRowkeyTupleAt(layout.getSlot(columnName));
+		if (tuple != null) {
+			return tuple;
 		} else {
 			throw new ColumnNotFoundException("Attempted to fetch column: " + columnName
 					+ " from row key columns, but it's not found in row key columns.");
@@ -220,19 +492,16 @@ public class DataRecord {
 	}
 
 	public Tuple getColumnTuple(String columnName) throws ColumnNotFoundException {
-		if (columnNameTupleMap.containsKey(columnName)) {
-			return columnNameTupleMap.get(columnName);
+		Tuple tuple = getTupleAt(layout.getSlot(columnName));
+		if (tuple != null) {
+			return tuple;
 		} else {
 			throw new ColumnNotFoundException("Attempted to fetch column: " + columnName + ", but it's not found.");
 		}
 	}
 
 	public String getColumnTupleValue(String columnName) throws ColumnNotFoundException {
-		if (columnNameTupleMap.containsKey(columnName)) {
-			return columnNameTupleMap.get(columnName).getColumnValue();
-		} else {
-			throw new ColumnNotFoundException("Attempted to fetch column: " + columnName + ", but it's not found.");
-		}
+		return getColumnTuple(columnName).getColumnValue();
 	}
 	
 	/**
@@ -246,11 +515,19 @@ public class DataRecord {
 	 *             if column family is invalid
 	 */
 	public List<Tuple> getTuplesInCF(String columnFamily) throws ColumnFamilyNotFoundException {
-		if (columnFamilycolumnNameTupleMap.containsKey(columnFamily)) {
-			List<Tuple> tuplesInCF = new ArrayList<>();
-
-			tuplesInCF.addAll(columnFamilycolumnNameTupleMap.get(columnFamily).values());
+		List<Tuple> tuplesInCF = new ArrayList<>();
+		boolean cfFound = false;
+
+		for (int slot : getColumnSlots()) {
+			DataRecord layer = columnLayer(slot);
+			int position = layer.rank(slot);
+			if (Objects.equals(layer.columnFamilies[position], columnFamily)) {
+				tuplesInCF.add(layer.columnTuples[position]);
+				cfFound = true;
+			}
+		}
 
+		if (cfFound) {
 			return tuplesInCF;
 		} else {
 			throw new ColumnFamilyNotFoundException(
@@ -259,14 +536,15 @@ public class DataRecord {
 	}
 
 	public boolean isColumnNamePresent(String columnName) {
-		return columnNameTupleMap.containsKey(columnName);
+		return nameLayer(layout.getSlot(columnName)) != null;
 	}
 	
 	public boolean isColumnNamePresent(String columnFamily, String columnName) {
-		Map<String, Tuple> columns = columnFamilycolumnNameTupleMap.get(columnFamily);
+		int slot = layout.getSlot(columnName);
+		DataRecord layer = columnLayer(slot);
 		
-		if(columns!=null){
-			return columns.containsKey(columnName);
+		if(layer!=null){
+			return Objects.equals(layer.columnFamilies[layer.rank(slot)], columnFamily);
 		}
 		
 		return false;
@@ -283,13 +561,14 @@ public class DataRecord {
 	 * @return all the tuples merged into a single string
 	 */
 	private String getValueAsString(String delimiter, String quoteChar) {
-		return tuplesToString(columnNameTupleList, delimiter, quoteChar);
+		return tuplesToString(getColumnSlots(), false, delimiter, quoteChar);
 	}
 
-	private String tuplesToString(Collection<Tuple> tupleList, String delimiter, String quoteChar) {
+	private String tuplesToString(int[] slots, boolean rowKey, String delimiter, String quoteChar) {
 		StringBuilder sb = new StringBuilder();
 
-		for (Tuple tuple : tupleList) {
+		for (int slot : slots) {
+			Tuple tuple = rowKey ? getRowkeyTupleAt(slot) : getColumnTupleAt(slot);
 			String val = tuple.getColumnValue();
 			/*if (val.equals("\\N")) {
 				sb.append(quoteChar).append(val).append(quoteChar).append(delimiter);
@@ -316,7 +595,7 @@ public class DataRecord {
 	 */
 	public String getKeyAsString(String delimiter, String quoteChar) throws InvalidRecordTypeExcepton {
 		if (recordType == RecordType.KEY_VALUE) {
-			return tuplesToString(rowKeyTupleList, delimiter, quoteChar);
+			return tuplesToString(getRowKeySlots(), true, delimiter, quoteChar);
 		} else {
 			throw new InvalidRecordTypeExcepton(
 					"Attempted to fetch row key string from record, but the record type is not "
@@ -364,29 +643,40 @@ public class DataRecord {
 		return output;
 	}
 
+	/**
+	 * @return values of the column tuples, in the order in which getRecord
+	 *         writes them
+	 */
+	public String[] getColumnValues() {
+		int[] slots = getColumnSlots();
+		String[] values = new String[slots.length];
+		for (int i = 0; i < slots.length; i++) {
+			values[i] = getColumnTupleAt(slots[i]).getColumnValue();
+		}
+		return values;
+	}
+
 	public Put getHBasePut(HBaseTableExplorer hBaseExplorer, String targetTable, String rowKeySeparator)
 			throws InvalidSchemaException, InvalidRecordTypeExcepton {
 		byte[] rowkey = getSaltedKey(rowKeySeparator, "");
 
 		Put put = new Put(rowkey);
 
-		for (String cf : columnFamilycolumnNameTupleMap.keySet()) {
-			Map<String, Tuple> cnMap = columnFamilycolumnNameTupleMap.get(cf);
-
-			for (String cn : cnMap.keySet()) {
-				Tuple tuple = cnMap.get(cn);
+		for (int slot : getColumnSlots()) {
+			DataRecord layer = columnLayer(slot);
+			int position = layer.rank(slot);
+			Tuple tuple = layer.columnTuples[position];
 
-				byte[] cfBytes = Bytes.toBytes(cf);
-				byte[] nm = Bytes.toBytes(cn);
-				byte[] val = null;
+			byte[] cfBytes = Bytes.toBytes(layer.columnFamilies[position]);
+			byte[] nm = Bytes.toBytes(layout.getColumnName(slot));
+			byte[] val = null;
 
-				String value = tuple.getColumnValue();
-				if (value != null) {
-					val = parseToByteArray(hBaseExplorer, targetTable, tuple.getColumnFamily(), tuple.getColumnName(),
-							value);
-				}
-				put.addColumn(cfBytes, nm, val);
+			String value = tuple.getColumnValue();
+			if (value != null) {
+				val = parseToByteArray(hBaseExplorer, targetTable, tuple.getColumnFamily(), tuple.getColumnName(),
+						value);
 			}
+			put.addColumn(cfBytes, nm, val);
 		}
 		return put;
 	}
@@ -400,15 +690,41 @@ public class DataRecord {
 
 	@Override
 	public String toString() {
-		return "DataRecord [keyMap=" + rowKeyTupleMap + ", valueMap=" + columnFamilycolumnNameTupleMap + ", recordType="
+		Map<String, Tuple> keyMap = new LinkedHashMap<>();
+		for (int slot : getRowKeySlots()) {
+			keyMap.put(layout.getColumnName(slot), getRowkeyTupleAt(slot));
+		}
+		return "DataRecord [keyMap=" + keyMap + ", valueMap=" + getColumnFamilycolumnNameTupleMap() + ", recordType="
 				+ recordType + ", salt=" + Arrays.toString(salt) + "]";
 	}
 
 	public Set<String> getAllColumnNames() {
-		return columnNameTupleMap.keySet();
+		Set<String> columnNames = new LinkedHashSet<>();
+		for (int slot : getRowKeySlots()) {
+			columnNames.add(layout.getColumnName(slot));
+		}
+		for (int slot : getColumnSlots()) {
+			columnNames.add(layout.getColumnName(slot));
+		}
+		return columnNames;
 	}
 
+	/**
+	 * @return map of column family to map of column name to column tuple,
+	 *         built from the columns of this record
+	 */
 	public Map<String, Map<String, Tuple>> getColumnFamilycolumnNameTupleMap() {
+		Map<String, Map<String, Tuple>> columnFamilycolumnNameTupleMap = new HashMap<>();
+		for (int slot : getColumnSlots()) {
+			DataRecord layer = columnLayer(slot);
+			int position = layer.rank(slot);
+			Map<String, Tuple> cnMap = columnFamilycolumnNameTupleMap.get(layer.columnFamilies[position]);
+			if (cnMap == null) {
+				cnMap = new HashMap<>();
+				columnFamilycolumnNameTupleMap.put(layer.columnFamilies[position], cnMap);
+			}
+			cnMap.put(layout.getColumnName(slot), layer.columnTuples[position]);
+		}
 		return columnFamilycolumnNameTupleMap;
 	}
 
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.entity;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns a fixed slot to every column name of a DataRecord. A layout is
+ * built once from the schema of a job, and all the records following it keep
+ * their tuples in arrays indexed by these slots.
+ *
+ * Layouts are immutable. A record holding a column which is not in its
+ * layout moves to a layout extended with that column. Extended layouts only
+ * append slots, hence a slot resolved against the root layout stays valid
+ * for every record derived from it. Extensions are cached, so records
+ * receiving columns in the same order share the same layouts.
+ *
+ */
+@SuppressWarnings("serial")
+public class RecordLayout implements Serializable {
+
+	/**
+	 * Layout without any columns, used by records built without a schema
+	 */
+	public static final RecordLayout EMPTY = new RecordLayout(new ArrayList<>());
+
+	// bound on layouts cached for a root layout, so that column names which
+	// vary from row to row don't grow the cache
+	private static final int MAX_EXTENSIONS = 4096;
+
+	private final String[] columnNames;
+	private final Map<String, Integer> slots;
+	private final RecordLayout root;
+
+	private transient volatile ConcurrentHashMap<String, RecordLayout> extensions;
+
+	// number of layouts cached for this root layout
+	private transient AtomicInteger noOfExtensions;
+
+	/**
+	 * @param columnNames
+	 *            names of the columns, duplicate names get a single slot
+	 */
+	public RecordLayout(Collection<String> columnNames) {
+		List<String> names = new ArrayList<>();
+		slots = new HashMap<>();
+		for (String columnName : columnNames) {
+			if (!slots.containsKey(columnName)) {
+				slots.put(columnName, names.size());
+				names.add(columnName);
+			}
+		}
+		this.columnNames = names.toArray(new String[names.size()]);
+		this.root = this;
+	}
+
+	private RecordLayout(RecordLayout parent, String columnName) {
+		this.columnNames = new String[parent.columnNames.length + 1];
+		System.arraycopy(parent.columnNames, 0, columnNames, 0, parent.columnNames.length);
+		columnNames[parent.columnNames.length] = columnName;
+
+		this.slots = new HashMap<>(parent.slots);
+		slots.put(columnName, parent.columnNames.length);
+		this.root = parent.root;
+	}
+
+	/**
+	 * @param columnName
+	 *            name of the column
+	 * @return slot of the column, -1 if the column is not in this layout
+	 */
+	public int getSlot(String columnName) {
+		Integer slot = slots.get(columnName);
+		return slot == null ? -1 : slot;
+	}
+
+	public String getColumnName(int slot) {
+		return columnNames[slot];
+	}
+
+	public int size() {
+		return columnNames.length;
+	}
+
+	/**
+	 * @return layout built from the schema, which this layout extends
+	 */
+	public RecordLayout getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns layout having all the slots of this layout, followed by a slot
+	 * for provided column
+	 *
+	 * @param columnName
+	 *            name of the column not present in this layout
+	 * @return extended layout
+	 */
+	RecordLayout extend(String columnName) {
+		ConcurrentHashMap<String, RecordLayout> cache = getExtensions();
+
+		RecordLayout extended = cache.get(columnName);
+		if (extended == null) {
+			extended = new RecordLayout(this, columnName);
+			if (root.reserveExtension()) {
+				RecordLayout existing = cache.putIfAbsent(columnName, extended);
+				if (existing != null) {
+					extended = existing;
+				}
+			}
+		}
+		return extended;
+	}
+
+	private boolean reserveExtension() {
+		getExtensions();
+		if (noOfExtensions.get() >= MAX_EXTENSIONS) {
+			return false;
+		}
+		return noOfExtensions.incrementAndGet() <= MAX_EXTENSIONS;
+	}
+
+	private ConcurrentHashMap<String, RecordLayout> getExtensions() {
+		ConcurrentHashMap<String, RecordLayout> cache = extensions;
+		if (cache == null) {
+			synchronized (this) {
+				cache = extensions;
+				if (cache == null) {
+					cache = new ConcurrentHashMap<>();
+					if (root == this) {
+						noOfExtensions = new AtomicInteger();
+					}
+					extensions = cache;
+				}
+			}
+		}
+		return cache;
+	}
+
+}
@@ -15,16 +15,26 @@
  ******************************************************************************/
 package org.gstn.schemaexplorer.entity;
 
+import java.text.ParseException;
+
+import org.gstn.schemaexplorer.exception.ValueDecodingException;
+
 /**
  * Class to store information about individual rows, columns and dynamic parts
- * after all the processing is done
+ * after all the processing is done. Value of a column read from hbase can be
+ * kept as bytes along with a decoder, in which case it is decoded when it is
+ * read for the first time.
  */
 public final class Tuple {
 
 	private final String columnFamily;
 	private final String columnName;
 	private final Class<?> dataType;
-	private final String columnValue;
+	private String columnValue;
+	// undecoded value, decoder is null once the value is decoded
+	private byte[] valueBytes;
+	private int valueOffset, valueLength;
+	private ValueDecoder decoder;
 	private final String dynamicPartValue;
 	private final boolean raw, dynamicColumn;
 	//type of dynamic column whether it has static prefix or static suffix
@@ -99,6 +109,25 @@ public final class Tuple {
 		this.dynamicColumnType=dynamicColumnType;
 	}
 
+	/**
+	 * Constructor for columns whose value is decoded on first access
+	 */
+	private Tuple(String columnFamily, String columnName, byte[] valueBytes, int valueOffset, int valueLength,
+			ValueDecoder decoder, boolean dynamicColumn, String dynamicPartValue, DynamicColumnType dynamicColumnType,
+			Class<?> dataType) {
+		this.columnFamily = columnFamily;
+		this.columnName = columnName;
+		this.valueBytes = valueBytes;
+		this.valueOffset = valueOffset;
+		this.valueLength = valueLength;
+		this.decoder = decoder;
+		this.dataType = dataType;
+		this.raw = false;
+		this.dynamicColumn = dynamicColumn;
+		this.dynamicPartValue = dynamicPartValue;
+		this.dynamicColumnType = dynamicColumnType;
+	}
+
 	public static Tuple rowkeyColumn(String columnName, String columnValue) {
 		return new Tuple(columnName, columnValue, String.class);
 	}
@@ -112,6 +141,27 @@ public final class Tuple {
 		return new Tuple(columnFamily, columnName, columnValue, dynamicPartValue, dynamicColumnType, dataType);
 	}
 
+	/**
+	 * Creates a static column whose value is decoded on first access. Bytes
+	 * of the value are not copied, and must not be modified afterwards.
+	 */
+	public static Tuple staticColumn(String columnFamily, String columnName, byte[] valueBytes, int valueOffset,
+			int valueLength, ValueDecoder decoder, Class<?> dataType) {
+		return new Tuple(columnFamily, columnName, valueBytes, valueOffset, valueLength, decoder, false, "", null,
+				dataType);
+	}
+
+	/**
+	 * Creates a dynamic column whose value is decoded on first access. Bytes
+	 * of the value are not copied, and must not be modified afterwards.
+	 */
+	public static Tuple dynamicColumn(String columnFamily, String columnName, byte[] valueBytes, int valueOffset,
+			int valueLength, ValueDecoder decoder, String dynamicPartValue, DynamicColumnType dynamicColumnType,
+			Class<?> dataType) {
+		return new Tuple(columnFamily, columnName, valueBytes, valueOffset, valueLength, decoder, true,
+				dynamicPartValue, dynamicColumnType, dataType);
+	}
+
 	/**
 	 * Create a new tuple belonging to a different column family
 	 * 
@@ -121,7 +171,11 @@ public final class Tuple {
 	 */
 	public Tuple cloneWithNewCF(String columnFamily) {
 		Tuple output;
-		if (this.raw) {
+		if (this.decoder != null) {
+			// value is still not decoded
+			output = new Tuple(columnFamily, this.columnName, this.valueBytes, this.valueOffset, this.valueLength,
+					this.decoder, this.dynamicColumn, this.dynamicPartValue, this.dynamicColumnType, this.dataType);
+		} else if (this.raw) {
 			output = new Tuple(columnFamily, this.columnName, this.dataType);
 		} else if (this.dynamicColumn) {
 			output = Tuple.dynamicColumn(columnFamily, this.columnName, this.columnValue, this.dynamicPartValue,
@@ -134,6 +188,16 @@ public final class Tuple {
 	}
 
 	public String getColumnValue() {
+		if (decoder != null) {
+			try {
+				columnValue = decoder.decode(valueBytes, valueOffset, valueLength);
+			} catch (ParseException e) {
+				throw new ValueDecodingException("Failed to decode value of column " + columnFamily + ":"
+						+ getHbaseColumnName() + ", " + e.getMessage(), e);
+			}
+			decoder = null;
+			valueBytes = null;
+		}
 		return columnValue;
 	}
 
@@ -171,7 +235,7 @@ public final class Tuple {
 
 	@Override
 	public String toString() {
-		return "Tuple [columnFamily=" + columnFamily + ", columnName=" + columnName + ", columnValue=" + columnValue
+		return "Tuple [columnFamily=" + columnFamily + ", columnName=" + columnName + ", columnValue=" + getColumnValue()
 				+ " ]";
 	}
 
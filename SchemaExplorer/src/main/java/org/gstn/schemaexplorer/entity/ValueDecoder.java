@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.entity;
+
+import java.io.Serializable;
+import java.text.ParseException;
+
+/**
+ * Decodes value of a column from the bytes stored in hbase. Tuples built with
+ * a decoder keep the bytes of the value, and decode them only when the value
+ * is read for the first time.
+ *
+ */
+public interface ValueDecoder extends Serializable {
+
+	/**
+	 * @param bytes
+	 *            array containing the value bytes
+	 * @param offset
+	 *            offset of the value in the array
+	 * @param length
+	 *            length of the value
+	 * @return decoded value of the column
+	 * @throws ParseException
+	 *             if the value doesn't match the format of the column
+	 */
+	String decode(byte[] bytes, int offset, int length) throws ParseException;
+
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.hbase;
+
+import java.io.Serializable;
+
+/**
+ * This class splits the dynamic part of column names into its components,
+ * ex. S|1017|I0001 into {"S", "1017", "I0001"}. It is built once per schema,
+ * so that dynamic parts are split without regex. Dynamic parts are split the
+ * same way as String.split on the separator, i.e. trailing empty components
+ * are dropped.
+ *
+ */
+@SuppressWarnings("serial")
+public class DynamicPartTokenizer implements Serializable {
+
+	// null if dynamic part is not split
+	private final String separator;
+	private final int noOfParts;
+
+	public DynamicPartTokenizer(String separator, int noOfParts) {
+		this.separator = (separator == null || separator.isEmpty()) ? null : separator;
+		this.noOfParts = noOfParts;
+	}
+
+	/**
+	 * Splits the dynamic part into its components
+	 * 
+	 * @param dynamicPart
+	 *            - dynamic part of column name
+	 * @return components of dynamic part, null if number of components does
+	 *         not match the schema
+	 */
+	public String[] split(String dynamicPart) {
+
+		if (separator == null) {
+			return noOfParts == 1 ? new String[] { dynamicPart } : null;
+		}
+
+		String[] parts = new String[noOfParts];
+		int partCount = 0;
+		// number of parts after dropping trailing empty parts
+		int nonEmptyCount = 0;
+		int partStart = 0;
+		int separatorPos = dynamicPart.indexOf(separator);
+
+		if (separatorPos < 0) {
+			// String.split returns the input itself if separator is not found
+			if (noOfParts != 1) {
+				return null;
+			}
+			parts[0] = dynamicPart;
+			return parts;
+		}
+
+		while (true) {
+			int partEnd = separatorPos < 0 ? dynamicPart.length() : separatorPos;
+			if (partEnd > partStart) {
+				if (partCount >= noOfParts) {
+					return null;
+				}
+				nonEmptyCount = partCount + 1;
+			}
+			if (partCount < noOfParts) {
+				parts[partCount] = dynamicPart.substring(partStart, partEnd);
+			}
+			partCount++;
+
+			if (separatorPos < 0) {
+				break;
+			}
+			partStart = separatorPos + separator.length();
+			separatorPos = dynamicPart.indexOf(separator, partStart);
+		}
+
+		return nonEmptyCount == noOfParts ? parts : null;
+	}
+
+	public int getNoOfParts() {
+		return noOfParts;
+	}
+
+}
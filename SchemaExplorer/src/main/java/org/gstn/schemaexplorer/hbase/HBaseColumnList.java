@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -55,7 +56,18 @@ public class HBaseColumnList implements Serializable {
 	private String dynamicPartSeparator;
 	private ArrayList<String> dynamicPartNames;
 	private Map<String, List<String>> parentPathColumnsMap;
+
+	// lookup structures derived from columnList by buildIndices()
+	private volatile Map<String, Map<String, HBaseColumn>> columnsByFamily;
+	private Map<String, HBaseColumn> columnsByName;
+	private Map<String, HBaseColumn> columnsByNameWithoutDynamicComponent;
+	private Set<String> dynamicComponents;
 	private List<HBaseColumn> allColumns;
+	private List<String> columnNames;
+	private List<String> columnNamesWithJson;
+	private Map<String, Class> schemaJsonColumns;
+	private boolean jsonColumnPresent;
+	private boolean tallTable;
 
 	public HBaseColumnList() {
 		logger = LoggerFactory.getLogger(this.getClass().getCanonicalName());
@@ -68,6 +80,89 @@ public class HBaseColumnList implements Serializable {
 			columnList.put(parentPath, new ArrayList<>());
 		}
 		columnList.get(parentPath).add(f);
+		columnsByFamily = null;
+		parentPathColumnsMap = null;
+	}
+
+	/**
+	 * This method builds the hash indices on column family, column qualifier
+	 * and column name, and the views of columns used by the lookup methods. It
+	 * is called once the schema file is parsed, and lazily again if columns
+	 * are added afterwards.
+	 */
+	public void buildIndices() {
+		Map<String, Map<String, HBaseColumn>> byFamily = new HashMap<>();
+		Map<String, HBaseColumn> byName = new HashMap<>();
+		Map<String, HBaseColumn> byNameWithoutDynamicComponent = new HashMap<>();
+		Set<String> components = new HashSet<>();
+		List<HBaseColumn> columns = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		List<String> namesWithJson = new ArrayList<>();
+		Map<String, Class> jsonColumns = new HashMap<>();
+		boolean json = false;
+		boolean tall = true;
+
+		for (String parent : columnList.keySet()) {
+			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
+				// first column found with a name wins, as with the scans
+				if (!byFamily.containsKey(hBaseColumn.getColumnFamily())) {
+					byFamily.put(hBaseColumn.getColumnFamily(), new HashMap<>());
+				}
+				byFamily.get(hBaseColumn.getColumnFamily()).putIfAbsent(hBaseColumn.getColumnName(), hBaseColumn);
+				byName.putIfAbsent(hBaseColumn.getColumnName(), hBaseColumn);
+				byNameWithoutDynamicComponent.putIfAbsent(hBaseColumn.getColumnNameWithoutDynamicComponent(),
+						hBaseColumn);
+				columns.add(hBaseColumn);
+
+				if (hBaseColumn.isDynamicColumn()) {
+					components.add(hBaseColumn.getDynamicComponent());
+					names.add(hBaseColumn.getDynamicPrefix() + hBaseColumn.getDynamicSuffix());
+					namesWithJson.add(hBaseColumn.getDynamicPrefix() + hBaseColumn.getDynamicSuffix());
+					tall = false;
+				} else {
+					names.add(hBaseColumn.getColumnName());
+					if (hBaseColumn.isJsonField())
+						namesWithJson.add("JSON." + hBaseColumn.getColumnName());
+					else
+						namesWithJson.add(hBaseColumn.getColumnName());
+				}
+
+				if (hBaseColumn.isJsonField()) {
+					jsonColumns.put(hBaseColumn.getColumnName(),
+							DataTypeUtil.getDataTypeClassForHiveDataType(hBaseColumn.getColumnDataType()));
+				}
+				if (hBaseColumn.getDataType().equalsIgnoreCase("json")) {
+					json = true;
+				}
+			}
+		}
+
+		columnsByName = byName;
+		columnsByNameWithoutDynamicComponent = byNameWithoutDynamicComponent;
+		dynamicComponents = components;
+		allColumns = Collections.unmodifiableList(columns);
+		columnNames = Collections.unmodifiableList(names);
+		columnNamesWithJson = Collections.unmodifiableList(namesWithJson);
+		schemaJsonColumns = Collections.unmodifiableMap(jsonColumns);
+		jsonColumnPresent = json;
+		tallTable = tall;
+		getParentPathColumnsMap();
+		// written last, so that readers seeing the index also see the views
+		columnsByFamily = byFamily;
+	}
+
+	private Map<String, Map<String, HBaseColumn>> getColumnsByFamily() {
+		Map<String, Map<String, HBaseColumn>> byFamily = columnsByFamily;
+		if (byFamily == null) {
+			buildIndices();
+			byFamily = columnsByFamily;
+		}
+		return byFamily;
+	}
+
+	private HBaseColumn getColumn(String columnFamily, String columnQualifier) {
+		Map<String, HBaseColumn> columns = getColumnsByFamily().get(columnFamily);
+		return columns == null ? null : columns.get(columnQualifier);
 	}
 
 	public void addDynamicPartName(String name) {
@@ -178,15 +273,7 @@ public class HBaseColumnList implements Serializable {
 	 * @return true if column is present, false otherwise
 	 */
 	public boolean isColumnPresent(String columnFamily, String columnQualifier) {
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.getColumnName().equals(columnQualifier)
-						&& hBaseColumn.getColumnFamily().equals(columnFamily)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return getColumn(columnFamily, columnQualifier) != null;
 	}
 
 	/**
@@ -202,13 +289,9 @@ public class HBaseColumnList implements Serializable {
 	 *             if the column is not present
 	 */
 	public String getColumnDataType(String columnFamily, String columnQualifier) throws InvalidSchemaException {
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.getColumnName().equals(columnQualifier)
-						&& hBaseColumn.getColumnFamily().equals(columnFamily)) {
-					return hBaseColumn.getColumnDataType();
-				}
-			}
+		HBaseColumn hBaseColumn = getColumn(columnFamily, columnQualifier);
+		if (hBaseColumn != null) {
+			return hBaseColumn.getColumnDataType();
 		}
 		throw new InvalidSchemaException("Unable to determine data type of " + columnQualifier);
 	}
@@ -226,24 +309,17 @@ public class HBaseColumnList implements Serializable {
 	 *             if the column is not present
 	 */
 	public Class<?> getColumnDataTypeClass(String columnFamily, String columnQualifier) throws InvalidSchemaException {
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.getColumnName().equals(columnQualifier)
-						&& hBaseColumn.getColumnFamily().equals(columnFamily)) {
-					return hBaseColumn.getDataTypeClass();
-				}
-			}
+		HBaseColumn hBaseColumn = getColumn(columnFamily, columnQualifier);
+		if (hBaseColumn != null) {
+			return hBaseColumn.getDataTypeClass();
 		}
 		throw new InvalidSchemaException("Unable to determine data type of " + columnQualifier);
 	}
 
 	public boolean isDynamicColumn(String columnFamily, String column) throws InvalidSchemaException {
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.getColumnName().equals(column) && hBaseColumn.getColumnFamily().equals(columnFamily)) {
-					return hBaseColumn.isDynamicColumn();
-				}
-			}
+		HBaseColumn hBaseColumn = getColumn(columnFamily, column);
+		if (hBaseColumn != null) {
+			return hBaseColumn.isDynamicColumn();
 		}
 		throw new InvalidSchemaException("Internal Error: Unable to determine if the column is static: " + column);
 	}
@@ -261,15 +337,8 @@ public class HBaseColumnList implements Serializable {
 	 */
 	public boolean isDynamicComponent(String dynamicPart) {
 		logger.debug("isDynamicComponent: checking for = " + dynamicPart);
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.isDynamicColumn()
-						&& hBaseColumn.getDynamicComponent().equals("<" + dynamicPart + ">")) {
-					return true;
-				}
-			}
-		}
-		return false;
+		getColumnsByFamily();
+		return dynamicComponents.contains("<" + dynamicPart + ">");
 	}
 
 	/**
@@ -434,16 +503,8 @@ public class HBaseColumnList implements Serializable {
 	 * @return list of names of all the columns as string
 	 */
 	public List<String> getColumnNames() {
-		List<String> result = new ArrayList<String>();
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.isDynamicColumn())
-					result.add(hBaseColumn.getDynamicPrefix() + hBaseColumn.getDynamicSuffix());
-				else
-					result.add(hBaseColumn.getColumnName());
-			}
-		}
-		return result;
+		getColumnsByFamily();
+		return columnNames;
 	}
 	
 	/**
@@ -452,12 +513,7 @@ public class HBaseColumnList implements Serializable {
 	 * @return list of names of all the columns as string
 	 */
 	public List<HBaseColumn> getAllColumns() {
-		if(allColumns==null){
-			allColumns = new ArrayList<>();
-			for (String parent : columnList.keySet()) {
-				allColumns.addAll(columnList.get(parent));
-			}
-		}
+		getColumnsByFamily();
 		return allColumns;
 	}
 
@@ -468,55 +524,25 @@ public class HBaseColumnList implements Serializable {
 	 * @return list of names of all the columns as string
 	 */
 	public List<String> getColumnNamesWithJson() {
-		List<String> result = new ArrayList<String>();
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.isDynamicColumn())
-					result.add(hBaseColumn.getDynamicPrefix() + hBaseColumn.getDynamicSuffix());
-				else {
-					if (hBaseColumn.isJsonField())
-						result.add("JSON." + hBaseColumn.getColumnName());
-					else
-						result.add(hBaseColumn.getColumnName());
-				}
-
-			}
-		}
-		return result;
+		getColumnsByFamily();
+		return columnNamesWithJson;
 	}
-	
-	
+
 	public Map<String,Class> getSchemaJsonColumns() {
-		Map<String,Class> columnNames = new HashMap<>();
-		for (String parentPath : columnList.keySet()) {
-			for (HBaseColumn column : columnList.get(parentPath)) {
-				if (column.isJsonField())
-					columnNames.put(column.getColumnName(),DataTypeUtil.getDataTypeClassForHiveDataType(column.getColumnDataType()));
-			}
-		}
-		return columnNames;
+		getColumnsByFamily();
+		return schemaJsonColumns;
 	}
 
 	public Class<?> getColumnDataType(String columnName) {
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.getColumnName().equals(columnName)) {
-					return hBaseColumn.getDataTypeClass();
-				}
-			}
-		}
-		return null;
+		getColumnsByFamily();
+		HBaseColumn hBaseColumn = columnsByName.get(columnName);
+		return hBaseColumn == null ? null : hBaseColumn.getDataTypeClass();
 	}
 
 	public String getColumnDefaultValue(String columnName) {
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.getColumnName().equals(columnName)) {
-					return hBaseColumn.getColumnDefaultValue();
-				}
-			}
-		}
-		return null;
+		getColumnsByFamily();
+		HBaseColumn hBaseColumn = columnsByName.get(columnName);
+		return hBaseColumn == null ? null : hBaseColumn.getColumnDefaultValue();
 	}
 
 	/**
@@ -555,36 +581,19 @@ public class HBaseColumnList implements Serializable {
 	}
 
 	public String getColumnDataFormat(String columnName) {
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.getColumnNameWithoutDynamicComponent().equals(columnName)) {
-					return hBaseColumn.getDataFormat();
-				}
-			}
-		}
-		return null;
+		getColumnsByFamily();
+		HBaseColumn hBaseColumn = columnsByNameWithoutDynamicComponent.get(columnName);
+		return hBaseColumn == null ? null : hBaseColumn.getDataFormat();
 	}
 
 	public boolean containsJsonColumn() {
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.getDataType().equalsIgnoreCase("json")) {
-					return true;
-				}
-			}
-		}
-		return false;
+		getColumnsByFamily();
+		return jsonColumnPresent;
 	}
 
 	public boolean isTallTable() {
-		for (String parent : columnList.keySet()) {
-			for (HBaseColumn hBaseColumn : columnList.get(parent)) {
-				if (hBaseColumn.isDynamicColumn()) {
-					return false;
-				}
-			}
-		}
-		return true;
+		getColumnsByFamily();
+		return tallTable;
 	}
 
 	/**
@@ -593,7 +602,11 @@ public class HBaseColumnList implements Serializable {
 	 * 		for flattening or not 
 	 */
 	public boolean checkKey(String parentPath, String currentPath, String key, JsonElement value) {
-		
+
+		if (parentPathColumnsMap == null) {
+			getParentPathColumnsMap();
+		}
+
 		boolean considerPrefixCase = false;
 		if (value.isJsonObject() || (value.isJsonArray() && value.toString().contains(":"))) {
 			considerPrefixCase = true;
@@ -252,9 +252,14 @@ public class HBaseTableExplorer implements Serializable {
 	}
 
 	public Scan getScanInstanceFromValidatedQuery(SqlBean query) throws HQLRunTimeException, HQLException {
+		return getScanInstanceFromValidatedQuery(query, false);
+	}
+
+	public Scan getScanInstanceFromValidatedQuery(SqlBean query, boolean raw)
+			throws HQLRunTimeException, HQLException {
 
 		try {
-			return engine.getScanInstanceFromValidatedQuery(query);
+			return engine.getScanInstanceFromValidatedQuery(query, raw);
 		} catch (HQLRunTimeException | HQLException e) {
 			String errMsg = "Exception in getScanInstanceFromValidatedQuery: " + e.getMessage();
 			logger.error(errMsg);
@@ -315,6 +320,7 @@ public class HBaseTableExplorer implements Serializable {
 		ParseTreeWalker walker = new ParseTreeWalker();
 
 		walker.walk(listener, tree);
+		hBaseIR.buildIndices();
 		return hBaseIR;
 	}
 
@@ -439,6 +445,14 @@ public class HBaseTableExplorer implements Serializable {
 		return hBaseIR.getRowkeyFields(sourceSchema);
 	}
 
+	public RowkeyTokenizer getRowkeyTokenizer(String sourceSchema) {
+		return hBaseIR.getRowkeyTokenizer(sourceSchema);
+	}
+
+	public DynamicPartTokenizer getDynamicPartTokenizer(String sourceSchema) {
+		return hBaseIR.getDynamicPartTokenizer(sourceSchema);
+	}
+
 	public boolean isAValidRowKey(String sourceSchema, String[] rowKeyParts) {
 		return hBaseIR.isAValidRowKey(sourceSchema, rowKeyParts);
 	}
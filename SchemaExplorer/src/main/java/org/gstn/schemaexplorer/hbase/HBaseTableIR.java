@@ -98,6 +98,16 @@ public class HBaseTableIR implements Serializable {
 		schemaColumnFields.get(schema).addColumn(parentPath, column);
 	}
 
+	/**
+	 * This method builds the lookup indices of all the schemas. It is called
+	 * once all the schemas are parsed.
+	 */
+	public void buildIndices() {
+		for (HBaseColumnList columnList : schemaColumnFields.values()) {
+			columnList.buildIndices();
+		}
+	}
+
 	public void addDdl(String schema, String ddl) throws InvalidSchemaException {
 		if (schemaDdls.containsKey(schema))
 			throw new InvalidSchemaException(
@@ -132,6 +142,34 @@ public class HBaseTableIR implements Serializable {
 			throw new HQLException("getHbaseRowkey: " + schema + " not present");
 	}
 
+	public List<byte[]> getSaltedHbaseRowkeyPrefixes(String schema, SqlBean query) throws HQLException {
+		if (schemaDdls.containsKey(schema))
+			return schemaRowkey.get(schema).getSaltedHbaseRowkeyPrefixes(query);
+		else
+			throw new HQLException("getSaltedHbaseRowkeyPrefixes: " + schema + " not present");
+	}
+
+	public byte[][] getHbaseRowkeyRange(String schema, SqlBean query) throws HQLException {
+		if (schemaDdls.containsKey(schema))
+			return schemaRowkey.get(schema).getHbaseRowkeyRange(query);
+		else
+			throw new HQLException("getHbaseRowkeyRange: " + schema + " not present");
+	}
+
+	public byte[][] getFuzzyRowkey(String schema, SqlBean query) throws HQLException {
+		if (schemaDdls.containsKey(schema))
+			return schemaRowkey.get(schema).getFuzzyRowkey(query);
+		else
+			throw new HQLException("getFuzzyRowkey: " + schema + " not present");
+	}
+
+	public String getRowkeyRegex(String schema, SqlBean query) throws HQLException {
+		if (schemaDdls.containsKey(schema))
+			return schemaRowkey.get(schema).getRowkeyRegex(query);
+		else
+			throw new HQLException("getRowkeyRegex: " + schema + " not present");
+	}
+
 	public boolean isColumnPresentInRowkey(String schema, String column) {
 		return schemaRowkey.get(schema).isColumnPresent(column);
 	}
@@ -326,6 +364,14 @@ public class HBaseTableIR implements Serializable {
 		return schemaColumnFields.get(schema).getDynamicColumnSuffixes();
 	}
 
+	public RowkeyTokenizer getRowkeyTokenizer(String schema) {
+		return schemaRowkey.get(schema).getRowkeyTokenizer();
+	}
+
+	public DynamicPartTokenizer getDynamicPartTokenizer(String schema) {
+		return new DynamicPartTokenizer(getDynamicColumnsSeparator(schema), getDynamicPartNames(schema).size());
+	}
+
 	public String getDynamicColumnsSeparator(String schema) {
 		return schemaColumnFields.get(schema).getDynamicPartSeparator();
 	}
@@ -17,13 +17,18 @@ package org.gstn.schemaexplorer.hbase;
 
 import org.apache.hadoop.hbase.util.Bytes;
 import org.gstn.schemaexplorer.exception.HQLException;
+import org.gstn.schemaexplorer.sql.Condition;
 import org.gstn.schemaexplorer.sql.SqlBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * This class stores information about the row key structure like different
@@ -93,6 +98,36 @@ public class Rowkey implements Serializable {
 		if (rowkeySeparator != null) {
 			delim = Bytes.toBytes(rowkeySeparator);
 		}
+		List<byte[]> rowkeyComponents = getHbaseRowkeyComponents(query);
+
+		byte[] hbaseRowkey = null;
+
+		if (delim != null) {
+			hbaseRowkey = mergeByteArrays(rowkeyComponents, delim);
+		} else {
+			hbaseRowkey = mergeByteArrays(rowkeyComponents, Bytes.toBytes(""));
+		}
+
+		// In case no row key fields are specified in the input query, we scan
+		// all rows
+		if (null == hbaseRowkey) {
+			hbaseRowkey = Bytes.toBytes("");
+		}
+		return hbaseRowkey;
+	}
+
+	/**
+	 * This method generates the values of leading row key fields for which
+	 * value has been provided in condition clause
+	 * 
+	 * @param query
+	 *            - SqlBean object which stores information about input query
+	 * @return list of row key field values in row key order
+	 * @throws HQLException
+	 *             if hash size specified in row key is more that 1 byte
+	 */
+	private List<byte[]> getHbaseRowkeyComponents(SqlBean query) throws HQLException {
+
 		List<byte[]> rowkeyComponents = new ArrayList<>();
 
 		for (RowkeyField rkf : rowkeyFields) {
@@ -132,20 +167,333 @@ public class Rowkey implements Serializable {
 			rowkeyComponents.add(value);
 		}
 
-		byte[] hbaseRowkey = null;
+		return rowkeyComponents;
+	}
 
-		if (delim != null) {
-			hbaseRowkey = mergeByteArrays(rowkeyComponents, delim);
-		} else {
-			hbaseRowkey = mergeByteArrays(rowkeyComponents, Bytes.toBytes(""));
+	/**
+	 * This method generates start and stop row of the scan, using the range
+	 * conditions (&lt;, &lt;=, &gt;, &gt;=) on the first row key field which
+	 * is not provided with "=" operator
+	 * 
+	 * @param query
+	 *            - SqlBean object which stores information about input query
+	 * @return array of start row and stop row (empty if unbounded), null if
+	 *         there are no range conditions on that field
+	 * @throws HQLException
+	 *             if hash size specified in row key is more that 1 byte
+	 */
+	public byte[][] getHbaseRowkeyRange(SqlBean query) throws HQLException {
+
+		List<byte[]> rowkeyComponents = getHbaseRowkeyComponents(query);
+
+		if (rowkeyComponents.size() >= rowkeyFields.size()) {
+			return null;
 		}
 
-		// In case no row key fields are specified in the input query, we scan
-		// all rows
-		if (null == hbaseRowkey) {
-			hbaseRowkey = Bytes.toBytes("");
+		RowkeyField rangeField = rowkeyFields.get(rowkeyComponents.size());
+		if (rangeField.isLiteral() || rangeField.isHashed()) {
+			return null;
 		}
-		return hbaseRowkey;
+
+		// find the tightest bounds among the conditions on the field
+		String lowerBound = null;
+		String upperBound = null;
+		for (Condition condition : query.getMandatoryConditions()) {
+			if (!condition.getColumnName().equals(rangeField.getName())
+					|| (condition.getColumnFamily() != null && !condition.getColumnFamily().isEmpty())
+					|| condition.getValue().equalsIgnoreCase("null")) {
+				continue;
+			}
+			String operator = condition.getConditionalOperator();
+			String value = condition.getValue();
+			if (operator.equals(">") || operator.equals(">=")) {
+				if (lowerBound == null || value.compareTo(lowerBound) > 0) {
+					lowerBound = value;
+				}
+			} else if (operator.equals("<") || operator.equals("<=")) {
+				if (upperBound == null || value.compareTo(upperBound) < 0) {
+					upperBound = value;
+				}
+			}
+		}
+
+		if (lowerBound == null && upperBound == null) {
+			return null;
+		}
+
+		byte[] delim = Bytes.toBytes(rowkeySeparator != null ? rowkeySeparator : "");
+
+		// prefix of the range field i.e. values of the leading fields followed
+		// by separator
+		byte[] prefix = new byte[0];
+		if (!rowkeyComponents.isEmpty()) {
+			prefix = Bytes.add(mergeByteArrays(rowkeyComponents, delim), delim);
+		}
+
+		// row keys are compared byte wise, whereas row key fields are compared
+		// as strings. Every field value >= lowerBound results in a row key >=
+		// prefix+lowerBound.
+		byte[] startRow = prefix;
+		if (lowerBound != null) {
+			startRow = Bytes.add(prefix, Bytes.toBytes(lowerBound));
+		}
+
+		byte[] stopRow = getStopRowForPrefix(prefix);
+		if (upperBound != null) {
+			byte[] upperBoundBytes = Bytes.toBytes(upperBound);
+			stopRow = getStopRowForPrefix(Bytes.add(prefix, upperBoundBytes));
+
+			// a field value which is a proper prefix of upperBound is followed
+			// by the separator, which may sort after the rest of upperBound
+			for (int i = 0; i < upperBoundBytes.length; i++) {
+				byte[] shorterValueRow = Bytes.add(prefix, Arrays.copyOf(upperBoundBytes, i), delim);
+				byte[] shorterValueStopRow = getStopRowForPrefix(shorterValueRow);
+				if (stopRow.length > 0 && (shorterValueStopRow.length == 0
+						|| Bytes.compareTo(shorterValueStopRow, stopRow) > 0)) {
+					stopRow = shorterValueStopRow;
+				}
+			}
+		}
+
+		logger.debug("getHbaseRowkeyRange: range on row key field " + rangeField.getName() + " = ["
+				+ Bytes.toStringBinary(startRow) + ", " + Bytes.toStringBinary(stopRow) + ")");
+
+		return new byte[][] { startRow, stopRow };
+	}
+
+	/**
+	 * This method generates the row key and mask for a FuzzyRowFilter, in case
+	 * a row key field provided with "=" operator follows a hashed field whose
+	 * value is not known. Fields are considered only as long as their width is
+	 * known, i.e. literal fields, hashed fields and fields provided with "="
+	 * operator.
+	 * 
+	 * Row keys whose leading field is hashed are scanned once per salt value
+	 * instead, see getSaltedHbaseRowkeyPrefixes, hence this applies to hashed
+	 * fields following the leading field, e.g. fp|hash(rtin)[0:7]|stin queried
+	 * with fp and stin.
+	 * 
+	 * @param query
+	 *            - SqlBean object which stores information about input query
+	 * @return array of fuzzy row key and mask (0 for fixed byte, 1 for
+	 *         unknown byte), null if fuzzy matching is not applicable
+	 * @throws HQLException
+	 *             if hash size specified in row key is more that 1 byte
+	 */
+	public byte[][] getFuzzyRowkey(SqlBean query) throws HQLException {
+
+		byte[] delim = Bytes.toBytes(rowkeySeparator != null ? rowkeySeparator : "");
+
+		byte[] fuzzyRowkey = new byte[0];
+		byte[] mask = new byte[0];
+		// length of fuzzy row key up to the last fixed field
+		int fixedLength = 0;
+		boolean unknownBytesFound = false;
+		boolean fixedAfterUnknown = false;
+
+		for (int i = 0; i < rowkeyFields.size(); i++) {
+			RowkeyField rkf = rowkeyFields.get(i);
+
+			if (i > 0) {
+				fuzzyRowkey = Bytes.add(fuzzyRowkey, delim);
+				mask = Bytes.add(mask, new byte[delim.length]);
+			}
+
+			byte[] value = getAssignedFieldValue(rkf, query);
+			if (value != null) {
+				fuzzyRowkey = Bytes.add(fuzzyRowkey, value);
+				mask = Bytes.add(mask, new byte[value.length]);
+				fixedLength = fuzzyRowkey.length;
+				fixedAfterUnknown = fixedAfterUnknown || (unknownBytesFound && !rkf.isLiteral());
+			} else if (rkf.isHashed()) {
+				// hash value occupies a single byte
+				fuzzyRowkey = Bytes.add(fuzzyRowkey, new byte[1]);
+				mask = Bytes.add(mask, new byte[] { 1 });
+				unknownBytesFound = true;
+			} else {
+				break;
+			}
+		}
+
+		if (!fixedAfterUnknown) {
+			return null;
+		}
+
+		logger.debug("getFuzzyRowkey: fuzzy row key = " + Bytes.toStringBinary(fuzzyRowkey, 0, fixedLength));
+
+		return new byte[][] { Arrays.copyOf(fuzzyRowkey, fixedLength), Arrays.copyOf(mask, fixedLength) };
+	}
+
+	/**
+	 * This method generates a regex on the complete row key, in case there are
+	 * row key fields provided with "=" operator which are not part of row key
+	 * prefix. The regex is to be applied on the row key decoded as ISO-8859-1,
+	 * with DOTALL flag.
+	 * 
+	 * @param query
+	 *            - SqlBean object which stores information about input query
+	 * @return regex for the row key, null if not applicable
+	 * @throws HQLException
+	 *             if hash size specified in row key is more that 1 byte
+	 */
+	public String getRowkeyRegex(SqlBean query) throws HQLException {
+
+		Map<String, String> nonPrefixFields = query.getRowkeyFieldsUsedNonPrefix();
+
+		// regex is supported only for single character separator, which is
+		// excluded from the unknown fields
+		if (nonPrefixFields == null || nonPrefixFields.isEmpty() || rowkeySeparator == null
+				|| rowkeySeparator.length() != 1) {
+			return null;
+		}
+
+		String quotedSeparator = Pattern.quote(rowkeySeparator);
+		StringBuilder regex = new StringBuilder("^");
+		// length of regex up to the last known field
+		int knownLength = 0;
+
+		for (int i = 0; i < rowkeyFields.size(); i++) {
+			RowkeyField rkf = rowkeyFields.get(i);
+
+			if (i > 0) {
+				regex.append(quotedSeparator);
+			}
+
+			byte[] value = getAssignedFieldValue(rkf, query);
+			if (value != null) {
+				regex.append(Pattern.quote(new String(value, StandardCharsets.ISO_8859_1)));
+				knownLength = regex.length();
+			} else if (rkf.isHashed()) {
+				regex.append(".");
+			} else {
+				regex.append("[^").append(quotedSeparator).append("]*");
+			}
+		}
+
+		regex.setLength(knownLength);
+		regex.append("(?:").append(quotedSeparator).append("|$)");
+
+		logger.debug("getRowkeyRegex: row key regex = " + regex);
+
+		return regex.toString();
+	}
+
+	/**
+	 * This method returns the value of row key field as present in row key,
+	 * if it can be computed from the conditions provided with "=" operator
+	 * 
+	 * @return value of row key field, null if it is not known
+	 * @throws HQLException
+	 *             if hash size specified in row key is more that 1 byte
+	 */
+	private byte[] getAssignedFieldValue(RowkeyField rkf, SqlBean query) throws HQLException {
+		if (rkf.isLiteral()) {
+			return Bytes.toBytes(rkf.getLiteralValue());
+		}
+
+		String assignedValue = null;
+		if (query.getRowkeyFieldsUsed().contains(rkf.getName())) {
+			assignedValue = query.getAssignedValue(rkf.getName());
+		} else if (query.getRowkeyFieldsUsedNonPrefix() != null) {
+			assignedValue = query.getRowkeyFieldsUsedNonPrefix().get(rkf.getName());
+		}
+
+		if (assignedValue == null) {
+			return null;
+		}
+
+		if (rkf.isHashed()) {
+			try {
+				return rkf.getHashValue(assignedValue);
+			} catch (Exception e) {
+				throw new HQLException(e.getMessage());
+			}
+		}
+		return Bytes.toBytes(assignedValue);
+	}
+
+	/**
+	 * This method generates one row key prefix per possible salt value, in case
+	 * the leading hashed field can not be computed from the input query but
+	 * some of the row key fields following it are provided with "=" operator.
+	 * Scanning only these prefixes reads 1/2^bits of every region instead of
+	 * the complete table.
+	 * 
+	 * @param query
+	 *            - SqlBean object which stores information about input query
+	 * @return list of row key prefixes in ascending order, empty list if salt
+	 *         expansion does not narrow down the scan
+	 * @throws HQLException
+	 *             if hash size specified in row key is more that 1 byte
+	 */
+	public List<byte[]> getSaltedHbaseRowkeyPrefixes(SqlBean query) throws HQLException {
+
+		List<byte[]> saltedPrefixes = new ArrayList<>();
+
+		// salt expansion is required only when hash could not be computed
+		if (!isHashed() || query.getRowkeyFieldsUsed().contains(rowkeyFields.get(0).getName())) {
+			return saltedPrefixes;
+		}
+
+		RowkeyField hashField = rowkeyFields.get(0);
+		int noOfBits = hashField.getBitEnd() - hashField.getBitStart() + 1;
+		if (noOfBits < 1 || noOfBits > 8) {
+			throw new HQLException("noOfBits supported by current hash implementation is only 8");
+		}
+
+		// fields after the hashed field which are provided in the query
+		Map<String, String> assignedValues = query.getRowkeyFieldsUsedNonPrefix();
+		List<byte[]> rowkeyComponents = new ArrayList<>();
+
+		for (RowkeyField rkf : rowkeyFields.subList(1, rowkeyFields.size())) {
+			if (rkf.isLiteral()) {
+				rowkeyComponents.add(Bytes.toBytes(rkf.getLiteralValue()));
+			} else if (!rkf.isHashed() && assignedValues != null && assignedValues.containsKey(rkf.getName())) {
+				rowkeyComponents.add(Bytes.toBytes(assignedValues.get(rkf.getName())));
+			} else {
+				break;
+			}
+		}
+
+		// drop trailing literals, they alone do not restrict the scan
+		while (!rowkeyComponents.isEmpty()
+				&& rowkeyFields.get(rowkeyComponents.size()).isLiteral()) {
+			rowkeyComponents.remove(rowkeyComponents.size() - 1);
+		}
+
+		if (rowkeyComponents.isEmpty()) {
+			return saltedPrefixes;
+		}
+
+		byte[] delim = Bytes.toBytes(rowkeySeparator != null ? rowkeySeparator : "");
+		byte[] suffix = mergeByteArrays(rowkeyComponents, delim);
+
+		for (int salt = 0; salt < (1 << noOfBits); salt++) {
+			byte[] saltByte = new byte[] { (byte) (salt << (8 - noOfBits)) };
+			saltedPrefixes.add(Bytes.add(saltByte, delim, suffix));
+		}
+
+		logger.debug("getSaltedHbaseRowkeyPrefixes: generated " + saltedPrefixes.size() + " prefixes");
+		return saltedPrefixes;
+	}
+
+	/**
+	 * This method returns the smallest row key which is greater than all the
+	 * row keys starting with input prefix
+	 * 
+	 * @param prefix
+	 *            - row key prefix
+	 * @return stop row for the prefix, empty array if there is no such row key
+	 */
+	public static byte[] getStopRowForPrefix(byte[] prefix) {
+		for (int i = prefix.length - 1; i >= 0; i--) {
+			if (prefix[i] != (byte) 0xFF) {
+				byte[] stopRow = Arrays.copyOf(prefix, i + 1);
+				stopRow[i]++;
+				return stopRow;
+			}
+		}
+		return new byte[0];
 	}
 
 	/**
@@ -242,6 +590,16 @@ public class Rowkey implements Serializable {
 		return true;
 	}
 
+	/**
+	 * This method creates a tokenizer which splits row keys of this structure
+	 * into fields
+	 * 
+	 * @return row key tokenizer
+	 */
+	public RowkeyTokenizer getRowkeyTokenizer() {
+		return new RowkeyTokenizer(this);
+	}
+
 	public boolean isRowkeyFieldHashed(String rowkeyField) {
 		for(RowkeyField rowkeyField2 : rowkeyFields) {
 			if(rowkeyField2.getName().equals(rowkeyField) && rowkeyField2.isHashed()) {
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.hbase;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * This class splits row keys of a schema into fields at byte level. It is
+ * built once from the row key structure, so that row keys are split without
+ * regex or intermediate strings. Row keys are split the same way as
+ * String.split on the separator, i.e. trailing empty fields are dropped, and
+ * for hashed row keys splitting starts after the hash bytes.
+ *
+ */
+@SuppressWarnings("serial")
+public class RowkeyTokenizer implements Serializable {
+
+	private final String[] fieldNames;
+	private final boolean[] hashedFields;
+
+	// UTF-8 bytes of literal fields, null for other fields
+	private final byte[][] literalValues;
+
+	// null if row key has a single field
+	private final byte[] separator;
+	private final int hashSizeBytes;
+
+	public RowkeyTokenizer(Rowkey rowkey) {
+		List<RowkeyField> rowkeyFields = rowkey.getRowkeyColumns();
+
+		fieldNames = new String[rowkeyFields.size()];
+		hashedFields = new boolean[rowkeyFields.size()];
+		literalValues = new byte[rowkeyFields.size()][];
+
+		for (int i = 0; i < rowkeyFields.size(); i++) {
+			RowkeyField rkf = rowkeyFields.get(i);
+			fieldNames[i] = rkf.getName();
+			hashedFields[i] = rkf.isHashed();
+			if (rkf.isLiteral()) {
+				literalValues[i] = Bytes.toBytes(rkf.getLiteralValue());
+			}
+		}
+
+		String rowkeySeparator = rowkey.getRowkeySeparator();
+		if (rowkeyFields.size() > 1 && rowkeySeparator != null && !rowkeySeparator.isEmpty()) {
+			separator = Bytes.toBytes(rowkeySeparator);
+		} else {
+			separator = null;
+		}
+
+		hashSizeBytes = rowkey.getHashSizeBytes();
+	}
+
+	/**
+	 * Splits the row key into fields and checks the literal fields
+	 * 
+	 * @param rowkey
+	 *            - row key bytes
+	 * @return array containing start and end offset of every field i.e.
+	 *         {start0, end0, start1, end1, ...}, null if the row key does not
+	 *         match the row key structure
+	 */
+	public int[] tokenize(byte[] rowkey) {
+
+		int fieldCount = fieldNames.length;
+		if (fieldCount == 0 || rowkey.length <= hashSizeBytes) {
+			return null;
+		}
+
+		int[] offsets = new int[2 * fieldCount];
+
+		if (separator == null) {
+			offsets[0] = hashSizeBytes;
+			offsets[1] = rowkey.length;
+			return fieldCount == 1 && literalsMatch(rowkey, offsets) ? offsets : null;
+		}
+
+		int tokenCount = 0;
+		// number of fields after dropping trailing empty fields
+		int nonEmptyCount = 0;
+		boolean separatorFound = false;
+		int tokenStart = hashSizeBytes;
+		int pos = hashSizeBytes;
+		int lastSeparatorPos = rowkey.length - separator.length;
+
+		while (pos <= lastSeparatorPos) {
+			if (isSeparatorAt(rowkey, pos)) {
+				if (tokenCount < fieldCount) {
+					offsets[2 * tokenCount] = tokenStart;
+					offsets[2 * tokenCount + 1] = pos;
+				}
+				tokenCount++;
+				if (pos > tokenStart) {
+					if (tokenCount > fieldCount) {
+						return null;
+					}
+					nonEmptyCount = tokenCount;
+				}
+				separatorFound = true;
+				pos += separator.length;
+				tokenStart = pos;
+			} else {
+				pos++;
+			}
+		}
+
+		// last field
+		if (tokenCount < fieldCount) {
+			offsets[2 * tokenCount] = tokenStart;
+			offsets[2 * tokenCount + 1] = rowkey.length;
+		}
+		tokenCount++;
+		if (rowkey.length > tokenStart || !separatorFound) {
+			nonEmptyCount = tokenCount;
+		}
+
+		if (nonEmptyCount != fieldCount) {
+			return null;
+		}
+
+		return literalsMatch(rowkey, offsets) ? offsets : null;
+	}
+
+	private boolean isSeparatorAt(byte[] rowkey, int pos) {
+		for (int i = 0; i < separator.length; i++) {
+			if (rowkey[pos + i] != separator[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean literalsMatch(byte[] rowkey, int[] offsets) {
+		for (int i = 0; i < literalValues.length; i++) {
+			if (literalValues[i] != null && Bytes.compareTo(literalValues[i], 0, literalValues[i].length, rowkey,
+					offsets[2 * i], offsets[2 * i + 1] - offsets[2 * i]) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return value of the field from the row key split using
+	 *         {@link #tokenize(byte[])}
+	 */
+	public String getFieldValue(byte[] rowkey, int[] offsets, int fieldIndex) {
+		return Bytes.toString(rowkey, offsets[2 * fieldIndex], offsets[2 * fieldIndex + 1] - offsets[2 * fieldIndex]);
+	}
+
+	public int getFieldCount() {
+		return fieldNames.length;
+	}
+
+	public String getFieldName(int fieldIndex) {
+		return fieldNames[fieldIndex];
+	}
+
+	public boolean isHashedField(int fieldIndex) {
+		return hashedFields[fieldIndex];
+	}
+
+}
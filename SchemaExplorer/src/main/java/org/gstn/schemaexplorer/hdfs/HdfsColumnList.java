@@ -19,11 +19,10 @@ import static org.gstn.schemaexplorer.target.Constants.PARENT_PATH_SEPARATOR;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.gstn.schemaexplorer.exception.SchemaValidationException;
 import org.gstn.schemaexplorer.util.DataTypeUtil;
@@ -37,12 +36,16 @@ import com.google.gson.JsonElement;
 public class HdfsColumnList implements Serializable {
 
 	private Map<String, List<HdfsColumn>> columnList;
-	private Set<String> jsonColumns;
 	private Map<String, List<String>> parentPathColumnsMap;
 
+	// lookup structures derived from columnList by buildIndices()
+	private volatile Map<String, HdfsColumn> columnsByName;
+	private List<String> allColumnNames;
+	private List<String> allColumnNamesWithJson;
+	private Map<String, Class> schemaJsonColumns;
+
 	public HdfsColumnList() {
 		columnList = new HashMap<>();
-		jsonColumns = new HashSet<>();
 	}
 
 	public void addColumn(String parentPath, HdfsColumn hdfsColumn) {
@@ -50,21 +53,62 @@ public class HdfsColumnList implements Serializable {
 			columnList.put(parentPath, new ArrayList<>());
 		}
 		columnList.get(parentPath).add(hdfsColumn);
+		columnsByName = null;
+		parentPathColumnsMap = null;
 	}
 
 	/**
-	 * This method returns all the target column names for a particular schema.
-	 * 
-	 * @return ArrayList of names of all target columns in a particular schema.
+	 * This method builds the column name index and the views of column names
+	 * used by the lookup methods. It is called once the schema file is parsed,
+	 * and lazily again if columns are added afterwards.
 	 */
-	public ArrayList<String> getAllColumnNames() {
-		ArrayList<String> columnNames = new ArrayList<>();
+	public void buildIndices() {
+		Map<String, HdfsColumn> byName = new HashMap<>();
+		List<String> columnNames = new ArrayList<>();
+		List<String> columnNamesWithJson = new ArrayList<>();
+		Map<String, Class> jsonColumns = new HashMap<>();
+
 		for (String parentPath : columnList.keySet()) {
 			for (HdfsColumn column : columnList.get(parentPath)) {
+				// first column found with a name wins, as with the scans
+				byName.putIfAbsent(column.getColumnName(), column);
 				columnNames.add(column.getColumnName());
+				if (column.isJsonField()) {
+					columnNamesWithJson.add("JSON." + column.getColumnName());
+					jsonColumns.put(column.getColumnName(),
+							DataTypeUtil.getDataTypeClassForHiveDataType(column.getColumnDataType()));
+				} else {
+					columnNamesWithJson.add(column.getColumnName());
+				}
 			}
 		}
-		return columnNames;
+
+		allColumnNames = Collections.unmodifiableList(columnNames);
+		allColumnNamesWithJson = Collections.unmodifiableList(columnNamesWithJson);
+		schemaJsonColumns = Collections.unmodifiableMap(jsonColumns);
+		createParentPathColumnsMap();
+		// written last, so that readers seeing the index also see the views
+		columnsByName = byName;
+	}
+
+	private Map<String, HdfsColumn> getColumnsByName() {
+		Map<String, HdfsColumn> byName = columnsByName;
+		if (byName == null) {
+			buildIndices();
+			byName = columnsByName;
+		}
+		return byName;
+	}
+
+	/**
+	 * This method returns all the target column names for a particular schema.
+	 * 
+	 * @return unmodifiable list of names of all target columns in a particular
+	 *         schema.
+	 */
+	public List<String> getAllColumnNames() {
+		getColumnsByName();
+		return allColumnNames;
 	}
 
 	/**
@@ -72,70 +116,40 @@ public class HdfsColumnList implements Serializable {
 	 * If the column name is a JSON attribute, column name is prefixed with
 	 * "JSON."
 	 * 
-	 * @return ArrayList of names of all target columns in a particular schema.
+	 * @return unmodifiable list of names of all target columns in a particular
+	 *         schema.
 	 */
-	public ArrayList<String> getAllColumnNamesWithJson() {
-		ArrayList<String> columnNames = new ArrayList<>();
-		for (String parentPath : columnList.keySet()) {
-			for (HdfsColumn column : columnList.get(parentPath)) {
-				if (column.isJsonField())
-					columnNames.add("JSON." + column.getColumnName());
-				else
-					columnNames.add(column.getColumnName());
-			}
-		}
-		return columnNames;
+	public List<String> getAllColumnNamesWithJson() {
+		getColumnsByName();
+		return allColumnNamesWithJson;
 	}
 	
 	public Map<String,Class> getSchemaJsonColumns() {
-		Map<String,Class> columnNames = new HashMap<>();
-		for (String parentPath : columnList.keySet()) {
-			for (HdfsColumn column : columnList.get(parentPath)) {
-				if (column.isJsonField())
-					columnNames.put(column.getColumnName(),DataTypeUtil.getDataTypeClassForHiveDataType(column.getColumnDataType()));
-			}
-		}
-		return columnNames;
+		getColumnsByName();
+		return schemaJsonColumns;
 	}
 
 	/**
-	 * This method returns the default value of a column by scanning through all
-	 * the columns in target schema. It returns NULL if column is not found.
+	 * This method returns the default value of a column. It returns NULL if
+	 * column is not found.
 	 * 
 	 * @param columnName
 	 *            is the name of the target column.
 	 * @return default value of columnName or NULL.
 	 */
 	public String getColumnDefaultValue(String columnName) {
-		for (String parentPath : columnList.keySet()) {
-			for (HdfsColumn hdfsColumn : columnList.get(parentPath)) {
-				if (hdfsColumn.getColumnName().equals(columnName))
-					return hdfsColumn.getColumnDefaultValue();
-			}
-		}
-		return null;
+		HdfsColumn hdfsColumn = getColumnsByName().get(columnName);
+		return hdfsColumn == null ? null : hdfsColumn.getColumnDefaultValue();
 	}
 
 	public String getColumnDataType(String columnName) {
-		for (String parentPath : columnList.keySet()) {
-			for (HdfsColumn hdfsColumn : columnList.get(parentPath)) {
-				if (hdfsColumn.getColumnName().equals(columnName))
-					return hdfsColumn.getColumnDataType();
-			}
-		}
-		return null;
+		HdfsColumn hdfsColumn = getColumnsByName().get(columnName);
+		return hdfsColumn == null ? null : hdfsColumn.getColumnDataType();
 	}
 
 	public boolean isJsonColumn(String columnName) {
-		if (jsonColumns.isEmpty()) {
-			for (String parentPath : columnList.keySet()) {
-				for (HdfsColumn column : columnList.get(parentPath)) {
-					if (column.isJsonField())
-						jsonColumns.add(column.getColumnName());
-				}
-			}
-		}
-		return jsonColumns.contains(columnName);
+		getColumnsByName();
+		return schemaJsonColumns.containsKey(columnName);
 	}
 
 	public void createParentPathColumnsMap() throws SchemaValidationException {
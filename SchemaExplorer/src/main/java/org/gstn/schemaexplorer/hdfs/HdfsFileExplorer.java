@@ -267,6 +267,7 @@ public class HdfsFileExplorer implements TargetExplorer, Serializable {
 		ParseTreeWalker walker = new ParseTreeWalker();
 
 		walker.walk(listener, tree);
+		newHdfsSchema.buildIndices();
 		return newHdfsSchema;
 	}
 
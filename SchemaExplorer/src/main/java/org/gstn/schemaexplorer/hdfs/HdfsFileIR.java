@@ -16,8 +16,8 @@
 package org.gstn.schemaexplorer.hdfs;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -52,9 +52,9 @@ public class HdfsFileIR implements Serializable {
 	 * 
 	 * @param schemaName
 	 *            is the target schema.
-	 * @return ArrayList of column names of particular target schema.
+	 * @return List of column names of particular target schema.
 	 */
-	public ArrayList<String> getSchemaColumns(String schemaName) {
+	public List<String> getSchemaColumns(String schemaName) {
 		return schemaColumnList.get(schemaName).getAllColumnNames();
 	}
 
@@ -73,6 +73,16 @@ public class HdfsFileIR implements Serializable {
 		schemaColumnList.get(currHdfsSchema).addColumn(parentPath, hdfsColumn);
 	}
 
+	/**
+	 * This method builds the lookup indices of all the schemas. It is called
+	 * once all the schemas are parsed.
+	 */
+	public void buildIndices() {
+		for (HdfsColumnList columnList : schemaColumnList.values()) {
+			columnList.buildIndices();
+		}
+	}
+
 	/**
 	 * This method returns all the hdfs schemas present.
 	 * 
@@ -87,9 +97,9 @@ public class HdfsFileIR implements Serializable {
 	 * 
 	 * @param schemaName
 	 *            is the target hdfs schema.
-	 * @return ArrayList of JSON columns of a given hdfs schema.
+	 * @return List of JSON columns of a given hdfs schema.
 	 */
-	public ArrayList<String> getSchemaColumnsForJsonValidation(String schemaName) {
+	public List<String> getSchemaColumnsForJsonValidation(String schemaName) {
 		return schemaColumnList.get(schemaName).getAllColumnNamesWithJson();
 	}
 	
@@ -19,12 +19,11 @@ import static org.gstn.schemaexplorer.target.Constants.PARENT_PATH_SEPARATOR;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.gstn.schemaexplorer.exception.SchemaValidationException;
 import org.gstn.schemaexplorer.util.DataTypeUtil;
@@ -40,12 +39,16 @@ public class HiveColumnList implements Serializable {
 	// be considered as null
 	// Parent path is used while defining hierarchy for json columns
 	private Map<String, List<HiveColumn>> columnList;
-	private Set<String> jsonColumns;
 	private Map<String, List<String>> parentPathColumnsMap;
 
+	// lookup structures derived from columnList by buildIndices()
+	private volatile Map<String, HiveColumn> columnsByName;
+	private List<String> allColumnNames;
+	private List<String> allColumnNamesWithJson;
+	private Map<String, Class> schemaJsonColumns;
+
 	public HiveColumnList() {
 		columnList = new HashMap<>();
-		jsonColumns = new HashSet<String>();
 	}
 
 	public void addColumn(String parentPath, HiveColumn hdfsColumn) {
@@ -53,60 +56,76 @@ public class HiveColumnList implements Serializable {
 			columnList.put(parentPath, new ArrayList<>());
 		}
 		columnList.get(parentPath).add(hdfsColumn);
+		columnsByName = null;
+		parentPathColumnsMap = null;
 	}
 
-	public List<String> getAllColumnNames() {
+	/**
+	 * This method builds the column name index and the views of column names
+	 * used by the lookup methods. It is called once the schema file is parsed,
+	 * and lazily again if columns are added afterwards.
+	 */
+	public void buildIndices() {
+		Map<String, HiveColumn> byName = new HashMap<>();
 		List<String> columnNames = new ArrayList<>();
+		List<String> columnNamesWithJson = new ArrayList<>();
+		Map<String, Class> jsonColumns = new HashMap<>();
+
 		for (String parentPath : columnList.keySet()) {
 			for (HiveColumn column : columnList.get(parentPath)) {
+				// first column found with a name wins, as with the scans
+				byName.putIfAbsent(column.getColumnName(), column);
 				columnNames.add(column.getColumnName());
+				if (column.isJsonField()) {
+					columnNamesWithJson.add("JSON." + column.getColumnName());
+					jsonColumns.put(column.getColumnName(),
+							DataTypeUtil.getDataTypeClassForHiveDataType(column.getColumnDataType()));
+				} else {
+					columnNamesWithJson.add(column.getColumnName());
+				}
 			}
 		}
-		return columnNames;
+
+		allColumnNames = Collections.unmodifiableList(columnNames);
+		allColumnNamesWithJson = Collections.unmodifiableList(columnNamesWithJson);
+		schemaJsonColumns = Collections.unmodifiableMap(jsonColumns);
+		createParentPathColumnsMap();
+		// written last, so that readers seeing the index also see the views
+		columnsByName = byName;
 	}
 
-	public List<String> getAllColumnNamesWithJson() {
-		List<String> columnNames = new ArrayList<>();
-		for (String parentPath : columnList.keySet()) {
-			for (HiveColumn column : columnList.get(parentPath)) {
-				if (column.isJsonField())
-					columnNames.add("JSON." + column.getColumnName());
-				else
-					columnNames.add(column.getColumnName());
-			}
+	private Map<String, HiveColumn> getColumnsByName() {
+		Map<String, HiveColumn> byName = columnsByName;
+		if (byName == null) {
+			buildIndices();
+			byName = columnsByName;
 		}
-		return columnNames;
+		return byName;
+	}
+
+	public List<String> getAllColumnNames() {
+		getColumnsByName();
+		return allColumnNames;
+	}
+
+	public List<String> getAllColumnNamesWithJson() {
+		getColumnsByName();
+		return allColumnNamesWithJson;
 	}
 	
 	public Map<String,Class> getSchemaJsonColumns() {
-		Map<String,Class> columnNames = new HashMap<>();
-		for (String parentPath : columnList.keySet()) {
-			for (HiveColumn column : columnList.get(parentPath)) {
-				if (column.isJsonField())
-					columnNames.put(column.getColumnName(),DataTypeUtil.getDataTypeClassForHiveDataType(column.getColumnDataType()));
-			}
-		}
-		return columnNames;
+		getColumnsByName();
+		return schemaJsonColumns;
 	}
 
 	public String getColumnDefaultValue(String columnName) {
-		for (String parentPath : columnList.keySet()) {
-			for (HiveColumn hiveColumn : columnList.get(parentPath)) {
-				if (hiveColumn.getColumnName().equals(columnName))
-					return hiveColumn.getColumnDefaultValue();
-			}
-		}
-		return null;
+		HiveColumn hiveColumn = getColumnsByName().get(columnName);
+		return hiveColumn == null ? null : hiveColumn.getColumnDefaultValue();
 	}
 
 	public String getColumnDataType(String columnName) {
-		for (String parentPath : columnList.keySet()) {
-			for (HiveColumn hiveColumn : columnList.get(parentPath)) {
-				if (hiveColumn.getColumnName().equals(columnName))
-					return hiveColumn.getColumnDataType();
-			}
-		}
-		return null;
+		HiveColumn hiveColumn = getColumnsByName().get(columnName);
+		return hiveColumn == null ? null : hiveColumn.getColumnDataType();
 	}
 
 	public Map<String, String> getAllHiveColumnsForDDL() {
@@ -171,15 +190,8 @@ public class HiveColumnList implements Serializable {
 	}
 
 	public boolean isJsonColumn(String columnName) {
-		if (jsonColumns.isEmpty()) {
-			for (String parentPath : columnList.keySet()) {
-				for (HiveColumn column : columnList.get(parentPath)) {
-					if (column.isJsonField())
-						jsonColumns.add(column.getColumnName());
-				}
-			}
-		}
-		return jsonColumns.contains(columnName);
+		getColumnsByName();
+		return schemaJsonColumns.containsKey(columnName);
 	}
 
 	public boolean checkKey(String parentPath, String currentPath, String key, JsonElement value) {
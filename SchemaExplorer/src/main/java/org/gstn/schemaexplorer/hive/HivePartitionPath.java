@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.hive;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Names of the partition directories under which insert files of partitioned
+ * hive tables are written, in the form hive uses for partition directories,
+ * i.e. column=value for every partition column. Characters which are not
+ * allowed in partition directory names are escaped as %XX, as done by hive.
+ */
+public class HivePartitionPath {
+
+	// directory under the hdfs file path of a job, having partition
+	// directories of insert files
+	public static final String PARTITIONS_DIR = "partitions";
+
+	// partition of rows having a null or empty partition value
+	public static final String DEFAULT_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+
+	private static final String ESCAPED_CHARS = "\"#%'*/:=?\\\u007F{[]^";
+
+	private HivePartitionPath() {
+	}
+
+	/**
+	 * @param columnNames
+	 *            names of the partition columns of a table
+	 * @param values
+	 *            values of the partition columns
+	 * @return directory of the partition, relative to the partitions directory
+	 */
+	public static String getDirectory(String[] columnNames, String[] values) {
+		StringBuilder directory = new StringBuilder();
+		for (int i = 0; i < columnNames.length; i++) {
+			if (i > 0) {
+				directory.append(File.separator);
+			}
+			directory.append(escape(columnNames[i].toLowerCase())).append('=').append(escape(values[i]));
+		}
+		return directory.toString();
+	}
+
+	/**
+	 * @param columnNames
+	 *            names of the partition columns of a table
+	 * @param directory
+	 *            directory of a partition, as returned by getDirectory
+	 * @return partition clause of hive statements for the partition, like
+	 *         (`col1` = 'value1', `col2` = 'value2')
+	 */
+	public static String getPartitionSpec(List<String> columnNames, String directory) {
+		String[] parts = directory.split(File.separator);
+		if (parts.length != columnNames.size()) {
+			throw new IllegalArgumentException(
+					"Directory " + directory + " does not have a value for each of the partitions " + columnNames);
+		}
+
+		StringBuilder spec = new StringBuilder("(");
+		for (int i = 0; i < parts.length; i++) {
+			String value = unescape(parts[i].substring(parts[i].indexOf('=') + 1));
+			if (i > 0) {
+				spec.append(", ");
+			}
+			spec.append('`').append(columnNames.get(i)).append("` = '")
+					.append(value.replace("\\", "\\\\").replace("'", "\\'")).append('\'');
+		}
+		return spec.append(')').toString();
+	}
+
+	static String escape(String name) {
+		StringBuilder escaped = null;
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c < ' ' || ESCAPED_CHARS.indexOf(c) >= 0) {
+				if (escaped == null) {
+					escaped = new StringBuilder(name.length() + 8).append(name, 0, i);
+				}
+				escaped.append('%').append(String.format("%02X", (int) c));
+			} else if (escaped != null) {
+				escaped.append(c);
+			}
+		}
+		return escaped == null ? name : escaped.toString();
+	}
+
+	static String unescape(String name) {
+		StringBuilder unescaped = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '%' && i + 2 < name.length()) {
+				int high = Character.digit(name.charAt(i + 1), 16);
+				int low = Character.digit(name.charAt(i + 2), 16);
+				if (high >= 0 && low >= 0) {
+					unescaped.append((char) (high * 16 + low));
+					i += 2;
+					continue;
+				}
+			}
+			unescaped.append(c);
+		}
+		return unescaped.toString();
+	}
+
+}
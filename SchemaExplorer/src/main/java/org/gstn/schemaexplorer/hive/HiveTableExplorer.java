@@ -225,6 +225,7 @@ public class HiveTableExplorer implements TargetExplorer, Serializable {
 		ParseTreeWalker walker = new ParseTreeWalker();
 
 		walker.walk(listener, tree);
+		newHdfsSchema.buildIndices();
 		return newHdfsSchema;
 	}
 
@@ -251,6 +252,17 @@ public class HiveTableExplorer implements TargetExplorer, Serializable {
 		hiveIR.createInsertionHiveScript(targetSchema, hdfsUrl, hdfsFilePath, hdfsBasePath, sparkConfMap, jobId);
 	}
 
+	/**
+	 * @see HiveTableIR#isParquetLoadable(String)
+	 */
+	public boolean isParquetLoadable(String targetSchema) {
+		return hiveIR.isParquetLoadable(targetSchema);
+	}
+
+	public List<String> getPartitionColumns(String targetSchema) {
+		return hiveIR.getPartitionColumns(targetSchema);
+	}
+
 	@Override
 	public List<String> getSchemaColumns(String schemaName) {
 		return hiveIR.getSchemaColumns(schemaName);
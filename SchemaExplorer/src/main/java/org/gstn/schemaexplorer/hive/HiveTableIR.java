@@ -22,7 +22,10 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,10 +33,12 @@ import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.permission.FsPermission;
 import org.gstn.schemaexplorer.exception.HQLException;
+import org.gstn.schemaexplorer.exception.HQLRunTimeException;
 import org.gstn.schemaexplorer.exception.InvalidSchemaException;
 import org.gstn.schemaexplorer.hbase.HBaseTableExplorer;
 import org.slf4j.LoggerFactory;
@@ -56,6 +61,16 @@ public class HiveTableIR implements Serializable {
 
 	private Map<String, String> schemaStorage;
 
+	// data types of columns whose values are written into parquet files by
+	// HdfsTargetAdapter, see isParquetLoadable
+	private static final Set<String> PARQUET_LOADABLE_TYPES = new HashSet<>(Arrays.asList("string", "boolean",
+			"tinyint", "smallint", "int", "integer", "bigint", "float", "double", "decimal", "date", "timestamp"));
+
+	// data types of partition columns whose values are written into partition
+	// directory names by HdfsTargetAdapter
+	private static final Set<String> PARQUET_LOADABLE_PARTITION_TYPES = new HashSet<>(
+			Arrays.asList("string", "tinyint", "smallint", "int", "integer", "bigint"));
+
 	public HiveTableIR() {
 		LoggerFactory.getLogger(this.getClass().getCanonicalName());
 		schemaColumnList = new HashMap<>();
@@ -71,6 +86,16 @@ public class HiveTableIR implements Serializable {
 		schemaColumnList.get(currHiveSchema).addColumn(parentPath, hdfsColumn);
 	}
 
+	/**
+	 * This method builds the lookup indices of all the schemas. It is called
+	 * once all the schemas are parsed.
+	 */
+	public void buildIndices() {
+		for (HiveColumnList columnList : schemaColumnList.values()) {
+			columnList.buildIndices();
+		}
+	}
+
 	public void setStorage(String schema, String storage) {
 		schemaStorage.put(schema, storage);
 	}
@@ -112,6 +137,41 @@ public class HiveTableIR implements Serializable {
 		return schemaColumnList.get(schemaName).isJsonColumn(columnName);
 	}
 
+	/**
+	 * Checks if the insert files of a target table can be written as parquet
+	 * files and attached to the table as they are, without being staged in a
+	 * text table. It is true for tables stored as parquet, having only columns
+	 * of primitive data types and partition columns of string or integer
+	 * types. Insert files of partitioned tables are written into a directory
+	 * per partition, see HivePartitionPath.
+	 * 
+	 * @param schemaName
+	 *            name of the target table schema
+	 * @return true if insert files of the table are to be written as parquet
+	 *         files
+	 */
+	public boolean isParquetLoadable(String schemaName) {
+		if (!"PARQUET".equals(schemaStorage.get(schemaName))) {
+			return false;
+		}
+		HiveColumnList columnList = schemaColumnList.get(schemaName);
+		for (String dataType : columnList.getHivePartitionsForDDL().values()) {
+			if (!PARQUET_LOADABLE_PARTITION_TYPES.contains(dataType.toLowerCase())) {
+				return false;
+			}
+		}
+		for (String dataType : columnList.getHiveColumnsForDDL().values()) {
+			if (!PARQUET_LOADABLE_TYPES.contains(dataType.toLowerCase())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public List<String> getPartitionColumns(String schemaName) {
+		return new ArrayList<>(schemaColumnList.get(schemaName).getHivePartitionsForDDL().keySet());
+	}
+
 	public void addDdl(String schema, String ddl) throws InvalidSchemaException {
 		if (schemaDdls.containsKey(schema))
 			throw new InvalidSchemaException(
@@ -437,6 +497,16 @@ public class HiveTableIR implements Serializable {
 	}
 
 	private StringBuilder getInsertionHiveScript(String targetSchema, String hdfsUrl, String hdfsFilePath) {
+
+		if (isParquetLoadable(targetSchema)) {
+			// insert files are parquet files having the columns of the table,
+			// so they are moved into the table without a text table
+			if (schemaColumnList.get(targetSchema).getHivePartitionsForDDL().isEmpty()) {
+				return new StringBuilder("LOAD DATA INPATH '" + getDataFilesPath(hdfsUrl, hdfsFilePath, "insert_*")
+						+ "' INTO TABLE " + targetSchema + ";\n\n");
+			}
+			return getPartitionLoadScript(targetSchema, hdfsUrl, hdfsFilePath);
+		}
 		
 		// getting all column names for hive script
 		Map<String, String> nonPartitionColumnsMap = schemaColumnList.get(targetSchema).getHiveColumnsForDDL();
@@ -453,6 +523,54 @@ public class HiveTableIR implements Serializable {
 		return scriptForCreatingAndLoadingParquetTable(targetSchema, targetSchema, hdfsUrl, hdfsFilePath, filePrefix, nonPartitionColumnsMap, partitionColumnsMap, allColumns, tableExists, dropIfExists, loadTimeStamp);
 	}
 	
+	/**
+	 * Creates a LOAD DATA statement for every partition directory having
+	 * insert files, which adds the partition to the table if it is not present
+	 * and moves the files into it.
+	 */
+	private StringBuilder getPartitionLoadScript(String targetSchema, String hdfsUrl, String hdfsFilePath) {
+		List<String> partitionColumns = getPartitionColumns(targetSchema);
+		List<String> directories = new ArrayList<>();
+
+		try {
+			Configuration conf = new Configuration();
+			conf.set("fs.defaultFS", hdfsUrl);
+			FileSystem fs = FileSystem.get(conf);
+			Path partitionsPath = new Path(getDataFilesPath(hdfsUrl, hdfsFilePath, HivePartitionPath.PARTITIONS_DIR));
+			if (fs.exists(partitionsPath)) {
+				addPartitionDirectories(fs, partitionsPath, "", partitionColumns.size(), directories);
+			}
+		} catch (IOException e) {
+			throw new HQLRunTimeException(
+					"Unable to list partition directories of " + targetSchema + " insert files : " + e.getMessage());
+		}
+		Collections.sort(directories);
+
+		StringBuilder script = new StringBuilder();
+		for (String directory : directories) {
+			String dataFilesPath = getDataFilesPath(hdfsUrl, hdfsFilePath,
+					HivePartitionPath.PARTITIONS_DIR + File.separator + directory + File.separator + "insert_*");
+			script.append("LOAD DATA INPATH '" + dataFilesPath + "' INTO TABLE " + targetSchema + " PARTITION "
+					+ HivePartitionPath.getPartitionSpec(partitionColumns, directory) + ";\n\n");
+		}
+		return script;
+	}
+
+	private void addPartitionDirectories(FileSystem fs, Path path, String directory, int depth,
+			List<String> directories) throws IOException {
+		if (depth == 0) {
+			directories.add(directory);
+			return;
+		}
+		for (FileStatus status : fs.listStatus(path)) {
+			if (status.isDirectory()) {
+				String name = status.getPath().getName();
+				addPartitionDirectories(fs, status.getPath(),
+						directory.isEmpty() ? name : directory + File.separator + name, depth - 1, directories);
+			}
+		}
+	}
+
 	private StringBuilder scriptForCreatingAndLoadingParquetTable(String targetSchema, String tableName, String hdfsUrl, String hdfsFilePath,
 			String fileNameOrPrefix, Map<String, String> nonPartitionColumnsMap, Map<String, String> partitionColumnsMap, Map<String, String> allColumnsForTextTable, boolean tableExists, boolean dropIfExists, boolean loadTimeStamp) {
 
@@ -476,22 +594,8 @@ public class HiveTableIR implements Serializable {
 			partition=true;
 		}
 
-		if (!hdfsFilePath.startsWith(File.separator) && !hdfsUrl.endsWith(File.separator)) {
-			hdfsFilePath = File.separator + hdfsFilePath;
-		}
-
-		if (hdfsFilePath.startsWith(File.separator) && hdfsUrl.endsWith(File.separator)) {
-			hdfsFilePath = hdfsFilePath.substring(1, hdfsFilePath.length());
-		}
-
 		// loading data from all insert files on hdfs path to hive
-		String basePath = hdfsUrl + hdfsFilePath;
-
-		if (!basePath.isEmpty() && !basePath.endsWith(File.separator)) {
-			basePath = basePath + File.separator;
-		}
-		
-		String dataFilesPath = basePath + fileNameOrPrefix ;
+		String dataFilesPath = getDataFilesPath(hdfsUrl, hdfsFilePath, fileNameOrPrefix);
 		
 		ddl.append("LOAD DATA INPATH " + "'" + dataFilesPath + "' INTO TABLE " + tableName + "_temp;\n\n");
 
@@ -516,6 +620,24 @@ public class HiveTableIR implements Serializable {
 
 	}
 	
+	private String getDataFilesPath(String hdfsUrl, String hdfsFilePath, String fileNameOrPrefix) {
+		if (!hdfsFilePath.startsWith(File.separator) && !hdfsUrl.endsWith(File.separator)) {
+			hdfsFilePath = File.separator + hdfsFilePath;
+		}
+
+		if (hdfsFilePath.startsWith(File.separator) && hdfsUrl.endsWith(File.separator)) {
+			hdfsFilePath = hdfsFilePath.substring(1, hdfsFilePath.length());
+		}
+
+		String basePath = hdfsUrl + hdfsFilePath;
+
+		if (!basePath.isEmpty() && !basePath.endsWith(File.separator)) {
+			basePath = basePath + File.separator;
+		}
+
+		return basePath + fileNameOrPrefix;
+	}
+
 	private Wrapper getCreateTableStatements(String targetSchema, String tableName){
 		// getting all column names for hive script
 
@@ -0,0 +1,488 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.sql;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.gstn.schemaexplorer.entity.DataRecord;
+import org.gstn.schemaexplorer.entity.RecordLayout;
+import org.gstn.schemaexplorer.entity.Tuple;
+import org.gstn.schemaexplorer.sql.ConditionTree.Operator;
+import org.gstn.schemaexplorer.util.DataTypeUtil;
+
+/**
+ * This class is a compiled form of a validated condition tree, used for
+ * evaluating the conditions of a query for every row. Column names to be
+ * looked up, operators and regex patterns are resolved once, and literal
+ * values are parsed once per data type. Results of the conditions are kept in
+ * per thread arrays, which are reused across rows, instead of in copies of the
+ * condition tree.
+ * 
+ * Evaluation is same as {@link ConditionTreeManager}: the static phase
+ * evaluates row key and static column conditions, the dynamic phase continues
+ * from the result of the static phase for every dynamic part, and the json
+ * phase continues from the result of the last dynamic phase.
+ */
+@SuppressWarnings({ "serial", "rawtypes", "unchecked" })
+public class ConditionProgram implements Serializable {
+
+	public static enum Phase {
+		ROWKEY, STATIC, DYNAMIC, JSON
+	}
+
+	// result of a condition, UNKNOWN if it can not be evaluated yet
+	private static final byte UNKNOWN = 0;
+	private static final byte TRUE = 1;
+	private static final byte FALSE = 2;
+
+	private static enum LeafType {
+		ROWKEY, STATIC, DYNAMIC, JSON
+	}
+
+	private static enum CompareOperator {
+		IS_NULL, IS_NOT_NULL, REGEXP, NOT_REGEXP, EQUAL, LESS, GREATER, LESS_OR_EQUAL, GREATER_OR_EQUAL, NOT_EQUAL
+	}
+
+	/**
+	 * Condition value parsed into data type of a column
+	 */
+	private static class TypedLiteral {
+		final Class<?> dataType;
+		final Comparable value;
+
+		TypedLiteral(Class<?> dataType, Comparable value) {
+			this.dataType = dataType;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Slot of a column name in a root record layout
+	 */
+	private static class ResolvedSlot {
+		final RecordLayout root;
+		final int slot;
+
+		ResolvedSlot(RecordLayout root, int slot) {
+			this.root = root;
+			this.slot = slot;
+		}
+	}
+
+	/**
+	 * Compiled form of a single condition
+	 */
+	private static class Leaf implements Serializable {
+		final String columnName;
+		// name of the column in data record
+		final String lookupName;
+		final LeafType type;
+		final CompareOperator operator;
+		final String value;
+		final Pattern pattern;
+
+		// last parsed value, data type of a column is usually same in all rows
+		private transient volatile TypedLiteral typedLiteral;
+
+		// slot of lookupName, records of a job share the same root layout
+		private transient volatile ResolvedSlot resolvedSlot;
+
+		Leaf(Condition condition) {
+			columnName = condition.getColumnName();
+			value = condition.getValue();
+
+			if (condition.isRowKeyCondition()) {
+				type = LeafType.ROWKEY;
+				lookupName = columnName;
+			} else if (condition.isJsonFieldCondition()) {
+				type = LeafType.JSON;
+				lookupName = columnName;
+			} else if (condition.isDynamicPartCondition()) {
+				type = LeafType.DYNAMIC;
+				lookupName = columnName;
+			} else {
+				Matcher matcher = ConditionTreeManager.dyanmicColumnPattern.matcher(columnName);
+				if (matcher.find()) {
+					// removing <X> from dynamic column name from condition
+					type = LeafType.DYNAMIC;
+					lookupName = matcher.replaceFirst("");
+				} else {
+					type = LeafType.STATIC;
+					lookupName = columnName;
+				}
+			}
+
+			String conditionalOperator = condition.getConditionalOperator();
+			if (value.equalsIgnoreCase("null")) {
+				operator = conditionalOperator.equals("=") ? CompareOperator.IS_NULL : CompareOperator.IS_NOT_NULL;
+			} else if (condition.isPatternCondition()) {
+				operator = conditionalOperator.equalsIgnoreCase("NOT REGEXP") ? CompareOperator.NOT_REGEXP
+						: CompareOperator.REGEXP;
+			} else if (conditionalOperator.equals("=")) {
+				operator = CompareOperator.EQUAL;
+			} else if (conditionalOperator.equals("<")) {
+				operator = CompareOperator.LESS;
+			} else if (conditionalOperator.equals(">")) {
+				operator = CompareOperator.GREATER;
+			} else if (conditionalOperator.equals("<=")) {
+				operator = CompareOperator.LESS_OR_EQUAL;
+			} else if (conditionalOperator.equals(">=")) {
+				operator = CompareOperator.GREATER_OR_EQUAL;
+			} else {
+				// not equals i.e. != , <>
+				operator = CompareOperator.NOT_EQUAL;
+			}
+
+			pattern = (operator == CompareOperator.REGEXP || operator == CompareOperator.NOT_REGEXP)
+					? condition.getPattern() : null;
+		}
+
+		/**
+		 * @return result of the condition, UNKNOWN if the condition is not
+		 *         evaluated in this phase
+		 */
+		byte evaluate(DataRecord dataRecord, Phase phase) throws Exception {
+			Tuple tuple;
+
+			switch (type) {
+			case ROWKEY:
+				tuple = dataRecord.getRowkeyTupleAt(getSlot(dataRecord));
+				if (tuple == null) {
+					tuple = dataRecord.getRowkeyTuple(lookupName);
+				}
+				break;
+			case JSON:
+				if (phase != Phase.JSON) {
+					return UNKNOWN;
+				}
+				tuple = getColumnTuple(dataRecord);
+				break;
+			case STATIC:
+				if (phase != Phase.STATIC) {
+					return UNKNOWN;
+				}
+				tuple = getColumnTuple(dataRecord);
+				break;
+			default:
+				if (phase != Phase.DYNAMIC && phase != Phase.JSON) {
+					return UNKNOWN;
+				}
+				tuple = getColumnTuple(dataRecord);
+			}
+
+			return apply(tuple) ? TRUE : FALSE;
+		}
+
+		/**
+		 * @return slot of lookupName in root layout of the record, -1 if
+		 *         the root layout doesn't have it
+		 */
+		private int getSlot(DataRecord dataRecord) {
+			RecordLayout root = dataRecord.getLayout().getRoot();
+			ResolvedSlot resolved = resolvedSlot;
+			if (resolved == null || resolved.root != root) {
+				resolved = new ResolvedSlot(root, root.getSlot(lookupName));
+				resolvedSlot = resolved;
+			}
+			return resolved.slot;
+		}
+
+		private Tuple getColumnTuple(DataRecord dataRecord) throws Exception {
+			int slot = getSlot(dataRecord);
+			if (slot >= 0) {
+				return dataRecord.getTupleAt(slot);
+			}
+			// column is not in the schema of the record, e.g. a json field
+			return dataRecord.isColumnNamePresent(lookupName) ? dataRecord.getColumnTuple(lookupName) : null;
+		}
+
+		private boolean apply(Tuple tuple) throws Exception {
+			if (operator == CompareOperator.IS_NULL) {
+				return tuple == null || tuple.getColumnValue() == null || tuple.getColumnValue().equals("null");
+			} else if (operator == CompareOperator.IS_NOT_NULL) {
+				return tuple != null && tuple.getColumnValue() != null && !tuple.getColumnValue().equals("null");
+			} else if (tuple == null) {
+				// we did not find column mentioned within condition in the data
+				return false;
+			}
+
+			try {
+				if (operator == CompareOperator.REGEXP) {
+					return pattern.matcher(tuple.getColumnValue()).matches();
+				} else if (operator == CompareOperator.NOT_REGEXP) {
+					return !pattern.matcher(tuple.getColumnValue()).matches();
+				}
+
+				Class<?> dataType = tuple.getColumnDataType();
+
+				Comparable valueFromCondition = getValueFromCondition(dataType);
+
+				Comparable valueFromTuple;
+				try {
+					valueFromTuple = DataTypeUtil.parseValueToType(tuple.getColumnValue(), dataType);
+				} catch (NumberFormatException e) {
+					System.err.println("Exception in applyOperator while parsing tuple value: " + tuple.getColumnValue()
+							+ " for column: " + tuple.getColumnName() + " into data type: " + dataType);
+					throw e;
+				}
+
+				int compareResult = valueFromTuple.compareTo(valueFromCondition);
+
+				switch (operator) {
+				case EQUAL:
+					return compareResult == 0;
+				case LESS:
+					return compareResult < 0;
+				case GREATER:
+					return compareResult > 0;
+				case LESS_OR_EQUAL:
+					return compareResult <= 0;
+				case GREATER_OR_EQUAL:
+					return compareResult >= 0;
+				default:
+					return compareResult != 0;
+				}
+			} catch (Exception e) {
+				System.err.println("Error during applyOperator: " + e.getMessage());
+				throw e;
+			}
+		}
+
+		private Comparable getValueFromCondition(Class<?> dataType) throws Exception {
+			TypedLiteral literal = typedLiteral;
+			if (literal != null && literal.dataType == dataType) {
+				return literal.value;
+			}
+
+			Comparable parsedValue;
+			try {
+				parsedValue = DataTypeUtil.parseValueToType(value, dataType);
+			} catch (NumberFormatException e) {
+				System.err.println("Exception in applyOperator while parsing condition value: " + value
+						+ " for column: " + columnName + " into data type: " + dataType);
+				throw e;
+			}
+			typedLiteral = new TypedLiteral(dataType, parsedValue);
+			return parsedValue;
+		}
+	}
+
+	/**
+	 * Results of conditions of a thread, one array per phase
+	 */
+	private static class EvaluationState {
+		final byte[] rowkeyResults;
+		final byte[] staticResults;
+		final byte[] dynamicResults;
+		final byte[] jsonResults;
+		boolean dynamicEvaluated = false;
+
+		EvaluationState(int noOfNodes) {
+			rowkeyResults = new byte[noOfNodes];
+			staticResults = new byte[noOfNodes];
+			dynamicResults = new byte[noOfNodes];
+			jsonResults = new byte[noOfNodes];
+		}
+	}
+
+	// node 0 is the root of the tree. children of condition trees, null for
+	// conditions
+	private final int[][] children;
+	private final boolean[] andOperator;
+	// null for condition trees
+	private final Leaf[] leaves;
+
+	private transient volatile ThreadLocal<EvaluationState> evaluationState;
+
+	public ConditionProgram(ConditionTree conditionTree) {
+		List<int[]> childrenList = new ArrayList<>();
+		List<Boolean> operatorList = new ArrayList<>();
+		List<Leaf> leafList = new ArrayList<>();
+
+		compile(conditionTree, childrenList, operatorList, leafList);
+
+		int noOfNodes = childrenList.size();
+		children = childrenList.toArray(new int[noOfNodes][]);
+		andOperator = new boolean[noOfNodes];
+		for (int i = 0; i < noOfNodes; i++) {
+			andOperator[i] = operatorList.get(i);
+		}
+		leaves = leafList.toArray(new Leaf[noOfNodes]);
+	}
+
+	/**
+	 * This method assigns an index to the condition and to all the conditions
+	 * under it
+	 * 
+	 * @return index of the condition
+	 */
+	private static int compile(Condition condition, List<int[]> childrenList, List<Boolean> operatorList,
+			List<Leaf> leafList) {
+		int index = childrenList.size();
+
+		if (condition instanceof ConditionTree) {
+			ConditionTree conditionTree = (ConditionTree) condition;
+			childrenList.add(null);
+			operatorList.add(conditionTree.getOperator() == Operator.AND);
+			leafList.add(null);
+
+			List<Condition> conditions = conditionTree.getConditions();
+			int[] childIndexes = new int[conditions.size()];
+			for (int i = 0; i < conditions.size(); i++) {
+				childIndexes[i] = compile(conditions.get(i), childrenList, operatorList, leafList);
+			}
+			childrenList.set(index, childIndexes);
+		} else {
+			childrenList.add(null);
+			operatorList.add(false);
+			leafList.add(new Leaf(condition));
+		}
+
+		return index;
+	}
+
+	/**
+	 * This method evaluates the conditions for the given phase
+	 * 
+	 * @param phase
+	 *            - phase of evaluation
+	 * @param dataRecord
+	 *            - object that stores processed data
+	 * @return true/false if result of entire condition tree can be determined,
+	 *         null otherwise
+	 * @throws Exception
+	 *             if conditions are invalid
+	 */
+	public Boolean evaluate(Phase phase, DataRecord dataRecord) throws Exception {
+		EvaluationState state = getEvaluationState();
+		byte[] results;
+
+		switch (phase) {
+		case ROWKEY:
+			results = state.rowkeyResults;
+			Arrays.fill(results, UNKNOWN);
+			break;
+		case STATIC:
+			results = state.staticResults;
+			Arrays.fill(results, UNKNOWN);
+			break;
+		case DYNAMIC:
+			// every dynamic part starts from the result of static phase
+			results = state.dynamicResults;
+			System.arraycopy(state.staticResults, 0, results, 0, results.length);
+			state.dynamicEvaluated = true;
+			break;
+		default:
+			results = state.jsonResults;
+			System.arraycopy(state.dynamicEvaluated ? state.dynamicResults : state.staticResults, 0, results, 0,
+					results.length);
+		}
+
+		byte result = evaluateNode(0, results, dataRecord, phase);
+
+		return result == UNKNOWN ? null : Boolean.valueOf(result == TRUE);
+	}
+
+	private byte evaluateNode(int node, byte[] results, DataRecord dataRecord, Phase phase) throws Exception {
+		if (results[node] != UNKNOWN) {
+			return results[node];
+		}
+
+		byte result;
+		if (leaves[node] != null) {
+			result = leaves[node].evaluate(dataRecord, phase);
+		} else {
+			result = evaluateTree(node, results, dataRecord, phase);
+		}
+
+		results[node] = result;
+		return result;
+	}
+
+	private byte evaluateTree(int node, byte[] results, DataRecord dataRecord, Phase phase) throws Exception {
+		int[] nodeChildren = children[node];
+		boolean and = andOperator[node];
+		int noOfConditions = nodeChildren.length;
+
+		byte result = noOfConditions == 0 ? TRUE : UNKNOWN;
+
+		for (int i = 0; i < noOfConditions; i++) {
+			result = evaluateNode(nodeChildren[i], results, dataRecord, phase);
+
+			if (i < noOfConditions - 1 && result != UNKNOWN) {
+				// check if it is required to evaluate remaining conditions,
+				// based on current result and operator
+				result = checkResult(result, and);
+			}
+
+			if (result != UNKNOWN) {
+				break;
+			}
+		}
+
+		if (noOfConditions > 1) {
+			boolean foundNull = false;
+			byte finalResult = UNKNOWN;
+
+			for (int child : nodeChildren) {
+				if (results[child] == UNKNOWN) {
+					foundNull = true;
+				} else if (finalResult == UNKNOWN) {
+					finalResult = checkResult(results[child], and);
+				}
+			}
+
+			if (foundNull) {
+				result = finalResult;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return result if it is conclusive for the operator, UNKNOWN otherwise
+	 */
+	private static byte checkResult(byte result, boolean and) {
+		if (and && result == FALSE) {
+			return FALSE;
+		} else if (!and && result == TRUE) {
+			return TRUE;
+		}
+		return UNKNOWN;
+	}
+
+	private EvaluationState getEvaluationState() {
+		ThreadLocal<EvaluationState> threadState = evaluationState;
+		if (threadState == null) {
+			synchronized (this) {
+				threadState = evaluationState;
+				if (threadState == null) {
+					int noOfNodes = leaves.length;
+					threadState = ThreadLocal.withInitial(() -> new EvaluationState(noOfNodes));
+					evaluationState = threadState;
+				}
+			}
+		}
+		return threadState.get();
+	}
+
+}
@@ -15,32 +15,43 @@
  ******************************************************************************/
 package org.gstn.schemaexplorer.sql;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
+import org.apache.hadoop.hbase.filter.ColumnPrefixFilter;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.FamilyFilter;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
 import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.FuzzyRowFilter;
 import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.filter.MultipleColumnPrefixFilter;
 import org.apache.hadoop.hbase.filter.PrefixFilter;
 import org.apache.hadoop.hbase.filter.QualifierFilter;
 import org.apache.hadoop.hbase.filter.RegexStringComparator;
 import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
 import org.gstn.schemaexplorer.exception.HQLException;
 import org.gstn.schemaexplorer.exception.InvalidSchemaException;
 import org.gstn.schemaexplorer.hbase.HBaseTableIR;
+import org.gstn.schemaexplorer.hbase.Rowkey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +62,9 @@ import org.slf4j.LoggerFactory;
 @SuppressWarnings("serial")
 public class HQLEngine implements Serializable {
 
+	// pattern which has a literal prefix followed by .*
+	private static final Pattern COLUMN_PREFIX_PATTERN = Pattern.compile("^\\^([^\\\\^$.|?*+()\\[\\]{}]*)\\.\\*\\$$");
+
 	private final HBaseTableIR hBaseIR;
 	private Logger logger;
 
@@ -103,13 +117,40 @@ public class HQLEngine implements Serializable {
 	 *             if the query is invalid
 	 */
 	public Scan getScanInstanceFromValidatedQuery(SqlBean query) throws HQLException {
+		return getScanInstanceFromValidatedQuery(query, false);
+	}
+
+	/**
+	 * This method generates HBase scan object based on input query, which
+	 * reads delete markers too if it is raw
+	 * 
+	 * @param query
+	 *            - object which parses and stores information about query
+	 * @param raw
+	 *            - whether the scan is a raw scan
+	 * @return scan instance based on input query
+	 * @throws HQLException
+	 *             if the query is invalid
+	 */
+	public Scan getScanInstanceFromValidatedQuery(SqlBean query, boolean raw) throws HQLException {
 		try {
 			// Generates complete row key in case all row key components are
 			// specified
 			// In case only a prefix of components is specified, this generates
 			// the prefix
 			byte[] hbaseRowkey = hBaseIR.getHbaseRowkey(query.getSchemaName(), query);
-			Scan hbaseScan = generateHbaseScan(hbaseRowkey, query);
+
+			// In case the salt could not be computed, but the fields following
+			// it are known, this generates one prefix per salt value
+			List<byte[]> saltedPrefixes = hBaseIR.getSaltedHbaseRowkeyPrefixes(query.getSchemaName(), query);
+
+			Scan hbaseScan;
+			if (saltedPrefixes.isEmpty()) {
+				hbaseScan = generateHbaseScan(hbaseRowkey, query, raw);
+			} else {
+				hbaseScan = generateSaltedHbaseScan(saltedPrefixes, query, raw);
+			}
+			hbaseScan.setRaw(raw);
 			return hbaseScan;
 		} catch (HQLException e) {
 			System.err.println("Parse error: " + e.getMessage());
@@ -129,11 +170,13 @@ public class HQLEngine implements Serializable {
 	 *            - row key generated based on conditions in the input query
 	 * @param query
 	 *            - object which parses and stores information about query
+	 * @param raw
+	 *            - whether the scan is a raw scan
 	 * @return scan instance based on input query
 	 * @throws HQLException
 	 *             if the query is invalid
 	 */
-	private Scan generateHbaseScan(byte[] hbaseRowkey, SqlBean query) throws HQLException {
+	private Scan generateHbaseScan(byte[] hbaseRowkey, SqlBean query, boolean raw) throws HQLException {
 		logger.debug("Generating HBase scan");
 
 		Scan hbaseScan = new Scan(hbaseRowkey);
@@ -144,7 +187,30 @@ public class HQLEngine implements Serializable {
 
 		// set up row key prefix filter
 		if (query.getQueryType() == QueryType.ROWKEY_PREFIX_SPECIFIED) {
-			rowFilter = new PrefixFilter(hbaseRowkey);
+			List<Filter> rowFilters = new ArrayList<>();
+			rowFilters.add(new PrefixFilter(hbaseRowkey));
+
+			// narrow the scan using range conditions on the row key field
+			// following the prefix
+			byte[][] rowkeyRange = hBaseIR.getHbaseRowkeyRange(query.getSchemaName(), query);
+			if (rowkeyRange != null) {
+				hbaseScan.setStartRow(rowkeyRange[0]);
+				hbaseScan.setStopRow(rowkeyRange[1]);
+				logger.debug("generateHbaseScan: Setting row key range [" + Bytes.toStringBinary(rowkeyRange[0])
+						+ ", " + Bytes.toStringBinary(rowkeyRange[1]) + ")");
+			}
+
+			// match the row key fields which follow an unknown hash value
+			byte[][] fuzzyRowkey = hBaseIR.getFuzzyRowkey(query.getSchemaName(), query);
+			if (fuzzyRowkey != null) {
+				rowFilters.add(new FuzzyRowFilter(Arrays.asList(new Pair<>(fuzzyRowkey[0], fuzzyRowkey[1]))));
+				logger.debug("generateHbaseScan: Setting Fuzzy row filter");
+			}
+
+			addRowkeyRegexFilter(rowFilters, query);
+
+			rowFilter = rowFilters.size() == 1 ? rowFilters.get(0)
+					: new FilterList(FilterList.Operator.MUST_PASS_ALL, rowFilters);
 			logger.debug("generateHbaseScan: Setting Prefix filter" + hbaseScan.toString());
 		} else if (query.getQueryType() == QueryType.FULL_ROWKEY_SPECIFIED) {
 			rowFilter = new RowFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(hbaseRowkey));
@@ -154,8 +220,88 @@ public class HQLEngine implements Serializable {
 					"Internal error in generateHbaseScan : Unknown query type - " + query.getQueryType().toString());
 		}
 
-		// set column filters
-		List<Filter> columnFilters = getAllColumnFilters(query);
+		hbaseScan = hbaseScan.setFilter(getAllFilters(rowFilter, addColumnsToScan(hbaseScan, query, raw)));
+
+		return hbaseScan;
+	}
+
+	/**
+	 * This method generates HBase scan object which reads one row key range
+	 * per salt value. All the ranges are sent to the region servers as a
+	 * single multi range scan.
+	 * 
+	 * @param saltedPrefixes
+	 *            - row key prefixes, one per salt value, in ascending order
+	 * @param query
+	 *            - object which parses and stores information about query
+	 * @param raw
+	 *            - whether the scan is a raw scan
+	 * @return scan instance based on input query
+	 */
+	private Scan generateSaltedHbaseScan(List<byte[]> saltedPrefixes, SqlBean query, boolean raw)
+			throws HQLException {
+		logger.debug("Generating salted HBase scan for " + saltedPrefixes.size() + " salt buckets");
+
+		List<RowRange> rowRanges = new ArrayList<>();
+		for (byte[] prefix : saltedPrefixes) {
+			rowRanges.add(new RowRange(prefix, true, Rowkey.getStopRowForPrefix(prefix), false));
+		}
+
+		List<Filter> rowFilters = new ArrayList<>();
+		try {
+			rowFilters.add(new MultiRowRangeFilter(rowRanges));
+		} catch (IOException e) {
+			// ranges are generated from distinct salt values and can not overlap
+			throw new IllegalStateException("Invalid salted row key ranges: " + e.getMessage(), e);
+		}
+
+		addRowkeyRegexFilter(rowFilters, query);
+
+		Filter rowFilter = rowFilters.size() == 1 ? rowFilters.get(0)
+				: new FilterList(FilterList.Operator.MUST_PASS_ALL, rowFilters);
+
+		Scan hbaseScan = new Scan(rowRanges.get(0).getStartRow(), rowRanges.get(rowRanges.size() - 1).getStopRow());
+
+		logger.debug("generateSaltedHbaseScan: Setting multi row range filter" + hbaseScan.toString());
+
+		hbaseScan = hbaseScan.setFilter(getAllFilters(rowFilter, addColumnsToScan(hbaseScan, query, raw)));
+
+		return hbaseScan;
+	}
+
+	/**
+	 * This method adds a regex row filter in case there are row key fields
+	 * provided with "=" operator, which are not part of the row key prefix.
+	 * Such rows are then skipped on region servers instead of being evaluated
+	 * on the client.
+	 * 
+	 * @param rowFilters
+	 *            - list of row filters to which the filter is added
+	 * @param query
+	 *            - object which parses and stores information about query
+	 * @throws HQLException
+	 *             if the query is invalid
+	 */
+	private void addRowkeyRegexFilter(List<Filter> rowFilters, SqlBean query) throws HQLException {
+		String rowkeyRegex = hBaseIR.getRowkeyRegex(query.getSchemaName(), query);
+		if (rowkeyRegex != null) {
+			RegexStringComparator comparator = new RegexStringComparator(rowkeyRegex, Pattern.DOTALL);
+			comparator.setCharset(StandardCharsets.ISO_8859_1);
+			rowFilters.add(new RowFilter(CompareFilter.CompareOp.EQUAL, comparator));
+			logger.debug("generateHbaseScan: Setting row key regex filter : " + rowkeyRegex);
+		}
+	}
+
+	/**
+	 * This method combines the row filter with the column filters
+	 * 
+	 * @param rowFilter
+	 *            - filter on row key
+	 * @param columnFilters
+	 *            - filters on columns, one per column family
+	 * @return combined filter list
+	 */
+	private FilterList getAllFilters(Filter rowFilter, List<Filter> columnFilters) {
 		FilterList allFilters;
 
 		if (columnFilters.size() > 0) {
@@ -169,98 +315,173 @@ public class HQLEngine implements Serializable {
 					new KeyOnlyFilter());
 		}
 
-		hbaseScan = hbaseScan.setFilter(allFilters);
-
-		return hbaseScan;
+		return allFilters;
 	}
 
 	/**
-	 * This method generates a list of column filters based on conditions in the
-	 * query
+	 * This method restricts the scan to the columns required by the query.
+	 * Column families having only fully specified columns are restricted to
+	 * those columns using addColumn, so region servers read only the required
+	 * stores and columns. Column families having dynamic columns are added as a
+	 * whole, and the dynamic columns are selected using column prefix filters.
+	 * Columns can not be specified on a raw scan, so all the column families
+	 * of a raw scan are added as a whole and their columns are selected using
+	 * filters.
 	 * 
+	 * @param hbaseScan
+	 *            - scan to be restricted
 	 * @param query
 	 *            - object which parses and stores information about query
-	 * @return list of filters
+	 * @param raw
+	 *            - whether the scan is a raw scan
+	 * @return list of column filters, one per column family added to the scan
 	 */
-	private List<Filter> getAllColumnFilters(SqlBean query) {
-		String columnName, columnNameRegex, columnFamily;
-		QualifierFilter qualifierFilter;
-		FamilyFilter familyFilter;
-
-		List<Filter> allColumnFilters = new ArrayList<>();
-		// Map to store columns added to filters
-		Map<String, Set<String>> cfCnMap = new HashMap<>();
+	private List<Filter> addColumnsToScan(Scan hbaseScan, SqlBean query, boolean raw) {
+		// Maps of column family to columns/column patterns to be fetched
+		Map<String, Set<String>> cfCnMap = new TreeMap<>();
+		Map<String, Set<String>> cfPatternMap = new TreeMap<>();
 
 		// below are the columns to be considered - where the column name is
 		// specified in full
 		for (List<String> columnDetails : query.getColumnsForSelection()) {
-			columnFamily = columnDetails.get(0);
-			columnName = columnDetails.get(1);
-
-			Set<String> cnNames = cfCnMap.getOrDefault(columnFamily, new HashSet<String>());
-			cnNames.add(columnName);
-			cfCnMap.put(columnFamily, cnNames);
-
-			logger.debug("getAllColumnFilters: Creating a new filter for column(BinaryComparator): " + columnFamily
-					+ ":" + columnName);
-
-			qualifierFilter = new QualifierFilter(CompareFilter.CompareOp.EQUAL,
-					new BinaryComparator(Bytes.toBytes(columnName)));
-			familyFilter = new FamilyFilter(CompareFilter.CompareOp.EQUAL,
-					new BinaryComparator(Bytes.toBytes(columnFamily)));
-			allColumnFilters.add(new FilterList(FilterList.Operator.MUST_PASS_ALL, qualifierFilter, familyFilter));
+			addIntoMap(cfCnMap, columnDetails.get(0), columnDetails.get(1));
 		}
 
 		// Below are column patterns to be considered - where the column name is
 		// a regex
 		for (List<String> columnDetails : query.getSelectedColumnPatterns()) {
-			columnFamily = columnDetails.get(0);
-			columnNameRegex = columnDetails.get(1);
-
-			Set<String> cnNames = cfCnMap.getOrDefault(columnFamily, new HashSet<String>());
-			cnNames.add(columnNameRegex);
-			cfCnMap.put(columnFamily, cnNames);
-
-			logger.debug("getAllColumnFilters: Creating a new filter for pattern(RegexStringComparator) : "
-					+ columnFamily + ":" + columnNameRegex);
-
-			qualifierFilter = new QualifierFilter(CompareFilter.CompareOp.EQUAL,
-					new RegexStringComparator(columnNameRegex));
-			familyFilter = new FamilyFilter(CompareFilter.CompareOp.EQUAL,
-					new BinaryComparator(Bytes.toBytes(columnFamily)));
-			allColumnFilters.add(new FilterList(FilterList.Operator.MUST_PASS_ALL, qualifierFilter, familyFilter));
+			addIntoMap(cfPatternMap, columnDetails.get(0), columnDetails.get(1));
 		}
 
 		// Adding the columns which are specified in the where clause, but are
 		// not specified in select clause
 		// these would be required while evaluating the where clause conditions
 		for (Condition condition : query.getConditonsFromConditionTree()) {
-			if (!condition.isRowKeyCondition()) {
-				String cf = condition.getColumnFamily();
-				String cn = condition.getColumnName();
-
-				String modifiedCn = parseColumnNameForFilter(cn);
-
-				// check if column filter is already added for this column
-				if (cfCnMap.get(cf) == null || !cfCnMap.get(cf).contains(modifiedCn)) {
-					qualifierFilter = new QualifierFilter(CompareFilter.CompareOp.EQUAL,
-							new RegexStringComparator(modifiedCn));
-					familyFilter = new FamilyFilter(CompareFilter.CompareOp.EQUAL,
-							new BinaryComparator(Bytes.toBytes(cf)));
-					allColumnFilters
-							.add(new FilterList(FilterList.Operator.MUST_PASS_ALL, qualifierFilter, familyFilter));
-
-					Set<String> cnNames = cfCnMap.getOrDefault(cf, new HashSet<String>());
-					cnNames.add(modifiedCn);
-					cfCnMap.put(cf, cnNames);
+			String cf = condition.getColumnFamily();
+
+			// row key, dynamic part and json field conditions are not on hbase
+			// columns
+			if (condition.isRowKeyCondition() || cf == null || cf.isEmpty()) {
+				continue;
+			}
+
+			String cn = condition.getColumnName();
+			String modifiedCn = parseColumnNameForFilter(cn);
+
+			if (modifiedCn.equals(cn)) {
+				addIntoMap(cfCnMap, cf, cn);
+			} else {
+				addIntoMap(cfPatternMap, cf, modifiedCn);
+			}
+		}
+
+		List<Filter> allColumnFilters = new ArrayList<>();
+
+		for (String cf : cfCnMap.keySet()) {
+			if (cfPatternMap.containsKey(cf)) {
+				// handled along with patterns
+				continue;
+			}
+			byte[] cfBytes = Bytes.toBytes(cf);
+			Filter familyFilter = new FamilyFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(cfBytes));
+
+			if (raw) {
+				hbaseScan.addFamily(cfBytes);
+
+				List<Filter> qualifierFilters = new ArrayList<>();
+				for (String cn : cfCnMap.get(cf)) {
+					logger.debug("addColumnsToScan: Creating a new filter for column(BinaryComparator): " + cf + ":"
+							+ cn);
+					qualifierFilters.add(new QualifierFilter(CompareFilter.CompareOp.EQUAL,
+							new BinaryComparator(Bytes.toBytes(cn))));
 				}
+				allColumnFilters.add(new FilterList(FilterList.Operator.MUST_PASS_ALL, familyFilter,
+						new FilterList(FilterList.Operator.MUST_PASS_ONE, qualifierFilters)));
+				continue;
 			}
+
+			for (String cn : cfCnMap.get(cf)) {
+				logger.debug("addColumnsToScan: Adding column to scan: " + cf + ":" + cn);
+				hbaseScan.addColumn(cfBytes, Bytes.toBytes(cn));
+			}
+			allColumnFilters.add(familyFilter);
 		}
-		logger.debug("getAllColumnFilters: filters = " + allColumnFilters.toString());
+
+		for (String cf : cfPatternMap.keySet()) {
+			byte[] cfBytes = Bytes.toBytes(cf);
+			hbaseScan.addFamily(cfBytes);
+
+			List<Filter> qualifierFilters = new ArrayList<>();
+			List<byte[]> prefixes = new ArrayList<>();
+			boolean allColumns = false;
+
+			for (String pattern : cfPatternMap.get(cf)) {
+				String prefix = getColumnPrefix(pattern);
+				if (prefix == null) {
+					logger.debug("addColumnsToScan: Creating a new filter for pattern(RegexStringComparator) : "
+							+ cf + ":" + pattern);
+					qualifierFilters.add(
+							new QualifierFilter(CompareFilter.CompareOp.EQUAL, new RegexStringComparator(pattern)));
+				} else if (prefix.isEmpty()) {
+					allColumns = true;
+				} else {
+					logger.debug("addColumnsToScan: Adding column prefix for pattern : " + cf + ":" + pattern);
+					prefixes.add(Bytes.toBytes(prefix));
+				}
+			}
+
+			Filter familyFilter = new FamilyFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(cfBytes));
+
+			if (allColumns) {
+				allColumnFilters.add(familyFilter);
+				continue;
+			}
+
+			if (prefixes.size() == 1) {
+				qualifierFilters.add(new ColumnPrefixFilter(prefixes.get(0)));
+			} else if (prefixes.size() > 1) {
+				qualifierFilters.add(new MultipleColumnPrefixFilter(prefixes.toArray(new byte[prefixes.size()][])));
+			}
+
+			for (String cn : cfCnMap.getOrDefault(cf, new HashSet<String>())) {
+				qualifierFilters.add(new QualifierFilter(CompareFilter.CompareOp.EQUAL,
+						new BinaryComparator(Bytes.toBytes(cn))));
+			}
+
+			allColumnFilters.add(new FilterList(FilterList.Operator.MUST_PASS_ALL, familyFilter,
+					new FilterList(FilterList.Operator.MUST_PASS_ONE, qualifierFilters)));
+		}
+
+		logger.debug("addColumnsToScan: filters = " + allColumnFilters.toString());
 
 		return allColumnFilters;
 	}
 
+	private void addIntoMap(Map<String, Set<String>> cfMap, String cf, String cn) {
+		Set<String> cnNames = cfMap.get(cf);
+		if (cnNames == null) {
+			cnNames = new TreeSet<>();
+			cfMap.put(cf, cnNames);
+		}
+		cnNames.add(cn);
+	}
+
+	/**
+	 * This method returns the literal prefix of column name pattern of the
+	 * form ^prefix.*$, as generated for dynamic columns without suffix
+	 * 
+	 * @param pattern
+	 *            - column name pattern
+	 * @return prefix of pattern, null if pattern is not of that form
+	 */
+	private String getColumnPrefix(String pattern) {
+		Matcher m = COLUMN_PREFIX_PATTERN.matcher(pattern);
+		if (m.matches()) {
+			return m.group(1);
+		}
+		return null;
+	}
+
 	/**
 	 * This method returns a regex if column is dynamic, else returns column
 	 * name as it is
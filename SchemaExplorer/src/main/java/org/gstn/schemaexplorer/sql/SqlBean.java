@@ -94,8 +94,8 @@ public class SqlBean implements Serializable {
 	// this stores the entire tree of conditions along with operators
 	private ConditionTree conditionTree;
 
-	private ConditionTree conditionTreeCopy;
-	private ConditionTree conditionTreeForDynamic;
+	// compiled form of conditionTree, used for evaluating conditions on rows
+	private ConditionProgram conditionProgram;
 
 	private Logger logger;
 
@@ -110,7 +110,6 @@ public class SqlBean implements Serializable {
 		selectedColumns = new HashSet<>();
 		selectedColumnPatterns = new HashSet<>();
 		conditionTree = new ConditionTree();
-		conditionTreeCopy = new ConditionTree();
 		logger = LoggerFactory.getLogger(this.getClass().getCanonicalName());
 	}
 
@@ -144,6 +143,7 @@ public class SqlBean implements Serializable {
 
 	public void setConditionTree(ConditionTree conditionTree) {
 		this.conditionTree = conditionTree;
+		this.conditionProgram = null;
 	}
 
 	public Map<String, String> getRowkeyFieldsUsedNonPrefix() {
@@ -163,8 +163,45 @@ public class SqlBean implements Serializable {
 	}
 
 	// check if a column has been provided value in the WHERE clause
+	// only conditions that must hold for every selected row are considered,
+	// conditions under an OR can not be used to narrow down the scan
 	public boolean columnUsedInConditions(String columnName) {
-		return conditionList.contains(columnName);
+		for (Condition condition : getMandatoryConditions()) {
+			if (condition.getColumnName().equals(columnName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * This method returns the conditions which are ANDed with the rest of the
+	 * WHERE clause, i.e. the conditions that every selected row has to
+	 * satisfy
+	 * 
+	 * @return list of mandatory conditions
+	 */
+	public List<Condition> getMandatoryConditions() {
+		List<Condition> mandatoryConditions = new ArrayList<>();
+		collectMandatoryConditions(conditionTree, mandatoryConditions);
+		return mandatoryConditions;
+	}
+
+	private void collectMandatoryConditions(ConditionTree tree, List<Condition> mandatoryConditions) {
+		List<Condition> conditions = tree.getConditions();
+
+		// a tree with single condition is unaffected by its operator
+		if (conditions.size() > 1 && tree.getOperator() == ConditionTree.Operator.OR) {
+			return;
+		}
+
+		for (Condition condition : conditions) {
+			if (condition instanceof ConditionTree) {
+				collectMandatoryConditions((ConditionTree) condition, mandatoryConditions);
+			} else {
+				mandatoryConditions.add(condition);
+			}
+		}
 	}
 
 	/**
@@ -179,15 +216,18 @@ public class SqlBean implements Serializable {
 	 *             if row key field is invalid
 	 */
 	public String getAssignedValue(String rowKeyField) throws HQLException {
-		for (Condition condition : conditionList) {
+		boolean columnFound = false;
+		for (Condition condition : getMandatoryConditions()) {
 			if (condition.getColumnName().equals(rowKeyField)) {
 				if (condition.getConditionalOperator().equals("=")) {
 					return condition.getValue();
-				} else {
-					return null;
 				}
+				columnFound = true;
 			}
 		}
+		if (columnFound) {
+			return null;
+		}
 		throw new HQLException("Value not assigned for column " + rowKeyField);
 	}
 
@@ -671,36 +711,51 @@ public class SqlBean implements Serializable {
 			return false;
 	}
 
-	public Boolean evaluateStaticConditions(DataRecord dataRecord) throws Exception {
-		// get a copy of ConditionTree to apply the static conditions and store
-		// result of evaluation in the copy
-		conditionTreeCopy = this.conditionTree.getDeepCopy();
+	/**
+	 * This method returns the compiled condition tree. It is compiled on first
+	 * use, after the conditions have been validated and marked.
+	 * 
+	 * @return compiled condition tree
+	 */
+	private ConditionProgram getConditionProgram() {
+		ConditionProgram program = conditionProgram;
+		if (program == null) {
+			synchronized (this) {
+				program = conditionProgram;
+				if (program == null) {
+					program = new ConditionProgram(conditionTree);
+					conditionProgram = program;
+				}
+			}
+		}
+		return program;
+	}
 
-		// apply static column and row key conditions from query
-		return ConditionTreeManager.evaluateStaticColumnAndRowKeyConditions(conditionTreeCopy, dataRecord);
+	public Boolean evaluateRowKeyConditions(DataRecord dataRecord) throws Exception {
+		// apply only row key conditions from query
+		return getConditionProgram().evaluate(ConditionProgram.Phase.ROWKEY, dataRecord);
 	}
 
-	public Boolean evaluateDynamicConditions(DataRecord dataRecord) throws Exception {
-		// get a copy of conditionTreeCopy to apply the dynamic conditions and store
-		// result of evaluation in the copy
-		conditionTreeForDynamic = conditionTreeCopy.getDeepCopy();
+	public Boolean evaluateStaticConditions(DataRecord dataRecord) throws Exception {
+		// apply static column and row key conditions from query, result of
+		// evaluation is kept for dynamic conditions
+		return getConditionProgram().evaluate(ConditionProgram.Phase.STATIC, dataRecord);
+	}
 
-		// apply dynamic column and dynamic part conditions from query
-		return ConditionTreeManager.evaluateDyanmicColumnConditions(conditionTreeForDynamic, dataRecord);
+	public Boolean evaluateDynamicConditions(DataRecord dataRecord) throws Exception {
+		// apply dynamic column and dynamic part conditions from query, starting
+		// from result of static conditions
+		return getConditionProgram().evaluate(ConditionProgram.Phase.DYNAMIC, dataRecord);
 	}
 	
 	public boolean evaluateJsonConditions(DataRecord dataRecord) throws Exception {
-		// get a copy of conditionTreeCopy/conditionTreeForDynamic to apply the json conditions and store
-		// result of evaluation in the copy
-		ConditionTree conditionTreeForJson;
-		if(conditionTreeForDynamic!=null){
-			conditionTreeForJson = conditionTreeForDynamic.getDeepCopy();
-		}else{
-			conditionTreeForJson = conditionTreeCopy.getDeepCopy();
-		}
-		
-		// apply dynamic column and dynamic part conditions from query
-		return ConditionTreeManager.evaluateJsonConditions(conditionTreeForJson, dataRecord);
+		// apply json conditions from query, starting from result of dynamic
+		// conditions
+		Boolean result = getConditionProgram().evaluate(ConditionProgram.Phase.JSON, dataRecord);
+
+		// if result is null, it means some column(s) specified in condition
+		// was missing in json
+		return result != null && result;
 	}
 
 	@Override
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Date;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -93,6 +94,33 @@ public class DataTypeUtil {
 
     }
 	
+	/**
+	 * Parses value stored in a part of an array, like the value of an hbase
+	 * cell. Values of string and snappy compressed types are converted without
+	 * copying the bytes.
+	 */
+	public static String parseValue(byte[] value, int offset, int length, Class<?> valueClass) {
+		if (value == null || valueClass == null) {
+			return null;
+		}
+
+		if (valueClass.equals(String.class) || valueClass.equals(Date.class) || valueClass.equals(JSON.class)) {
+			return Bytes.toString(value, offset, length);
+		}
+		if (valueClass.equals(SnappyCompressedType.class) || valueClass.equals(SnappyCompressedJSON.class)) {
+			try {
+				return SnappyCompressedType.toString(value, offset, length);
+			} catch (IOException e) {
+				//added to handle rows for which uncompression was failing
+				return Bytes.toString(value, offset, length);
+			}
+		}
+		if (offset == 0 && length == value.length) {
+			return parseValue(value, valueClass);
+		}
+		return parseValue(Arrays.copyOfRange(value, offset, offset + length), valueClass);
+	}
+
 	public static  byte[] parseStringToByteArray(String value, Class<?> valueClass) {
         try {
             if(valueClass.equals(Integer.class)){
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.xerial.snappy.Snappy;
+
+/**
+ * Compresses and uncompresses values of snappy compressed columns using
+ * buffers kept per thread. Buffers are sized using the length stored in the
+ * snappy header and grow as needed, so that no intermediate array is
+ * allocated for every value. Buffers bigger than MAX_RETAINED_BUFFER_SIZE are
+ * used only once, so that a few very large values don't pin memory of the
+ * thread.
+ *
+ */
+public final class SnappyCodec {
+
+	private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_RETAINED_BUFFER_SIZE = 8 * 1024 * 1024;
+
+	private static final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+	private static class Buffers {
+		byte[] uncompressed = new byte[INITIAL_BUFFER_SIZE];
+		byte[] compressed = new byte[INITIAL_BUFFER_SIZE];
+		ByteBuffer encoded = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+		final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	private SnappyCodec() {
+	}
+
+	/**
+	 * Uncompresses the value and decodes it as an UTF-8 string
+	 * 
+	 * @param value
+	 *            array containing the compressed value
+	 * @param offset
+	 *            offset of the value in the array
+	 * @param length
+	 *            length of the value
+	 * @return uncompressed string
+	 * @throws IOException
+	 *             if the value is not snappy compressed
+	 */
+	public static String uncompressToString(byte[] value, int offset, int length) throws IOException {
+		int uncompressedLength = Snappy.uncompressedLength(value, offset, length);
+
+		Buffers threadBuffers = buffers.get();
+		byte[] output = threadBuffers.uncompressed;
+		if (output.length < uncompressedLength) {
+			output = new byte[grow(output.length, uncompressedLength)];
+			if (output.length <= MAX_RETAINED_BUFFER_SIZE) {
+				threadBuffers.uncompressed = output;
+			}
+		}
+
+		int actualLength = Snappy.uncompress(value, offset, length, output, 0);
+		return new String(output, 0, actualLength, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Encodes the value as UTF-8 and compresses it
+	 * 
+	 * @param value
+	 *            string to compress
+	 * @return compressed bytes
+	 * @throws IOException
+	 *             if snappy fails to compress the value
+	 */
+	public static byte[] compress(String value) throws IOException {
+		Buffers threadBuffers = buffers.get();
+		ByteBuffer encoded = encode(threadBuffers, value);
+
+		int maxCompressedLength = Snappy.maxCompressedLength(encoded.remaining());
+		byte[] output = threadBuffers.compressed;
+		if (output.length < maxCompressedLength) {
+			output = new byte[grow(output.length, maxCompressedLength)];
+			if (output.length <= MAX_RETAINED_BUFFER_SIZE) {
+				threadBuffers.compressed = output;
+			}
+		}
+
+		int compressedLength = Snappy.compress(encoded.array(), encoded.arrayOffset() + encoded.position(),
+				encoded.remaining(), output, 0);
+		return Arrays.copyOf(output, compressedLength);
+	}
+
+	/**
+	 * @return buffer containing UTF-8 bytes of the value between its position
+	 *         and limit
+	 */
+	private static ByteBuffer encode(Buffers threadBuffers, String value) {
+		CharsetEncoder encoder = threadBuffers.encoder;
+		// every char is encoded into at most 3 bytes, surrogate pairs into 4
+		int maxLength = (int) Math.min(Integer.MAX_VALUE, (long) value.length() * 3);
+
+		ByteBuffer encoded = threadBuffers.encoded;
+		if (encoded.capacity() < maxLength) {
+			encoded = ByteBuffer.allocate(grow(encoded.capacity(), maxLength));
+			if (encoded.capacity() <= MAX_RETAINED_BUFFER_SIZE) {
+				threadBuffers.encoded = encoded;
+			}
+		}
+
+		encoded.clear();
+		encoder.reset();
+		CharBuffer chars = CharBuffer.wrap(value);
+		CoderResult result = encoder.encode(chars, encoded, true);
+		if (!result.isUnderflow()) {
+			// can't happen as the buffer can hold the longest encoding
+			throw new IllegalStateException("Failed to encode value in UTF-8: " + result);
+		}
+		encoder.flush(encoded);
+		encoded.flip();
+		return encoded;
+	}
+
+	private static int grow(int currentSize, int requiredSize) {
+		long size = Math.max((long) currentSize * 2, requiredSize);
+		return (int) Math.min(size, Integer.MAX_VALUE - 8);
+	}
+
+}
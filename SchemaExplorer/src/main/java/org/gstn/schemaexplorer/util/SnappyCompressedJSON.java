@@ -26,6 +26,10 @@ public class SnappyCompressedJSON extends JSON {
 		return SnappyCompressedType.toString(value);
 	}
 	
+	public static String toString(byte[] value, int offset, int length) throws IOException{
+		return SnappyCompressedType.toString(value, offset, length);
+	}
+	
 	public static byte[] toBytes(String value) throws IOException{
 		return SnappyCompressedType.toBytes(value);
 	}
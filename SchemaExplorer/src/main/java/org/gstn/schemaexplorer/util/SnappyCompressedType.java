@@ -17,19 +17,20 @@ package org.gstn.schemaexplorer.util;
 
 import java.io.IOException;
 
-import org.apache.hadoop.hbase.util.Bytes;
-import org.xerial.snappy.Snappy;
-
 /**
  * Class to identify snappy compressed columns in the HBase table 
  *
  */
 public class SnappyCompressedType {
 	public static String toString(byte[] value) throws IOException{
-		return Bytes.toString(Snappy.uncompress(value));
+		return SnappyCodec.uncompressToString(value, 0, value.length);
+	}
+	
+	public static String toString(byte[] value, int offset, int length) throws IOException{
+		return SnappyCodec.uncompressToString(value, offset, length);
 	}
 	
 	public static byte[] toBytes(String value) throws IOException{
-		return Snappy.compress(Bytes.toBytes(value));
+		return SnappyCodec.compress(value);
 	}
 }
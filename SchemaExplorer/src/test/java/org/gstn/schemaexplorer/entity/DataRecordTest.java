@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class DataRecordTest {
+
+	private final RecordLayout layout = new RecordLayout(Arrays.asList("rtin", "fp", "A", "B"));
+
+	@Test
+	public void testLookupsAndDuplicate() throws Exception {
+		DataRecord record = new DataRecord(layout,
+				Arrays.asList(Tuple.rowkeyColumn("rtin", "R1"), Tuple.rowkeyColumn("fp", "1017")),
+				Collections.emptyList());
+		record.addTupleToColumn("S", "A", Tuple.staticColumn("S", "A", "1", String.class));
+
+		DataRecord copy = record.duplicate();
+		copy.addTupleToColumn("S", "B", Tuple.staticColumn("S", "B", "2", String.class));
+		// column not in the layout
+		copy.addTupleToColumn("", "C", Tuple.staticColumn("", "C", "3", String.class));
+
+		assertFalse(record.isColumnNamePresent("B"));
+		assertFalse(record.isColumnNamePresent("C"));
+		assertEquals("2", copy.getColumnTupleValue("B"));
+		assertEquals("3", copy.getColumnTupleValue("C"));
+		assertEquals("R1", copy.getRowkeyTuple("rtin").getColumnValue());
+		assertTrue(copy.isColumnNamePresent("S", "A"));
+		assertFalse(copy.isColumnNamePresent("", "A"));
+		assertEquals(2, copy.getTuplesInCF("S").size());
+
+		assertEquals("R1|1017", copy.getKeyAsString("|", ""));
+		assertEquals("R1|1017|1|2|3", copy.getRecord("|", ""));
+
+		// slots of the root layout are valid in extended layouts
+		assertSame(layout, copy.getLayout().getRoot());
+		assertEquals("2", copy.getTupleAt(layout.getSlot("B")).getColumnValue());
+		assertEquals("R1", copy.getRowkeyTupleAt(layout.getSlot("rtin")).getColumnValue());
+	}
+
+	@Test
+	public void testLayeredDuplicates() throws Exception {
+		DataRecord record = new DataRecord(layout,
+				Arrays.asList(Tuple.rowkeyColumn("rtin", "R1")), Collections.emptyList());
+		record.addTupleToColumn("S", "A", Tuple.staticColumn("S", "A", "1", String.class));
+
+		DataRecord copy = record.duplicate();
+		// replaces the inherited column only in the copy
+		copy.addTupleToColumn("D", "A", Tuple.staticColumn("D", "A", "2", String.class));
+		record.addTupleToColumn("S", "B", Tuple.staticColumn("S", "B", "3", String.class));
+
+		assertEquals("1", record.getColumnTupleValue("A"));
+		assertEquals("2", copy.getColumnTupleValue("A"));
+		assertTrue(copy.isColumnNamePresent("D", "A"));
+		assertFalse(copy.isColumnNamePresent("B"));
+		assertEquals("R1|1|3", record.getRecord("|", ""));
+		assertEquals("R1|2", copy.getRecord("|", ""));
+
+		// records deeper than the depth bound are flattened
+		DataRecord last = copy;
+		for (int i = 0; i < 20; i++) {
+			last = last.duplicate();
+			last.addTupleToColumn("D", "B", Tuple.staticColumn("D", "B", String.valueOf(i), String.class));
+		}
+		assertEquals("R1|2|19", last.getRecord("|", ""));
+		assertEquals("R1|2", copy.getRecord("|", ""));
+	}
+
+	@Test
+	public void testExtendedLayoutsAreShared() throws Exception {
+		DataRecord first = new DataRecord(layout);
+		DataRecord second = new DataRecord(layout);
+		first.addTupleToColumn("", "X", Tuple.staticColumn("", "X", "1", String.class));
+		second.addTupleToColumn("", "X", Tuple.staticColumn("", "X", "2", String.class));
+
+		assertSame(first.getLayout(), second.getLayout());
+		assertEquals(layout.size(), first.getLayout().getSlot("X"));
+	}
+
+}
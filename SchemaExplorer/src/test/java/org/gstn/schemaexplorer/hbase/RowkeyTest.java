@@ -15,13 +15,21 @@
  ******************************************************************************/
 package org.gstn.schemaexplorer.hbase;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
+import java.util.HashMap;
+
+import org.apache.hadoop.hbase.util.Bytes;
 import org.gstn.schemaexplorer.hbase.Rowkey;
 import org.gstn.schemaexplorer.hbase.RowkeyField;
+import org.gstn.schemaexplorer.sql.SqlBean;
 import org.junit.Test;
 
 public class RowkeyTest {
+
+	private static final HBaseTableExplorer exp = new HBaseTableExplorer("./src/test/resources/RowkeyTest.schema");
 	
 	@Test
 	public void test() {
@@ -55,4 +63,53 @@ public class RowkeyTest {
 		assertEquals(false, rk2.isAValidRowKey(new String[]{"fp", "stin", "rtin"}));
 	}
 
+	@Test
+	public void testStopRowForPrefix() {
+		assertArrayEquals(new byte[] { 0x02, 'a', 'c' }, Rowkey.getStopRowForPrefix(new byte[] { 0x02, 'a', 'b' }));
+		assertArrayEquals(new byte[] { 0x03 }, Rowkey.getStopRowForPrefix(new byte[] { 0x02, (byte) 0xFF }));
+		assertArrayEquals(new byte[0], Rowkey.getStopRowForPrefix(new byte[] { (byte) 0xFF, (byte) 0xFF }));
+	}
+
+	@Test
+	public void testFuzzyRowkeyForHashAfterLeadingField() throws Exception {
+		// fuzzy:fuzzy->RK=|:fp|hash(rtin)[0:7]|stin
+		Rowkey rk = new Rowkey();
+		rk.addRowkeyField(new RowkeyField("fp", "", false));
+		rk.addRowkeyField(new RowkeyField("rtin", (short) 0, (short) 7));
+		rk.addRowkeyField(new RowkeyField("stin", "", false));
+		rk.setRowkeySeparator("|");
+
+		byte[][] fuzzyRowkey = rk.getFuzzyRowkey(getQuery("fuzzy", "fp=\"1017\" and stin=\"S1\""));
+		assertArrayEquals(Bytes.add(Bytes.toBytes("1017|"), new byte[1], Bytes.toBytes("|S1")), fuzzyRowkey[0]);
+		assertArrayEquals(new byte[] { 0, 0, 0, 0, 0, 1, 0, 0, 0 }, fuzzyRowkey[1]);
+
+		// nothing known after the hash
+		assertNull(rk.getFuzzyRowkey(getQuery("fuzzy", "fp=\"1017\"")));
+		// hash is known from rtin
+		assertNull(rk.getFuzzyRowkey(getQuery("fuzzy", "fp=\"1017\" and rtin=\"R1\" and stin=\"S1\"")));
+	}
+
+	@Test
+	public void testLeadingHashIsScannedPerSalt() throws Exception {
+		// salted:salted->RK=|:hash(rtin)[0:7]|fp|stin
+		Rowkey rk = new Rowkey();
+		rk.addRowkeyField(new RowkeyField("rtin", (short) 0, (short) 7));
+		rk.addRowkeyField(new RowkeyField("fp", "", false));
+		rk.addRowkeyField(new RowkeyField("stin", "", false));
+		rk.setRowkeySeparator("|");
+
+		SqlBean query = getQuery("salted", "fp=\"1017\" and stin=\"S1\"");
+		assertEquals(256, rk.getSaltedHbaseRowkeyPrefixes(query).size());
+		assertNull(rk.getFuzzyRowkey(query));
+
+		// field following the hash is not known, neither applies
+		query = getQuery("salted", "stin=\"S1\"");
+		assertEquals(0, rk.getSaltedHbaseRowkeyPrefixes(query).size());
+		assertNull(rk.getFuzzyRowkey(query));
+	}
+
+	private static SqlBean getQuery(String schema, String conditions) throws Exception {
+		return exp.parseAndGetValidatedQuery("select * from " + schema + " where " + conditions, new HashMap<>());
+	}
+
 }
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.hbase;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+public class RowkeyTokenizerTest {
+
+	@Test
+	public void testTokenize() {
+		Rowkey rk = new Rowkey();
+		rk.addRowkeyField(new RowkeyField("rtin", (short) 0, (short) 7));
+		rk.addRowkeyField(new RowkeyField("fp", "", false));
+		rk.addRowkeyField(new RowkeyField("statecode", "07", true));
+		rk.addRowkeyField(new RowkeyField("stin", "", false));
+		rk.setRowkeySeparator("|");
+
+		RowkeyTokenizer tokenizer = rk.getRowkeyTokenizer();
+
+		byte[] rowkey = Bytes.add(new byte[] { (byte) 0x80 }, Bytes.toBytes("|1017|07|S1"));
+		int[] offsets = tokenizer.tokenize(rowkey);
+		assertEquals(4, tokenizer.getFieldCount());
+		assertEquals("1017", tokenizer.getFieldValue(rowkey, offsets, 1));
+		assertEquals("S1", tokenizer.getFieldValue(rowkey, offsets, 3));
+
+		// literal mismatch
+		assertNull(tokenizer.tokenize(Bytes.add(new byte[] { (byte) 0x80 }, Bytes.toBytes("|1017|08|S1"))));
+		// trailing empty field is dropped, hence number of fields mismatch
+		assertNull(tokenizer.tokenize(Bytes.add(new byte[] { (byte) 0x80 }, Bytes.toBytes("|1017|07|"))));
+		// extra field
+		assertNull(tokenizer.tokenize(Bytes.add(new byte[] { (byte) 0x80 }, Bytes.toBytes("|1017|07|S1|X"))));
+	}
+
+	@Test
+	public void testDynamicPartSplit() {
+		DynamicPartTokenizer tokenizer = new DynamicPartTokenizer("|", 3);
+
+		assertArrayEquals(new String[] { "S", "1017", "I0001" }, tokenizer.split("S|1017|I0001"));
+		assertArrayEquals(new String[] { "", "1017", "I0001" }, tokenizer.split("|1017|I0001"));
+		assertArrayEquals(new String[] { "S", "1017", "I0001" }, tokenizer.split("S|1017|I0001||"));
+		assertNull(tokenizer.split("S|1017|"));
+		assertNull(tokenizer.split("S|1017|I0001|X"));
+		assertArrayEquals(new String[] { "S|1017" }, new DynamicPartTokenizer(null, 1).split("S|1017"));
+	}
+
+}
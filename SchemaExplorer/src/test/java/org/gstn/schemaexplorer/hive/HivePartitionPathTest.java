@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.hive;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class HivePartitionPathTest {
+
+	@Test
+	public void testDirectoryAndPartitionSpec() {
+		String directory = HivePartitionPath.getDirectory(new String[] { "FP", "state#code" },
+				new String[] { "07/2017", "it's=1%" });
+
+		assertEquals("fp=07%2F2017/state%23code=it%27s%3D1%25", directory);
+		assertEquals("(`FP` = '07/2017', `state#code` = 'it\\'s=1%')",
+				HivePartitionPath.getPartitionSpec(Arrays.asList("FP", "state#code"), directory));
+	}
+
+	@Test
+	public void testEscapeRoundTrip() {
+		String value = "a\u0001b\\c:d*e?f[g]h^i{j\"k\u007Fl m";
+		assertEquals("a%01b%5Cc%3Ad%2Ae%3Ff%5Bg%5Dh%5Ei%7Bj%22k%7Fl m", HivePartitionPath.escape(value));
+		assertEquals(value, HivePartitionPath.unescape(HivePartitionPath.escape(value)));
+		assertEquals("100%", HivePartitionPath.unescape("100%"));
+		assertEquals("%-1", HivePartitionPath.unescape("%-1"));
+	}
+
+}
@@ -449,6 +449,16 @@ public class ConditionTreeManagerTest {
 					result = ConditionTreeManager.evaluateDyanmicColumnConditions(conditionTree, dataRecord);
 					Assert.assertEquals(testData.expectedDynamicResult, result);
 				}
+				
+				// compiled conditions should give same results
+				SqlBean sqlBean = exp.parseAndGetValidatedQuery(query,targetJsonFieldsDataTypes);
+				dataRecord = getRowKeyStaticColumnsDataRecord();
+				Assert.assertEquals(testData.expectedStaticResult, sqlBean.evaluateStaticConditions(dataRecord));
+				
+				if(testData.applyDynamic){
+					addDynamicColumnsIntoDataRecord(dataRecord);
+					Assert.assertEquals(testData.expectedDynamicResult, sqlBean.evaluateDynamicConditions(dataRecord));
+				}
 			} catch (Exception | AssertionError e) {
 				throw new AssertionError("For Condition: "+testData.conditions +"\n"+e);
 			}
@@ -479,6 +489,22 @@ public class ConditionTreeManagerTest {
 					Assert.assertEquals(testData.expectedJsonResult, result);
 				}
 				
+				// compiled conditions should give same results
+				SqlBean sqlBean = exp.parseAndGetValidatedQuery(query,targetJsonFieldsDataTypes);
+				dataRecord = getRowKeyStaticColumnsDataRecord();
+				Assert.assertEquals(testData.expectedStaticResult, sqlBean.evaluateStaticConditions(dataRecord));
+				
+				if(testData.applyDynamic){
+					addDynamicColumnsIntoDataRecord(dataRecord);
+					Assert.assertEquals(testData.expectedDynamicResult, sqlBean.evaluateDynamicConditions(dataRecord));
+				}
+				
+				if(testData.applyJsonConditions){
+					addJsonColumnsIntoDataRecord(dataRecord);
+					Assert.assertEquals(testData.expectedJsonResult, sqlBean.evaluateJsonConditions(dataRecord));
+				}
+				
+				
 			} catch (Exception | AssertionError e) {
 				throw new AssertionError("For Condition: "+testData.conditions +"\n"+e);
 			}
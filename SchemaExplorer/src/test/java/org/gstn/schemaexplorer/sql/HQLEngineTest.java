@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright 2018 Goods And Services Tax Network
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.gstn.schemaexplorer.sql;
+
+import java.util.HashMap;
+import java.util.NavigableSet;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.gstn.schemaexplorer.hbase.HBaseTableExplorer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HQLEngineTest {
+
+	static HBaseTableExplorer exp = new HBaseTableExplorer("./src/test/resources/HBaseExplorerTest.schema");
+
+	private static final String STATIC_COLUMN_QUERY = "select D.SR1 from test where rtin = \"R0001\" and D.SR2 = \"Y\"";
+
+	@Test
+	public void testStaticColumnsAreAddedToScan() throws Exception {
+		Scan scan = getScan(STATIC_COLUMN_QUERY, false);
+
+		Assert.assertFalse(scan.isRaw());
+		NavigableSet<byte[]> columns = scan.getFamilyMap().get(Bytes.toBytes("D"));
+		Assert.assertNotNull(columns);
+		Assert.assertEquals(2, columns.size());
+		Assert.assertTrue(columns.contains(Bytes.toBytes("SR1")));
+		Assert.assertTrue(columns.contains(Bytes.toBytes("SR2")));
+	}
+
+	@Test
+	public void testRawScanHasNoExplicitColumns() throws Exception {
+		Scan scan = getScan(STATIC_COLUMN_QUERY, true);
+
+		Assert.assertTrue(scan.isRaw());
+		Assert.assertTrue(scan.getFamilyMap().containsKey(Bytes.toBytes("D")));
+		NavigableSet<byte[]> columns = scan.getFamilyMap().get(Bytes.toBytes("D"));
+		Assert.assertTrue(columns == null || columns.isEmpty());
+
+		// columns are selected using filters instead
+		String filter = scan.getFilter().toString();
+		Assert.assertTrue(filter, filter.contains("QualifierFilter"));
+	}
+
+	private Scan getScan(String query, boolean raw) throws Exception {
+		SqlBean sqlBean = exp.parseAndGetValidatedQuery(query, new HashMap<>());
+		return exp.getScanInstanceFromValidatedQuery(sqlBean, raw);
+	}
+
+}